@@ -13,11 +13,13 @@ import io.cloudslang.lang.compiler.PrecompileStrategy;
 import io.cloudslang.lang.compiler.SlangSource;
 import io.cloudslang.lang.compiler.modeller.model.Metadata;
 import io.cloudslang.lang.compiler.modeller.result.CompilationModellingResult;
+import io.cloudslang.lang.compiler.modeller.result.ExecutableModellingResult;
 import io.cloudslang.lang.entities.CompilationArtifact;
 import io.cloudslang.lang.entities.SensitivityLevel;
 import io.cloudslang.lang.entities.SystemProperty;
 import io.cloudslang.lang.entities.bindings.values.Value;
 import io.cloudslang.score.events.ScoreEventListener;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
@@ -52,6 +54,33 @@ public interface Slang {
             Set<SlangSource> dependencies,
             PrecompileStrategy precompileStrategy);
 
+    /**
+     * Compile every CloudSlang source of a set against the whole set, pre-compiling each source only once
+     *
+     * @param sources            the CloudSlang sources, each also used as a dependency of the others
+     * @param precompileStrategy with / without cache
+     * @return the model (may be partially correct) and the accumulated errors of each source, in the order of
+     *     the sources
+     */
+    List<CompilationModellingResult> compileSources(List<SlangSource> sources, PrecompileStrategy precompileStrategy);
+
+    /**
+     * Pre-compile a CloudSlang source to its model, without resolving its dependencies
+     *
+     * @param source the CloudSlang source
+     * @return the model (may be partially correct) and the accumulated errors
+     */
+    ExecutableModellingResult preCompileSource(SlangSource source);
+
+    /**
+     * Pre-compile a CloudSlang source to its model, without resolving its dependencies
+     *
+     * @param source             the CloudSlang source
+     * @param precompileStrategy with / without cache
+     * @return the model (may be partially correct) and the accumulated errors
+     */
+    ExecutableModellingResult preCompileSource(SlangSource source, PrecompileStrategy precompileStrategy);
+
     /**
      * Extract the metadata of a flow or operation written in CloudSlang
      *
@@ -102,6 +131,14 @@ public interface Slang {
      */
     void invalidateAllInPreCompileCache();
 
+    /**
+     * Remove the element of a changed source file from pre-compile cache, or the elements of all the source files
+     * under a changed directory. No-cached calls are not affected.
+     *
+     * @param filePath the path of the source file or directory
+     */
+    void invalidateInPreCompileCache(String filePath);
+
     /**
      * Run a flow or operation written in CloudSlang already compiled to a compilationArtifact
      *
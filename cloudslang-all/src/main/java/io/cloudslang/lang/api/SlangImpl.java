@@ -15,6 +15,7 @@ import io.cloudslang.lang.compiler.SlangCompiler;
 import io.cloudslang.lang.compiler.SlangSource;
 import io.cloudslang.lang.compiler.modeller.model.Metadata;
 import io.cloudslang.lang.compiler.modeller.result.CompilationModellingResult;
+import io.cloudslang.lang.compiler.modeller.result.ExecutableModellingResult;
 import io.cloudslang.lang.entities.CompilationArtifact;
 import io.cloudslang.lang.entities.ScoreLangConstants;
 import io.cloudslang.lang.entities.SensitivityLevel;
@@ -29,6 +30,7 @@ import io.cloudslang.score.events.ScoreEventListener;
 import java.io.Serializable;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import org.apache.commons.lang.Validate;
@@ -97,11 +99,28 @@ public class SlangImpl implements Slang {
         }
     }
 
+    @Override
+    public ExecutableModellingResult preCompileSource(SlangSource source) {
+        Validate.notNull(source, "Source can not be null");
+        return compiler.preCompileSource(source);
+    }
+
+    @Override
+    public ExecutableModellingResult preCompileSource(SlangSource source, PrecompileStrategy precompileStrategy) {
+        Validate.notNull(source, "Source can not be null");
+        return compiler.preCompileSource(source, precompileStrategy);
+    }
+
     @Override
     public void invalidateAllInPreCompileCache() {
         compiler.invalidateAllInPreCompileCache();
     }
 
+    @Override
+    public void invalidateInPreCompileCache(String filePath) {
+        compiler.invalidateInPreCompileCache(filePath);
+    }
+
     @Override
     public CompilationModellingResult compileSource(SlangSource source, Set<SlangSource> dependencies) {
         return compileSource(source, dependencies, PrecompileStrategy.WITHOUT_CACHE);
@@ -125,6 +144,20 @@ public class SlangImpl implements Slang {
         }
     }
 
+    @Override
+    public List<CompilationModellingResult> compileSources(List<SlangSource> sources,
+                                                           PrecompileStrategy precompileStrategy) {
+        Validate.noNullElements(sources, "Sources can not be null");
+        Validate.notNull(precompileStrategy, "Pre-compile strategy can not be null");
+
+        try {
+            return compiler.compileSources(sources, precompileStrategy);
+        } catch (Exception e) {
+            logger.error("Failed compilation for sources, Exception is : " + e.getMessage());
+            throw new RuntimeException("Failed compilation for sources, Exception is : " + e.getMessage(), e);
+        }
+    }
+
     private Set<SlangSource> filterOutNullSources(Set<SlangSource> dependencies) {
         Set<SlangSource> dependencySources = new HashSet<>();
         if (dependencies != null) {
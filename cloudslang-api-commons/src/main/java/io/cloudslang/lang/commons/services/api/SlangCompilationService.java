@@ -27,6 +27,9 @@ public interface SlangCompilationService {
 
     Set<SlangSource> getSourcesFromFolders(final List<String> dependencies);
 
+    // only the sources the executable of the file may reach, looked up in an index of the folders
+    Set<SlangSource> getDependencySources(final File file, final List<String> dependencies);
+
     // e.g. exclude .prop.sl from .sl set
     Collection<File> listSlangFiles(final File directory, final boolean recursive);
 }
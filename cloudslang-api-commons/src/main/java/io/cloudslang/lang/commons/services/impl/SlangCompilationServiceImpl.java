@@ -15,12 +15,17 @@ import io.cloudslang.lang.commons.services.api.SlangCompilationService;
 import io.cloudslang.lang.compiler.Extension;
 import io.cloudslang.lang.compiler.PrecompileStrategy;
 import io.cloudslang.lang.compiler.SlangSource;
+import io.cloudslang.lang.compiler.caching.NamespaceIndex;
+import io.cloudslang.lang.compiler.modeller.model.Executable;
 import io.cloudslang.lang.compiler.modeller.result.CompilationModellingResult;
+import io.cloudslang.lang.compiler.modeller.result.ExecutableModellingResult;
 import java.io.File;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import org.apache.commons.io.FileUtils;
 import org.apache.commons.io.filefilter.IOFileFilter;
@@ -30,32 +35,45 @@ import org.apache.log4j.Logger;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
+import static io.cloudslang.lang.entities.properties.SlangSystemPropertyConstant.CSLANG_COMPILER_NAMESPACE_INDEX_DIRECTORY;
+
 @Service
 public class SlangCompilationServiceImpl implements SlangCompilationService {
 
     private static final Logger logger = Logger.getLogger(SlangCompilationServiceImpl.class);
 
+    private static final String NAMESPACE_INDEX_FILE_SUFFIX = ".index";
+
     @Autowired
     private Slang slang;
 
+    // indexes of the dependency folders by their absolute path, kept between compilations
+    private final Map<String, NamespaceIndex> namespaceIndexes = new HashMap<>();
+
     @Override
     public List<CompilationModellingResult> compileFolders(final List<String> foldersPaths,
                                                            final CompilationHelper compilationHelper) {
         List<CompilationModellingResult> results = new ArrayList<>();
         try {
-            Set<SlangSource> dependencySources = getSourcesFromFolders(foldersPaths);
+            List<SlangSource> dependencySources = new ArrayList<>(getSourcesFromFolders(foldersPaths));
+            List<File> files = new ArrayList<>(dependencySources.size());
             for (SlangSource dependencySource : dependencySources) {
                 File file = getFile(dependencySource.getFilePath());
                 compilationHelper.onEveryFile(file);
-                try {
-                    CompilationModellingResult result =
-                            slang.compileSource(dependencySource, dependencySources, PrecompileStrategy.WITH_CACHE);
-                    result.setFile(file);
+                files.add(file);
+            }
+            // the whole set is compiled at once, so every source is pre-compiled only once
+            try {
+                List<CompilationModellingResult> compilationResults =
+                        slang.compileSources(dependencySources, PrecompileStrategy.WITH_CACHE);
+                for (int i = 0; i < compilationResults.size(); i++) {
+                    CompilationModellingResult result = compilationResults.get(i);
+                    result.setFile(files.get(i));
                     results.add(result);
-                } catch (Exception e) {
-                    logger.error("Failed compilation for file : " + file.getName() +
-                            " ,Exception is : " + e.getMessage());
                 }
+            } catch (Exception e) {
+                logger.error("Failed compilation for folders : " + foldersPaths +
+                        " ,Exception is : " + e.getMessage());
             }
         } finally {
             compilationHelper.onCompilationFinish();
@@ -86,6 +104,102 @@ public class SlangCompilationServiceImpl implements SlangCompilationService {
         return dependencySources;
     }
 
+    @Override
+    public Set<SlangSource> getDependencySources(final File file, final List<String> dependencies) {
+        Set<String> reachableFiles;
+        synchronized (namespaceIndexes) {
+            List<NamespaceIndex> indexes = new ArrayList<>(dependencies.size());
+            for (String dependency : dependencies) {
+                indexes.add(getNamespaceIndex(new File(dependency).getAbsoluteFile()));
+            }
+            Set<String> references = getReferences(file, indexes);
+            reachableFiles = references == null ? null : NamespaceIndex.getReachableFiles(indexes, references);
+        }
+        if (reachableFiles == null) {
+            // the index cannot resolve every reference, the compiler reports the missing ones against all the sources
+            return getSourcesFromFolders(dependencies);
+        }
+        Set<SlangSource> dependencySources = new HashSet<>();
+        for (String reachableFile : reachableFiles) {
+            dependencySources.add(SlangSource.fromFile(new File(reachableFile)));
+        }
+        return dependencySources;
+    }
+
+    private NamespaceIndex getNamespaceIndex(File folder) {
+        File indexFile = getNamespaceIndexFile(folder);
+        NamespaceIndex namespaceIndex = namespaceIndexes.get(folder.getPath());
+        if (namespaceIndex == null) {
+            namespaceIndex = indexFile == null ? new NamespaceIndex(folder) : NamespaceIndex.load(indexFile, folder);
+            namespaceIndexes.put(folder.getPath(), namespaceIndex);
+        }
+        // only the files changed since the folder was last indexed are modelled again
+        Collection<File> files = listSlangFiles(folder, true);
+        namespaceIndex.retainFiles(files);
+        for (File file : files) {
+            SlangSource source = readSource(file);
+            String fingerprint = source == null ? null : source.getFingerprint();
+            if (!namespaceIndex.isUpToDate(file, fingerprint)) {
+                namespaceIndex.put(file, fingerprint, source == null ? null : preCompile(source));
+            }
+        }
+        if (indexFile != null) {
+            try {
+                namespaceIndex.save(indexFile);
+            } catch (RuntimeException e) {
+                logger.warn("Failed to save namespace index, Exception is : " + e.getMessage());
+            }
+        }
+        return namespaceIndex;
+    }
+
+    private File getNamespaceIndexFile(File folder) {
+        String indexDirectory = System.getProperty(CSLANG_COMPILER_NAMESPACE_INDEX_DIRECTORY.getValue());
+        if (indexDirectory == null) {
+            return null;
+        }
+        return new File(indexDirectory, folder.getName() + "-" + Integer.toHexString(folder.getPath().hashCode()) +
+                NAMESPACE_INDEX_FILE_SUFFIX);
+    }
+
+    private Set<String> getReferences(File file, List<NamespaceIndex> indexes) {
+        SlangSource source = readSource(file);
+        if (source == null) {
+            return null;
+        }
+        for (NamespaceIndex namespaceIndex : indexes) {
+            if (namespaceIndex.isUpToDate(file, source.getFingerprint())) {
+                return namespaceIndex.getReferences(file);
+            }
+        }
+        Executable executable = preCompile(source);
+        if (executable == null) {
+            return null;
+        }
+        return executable.getExecutableDependencies() == null ? new HashSet<String>() :
+                new HashSet<>(executable.getExecutableDependencies());
+    }
+
+    private SlangSource readSource(File file) {
+        try {
+            return SlangSource.fromFile(file);
+        } catch (RuntimeException e) {
+            logger.debug("Failed to index file : " + file.getName() + " ,Exception is : " + e.getMessage());
+            return null;
+        }
+    }
+
+    private Executable preCompile(SlangSource source) {
+        try {
+            // cached, so the compilation of the reachable sources reuses the models of the indexing
+            ExecutableModellingResult result = slang.preCompileSource(source, PrecompileStrategy.WITH_CACHE);
+            return result == null ? null : result.getExecutable();
+        } catch (RuntimeException e) {
+            logger.debug("Failed to index file : " + source.getName() + " ,Exception is : " + e.getMessage());
+            return null;
+        }
+    }
+
     @Override
     public Collection<File> listSlangFiles(File directory, boolean recursive) {
         Validate.isTrue(directory.isDirectory(), "Parameter '" + directory.getPath() +
@@ -0,0 +1,143 @@
+/*******************************************************************************
+ * (c) Copyright 2016 Hewlett-Packard Development Company, L.P.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Apache License v2.0 which accompany this distribution.
+ *
+ * The Apache License is available at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *******************************************************************************/
+package io.cloudslang.lang.commons.watch;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import org.apache.log4j.Logger;
+
+import static java.nio.file.StandardWatchEventKinds.ENTRY_CREATE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_DELETE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_MODIFY;
+import static java.nio.file.StandardWatchEventKinds.OVERFLOW;
+
+/**
+ * Watches directory trees of slang sources for changes.
+ * <p>
+ * Editors and version control tools usually touch several files at once, and a single save may raise a few
+ * events for the same file, so the events are coalesced: a change is reported only once no more events arrived
+ * for the quiet period, with all the files changed since the previous report.
+ */
+public class SlangSourceWatcher implements Closeable {
+
+    public static final long DEFAULT_QUIET_PERIOD_MILLIS = 300;
+
+    private static final Logger logger = Logger.getLogger(SlangSourceWatcher.class);
+
+    private final WatchService watchService;
+
+    private final long quietPeriodMillis;
+
+    // watch key -> the directory it watches
+    private final Map<WatchKey, Path> directories = new ConcurrentHashMap<>();
+
+    public SlangSourceWatcher(long quietPeriodMillis) throws IOException {
+        this.watchService = FileSystems.getDefault().newWatchService();
+        this.quietPeriodMillis = quietPeriodMillis;
+    }
+
+    /**
+     * Watch a directory and all of its sub directories, including the ones created later.
+     *
+     * @param root the directory to watch
+     */
+    public void register(File root) throws IOException {
+        registerTree(root.getAbsoluteFile().toPath());
+    }
+
+    /**
+     * Wait for changes under the watched directories.
+     *
+     * @return the absolute paths of the created, modified and deleted files and of the deleted directories,
+     *     or of the watched directories themselves if events were lost
+     * @throws InterruptedException if interrupted while waiting
+     * @throws ClosedWatchServiceException if the watcher was closed
+     */
+    public Set<File> awaitChanges() throws InterruptedException {
+        Set<File> changedFiles = new HashSet<>();
+        WatchKey key = watchService.take();
+        while (key != null) {
+            handleEvents(key, changedFiles);
+            key = watchService.poll(quietPeriodMillis, TimeUnit.MILLISECONDS);
+        }
+        return changedFiles;
+    }
+
+    @Override
+    public void close() throws IOException {
+        watchService.close();
+    }
+
+    private void handleEvents(WatchKey key, Set<File> changedFiles) {
+        Path directory = directories.get(key);
+        if (directory == null) {
+            key.cancel();
+            return;
+        }
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (event.kind() == OVERFLOW) {
+                changedFiles.add(directory.toFile());
+                continue;
+            }
+            Path path = directory.resolve((Path) event.context());
+            if (event.kind() == ENTRY_CREATE && Files.isDirectory(path)) {
+                try {
+                    registerTree(path);
+                    addFiles(path, changedFiles);
+                } catch (IOException ex) {
+                    logger.warn("Cannot watch directory: " + path + ". Nested exception is: " + ex.getMessage());
+                }
+            } else if (!Files.isDirectory(path)) {
+                changedFiles.add(path.toFile());
+            }
+        }
+        if (!key.reset()) {
+            directories.remove(key);
+        }
+    }
+
+    private void registerTree(Path root) throws IOException {
+        Files.walkFileTree(root, new SimpleFileVisitor<Path>() {
+            @Override
+            public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) throws IOException {
+                WatchKey key = dir.register(watchService, ENTRY_CREATE, ENTRY_MODIFY, ENTRY_DELETE);
+                directories.put(key, dir);
+                return FileVisitResult.CONTINUE;
+            }
+        });
+    }
+
+    // files moved or copied together with their directory raise no events of their own
+    private void addFiles(Path root, final Set<File> changedFiles) throws IOException {
+        Files.walkFileTree(root, new SimpleFileVisitor<Path>() {
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+                changedFiles.add(file.toFile());
+                return FileVisitResult.CONTINUE;
+            }
+        });
+    }
+}
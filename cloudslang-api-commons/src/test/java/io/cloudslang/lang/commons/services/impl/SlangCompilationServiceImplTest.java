@@ -14,15 +14,29 @@ import io.cloudslang.lang.commons.services.api.CompilationHelper;
 import io.cloudslang.lang.commons.services.api.SlangCompilationService;
 import io.cloudslang.lang.compiler.PrecompileStrategy;
 import io.cloudslang.lang.compiler.SlangSource;
+import io.cloudslang.lang.compiler.modeller.model.Flow;
+import io.cloudslang.lang.compiler.modeller.result.ExecutableModellingResult;
+import io.cloudslang.lang.entities.bindings.Input;
+import io.cloudslang.lang.entities.bindings.Output;
+import io.cloudslang.lang.entities.bindings.Result;
 import java.io.File;
+import java.io.Serializable;
 import java.net.URISyntaxException;
+import java.nio.file.Files;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 import org.junit.runner.RunWith;
 import org.mockito.InOrder;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -31,16 +45,24 @@ import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
 
 import static org.junit.Assert.assertEquals;
 import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyListOf;
 import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.reset;
 import static org.mockito.Mockito.verify;
 
 @RunWith(SpringJUnit4ClassRunner.class)
 @ContextConfiguration(classes = SlangCompilationServiceImplTest.Config.class)
 public class SlangCompilationServiceImplTest {
 
+    private static final String NAMESPACE = "user.flows";
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
     @Autowired
     private SlangCompilationService slangCompilationService;
 
@@ -79,12 +101,89 @@ public class SlangCompilationServiceImplTest {
         inOrderHelper.verifyNoMoreInteractions();
 
         InOrder inOrder = inOrder(slang);
-        inOrder.verify(slang, atLeastOnce()).compileSource(
-                any(SlangSource.class), any(Set.class), eq(PrecompileStrategy.WITH_CACHE));
+        inOrder.verify(slang).compileSources(anyListOf(SlangSource.class), eq(PrecompileStrategy.WITH_CACHE));
         inOrder.verify(slang).invalidateAllInPreCompileCache();
         inOrder.verifyNoMoreInteractions();
     }
 
+    @Test
+    public void testDependencySourcesAreOnlyTheReachableOnes() throws Exception {
+        File folder = temporaryFolder.newFolder();
+        File parent = writeSource(folder, "parent", "child");
+        File child = writeSource(folder, "child", "op");
+        File op = writeSource(folder, "op");
+        writeSource(folder, "other");
+        stubPreCompile();
+        try {
+            Set<SlangSource> sources = slangCompilationService.getDependencySources(parent,
+                    Collections.singletonList(folder.getPath()));
+
+            assertEquals(paths(child, op), filePaths(sources));
+        } finally {
+            reset(slang);
+        }
+    }
+
+    @Test
+    public void testAllSourcesAreLoadedWhenAReferenceIsNotFound() throws Exception {
+        File folder = temporaryFolder.newFolder();
+        File parent = writeSource(folder, "parent", "missing");
+        File other = writeSource(folder, "other");
+        stubPreCompile();
+        try {
+            Set<SlangSource> sources = slangCompilationService.getDependencySources(parent,
+                    Collections.singletonList(folder.getPath()));
+
+            assertEquals(paths(parent, other), filePaths(sources));
+        } finally {
+            reset(slang);
+        }
+    }
+
+    // every source holds the names it references, modelled to a flow referencing them
+    private void stubPreCompile() {
+        doAnswer(new Answer<ExecutableModellingResult>() {
+            @Override
+            public ExecutableModellingResult answer(InvocationOnMock invocation) throws Throwable {
+                String[] names = ((SlangSource) invocation.getArguments()[0]).getContent().split(" ");
+                Set<String> references = new HashSet<>();
+                for (int i = 1; i < names.length; i++) {
+                    references.add(NAMESPACE + "." + names[i]);
+                }
+                Flow flow = new Flow(new HashMap<String, Serializable>(), new HashMap<String, Serializable>(), null,
+                        NAMESPACE, names[0], Collections.<Input>emptyList(), Collections.<Output>emptyList(),
+                        Collections.<Result>emptyList(), references, Collections.<String>emptySet());
+                return new ExecutableModellingResult(flow, new ArrayList<RuntimeException>());
+            }
+        }).when(slang).preCompileSource(any(SlangSource.class), eq(PrecompileStrategy.WITH_CACHE));
+    }
+
+    private File writeSource(File folder, String name, String... references) throws Exception {
+        StringBuilder content = new StringBuilder(name);
+        for (String reference : references) {
+            content.append(' ').append(reference);
+        }
+        File file = new File(folder, name + ".sl");
+        Files.write(file.toPath(), content.toString().getBytes("UTF-8"));
+        return file;
+    }
+
+    private Set<String> paths(File... files) {
+        Set<String> paths = new HashSet<>();
+        for (File file : files) {
+            paths.add(file.getAbsolutePath());
+        }
+        return paths;
+    }
+
+    private Set<String> filePaths(Set<SlangSource> sources) {
+        Set<String> filePaths = new HashSet<>();
+        for (SlangSource source : sources) {
+            filePaths.add(new File(source.getFilePath()).getAbsolutePath());
+        }
+        return filePaths;
+    }
+
     @Configuration
     static class Config {
 
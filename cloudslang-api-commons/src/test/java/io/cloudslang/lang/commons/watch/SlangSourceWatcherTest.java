@@ -0,0 +1,99 @@
+/*******************************************************************************
+ * (c) Copyright 2016 Hewlett-Packard Development Company, L.P.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Apache License v2.0 which accompany this distribution.
+ *
+ * The Apache License is available at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *******************************************************************************/
+package io.cloudslang.lang.commons.watch;
+
+import java.io.File;
+import java.util.HashSet;
+import java.util.Set;
+import org.apache.commons.io.FileUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import static org.junit.Assert.assertTrue;
+
+public class SlangSourceWatcherTest {
+
+    private static final long QUIET_PERIOD_MILLIS = 100;
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private File root;
+
+    private SlangSourceWatcher sourceWatcher;
+
+    @Before
+    public void setUp() throws Exception {
+        root = temporaryFolder.newFolder();
+        sourceWatcher = new SlangSourceWatcher(QUIET_PERIOD_MILLIS);
+        sourceWatcher.register(root);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        sourceWatcher.close();
+    }
+
+    @Test(timeout = 30000)
+    public void testChangedFilesAreReported() throws Exception {
+        File existingFile = new File(root, "existing_op.sl");
+        FileUtils.writeStringToFile(existingFile, "operation:");
+        awaitChanges(existingFile);
+
+        File newFile = new File(root, "flow.sl");
+        FileUtils.writeStringToFile(newFile, "flow:");
+        FileUtils.writeStringToFile(existingFile, "operation:\n  name: existing_op");
+        awaitChanges(newFile, existingFile);
+
+        assertTrue(newFile.delete());
+        awaitChanges(newFile);
+    }
+
+    @Test(timeout = 30000)
+    public void testFilesOfNewDirectoriesAreWatched() throws Exception {
+        File directory = new File(root, "ops");
+        File file = new File(directory, "op.sl");
+        FileUtils.writeStringToFile(file, "operation:");
+        awaitChanges(file);
+
+        FileUtils.writeStringToFile(file, "operation:\n  name: op");
+        awaitChanges(file);
+    }
+
+    @Test(timeout = 30000)
+    public void testDeletedDirectoriesAreReported() throws Exception {
+        File directory = new File(root, "ops");
+        File file = new File(directory, "op.sl");
+        FileUtils.writeStringToFile(file, "operation:");
+        awaitChanges(file);
+
+        FileUtils.deleteDirectory(directory);
+        awaitChanges(directory);
+    }
+
+    private void awaitChanges(File... expectedFiles) throws InterruptedException {
+        Set<File> changedFiles = new HashSet<>();
+        while (!containsAll(changedFiles, expectedFiles)) {
+            changedFiles.addAll(sourceWatcher.awaitChanges());
+        }
+    }
+
+    private boolean containsAll(Set<File> changedFiles, File... expectedFiles) {
+        for (File expectedFile : expectedFiles) {
+            if (!changedFiles.contains(expectedFile.getAbsoluteFile())) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
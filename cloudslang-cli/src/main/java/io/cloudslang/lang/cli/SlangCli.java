@@ -75,6 +75,8 @@ public class SlangCli implements CommandMarker {
     private static final String CSLANG_VERSION_HELP = "Prints the CloudSlang version used";
     private static final String INPUTS_COMMAND_HELP = "Get flow inputs";
     private static final String PATH_TO_FILENAME_HELP = "Path to filename. e.g. /path/to/file.sl";
+    private static final String WATCH_HELP = "keep the executable compiled: recompile it in the background whenever " +
+            "its sources change, so the next run uses the warm artifact. e.g. run --f c:/.../your_flow.sl --w";
     private static final String QUIET = "quiet";
     private static final String DEBUG = "debug";
     private static final String DEFAULT = "default";
@@ -109,13 +111,17 @@ public class SlangCli implements CommandMarker {
                     help = "default, quiet, debug(print each step outputs). e.g. run --f c:/.../your_flow.sl --v quiet",
                     specifiedDefaultValue = "debug", unspecifiedDefaultValue = "default") final String verbose,
             @CliOption(key = {"spf", "system-property-file"}, mandatory = false, help = SYSTEM_PROPERTY_FILE_HELP)
-            final List<String> systemPropertyFiles) {
+            final List<String> systemPropertyFiles,
+            @CliOption(key = {"w", "watch"}, mandatory = false, help = WATCH_HELP,
+                    specifiedDefaultValue = "true", unspecifiedDefaultValue = "false") final boolean watch) {
 
         if (invalidVerboseInput(verbose)) {
             throw new IllegalArgumentException("Verbose argument is invalid.");
         }
 
-        CompilationArtifact compilationArtifact = compilerHelper.compile(file.getAbsolutePath(), classPath);
+        CompilationArtifact compilationArtifact = watch ?
+                compilerHelper.watch(file.getAbsolutePath(), classPath) :
+                compilerHelper.compile(file.getAbsolutePath(), classPath);
         Set<SystemProperty> systemProperties = compilerHelper.loadSystemProperties(systemPropertyFiles);
         Map<String, Value> inputsFromFile = compilerHelper.loadInputsFromFile(inputFiles);
         Map<String, Value> mergedInputs = new HashMap<>();
@@ -154,14 +160,21 @@ public class SlangCli implements CommandMarker {
             @CliOption(key = {"", "f", "file"}, mandatory = false,
                     help = "Path to filename. e.g. compile --f c:/.../your_flow.sl") final File file,
             @CliOption(key = {"cp", "classpath"}, mandatory = false, help = CLASSPATH_HELP)
-            final List<String> classPath
+            final List<String> classPath,
+            @CliOption(key = {"w", "watch"}, mandatory = false, help = WATCH_HELP,
+                    specifiedDefaultValue = "true", unspecifiedDefaultValue = "false") final boolean watch
     ) {
         if (directories != null) {
             List<CompilationModellingResult> results = compilerHelper.compileFolders(directories);
             return printAllCompileErrors(results);
         } else if (file != null) {
             CompilationModellingResult result = compilerHelper.compileSource(file.getAbsolutePath(), classPath);
-            return printCompileErrors(result.getErrors(), file, new StringBuilder());
+            String message = printCompileErrors(result.getErrors(), file, new StringBuilder());
+            if (watch) {
+                compilerHelper.watch(file.getAbsolutePath(), classPath);
+                message += System.lineSeparator() + "Watching the sources of " + file.getName() + " for changes";
+            }
+            return message;
         } else {
             throw new IllegalArgumentException("You should specify directory(otherwise known as option 'd') " +
                     "or file(otherwise known as option 'f').");
@@ -22,6 +22,16 @@ public interface CompilerHelper {
 
     CompilationArtifact compile(String filePath, List<String> dependencies);
 
+    /**
+     * Compile an executable and keep it compiled: its sources are watched, and whenever they change it is
+     * recompiled in the background, so later compilations of the executable return the warm artifact.
+     *
+     * @param filePath     path to the executable
+     * @param dependencies paths to the folders of its dependencies
+     * @return the compilation artifact of the executable
+     */
+    CompilationArtifact watch(String filePath, List<String> dependencies);
+
     CompilationModellingResult compileSource(String filePath, List<String> dependencies);
 
     List<CompilationModellingResult> compileFolders(List<String> foldersPaths);
@@ -14,7 +14,9 @@ import io.cloudslang.lang.api.Slang;
 import io.cloudslang.lang.commons.services.api.CompilationHelper;
 import io.cloudslang.lang.commons.services.api.SlangCompilationService;
 import io.cloudslang.lang.commons.services.api.SlangSourceService;
+import io.cloudslang.lang.commons.watch.SlangSourceWatcher;
 import io.cloudslang.lang.compiler.Extension;
+import io.cloudslang.lang.compiler.PrecompileStrategy;
 import io.cloudslang.lang.compiler.SlangSource;
 import io.cloudslang.lang.compiler.modeller.result.CompilationModellingResult;
 import io.cloudslang.lang.entities.CompilationArtifact;
@@ -24,14 +26,18 @@ import io.cloudslang.lang.entities.utils.SetUtils;
 import org.apache.commons.collections4.CollectionUtils;
 import org.apache.commons.collections4.MapUtils;
 import org.apache.commons.io.FileUtils;
+import org.apache.commons.lang3.ObjectUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.log4j.Logger;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 import org.yaml.snakeyaml.Yaml;
 
+import javax.annotation.PreDestroy;
 import java.io.File;
+import java.io.IOException;
 import java.io.Serializable;
+import java.nio.file.ClosedWatchServiceException;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
@@ -40,6 +46,8 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import static ch.lambdaj.Lambda.convert;
 
@@ -72,12 +80,24 @@ public class CompilerHelperImpl implements CompilerHelper {
     @Autowired
     private SlangCompilationService slangCompilationService;
 
+    // watched executables by their absolute path, recompiled by the watcher thread when their sources change
+    private final ConcurrentMap<String, WatchedExecutable> watchedExecutables = new ConcurrentHashMap<>();
+
+    private SlangSourceWatcher sourceWatcher;
+
     @Override
     public CompilationArtifact compile(String filePath, List<String> dependencies) {
         File file = slangCompilationService.getFile(filePath);
+        WatchedExecutable watchedExecutable = watchedExecutables.get(file.getAbsolutePath());
+        if (watchedExecutable != null && watchedExecutable.getCompilationArtifact() != null &&
+                ObjectUtils.equals(watchedExecutable.getDependencies(), dependencies)) {
+            return watchedExecutable.getCompilationArtifact();
+        }
 
         try {
-            return slang.compile(SlangSource.fromFile(file), getDependencySources(dependencies, file));
+            // the dependency sources were pre-compiled with the cache when indexed
+            return slang.compile(SlangSource.fromFile(file), getDependencySources(dependencies, file),
+                    PrecompileStrategy.WITH_CACHE);
         } catch (Exception e) {
             handleException(file, e);
             return null;
@@ -88,7 +108,89 @@ public class CompilerHelperImpl implements CompilerHelper {
     public CompilationModellingResult compileSource(String filePath, List<String> dependencies) {
         File file = slangCompilationService.getFile(filePath);
         try {
-            return slang.compileSource(SlangSource.fromFile(file), getDependencySources(dependencies, file));
+            return slang.compileSource(SlangSource.fromFile(file), getDependencySources(dependencies, file),
+                    PrecompileStrategy.WITH_CACHE);
+        } catch (Exception e) {
+            handleException(file, e);
+            return null;
+        }
+    }
+
+    @Override
+    public synchronized CompilationArtifact watch(String filePath, List<String> dependencies) {
+        File file = slangCompilationService.getFile(filePath).getAbsoluteFile();
+        List<String> dependencyFolders = new ArrayList<>();
+        for (String dependency : getDependenciesIfEmpty(dependencies, file)) {
+            dependencyFolders.add(new File(dependency).getAbsolutePath());
+        }
+        WatchedExecutable watchedExecutable = new WatchedExecutable(file, dependencies, dependencyFolders);
+        watchedExecutable.setCompilationArtifact(compileWatchedExecutable(watchedExecutable));
+        try {
+            if (sourceWatcher == null) {
+                sourceWatcher = new SlangSourceWatcher(SlangSourceWatcher.DEFAULT_QUIET_PERIOD_MILLIS);
+                startWatcherThread(sourceWatcher);
+            }
+            sourceWatcher.register(file.getParentFile());
+            for (String dependencyFolder : dependencyFolders) {
+                sourceWatcher.register(new File(dependencyFolder));
+            }
+        } catch (IOException e) {
+            handleException(file, e);
+        }
+        watchedExecutables.put(file.getPath(), watchedExecutable);
+        return watchedExecutable.getCompilationArtifact();
+    }
+
+    @PreDestroy
+    public synchronized void stopWatching() throws IOException {
+        watchedExecutables.clear();
+        if (sourceWatcher != null) {
+            sourceWatcher.close();
+            sourceWatcher = null;
+        }
+    }
+
+    private void startWatcherThread(final SlangSourceWatcher watcher) {
+        Thread watcherThread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    while (!Thread.currentThread().isInterrupted()) {
+                        recompileWatchedExecutables(watcher.awaitChanges());
+                    }
+                } catch (InterruptedException | ClosedWatchServiceException e) {
+                    logger.debug("Stopped watching slang sources");
+                }
+            }
+        }, "slang-source-watcher");
+        watcherThread.setDaemon(true);
+        watcherThread.start();
+    }
+
+    private void recompileWatchedExecutables(Set<File> changedFiles) {
+        // only the changed sources are pre-compiled again, the others are still valid in the cache
+        for (File changedFile : changedFiles) {
+            slang.invalidateInPreCompileCache(changedFile.getPath());
+        }
+        for (WatchedExecutable watchedExecutable : watchedExecutables.values()) {
+            if (watchedExecutable.isAffectedBy(changedFiles)) {
+                File file = watchedExecutable.getFile();
+                try {
+                    watchedExecutable.setCompilationArtifact(compileWatchedExecutable(watchedExecutable));
+                    logger.info("Recompiled file : " + file.getName());
+                } catch (RuntimeException e) {
+                    watchedExecutable.setCompilationArtifact(null);
+                }
+            }
+        }
+    }
+
+    private CompilationArtifact compileWatchedExecutable(WatchedExecutable watchedExecutable) {
+        File file = watchedExecutable.getFile();
+        try {
+            return slang.compile(SlangSource.fromFile(file),
+                    slangCompilationService.getDependencySources(file, watchedExecutable.getDependencyFolders()),
+                    PrecompileStrategy.WITH_CACHE);
         } catch (Exception e) {
             handleException(file, e);
             return null;
@@ -122,7 +224,7 @@ public class CompilerHelperImpl implements CompilerHelper {
 
     private Set<SlangSource> getDependencySources(List<String> dependencies, File file) {
         dependencies = getDependenciesIfEmpty(dependencies, file);
-        return slangCompilationService.getSourcesFromFolders(dependencies);
+        return slangCompilationService.getDependencySources(file, dependencies);
     }
 
     private List<String> getDependenciesIfEmpty(List<String> dependencies, File file) {
@@ -250,4 +352,58 @@ public class CompilerHelperImpl implements CompilerHelper {
         });
     }
 
+    private static class WatchedExecutable {
+
+        private final File file;
+        private final List<String> dependencies;
+        private final List<String> dependencyFolders;
+        private volatile CompilationArtifact compilationArtifact;
+
+        WatchedExecutable(File file, List<String> dependencies, List<String> dependencyFolders) {
+            this.file = file;
+            this.dependencies = dependencies;
+            this.dependencyFolders = dependencyFolders;
+        }
+
+        // a changed path is a directory when the watcher lost its events or the directory was deleted
+        boolean isAffectedBy(Set<File> changedFiles) {
+            for (File changedFile : changedFiles) {
+                String changedPath = changedFile.getPath();
+                if (isSameOrUnder(file.getPath(), changedPath)) {
+                    return true;
+                }
+                for (String dependencyFolder : dependencyFolders) {
+                    if (isSameOrUnder(changedPath, dependencyFolder) || isSameOrUnder(dependencyFolder, changedPath)) {
+                        return true;
+                    }
+                }
+            }
+            return false;
+        }
+
+        private static boolean isSameOrUnder(String path, String directory) {
+            return path.equals(directory) || path.startsWith(directory + File.separator);
+        }
+
+        File getFile() {
+            return file;
+        }
+
+        List<String> getDependencies() {
+            return dependencies;
+        }
+
+        List<String> getDependencyFolders() {
+            return dependencyFolders;
+        }
+
+        CompilationArtifact getCompilationArtifact() {
+            return compilationArtifact;
+        }
+
+        void setCompilationArtifact(CompilationArtifact compilationArtifact) {
+            this.compilationArtifact = compilationArtifact;
+        }
+    }
+
 }
@@ -43,9 +43,11 @@ import static org.mockito.Matchers.anyList;
 import static org.mockito.Matchers.anyListOf;
 import static org.mockito.Matchers.anyMapOf;
 import static org.mockito.Matchers.anySetOf;
+import static org.mockito.Matchers.anyString;
 import static org.mockito.Matchers.contains;
 import static org.mockito.Matchers.eq;
 import static org.mockito.Matchers.isNull;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -108,6 +110,30 @@ public class SlangCliTest {
         assertEquals("success should be true", true, cr.isSuccess());
     }
 
+    @Test(timeout = DEFAULT_TIMEOUT)
+    public void testRunWatchedFilePath() throws Exception {
+        slangCli.setEnvVar(true);
+
+        final long executionId = 1;
+
+        when(compilerHelperMock.watch(contains(FLOW_PATH_BACKSLASH), isNull(List.class)))
+                .thenReturn(emptyCompilationArtifact);
+        when(scoreServicesMock.trigger(eq(emptyCompilationArtifact),
+                anyMapOf(String.class, Value.class), anySetOf(SystemProperty.class)))
+                .thenReturn(executionId);
+
+        final CommandResult cr = shell.executeCommand("run --f " + FLOW_PATH_BACKSLASH_INPUT + " --v quiet --w");
+
+        verify(compilerHelperMock).watch(contains(FLOW_PATH_BACKSLASH), isNull(List.class));
+        verify(compilerHelperMock, never()).compile(anyString(), anyListOf(String.class));
+        verify(scoreServicesMock)
+                .trigger(eq(emptyCompilationArtifact),
+                        anyMapOf(String.class, Value.class), anySetOf(SystemProperty.class));
+
+        assertEquals("method threw exception", null, cr.getException());
+        assertEquals("success should be true", true, cr.isSuccess());
+    }
+
     @Test(timeout = DEFAULT_TIMEOUT)
     public void testRunQuietlyValidFilePathSync() throws Exception {
         final long executionId = 1;
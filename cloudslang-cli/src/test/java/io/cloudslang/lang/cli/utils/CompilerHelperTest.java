@@ -20,6 +20,7 @@ import io.cloudslang.lang.commons.services.impl.SlangCompilationServiceImpl;
 import io.cloudslang.lang.commons.services.impl.SlangSourceServiceImpl;
 import io.cloudslang.lang.compiler.PrecompileStrategy;
 import io.cloudslang.lang.compiler.SlangSource;
+import io.cloudslang.lang.entities.CompilationArtifact;
 import io.cloudslang.lang.entities.SystemProperty;
 import io.cloudslang.lang.entities.bindings.values.ValueFactory;
 import io.cloudslang.lang.entities.encryption.DummyEncryptor;
@@ -33,6 +34,7 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import org.apache.commons.io.FileUtils;
 import org.fusesource.jansi.Ansi;
 import org.hamcrest.BaseMatcher;
 import org.hamcrest.Description;
@@ -43,6 +45,7 @@ import org.junit.Ignore;
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.ExpectedException;
+import org.junit.rules.TemporaryFolder;
 import org.junit.runner.RunWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.InOrder;
@@ -55,13 +58,16 @@ import org.yaml.snakeyaml.Yaml;
 import org.yaml.snakeyaml.introspector.BeanAccess;
 
 import static com.google.common.collect.Sets.newHashSet;
+import static org.junit.Assert.assertSame;
 import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anySetOf;
 import static org.mockito.Matchers.anyString;
 import static org.mockito.Matchers.eq;
-import static org.mockito.Mockito.atLeastOnce;
 import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.reset;
+import static org.mockito.Mockito.timeout;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -84,6 +90,9 @@ public class CompilerHelperTest {
     @Rule
     public ExpectedException expectedException = ExpectedException.none();
 
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
     @Test(expected = NullPointerException.class)
     public void testFilePathWrong() throws Exception {
         compilerHelper.compile(null, null);
@@ -119,11 +128,39 @@ public class CompilerHelperTest {
                 newHashSet(
                         SlangSource.fromFile(opPath),
                         SlangSource.fromFile(flowPath)
-                )
+                ),
+                PrecompileStrategy.WITH_CACHE
         );
         inOrder.verifyNoMoreInteractions();
     }
 
+    @Test
+    public void testWatchedExecutableIsRecompiledWhenItsSourcesChange() throws Exception {
+        File folder = temporaryFolder.newFolder();
+        FileUtils.copyDirectory(new File(getClass().getResource("/executables/dir3").toURI()), folder);
+        File flowFile = new File(folder, "flow.sl");
+        File opFile = new File(folder, "dir3_1/test_op.sl");
+        CompilationArtifact compilationArtifact = mock(CompilationArtifact.class);
+        when(slang.compile(any(SlangSource.class), anySetOf(SlangSource.class), eq(PrecompileStrategy.WITH_CACHE)))
+                .thenReturn(compilationArtifact);
+        try {
+            assertSame(compilationArtifact, compilerHelper.watch(flowFile.getPath(), null));
+            assertSame(compilationArtifact, compilerHelper.compile(flowFile.getPath(), null));
+            verify(slang).compile(SlangSource.fromFile(flowFile),
+                    newHashSet(SlangSource.fromFile(opFile), SlangSource.fromFile(flowFile)),
+                    PrecompileStrategy.WITH_CACHE);
+
+            FileUtils.writeStringToFile(opFile, FileUtils.readFileToString(opFile) + System.lineSeparator());
+            verify(slang, timeout(10000)).invalidateInPreCompileCache(opFile.getAbsolutePath());
+            verify(slang, timeout(10000)).compile(SlangSource.fromFile(flowFile),
+                    newHashSet(SlangSource.fromFile(opFile), SlangSource.fromFile(flowFile)),
+                    PrecompileStrategy.WITH_CACHE);
+            verify(slang, never()).compile(any(SlangSource.class), anySetOf(SlangSource.class));
+        } finally {
+            ((CompilerHelperImpl) compilerHelper).stopWatching();
+        }
+    }
+
     @Test
     public void testCompileFoldersCleanup() throws Exception {
         final URI folderPath = getClass().getResource("/executables/dir3").toURI();
@@ -133,27 +170,22 @@ public class CompilerHelperTest {
 
         final URI flowPath = getClass().getResource("/executables/dir3/flow.sl").toURI();
         final URI opPath = getClass().getResource("/executables/dir3/dir3_1/test_op.sl").toURI();
-        verify(slang).compileSource(
-                SlangSource.fromFile(opPath),
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<SlangSource>> sourcesCaptor = (ArgumentCaptor) ArgumentCaptor.forClass(List.class);
+        verify(slang).compileSources(sourcesCaptor.capture(), eq(PrecompileStrategy.WITH_CACHE));
+        Assert.assertEquals(
                 newHashSet(
                         SlangSource.fromFile(opPath),
                         SlangSource.fromFile(flowPath)
                 ),
-                PrecompileStrategy.WITH_CACHE
+                new HashSet<>(sourcesCaptor.getValue())
         );
         InOrder inOrderConsolePrinter = inOrder(consolePrinter);
         inOrderConsolePrinter.verify(consolePrinter, times(2)).printWithColor(any(Ansi.Color.class), anyString());
         inOrderConsolePrinter.verify(consolePrinter).waitForAllPrintTasksToFinish();
         inOrderConsolePrinter.verifyNoMoreInteractions();
         InOrder inOrder = inOrder(slang);
-        inOrder.verify(slang, atLeastOnce()).compileSource(
-                SlangSource.fromFile(flowPath),
-                newHashSet(
-                        SlangSource.fromFile(opPath),
-                        SlangSource.fromFile(flowPath)
-                ),
-                PrecompileStrategy.WITH_CACHE
-        );
+        inOrder.verify(slang).compileSources(sourcesCaptor.getValue(), PrecompileStrategy.WITH_CACHE);
         inOrder.verify(slang).invalidateAllInPreCompileCache();
         inOrder.verifyNoMoreInteractions();
     }
@@ -166,7 +198,7 @@ public class CompilerHelperTest {
         compilerHelper.compile(flowFilePath.getPath(), Lists.newArrayList(folderPath.getPath()));
         InOrder inOrder = inOrder(slang);
         inOrder.verify(slang).compile(SlangSource.fromFile(flowFilePath),
-                newHashSet(SlangSource.fromFile(flow2FilePath)));
+                newHashSet(SlangSource.fromFile(flow2FilePath)), PrecompileStrategy.WITH_CACHE);
         inOrder.verifyNoMoreInteractions();
     }
 
@@ -185,7 +217,8 @@ public class CompilerHelperTest {
                 newHashSet(
                         SlangSource.fromFile(dependency1),
                         SlangSource.fromFile(dependency2)
-                )
+                ),
+                PrecompileStrategy.WITH_CACHE
         );
         inOrder.verifyNoMoreInteractions();
     }
@@ -203,7 +236,8 @@ public class CompilerHelperTest {
         InOrder inOrder = inOrder(slang);
         inOrder.verify(slang).compile(
                 SlangSource.fromFile(flowFilePath),
-                newHashSet(SlangSource.fromFile(flow2FilePath))
+                newHashSet(SlangSource.fromFile(flow2FilePath)),
+                PrecompileStrategy.WITH_CACHE
         );
         inOrder.verifyNoMoreInteractions();
     }
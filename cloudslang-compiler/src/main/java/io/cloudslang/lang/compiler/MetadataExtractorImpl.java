@@ -15,6 +15,7 @@ import io.cloudslang.lang.compiler.modeller.result.MetadataModellingResult;
 import io.cloudslang.lang.compiler.parser.MetadataParser;
 import io.cloudslang.lang.compiler.parser.model.ParsedDescriptionData;
 import io.cloudslang.lang.compiler.parser.utils.MetadataValidator;
+import io.cloudslang.lang.compiler.utils.SlangSourceUtils;
 import java.util.List;
 import org.apache.commons.lang.Validate;
 
@@ -48,9 +49,14 @@ public class MetadataExtractorImpl implements MetadataExtractor {
     public MetadataModellingResult extractMetadataModellingResult(
             SlangSource source,
             boolean shouldValidateCheckstyle) {
-        MetadataModellingResult metadataModellingResult = extractMetadataModellingResult(source);
+        validateSlangSource(source);
+        // the source is split to lines and its description is parsed once, for both the model and the checkstyle
+        List<String> lines = SlangSourceUtils.readLines(source);
+        ParsedDescriptionData parsedDescriptionData = metadataParser.parse(source, lines);
+        MetadataModellingResult metadataModellingResult = metadataModeller.createModel(parsedDescriptionData);
         if (shouldValidateCheckstyle) {
-            metadataModellingResult.getErrors().addAll(validateCheckstyle(source));
+            metadataModellingResult.getErrors().addAll(
+                    metadataValidator.validateCheckstyle(source, lines, parsedDescriptionData));
         }
         return metadataModellingResult;
     }
@@ -62,12 +68,16 @@ public class MetadataExtractorImpl implements MetadataExtractor {
     }
 
     private Metadata getMetadata(SlangSource source, boolean shouldValidateDescription) {
-        MetadataModellingResult result = extractMetadataModellingResult(source);
+        validateSlangSource(source);
+        List<String> lines = SlangSourceUtils.readLines(source);
+        ParsedDescriptionData parsedDescriptionData = metadataParser.parse(source, lines);
+        MetadataModellingResult result = metadataModeller.createModel(parsedDescriptionData);
         if (result.getErrors().size() > 0) {
             throw result.getErrors().get(0);
         }
         if (shouldValidateDescription) {
-            List<RuntimeException> checkstyleErrors = validateCheckstyle(source);
+            List<RuntimeException> checkstyleErrors =
+                    metadataValidator.validateCheckstyle(source, lines, parsedDescriptionData);
             if (checkstyleErrors.size() > 0) {
                 throw checkstyleErrors.get(0);
             }
@@ -73,6 +73,17 @@ public interface SlangCompiler {
             SlangSource source, Set<SlangSource> path,
             PrecompileStrategy precompileStrategy);
 
+    /**
+     * Compile every CloudSlang source of a set against the whole set. Each source is pre-compiled once and
+     *     compiled against an index of all the executables, so the cost grows linearly with the set.
+     *
+     * @param sources            the CloudSlang sources, each also used as a dependency of the others
+     * @param precompileStrategy with / without cache
+     * @return a {@link CompilationModellingResult} for each source, in the order of the sources. A source that
+     *     cannot be pre-compiled has no compilation artifact and the pre-compilation error.
+     */
+    List<CompilationModellingResult> compileSources(List<SlangSource> sources, PrecompileStrategy precompileStrategy);
+
     /**
      * Pre-compile a CloudSlang source into an {@link io.cloudslang.lang.compiler.modeller.model.Executable}.
      * If an error is found, an exception is thrown
@@ -130,10 +141,20 @@ public interface SlangCompiler {
                                                SensitivityLevel sensitivityLevel);
 
     /**
-     * Remove all elements in pre-compile cache. No-cached calls are not affected.
+     * Remove all elements in pre-compile cache, and the execution plans kept for them.
+     * No-cached calls are not affected.
      */
     void invalidateAllInPreCompileCache();
 
+    /**
+     * Remove the element of a source file from the pre-compile cache, for a file known to have changed.
+     * For a directory, the elements of all the source files under it are removed.
+     * No-cached calls are not affected.
+     *
+     * @param filePath the path of the source file or directory
+     */
+    void invalidateInPreCompileCache(String filePath);
+
     /**
      * Validate that the given {@Link io.cloudslang.lang.compiler.modeller.model.Executable} is valid regarding
      * its wiring to its dependencies
@@ -151,6 +151,76 @@ public class SlangCompilerImpl implements SlangCompiler {
         return new CompilationModellingResult(result.getCompilationArtifact(), errors);
     }
 
+    @Override
+    public List<CompilationModellingResult> compileSources(List<SlangSource> sources,
+                                                           PrecompileStrategy precompileStrategy) {
+        Validate.notNull(sources, "Sources can not be null");
+        Validate.notNull(precompileStrategy, "Pre-compile strategy can not be null");
+
+        // every source is pre-compiled exactly once
+        int size = sources.size();
+        List<Executable> executables = new ArrayList<>(size);
+        List<List<RuntimeException>> preCompileErrors = new ArrayList<>(size);
+        for (SlangSource source : sources) {
+            Executable executable = null;
+            List<RuntimeException> errors;
+            try {
+                ExecutableModellingResult result = preCompileSource(source, precompileStrategy,
+                        SensitivityLevel.ENCRYPTED);
+                executable = result.getExecutable();
+                errors = new ArrayList<>(result.getErrors());
+            } catch (RuntimeException ex) {
+                errors = new ArrayList<>();
+                errors.add(ex);
+            }
+            executables.add(executable);
+            preCompileErrors.add(errors);
+        }
+
+        // the index, the duplicates and the errors of the path are computed once for the whole set
+        Map<String, Executable> executablesById = new HashMap<>();
+        Map<String, Map<Executable, SlangSource>> executablesByLowerCaseId = new HashMap<>();
+        List<RuntimeException> pathErrors = new ArrayList<>();
+        int[] preCompileErrorsStart = new int[size];
+        for (int i = 0; i < size; i++) {
+            preCompileErrorsStart[i] = pathErrors.size();
+            pathErrors.addAll(preCompileErrors.get(i));
+            Executable executable = executables.get(i);
+            if (executable != null) {
+                if (!executablesById.containsKey(executable.getId())) {
+                    executablesById.put(executable.getId(), executable);
+                }
+                String lowerCaseId = executable.getId().toLowerCase();
+                Map<Executable, SlangSource> sameIdExecutables = executablesByLowerCaseId.get(lowerCaseId);
+                if (sameIdExecutables == null) {
+                    sameIdExecutables = new HashMap<>();
+                    executablesByLowerCaseId.put(lowerCaseId, sameIdExecutables);
+                }
+                pathErrors.addAll(compileValidator
+                        .validateNoDuplicateExecutables(executable, sources.get(i), sameIdExecutables));
+                sameIdExecutables.put(executable, sources.get(i));
+            }
+        }
+
+        // as when compiling a single source, the errors found in its path are reported with it
+        List<CompilationModellingResult> results = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            List<RuntimeException> ownErrors = preCompileErrors.get(i);
+            List<RuntimeException> errors = new ArrayList<>(ownErrors);
+            errors.addAll(pathErrors.subList(0, preCompileErrorsStart[i]));
+            errors.addAll(pathErrors.subList(preCompileErrorsStart[i] + ownErrors.size(), pathErrors.size()));
+            Executable executable = executables.get(i);
+            CompilationArtifact compilationArtifact = null;
+            if (executable != null) {
+                CompilationModellingResult result = scoreCompiler.compileSource(executable, executablesById);
+                errors.addAll(result.getErrors());
+                compilationArtifact = result.getCompilationArtifact();
+            }
+            results.add(new CompilationModellingResult(compilationArtifact, errors));
+        }
+        return results;
+    }
+
     @Override
     public Executable preCompile(SlangSource source) {
         return preCompile(source, PrecompileStrategy.WITHOUT_CACHE);
@@ -195,7 +265,16 @@ public class SlangCompilerImpl implements SlangCompiler {
             return cacheResult.getExecutableModellingResult();
         }
 
-        ExecutableModellingResult executableModellingResult = preCompileModel(source, sensitivityLevel);
+        ExecutableModellingResult executableModellingResult;
+        try {
+            executableModellingResult = preCompileModel(source, sensitivityLevel);
+        } catch (RuntimeException ex) {
+            // the cache is not left waiting for a value that will never come
+            if (cacheResult != null) {
+                cachedPrecompileService.invalidateEntry(filePath);
+            }
+            throw ex;
+        }
 
         // handle caching
         precompileCachePostExecute(source, precompileStrategy, filePath, executableModellingResult);
@@ -206,6 +285,12 @@ public class SlangCompilerImpl implements SlangCompiler {
     @Override
     public void invalidateAllInPreCompileCache() {
         cachedPrecompileService.invalidateAll();
+        scoreCompiler.invalidateExecutionPlanCache();
+    }
+
+    @Override
+    public void invalidateInPreCompileCache(String filePath) {
+        cachedPrecompileService.invalidateEntry(filePath);
     }
 
     @Override
@@ -15,6 +15,7 @@ import java.io.IOException;
 import java.net.URI;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
+import org.apache.commons.codec.digest.DigestUtils;
 import org.apache.commons.io.FileUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.Validate;
@@ -27,6 +28,8 @@ public class SlangSource {
     private final String name;
     private final String filePath;
     private final Extension fileExtension;
+    // digest of the content, computed once - from the bytes when the source is read, otherwise on first use
+    private volatile String fingerprint;
 
     public SlangSource(String content, String name) {
         Validate.notNull(content, "Source cannot be null");
@@ -36,13 +39,14 @@ public class SlangSource {
         this.fileExtension = null;
     }
 
-    private SlangSource(String content, String name, String filePath, Extension fileExtension) {
+    private SlangSource(String content, String name, String filePath, Extension fileExtension, String fingerprint) {
         Validate.notNull(content, "Source cannot be null");
 
         this.content = content;
         this.name = name;
         this.filePath = filePath;
         this.fileExtension = fileExtension;
+        this.fingerprint = fingerprint;
     }
 
     public static SlangSource fromFile(File file) {
@@ -50,9 +54,9 @@ public class SlangSource {
         Validate.isTrue(file.isFile(), "File content: " + file.getName() +
                 " doesn't lead to a file, directories are not supported");
 
-        String content;
+        byte[] bytes;
         try {
-            content = readFileToString(file);
+            bytes = FileUtils.readFileToByteArray(file);
         } catch (IOException e) {
             throw new RuntimeException("There was a problem reading the file: " + file.getName(), e);
         }
@@ -60,7 +64,8 @@ public class SlangSource {
         String fileName = file.getName();
         String filePath = file.getPath();
         Extension extension = Extension.findExtension(fileName);
-        return new SlangSource(content, fileName, filePath, extension);
+        return new SlangSource(new String(bytes, getCloudSlangCharset()), fileName, filePath, extension,
+                DigestUtils.sha256Hex(bytes));
     }
 
     public static SlangSource fromFile(URI uri) {
@@ -68,7 +73,8 @@ public class SlangSource {
     }
 
     public static SlangSource fromBytes(byte[] bytes, String name) {
-        return new SlangSource(new String(bytes, getCloudSlangCharset()), name);
+        return new SlangSource(new String(bytes, getCloudSlangCharset()), name, null, null,
+                DigestUtils.sha256Hex(bytes));
     }
 
     public static Charset getCloudSlangCharset() {
@@ -78,11 +84,6 @@ public class SlangSource {
                 Charset.forName(cslangEncoding);
     }
 
-    private static String readFileToString(File file) throws IOException {
-        Charset charset = getCloudSlangCharset();
-        return FileUtils.readFileToString(file, charset);
-    }
-
     public String getContent() {
         return content;
     }
@@ -99,6 +100,19 @@ public class SlangSource {
         return filePath;
     }
 
+    /**
+     * @return a digest of the source content, cheap to compare for detecting changes
+     */
+    public String getFingerprint() {
+        String result = fingerprint;
+        if (result == null) {
+            // concurrent callers compute the same value
+            result = DigestUtils.sha256Hex(content.getBytes(getCloudSlangCharset()));
+            fingerprint = result;
+        }
+        return result;
+    }
+
     @Override
     public String toString() {
         return "SlangSource{" +
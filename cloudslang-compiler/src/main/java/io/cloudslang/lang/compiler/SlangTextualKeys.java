@@ -55,6 +55,7 @@ public interface SlangTextualKeys {
     String PUBLISH_KEY = "publish";
     String NAVIGATION_KEY = "navigate";
     String PARALLEL_LOOP_KEY = "parallel_loop";
+    String MAX_BRANCHES_KEY = "max_branches";
 
     //inputs
     String VALUE_KEY = "value";
@@ -9,6 +9,7 @@
  *******************************************************************************/
 package io.cloudslang.lang.compiler.caching;
 
+import com.google.common.cache.CacheStats;
 import io.cloudslang.lang.compiler.SlangSource;
 import io.cloudslang.lang.compiler.modeller.result.ExecutableModellingResult;
 
@@ -36,9 +37,10 @@ public interface CachedPrecompileService {
     CacheResult getValueFromCache(String path, SlangSource currentSource);
 
     /**
-     * Remove a value associated with this key from the cache.
+     * Remove a value associated with this key from the cache, together with the values of all the paths under it
+     * if the key is a directory.
      *
-     * @param path the key for caching: path from source
+     * @param path the key for caching: path from source, or the path of a directory
      */
     void invalidateEntry(String path);
 
@@ -46,4 +48,12 @@ public interface CachedPrecompileService {
      * Remove all cached values.
      */
     void invalidateAll();
+
+    /**
+     * Get the statistics of the cache. Hits and misses count the lookups, a load is the compilation of a missed
+     * source until its value is cached, and the evictions include the ones of the disk tier.
+     *
+     * @return hit, miss, load and eviction counters of the cache
+     */
+    CacheStats getStats();
 }
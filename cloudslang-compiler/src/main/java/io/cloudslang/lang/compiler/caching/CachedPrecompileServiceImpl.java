@@ -11,31 +11,68 @@ package io.cloudslang.lang.compiler.caching;
 
 import com.google.common.cache.Cache;
 import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
 import io.cloudslang.lang.compiler.SlangSource;
 import io.cloudslang.lang.compiler.modeller.result.ExecutableModellingResult;
+import java.io.File;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.TimeUnit;
-import org.apache.commons.codec.digest.DigestUtils;
+import java.util.concurrent.atomic.AtomicLong;
+import org.apache.commons.lang3.ObjectUtils;
+import org.apache.commons.lang3.StringUtils;
 
 import javax.annotation.PostConstruct;
 
+import static io.cloudslang.lang.entities.properties.SlangSystemPropertyConstant.CSLANG_COMPILER_PRECOMPILE_CACHE_DIRECTORY;
+import static io.cloudslang.lang.entities.properties.SlangSystemPropertyConstant.CSLANG_COMPILER_PRECOMPILE_CACHE_MAX_SIZE;
+
 public class CachedPrecompileServiceImpl implements CachedPrecompileService {
 
+    private static final long DEFAULT_PERSISTENT_CACHE_MAX_SIZE = 512L * 1024 * 1024;
+
     private Cache<String, CacheValue> cache;
 
+    // optional disk tier, shared between JVMs
+    private PersistentPrecompileCache persistentCache;
+
+    private final AtomicLong hitCount = new AtomicLong();
+    private final AtomicLong missCount = new AtomicLong();
+    private final AtomicLong loadCount = new AtomicLong();
+    private final AtomicLong totalLoadTime = new AtomicLong();
+    // start time of the loads in progress - a miss is loaded by caching the freshly compiled value,
+    // and a load that failed is dropped by invalidating its entry
+    private final ConcurrentMap<String, Long> pendingLoads = new ConcurrentHashMap<>();
+
     @PostConstruct
     public void init() {
         cache = CacheBuilder.newBuilder()
                 .maximumSize(500)
                 .concurrencyLevel(2 * Runtime.getRuntime().availableProcessors())
                 .expireAfterWrite(60, TimeUnit.MINUTES)
+                .recordStats()
                 .build();
+        String persistentCacheDirectory = System.getProperty(CSLANG_COMPILER_PRECOMPILE_CACHE_DIRECTORY.getValue());
+        if (StringUtils.isNotEmpty(persistentCacheDirectory)) {
+            persistentCache = new PersistentPrecompileCache(new File(persistentCacheDirectory),
+                    Long.getLong(CSLANG_COMPILER_PRECOMPILE_CACHE_MAX_SIZE.getValue(),
+                            DEFAULT_PERSISTENT_CACHE_MAX_SIZE));
+        }
     }
 
     @Override
     public void cacheValue(String path, ExecutableModellingResult modellingResult, SlangSource source) {
         if (path != null) {
+            Long loadStartTime = pendingLoads.remove(path);
+            if (loadStartTime != null) {
+                loadCount.incrementAndGet();
+                totalLoadTime.addAndGet(System.nanoTime() - loadStartTime);
+            }
             CacheValue cacheValue = new CacheValue(source, modellingResult);
             cache.put(path, cacheValue);
+            if (persistentCache != null) {
+                persistentCache.put(source, modellingResult);
+            }
         }
     }
 
@@ -58,6 +95,19 @@ public class CachedPrecompileServiceImpl implements CachedPrecompileService {
                 executableModellingResult = cachedValue.getExecutableModellingResult();
             }
         }
+        if (state != CacheValueState.VALID && persistentCache != null) {
+            executableModellingResult = persistentCache.get(currentSource);
+            if (executableModellingResult != null) {
+                cache.put(path, new CacheValue(currentSource, executableModellingResult));
+                state = CacheValueState.VALID;
+            }
+        }
+        if (state == CacheValueState.VALID) {
+            hitCount.incrementAndGet();
+        } else {
+            missCount.incrementAndGet();
+            pendingLoads.put(path, System.nanoTime());
+        }
         return new CacheResult(state, executableModellingResult);
     }
 
@@ -65,20 +115,47 @@ public class CachedPrecompileServiceImpl implements CachedPrecompileService {
     public void invalidateEntry(String path) {
         if (path != null) {
             cache.invalidate(path);
+            pendingLoads.remove(path);
+            String directoryPrefix = path + File.separator;
+            for (String cachedPath : cache.asMap().keySet()) {
+                if (cachedPath.startsWith(directoryPrefix)) {
+                    cache.invalidate(cachedPath);
+                    pendingLoads.remove(cachedPath);
+                }
+            }
         }
     }
 
     @Override
     public void invalidateAll() {
         cache.invalidateAll();
+        pendingLoads.clear();
+        if (persistentCache != null) {
+            persistentCache.invalidateAll();
+        }
+    }
+
+    @Override
+    public CacheStats getStats() {
+        long evictionCount = cache.stats().evictionCount();
+        if (persistentCache != null) {
+            evictionCount += persistentCache.getEvictionCount();
+        }
+        return new CacheStats(hitCount.get(), missCount.get(), loadCount.get(), 0, totalLoadTime.get(),
+                evictionCount);
+    }
+
+    void setPersistentCache(PersistentPrecompileCache persistentCache) {
+        this.persistentCache = persistentCache;
     }
 
     boolean hasChangedSinceCached(SlangSource source1, SlangSource source2) {
-        String source1AsStr = source1.toString();
-        String source2AsStr = source2.toString();
-        return (source1AsStr.length() != source2AsStr.length()) ||
-                (!DigestUtils.md5Hex(source1AsStr).equals(DigestUtils.md5Hex(source2AsStr))) ||
-                (!DigestUtils.sha256Hex(source1AsStr).equals(DigestUtils.sha256Hex(source2AsStr)));
+        // the content length is a cheap pre-check, the fingerprints are computed once per source
+        return (source1.getContent().length() != source2.getContent().length()) ||
+                !StringUtils.equals(source1.getName(), source2.getName()) ||
+                !StringUtils.equals(source1.getFilePath(), source2.getFilePath()) ||
+                !ObjectUtils.equals(source1.getFileExtension(), source2.getFileExtension()) ||
+                !source1.getFingerprint().equals(source2.getFingerprint());
     }
 
 }
@@ -0,0 +1,240 @@
+/*******************************************************************************
+ * (c) Copyright 2016 Hewlett-Packard Development Company, L.P.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Apache License v2.0 which accompany this distribution.
+ *
+ * The Apache License is available at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *******************************************************************************/
+package io.cloudslang.lang.compiler.caching;
+
+import io.cloudslang.lang.compiler.modeller.model.Executable;
+import io.cloudslang.lang.entities.utils.AtomicFileUtils;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.Serializable;
+import java.nio.file.Files;
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import org.apache.commons.lang3.ObjectUtils;
+import org.apache.log4j.Logger;
+
+/**
+ * Dependency graph of the executables of a project, kept between builds to find what a change affects.
+ * <p>
+ * The graph holds, for every source file, the fingerprint of its content, the id of the executable modelled
+ * from it and the ids of the executables it references, together with the reverse edges. Updating it with the
+ * current files of a directory returns the executables whose compilation artifacts are stale - the ones of
+ * the new, changed or deleted files, under their old and new ids, and all of their transitive dependents.
+ */
+public class DependencyGraph implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private static final Logger logger = Logger.getLogger(DependencyGraph.class);
+
+    // source file path -> node of the file
+    private final Map<String, FileNode> files = new HashMap<>();
+    // executable id -> paths of the files whose executables reference it
+    private final Map<String, Set<String>> dependentFiles = new HashMap<>();
+    // executable id -> paths of the files it is modelled from, more than one for duplicated executables
+    private final Map<String, Set<String>> executableFiles = new HashMap<>();
+
+    /**
+     * @param file the file the graph was saved to
+     * @return the saved graph, or an empty graph if the file is missing or cannot be read
+     */
+    public static DependencyGraph load(File file) {
+        if (file.isFile()) {
+            try (InputStream in = Files.newInputStream(file.toPath());
+                 ObjectInputStream objectIn = new ObjectInputStream(in)) {
+                return (DependencyGraph) objectIn.readObject();
+            } catch (IOException | ClassNotFoundException | ClassCastException ex) {
+                logger.debug("Discarding dependency graph: " + file.getAbsolutePath(), ex);
+            }
+        }
+        return new DependencyGraph();
+    }
+
+    /**
+     * Save the graph. A graph that failed to save leaves the previously saved one in place.
+     *
+     * @param file the file to save the graph to
+     */
+    public void save(File file) {
+        try {
+            AtomicFileUtils.writeObject(file, this);
+        } catch (IOException ex) {
+            throw new RuntimeException("Failed to save dependency graph: " + file.getAbsolutePath(), ex);
+        }
+    }
+
+    /**
+     * Update the graph to the current files of a directory.
+     *
+     * @param directoryPath      the directory the files were read from - files of the graph under it that are
+     *                           not given anymore are removed
+     * @param fingerprintsByFile the fingerprints of the current files, by their absolute path
+     * @param executablesByFile  the executables modelled from the current files, by their absolute path.
+     *                           Files that could not be modelled have no executable.
+     * @return the ids of the executables whose compilation artifacts are stale
+     */
+    public Set<String> update(String directoryPath, Map<String, String> fingerprintsByFile,
+                              Map<String, Executable> executablesByFile) {
+        Set<String> changedExecutables = new HashSet<>();
+        String directoryPrefix = new File(directoryPath).getAbsolutePath() + File.separator;
+        for (Iterator<Map.Entry<String, FileNode>> iterator = files.entrySet().iterator(); iterator.hasNext(); ) {
+            Map.Entry<String, FileNode> entry = iterator.next();
+            if (entry.getKey().startsWith(directoryPrefix) && !fingerprintsByFile.containsKey(entry.getKey())) {
+                changedExecutables.add(entry.getValue().getExecutableId());
+                removeEdges(entry.getKey(), entry.getValue());
+                iterator.remove();
+            }
+        }
+        for (Map.Entry<String, String> entry : fingerprintsByFile.entrySet()) {
+            String filePath = entry.getKey();
+            Executable executable = executablesByFile.get(filePath);
+            String executableId = executable == null ? null : executable.getId();
+            FileNode previousNode = files.get(filePath);
+            if (previousNode != null) {
+                if (previousNode.getFingerprint().equals(entry.getValue()) &&
+                        ObjectUtils.equals(previousNode.getExecutableId(), executableId)) {
+                    continue;
+                }
+                changedExecutables.add(previousNode.getExecutableId());
+                removeEdges(filePath, previousNode);
+            }
+            changedExecutables.add(executableId);
+            Set<String> references = executable == null || executable.getExecutableDependencies() == null ?
+                    Collections.<String>emptySet() : new HashSet<>(executable.getExecutableDependencies());
+            FileNode node = new FileNode(entry.getValue(), executableId, references);
+            files.put(filePath, node);
+            addEdges(filePath, node);
+        }
+        changedExecutables.remove(null);
+        return getStaleExecutables(changedExecutables);
+    }
+
+    /**
+     * @param changedExecutables ids of changed executables
+     * @return the given ids together with the ids of all of their transitive dependents
+     */
+    public Set<String> getStaleExecutables(Collection<String> changedExecutables) {
+        Set<String> staleExecutables = new HashSet<>(changedExecutables);
+        Deque<String> executablesToVisit = new ArrayDeque<>(changedExecutables);
+        while (!executablesToVisit.isEmpty()) {
+            for (String dependent : getDependents(executablesToVisit.pop())) {
+                if (staleExecutables.add(dependent)) {
+                    executablesToVisit.push(dependent);
+                }
+            }
+        }
+        return staleExecutables;
+    }
+
+    /**
+     * @param executableId the id of an executable
+     * @return the ids of the executables referencing it directly
+     */
+    public Set<String> getDependents(String executableId) {
+        Set<String> dependents = new HashSet<>();
+        Set<String> filePaths = dependentFiles.get(executableId);
+        if (filePaths != null) {
+            for (String filePath : filePaths) {
+                dependents.add(files.get(filePath).getExecutableId());
+            }
+        }
+        return dependents;
+    }
+
+    /**
+     * @param executableId the id of an executable
+     * @return the ids of the executables it references directly
+     */
+    public Set<String> getReferences(String executableId) {
+        Set<String> references = new HashSet<>();
+        Set<String> filePaths = executableFiles.get(executableId);
+        if (filePaths != null) {
+            for (String filePath : filePaths) {
+                references.addAll(files.get(filePath).getReferences());
+            }
+        }
+        return references;
+    }
+
+    private void addEdges(String filePath, FileNode node) {
+        if (node.getExecutableId() == null) {
+            return;
+        }
+        getOrCreate(executableFiles, node.getExecutableId()).add(filePath);
+        for (String reference : node.getReferences()) {
+            getOrCreate(dependentFiles, reference).add(filePath);
+        }
+    }
+
+    private void removeEdges(String filePath, FileNode node) {
+        if (node.getExecutableId() == null) {
+            return;
+        }
+        remove(executableFiles, node.getExecutableId(), filePath);
+        for (String reference : node.getReferences()) {
+            remove(dependentFiles, reference, filePath);
+        }
+    }
+
+    private static Set<String> getOrCreate(Map<String, Set<String>> map, String key) {
+        Set<String> values = map.get(key);
+        if (values == null) {
+            values = new HashSet<>();
+            map.put(key, values);
+        }
+        return values;
+    }
+
+    private static void remove(Map<String, Set<String>> map, String key, String value) {
+        Set<String> values = map.get(key);
+        if (values != null) {
+            values.remove(value);
+            if (values.isEmpty()) {
+                map.remove(key);
+            }
+        }
+    }
+
+    private static class FileNode implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        private final String fingerprint;
+        private final String executableId;
+        private final Set<String> references;
+
+        FileNode(String fingerprint, String executableId, Set<String> references) {
+            this.fingerprint = fingerprint;
+            this.executableId = executableId;
+            this.references = references;
+        }
+
+        String getFingerprint() {
+            return fingerprint;
+        }
+
+        String getExecutableId() {
+            return executableId;
+        }
+
+        Set<String> getReferences() {
+            return references;
+        }
+    }
+}
@@ -0,0 +1,239 @@
+/*******************************************************************************
+ * (c) Copyright 2016 Hewlett-Packard Development Company, L.P.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Apache License v2.0 which accompany this distribution.
+ *
+ * The Apache License is available at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *******************************************************************************/
+package io.cloudslang.lang.compiler.caching;
+
+import io.cloudslang.lang.compiler.modeller.model.Executable;
+import io.cloudslang.lang.entities.utils.AtomicFileUtils;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.Serializable;
+import java.nio.file.Files;
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import org.apache.log4j.Logger;
+
+/**
+ * Index of the executables of a folder of slang sources, so the dependencies of an executable can be loaded
+ * without reading the whole folder.
+ * <p>
+ * For every source file the index keeps the id of its executable and the ids the executable references.
+ * An entry stays valid as long as the fingerprint of the content of its file, see
+ * {@link io.cloudslang.lang.compiler.SlangSource#getFingerprint()}, does not change, so the index can be kept on disk
+ * and only the files changed since it was saved are modelled again.
+ */
+public class NamespaceIndex implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private static final Logger logger = Logger.getLogger(NamespaceIndex.class);
+
+    private final String folderPath;
+
+    // absolute file path -> entry of the file
+    private final Map<String, FileEntry> files = new HashMap<>();
+
+    // executable id -> absolute paths of the files modelled to it, rebuilt from the entries when needed
+    private transient Map<String, Set<String>> filesById;
+
+    private transient boolean modified;
+
+    public NamespaceIndex(File folder) {
+        this.folderPath = folder.getAbsolutePath();
+    }
+
+    /**
+     * @param file   the file the index was saved to
+     * @param folder the folder of the index
+     * @return the saved index, or an empty index if the file is missing, cannot be read or indexes another folder
+     */
+    public static NamespaceIndex load(File file, File folder) {
+        if (file.isFile()) {
+            try (InputStream in = Files.newInputStream(file.toPath());
+                 ObjectInputStream objectIn = new ObjectInputStream(in)) {
+                NamespaceIndex namespaceIndex = (NamespaceIndex) objectIn.readObject();
+                if (namespaceIndex.folderPath.equals(folder.getAbsolutePath())) {
+                    return namespaceIndex;
+                }
+            } catch (IOException | ClassNotFoundException | ClassCastException ex) {
+                logger.debug("Discarding namespace index: " + file.getAbsolutePath(), ex);
+            }
+        }
+        return new NamespaceIndex(folder);
+    }
+
+    /**
+     * Save the index if it was modified since it was loaded. An index that failed to save leaves the previously
+     * saved one in place.
+     *
+     * @param file the file to save the index to
+     */
+    public void save(File file) {
+        if (!modified) {
+            return;
+        }
+        try {
+            AtomicFileUtils.writeObject(file, this);
+            modified = false;
+        } catch (IOException ex) {
+            throw new RuntimeException("Failed to save namespace index: " + file.getAbsolutePath(), ex);
+        }
+    }
+
+    /**
+     * Drop the entries of the files that are not in the folder anymore.
+     *
+     * @param currentFiles the files currently in the folder
+     */
+    public void retainFiles(Collection<File> currentFiles) {
+        Set<String> currentPaths = new HashSet<>();
+        for (File currentFile : currentFiles) {
+            currentPaths.add(currentFile.getAbsolutePath());
+        }
+        for (Iterator<String> iterator = files.keySet().iterator(); iterator.hasNext(); ) {
+            if (!currentPaths.contains(iterator.next())) {
+                iterator.remove();
+                filesById = null;
+                modified = true;
+            }
+        }
+    }
+
+    /**
+     * @param file        a source file of the folder
+     * @param fingerprint the fingerprint of the current content of the file, null if it cannot be read
+     * @return whether the file has an entry that is still valid
+     */
+    public boolean isUpToDate(File file, String fingerprint) {
+        FileEntry entry = files.get(file.getAbsolutePath());
+        return entry != null && fingerprint != null && fingerprint.equals(entry.getFingerprint());
+    }
+
+    /**
+     * Index a source file.
+     *
+     * @param file        the source file
+     * @param fingerprint the fingerprint of the content the executable was modelled from
+     * @param executable  the executable modelled from the file, or null if the file could not be modelled
+     */
+    public void put(File file, String fingerprint, Executable executable) {
+        String executableId = null;
+        Set<String> references = Collections.emptySet();
+        if (executable != null) {
+            executableId = executable.getId();
+            if (executable.getExecutableDependencies() != null) {
+                references = new HashSet<>(executable.getExecutableDependencies());
+            }
+        }
+        files.put(file.getAbsolutePath(),
+                new FileEntry(fingerprint, executableId, references));
+        filesById = null;
+        modified = true;
+    }
+
+    /**
+     * @param file a source file of the folder
+     * @return the ids referenced by the executable of the file, or null if the file is not indexed or could not
+     *     be modelled
+     */
+    public Set<String> getReferences(File file) {
+        FileEntry entry = files.get(file.getAbsolutePath());
+        return entry == null || entry.getExecutableId() == null ? null : entry.getReferences();
+    }
+
+    /**
+     * Find the files of the executables reachable from the given references.
+     *
+     * @param indexes    the indexes of the folders to look the executables up in
+     * @param references ids referenced by an executable
+     * @return the absolute paths of the files of the referenced executables, of the executables they reference
+     *     and so on, or null if some of these ids are not found in the indexes
+     */
+    public static Set<String> getReachableFiles(Collection<NamespaceIndex> indexes, Collection<String> references) {
+        Set<String> reachableFiles = new HashSet<>();
+        Set<String> visitedReferences = new HashSet<>();
+        Deque<String> referencesToVisit = new ArrayDeque<>(references);
+        while (!referencesToVisit.isEmpty()) {
+            String reference = referencesToVisit.pop();
+            if (!visitedReferences.add(reference)) {
+                continue;
+            }
+            boolean found = false;
+            for (NamespaceIndex namespaceIndex : indexes) {
+                Set<String> filePaths = namespaceIndex.getFilesById().get(reference);
+                if (filePaths != null) {
+                    found = true;
+                    for (String filePath : filePaths) {
+                        if (reachableFiles.add(filePath)) {
+                            referencesToVisit.addAll(namespaceIndex.files.get(filePath).getReferences());
+                        }
+                    }
+                }
+            }
+            if (!found) {
+                return null;
+            }
+        }
+        return reachableFiles;
+    }
+
+    private Map<String, Set<String>> getFilesById() {
+        if (filesById == null) {
+            filesById = new HashMap<>();
+            for (Map.Entry<String, FileEntry> entry : files.entrySet()) {
+                String executableId = entry.getValue().getExecutableId();
+                if (executableId != null) {
+                    Set<String> filePaths = filesById.get(executableId);
+                    if (filePaths == null) {
+                        filePaths = new HashSet<>();
+                        filesById.put(executableId, filePaths);
+                    }
+                    filePaths.add(entry.getKey());
+                }
+            }
+        }
+        return filesById;
+    }
+
+    private static class FileEntry implements Serializable {
+
+        private static final long serialVersionUID = 2L;
+
+        private final String fingerprint;
+        private final String executableId;
+        private final Set<String> references;
+
+        FileEntry(String fingerprint, String executableId, Set<String> references) {
+            this.fingerprint = fingerprint;
+            this.executableId = executableId;
+            this.references = references;
+        }
+
+        String getFingerprint() {
+            return fingerprint;
+        }
+
+        String getExecutableId() {
+            return executableId;
+        }
+
+        Set<String> getReferences() {
+            return references;
+        }
+    }
+}
@@ -0,0 +1,279 @@
+/*******************************************************************************
+ * (c) Copyright 2016 Hewlett-Packard Development Company, L.P.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Apache License v2.0 which accompany this distribution.
+ *
+ * The Apache License is available at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *******************************************************************************/
+package io.cloudslang.lang.compiler.caching;
+
+import io.cloudslang.lang.compiler.SlangCompiler;
+import io.cloudslang.lang.compiler.SlangSource;
+import io.cloudslang.lang.compiler.modeller.result.ExecutableModellingResult;
+import io.cloudslang.lang.entities.bindings.values.SensitiveValue;
+import io.cloudslang.lang.entities.utils.AtomicFileUtils;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.security.CodeSource;
+import java.security.MessageDigest;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.concurrent.atomic.AtomicLong;
+import org.apache.commons.codec.digest.DigestUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.log4j.Logger;
+
+/**
+ * Disk tier of the precompile cache, shared between JVMs.
+ * <p>
+ * Entries are content addressed - the key is a hash of the compiler version, the source name and the source
+ * content, so a changed source simply misses. The compiler version changes with every build of the compiler
+ * and of the entities it models, not only with their release version, so entries of another build are never
+ * reused. Each entry file holds a header, a digest of the payload and the serialized
+ * {@link ExecutableModellingResult}. Entries are written to a temporary file and moved in place, so
+ * readers never see a partial entry, and corrupted or incompatible entries are deleted when read.
+ * When the directory grows above its maximum size the least recently used entries are evicted.
+ * <p>
+ * Results holding sensitive values are not stored, as their content is encrypted with the keys of the
+ * current JVM.
+ * <p>
+ * Entries are read back with java deserialization, so the directory must only be writable by trusted users -
+ * never point it at a location shared with untrusted ones.
+ */
+public class PersistentPrecompileCache {
+
+    private static final Logger logger = Logger.getLogger(PersistentPrecompileCache.class);
+
+    // bump when the layout of the entry files changes
+    private static final int FORMAT_VERSION = 1;
+    private static final int MAGIC = 0x534c4331;
+    private static final int DIGEST_LENGTH = 32;
+    private static final int HEADER_LENGTH = 4 + 4 + DIGEST_LENGTH;
+    private static final String ENTRY_SUFFIX = ".model";
+    // eviction leaves some room, so that it does not run on every following write
+    private static final double EVICTION_RATIO = 0.9;
+
+    private final File directory;
+    private final long maxSize;
+    private final String compilerVersion;
+    private final AtomicLong size = new AtomicLong();
+    private final AtomicLong evictionCount = new AtomicLong();
+
+    public PersistentPrecompileCache(File directory, long maxSize) {
+        this(directory, maxSize, getCompilerVersion());
+    }
+
+    PersistentPrecompileCache(File directory, long maxSize, String compilerVersion) {
+        this.directory = directory;
+        this.maxSize = maxSize;
+        this.compilerVersion = compilerVersion;
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            throw new RuntimeException("Cannot create precompile cache directory: " + directory.getAbsolutePath());
+        }
+        for (File entry : listEntries()) {
+            size.addAndGet(entry.length());
+        }
+    }
+
+    /**
+     * @param source the source to look up
+     * @return the cached modelling result of the source, or null if it is not cached
+     */
+    public ExecutableModellingResult get(SlangSource source) {
+        File entry = getEntryFile(source);
+        if (!entry.isFile()) {
+            return null;
+        }
+        try {
+            byte[] bytes = Files.readAllBytes(entry.toPath());
+            ExecutableModellingResult modellingResult = deserialize(bytes);
+            // most recently used entries are evicted last
+            entry.setLastModified(System.currentTimeMillis());
+            return modellingResult;
+        } catch (IOException | ClassNotFoundException | ClassCastException ex) {
+            logger.debug("Discarding precompile cache entry: " + entry.getName(), ex);
+            delete(entry);
+            return null;
+        }
+    }
+
+    /**
+     * Store a modelling result, unless it holds sensitive values.
+     *
+     * @param source          the source the result was modelled from
+     * @param modellingResult the modelling result
+     */
+    public void put(SlangSource source, ExecutableModellingResult modellingResult) {
+        byte[] bytes;
+        try {
+            bytes = serialize(modellingResult);
+        } catch (IOException ex) {
+            logger.debug("Precompile result of " + source.getName() + " is not cached", ex);
+            return;
+        }
+        File entry = getEntryFile(source);
+        try {
+            final long previousLength = entry.length();
+            AtomicFileUtils.write(entry, bytes);
+            if (size.addAndGet(bytes.length - previousLength) > maxSize) {
+                evict();
+            }
+        } catch (IOException ex) {
+            logger.debug("Failed to write precompile cache entry: " + entry.getName(), ex);
+        }
+    }
+
+    public void invalidateAll() {
+        for (File entry : listEntries()) {
+            delete(entry);
+        }
+        size.set(0);
+    }
+
+    public long getEvictionCount() {
+        return evictionCount.get();
+    }
+
+    long getSize() {
+        return size.get();
+    }
+
+    File getEntryFile(SlangSource source) {
+        String key = DigestUtils.sha256Hex(compilerVersion + '\n' + source.getName() + '\n' +
+                source.getFingerprint());
+        return new File(directory, key + ENTRY_SUFFIX);
+    }
+
+    private synchronized void evict() {
+        File[] entries = listEntries();
+        long currentSize = 0;
+        for (File entry : entries) {
+            currentSize += entry.length();
+        }
+        Arrays.sort(entries, new Comparator<File>() {
+            @Override
+            public int compare(File file1, File file2) {
+                return Long.compare(file1.lastModified(), file2.lastModified());
+            }
+        });
+        long targetSize = (long) (maxSize * EVICTION_RATIO);
+        for (int i = 0; i < entries.length && currentSize > targetSize; i++) {
+            long length = entries[i].length();
+            if (entries[i].delete()) {
+                currentSize -= length;
+                evictionCount.incrementAndGet();
+            }
+        }
+        size.set(currentSize);
+    }
+
+    private File[] listEntries() {
+        File[] entries = directory.listFiles();
+        if (entries == null) {
+            return new File[0];
+        }
+        int count = 0;
+        for (File entry : entries) {
+            if (entry.getName().endsWith(ENTRY_SUFFIX)) {
+                entries[count++] = entry;
+            }
+        }
+        return Arrays.copyOf(entries, count);
+    }
+
+    private void delete(File entry) {
+        long length = entry.length();
+        if (entry.delete()) {
+            size.addAndGet(-length);
+        }
+    }
+
+    private byte[] serialize(ExecutableModellingResult modellingResult) throws IOException {
+        ByteArrayOutputStream payload = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new NonSensitiveObjectOutputStream(payload)) {
+            out.writeObject(modellingResult);
+        }
+        byte[] payloadBytes = payload.toByteArray();
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_LENGTH + payloadBytes.length);
+        buffer.putInt(MAGIC);
+        buffer.putInt(FORMAT_VERSION);
+        buffer.put(DigestUtils.sha256(payloadBytes));
+        buffer.put(payloadBytes);
+        return buffer.array();
+    }
+
+    private ExecutableModellingResult deserialize(byte[] bytes) throws IOException, ClassNotFoundException {
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        if (bytes.length < HEADER_LENGTH || buffer.getInt() != MAGIC || buffer.getInt() != FORMAT_VERSION) {
+            throw new IOException("Unknown precompile cache entry format");
+        }
+        byte[] digest = new byte[DIGEST_LENGTH];
+        buffer.get(digest);
+        byte[] payload = Arrays.copyOfRange(bytes, HEADER_LENGTH, bytes.length);
+        if (!MessageDigest.isEqual(digest, DigestUtils.sha256(payload))) {
+            throw new IOException("Corrupted precompile cache entry");
+        }
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(payload))) {
+            return (ExecutableModellingResult) in.readObject();
+        }
+    }
+
+    private static String getCompilerVersion() {
+        return getBuildVersion(SlangCompiler.class) + '|' + getBuildVersion(SensitiveValue.class);
+    }
+
+    /**
+     * The implementation version alone stays the same across snapshot builds, so the jar or classes directory
+     * the class is loaded from is part of the version as well.
+     */
+    private static String getBuildVersion(Class<?> type) {
+        Package typePackage = type.getPackage();
+        String version = typePackage == null ? "" : StringUtils.defaultString(typePackage.getImplementationVersion());
+        CodeSource codeSource = type.getProtectionDomain().getCodeSource();
+        if (codeSource == null) {
+            return version;
+        }
+        return getBuildVersion(version, new File(codeSource.getLocation().getPath()));
+    }
+
+    static String getBuildVersion(String implementationVersion, File location) {
+        return implementationVersion + '@' + location.getName() + '@' + location.length() + '@' +
+                getLastModified(location);
+    }
+
+    private static long getLastModified(File location) {
+        long lastModified = location.lastModified();
+        File[] children = location.listFiles();
+        if (children != null) {
+            for (File child : children) {
+                lastModified = Math.max(lastModified, getLastModified(child));
+            }
+        }
+        return lastModified;
+    }
+
+    private static class NonSensitiveObjectOutputStream extends ObjectOutputStream {
+
+        NonSensitiveObjectOutputStream(OutputStream out) throws IOException {
+            super(out);
+            enableReplaceObject(true);
+        }
+
+        @Override
+        protected Object replaceObject(Object obj) throws IOException {
+            if (obj instanceof SensitiveValue) {
+                throw new IOException("Sensitive values are not cached");
+            }
+            return obj;
+        }
+    }
+}
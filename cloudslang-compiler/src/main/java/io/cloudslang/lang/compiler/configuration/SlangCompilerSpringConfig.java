@@ -33,6 +33,7 @@ import io.cloudslang.lang.compiler.modeller.transformers.DoTransformer;
 import io.cloudslang.lang.compiler.modeller.transformers.ForTransformer;
 import io.cloudslang.lang.compiler.modeller.transformers.InputsTransformer;
 import io.cloudslang.lang.compiler.modeller.transformers.JavaActionTransformer;
+import io.cloudslang.lang.compiler.modeller.transformers.MaxBranchesTransformer;
 import io.cloudslang.lang.compiler.modeller.transformers.NavigateTransformer;
 import io.cloudslang.lang.compiler.modeller.transformers.OutputsTransformer;
 import io.cloudslang.lang.compiler.modeller.transformers.ParallelLoopForTransformer;
@@ -42,6 +43,7 @@ import io.cloudslang.lang.compiler.modeller.transformers.ResultsTransformer;
 import io.cloudslang.lang.compiler.modeller.transformers.Transformer;
 import io.cloudslang.lang.compiler.modeller.transformers.WorkFlowTransformer;
 import io.cloudslang.lang.compiler.parser.MetadataParser;
+import io.cloudslang.lang.compiler.parser.ParsedSlangConstructor;
 import io.cloudslang.lang.compiler.parser.YamlParser;
 import io.cloudslang.lang.compiler.parser.utils.MetadataValidator;
 import io.cloudslang.lang.compiler.parser.utils.MetadataValidatorImpl;
@@ -92,7 +94,9 @@ public class SlangCompilerSpringConfig {
         YamlParser yamlParser = new YamlParser() {
             @Override
             public Yaml getYaml() {
-                return yaml();
+                Yaml yaml = new Yaml(new ParsedSlangConstructor());
+                yaml.setBeanAccess(BeanAccess.FIELD);
+                return yaml;
             }
         };
         yamlParser.setExecutableValidator(executableValidator());
@@ -304,6 +308,11 @@ public class SlangCompilerSpringConfig {
         return parallelLoopForTransformer;
     }
 
+    @Bean
+    public MaxBranchesTransformer maxBranchesTransformer() {
+        return new MaxBranchesTransformer();
+    }
+
     @Bean
     public ForTransformer forTransformer() {
         ForTransformer forTransformer = new ForTransformer();
@@ -342,6 +351,7 @@ public class SlangCompilerSpringConfig {
 
         transformers.add(pythonActionTransformer());
         transformers.add(parallelLoopForTransformer());
+        transformers.add(maxBranchesTransformer());
         transformers.add(publishTransformer());
         transformers.add(navigateTransformer());
         transformers.add(inputsTransformer());
@@ -13,7 +13,6 @@ package io.cloudslang.lang.compiler.modeller;
  * Created by orius123 on 05/11/14.
  */
 
-import ch.lambdaj.Lambda;
 import io.cloudslang.lang.compiler.SlangTextualKeys;
 import io.cloudslang.lang.compiler.modeller.model.Executable;
 import io.cloudslang.lang.compiler.modeller.model.Flow;
@@ -27,11 +26,13 @@ import io.cloudslang.lang.entities.bindings.Output;
 import io.cloudslang.lang.entities.bindings.Result;
 import io.cloudslang.lang.entities.constants.Messages;
 import java.io.Serializable;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Deque;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -39,11 +40,6 @@ import org.apache.commons.collections4.CollectionUtils;
 import org.apache.commons.lang3.NotImplementedException;
 import org.apache.commons.lang3.Validate;
 
-import static ch.lambdaj.Lambda.having;
-import static ch.lambdaj.Lambda.on;
-import static ch.lambdaj.Lambda.selectFirst;
-import static org.hamcrest.Matchers.equalTo;
-
 public class DependenciesHelper {
 
     private PublishTransformer publishTransformer;
@@ -77,42 +73,70 @@ public class DependenciesHelper {
     }
 
     /**
-     * recursive matches executables with their references
+     * matches executables with their references, transitively
      *
      * @param availableDependencies the executables to match from
      * @return a map of a the executables that were successfully matched
      */
     public Map<String, Executable> matchReferences(Executable executable,
                                                    Collection<Executable> availableDependencies) {
+        // the first executable of an id is the one matched
+        Map<String, Executable> executablesById = new HashMap<>();
+        for (Executable availableDependency : availableDependencies) {
+            if (!executablesById.containsKey(availableDependency.getId())) {
+                executablesById.put(availableDependency.getId(), availableDependency);
+            }
+        }
+        return matchReferences(executable, executablesById);
+    }
+
+    /**
+     * matches executables with their references, transitively
+     *
+     * @param executablesById the executables to match from, by their id
+     * @return a map of a the executables that were successfully matched
+     */
+    public Map<String, Executable> matchReferences(Executable executable, Map<String, Executable> executablesById) {
         Validate.isTrue(executable.getType().equals(SlangTextualKeys.FLOW_TYPE),
                 "Executable: \'" + executable.getId() + "\' is not a flow, therefore it has no references");
         Map<String, Executable> resolvedDependencies = new HashMap<>();
-        return fetchFlowReferences(executable, availableDependencies, resolvedDependencies);
+        fetchFlowReferences(executable, executablesById, resolvedDependencies);
+        return resolvedDependencies;
     }
 
-    private Map<String, Executable> fetchFlowReferences(Executable executable,
-                                                        Collection<Executable> availableDependencies,
-                                                        Map<String, Executable> resolvedDependencies) {
-        for (String refId : executable.getExecutableDependencies()) {
+    /**
+     * Depth first traversal of the references, in the order a recursive one would visit them, so that the
+     * same missing reference is reported. The resolved dependencies are the visited set.
+     */
+    private void fetchFlowReferences(Executable executable,
+                                     Map<String, Executable> executablesById,
+                                     Map<String, Executable> resolvedDependencies) {
+        Deque<Executable> flows = new ArrayDeque<>();
+        Deque<Iterator<String>> references = new ArrayDeque<>();
+        flows.push(executable);
+        references.push(executable.getExecutableDependencies().iterator());
+        while (!flows.isEmpty()) {
+            if (!references.peek().hasNext()) {
+                flows.pop();
+                references.pop();
+                continue;
+            }
+            String refId = references.peek().next();
             //if it is already in the references we do nothing
             if (resolvedDependencies.get(refId) == null) {
-                Executable matchingRef = selectFirst(availableDependencies,
-                        having(on(Executable.class).getId(), equalTo(refId)));
+                Executable matchingRef = executablesById.get(refId);
                 if (matchingRef == null) {
                     throw new RuntimeException("Reference: \'" + refId + "\' in executable: \'" +
-                            executable.getName() + "\', wasn't found in path");
+                            flows.peek().getName() + "\', wasn't found in path");
                 }
 
-                //first we put the reference on the map
                 resolvedDependencies.put(matchingRef.getId(), matchingRef);
                 if (matchingRef.getType().equals(SlangTextualKeys.FLOW_TYPE)) {
-                    //if it is a flow  we recursively
-                    resolvedDependencies
-                            .putAll(fetchFlowReferences(matchingRef, availableDependencies, resolvedDependencies));
+                    flows.push(matchingRef);
+                    references.push(matchingRef.getExecutableDependencies().iterator());
                 }
             }
         }
-        return resolvedDependencies;
     }
 
     public Set<String> getSystemPropertiesForFlow(
@@ -52,6 +52,7 @@ import static ch.lambdaj.Lambda.filter;
 import static ch.lambdaj.Lambda.having;
 import static ch.lambdaj.Lambda.on;
 import static io.cloudslang.lang.compiler.SlangTextualKeys.FOR_KEY;
+import static io.cloudslang.lang.compiler.SlangTextualKeys.MAX_BRANCHES_KEY;
 import static io.cloudslang.lang.compiler.SlangTextualKeys.NAVIGATION_KEY;
 import static io.cloudslang.lang.compiler.SlangTextualKeys.ON_FAILURE_KEY;
 import static io.cloudslang.lang.compiler.SlangTextualKeys.PARALLEL_LOOP_KEY;
@@ -94,7 +95,8 @@ public class ExecutableBuilder {
     private List<Transformer> postStepTransformers;
     private List<String> stepAdditionalKeyWords =
             asList(ScoreLangConstants.LOOP_KEY, SlangTextualKeys.DO_KEY, SlangTextualKeys.NAVIGATION_KEY);
-    private List<String> parallelLoopValidKeywords = asList(SlangTextualKeys.DO_KEY, SlangTextualKeys.FOR_KEY);
+    private List<String> parallelLoopValidKeywords =
+            asList(SlangTextualKeys.DO_KEY, SlangTextualKeys.FOR_KEY, SlangTextualKeys.MAX_BRANCHES_KEY);
 
     // @PostConstruct
     public void initScopedTransformersAndKeys() {
@@ -423,6 +425,10 @@ public class ExecutableBuilder {
                         Map<String, Object> loopRawData = (Map<String, Object>) stepRawDataValue.remove(LOOP_KEY);
                         stepRawDataValue.putAll(loopRawData);
                     }
+                    if (stepRawDataValue.containsKey(MAX_BRANCHES_KEY)) {
+                        errors.add(new RuntimeException("Step: " + stepName + " syntax is illegal.\n'" +
+                                MAX_BRANCHES_KEY + "' can only be declared below the 'parallel_loop' keyword."));
+                    }
                     if (parallelLoopKeyFound) {
                         message = "Step: " + stepName +
                                 " syntax is illegal.\nBelow the 'parallel_loop' keyword, there " +
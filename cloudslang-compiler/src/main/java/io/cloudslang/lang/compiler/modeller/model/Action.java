@@ -18,7 +18,7 @@ package io.cloudslang.lang.compiler.modeller.model;
 import java.io.Serializable;
 import java.util.Map;
 
-public class Action {
+public class Action implements Serializable {
 
     private final Map<String, Serializable> actionData;
 
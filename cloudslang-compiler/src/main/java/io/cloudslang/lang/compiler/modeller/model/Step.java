@@ -17,7 +17,7 @@ import java.util.Map;
 /*
  * Created by orius123 on 06/11/14.
  */
-public class Step {
+public class Step implements Serializable {
 
     private final String name;
     private final Map<String, Serializable> preStepActionData;
@@ -95,7 +95,8 @@ public abstract class AbstractForTransformer extends AbstractInOutForTransformer
                 valueName,
                 collectionExpression,
                 dependencyAccumulator.getFunctionDependencies(),
-                dependencyAccumulator.getSystemPropertyDependencies());
+                dependencyAccumulator.getSystemPropertyDependencies(),
+                dependencyAccumulator.getVariableDependencies());
     }
 
     private LoopStatement createLoopStatement(String varName, String collectionExpression,
@@ -103,7 +104,8 @@ public abstract class AbstractForTransformer extends AbstractInOutForTransformer
         executableValidator.validateLoopStatementVariable(varName);
         return new ListLoopStatement(varName, collectionExpression,
                     dependencyAccumulator.getFunctionDependencies(),
-                    dependencyAccumulator.getSystemPropertyDependencies(), isParallelLoop);
+                    dependencyAccumulator.getSystemPropertyDependencies(),
+                    dependencyAccumulator.getVariableDependencies(), isParallelLoop);
     }
 
     public void setExecutableValidator(ExecutableValidator executableValidator) {
@@ -23,7 +23,9 @@ public class AbstractInOutForTransformer {
         String expression = ExpressionUtils.extractExpression(value);
         Set<String> systemPropertyDependencies = new HashSet<>();
         Set<ScriptFunction> functionDependencies = new HashSet<>();
+        Set<String> variableDependencies = new HashSet<>();
         if (expression != null) {
+            variableDependencies = ExpressionUtils.extractVariableReferences(expression);
             systemPropertyDependencies = ExpressionUtils.extractSystemProperties(expression);
             if (CollectionUtils.isNotEmpty(systemPropertyDependencies)) {
                 functionDependencies.add(ScriptFunction.GET_SYSTEM_PROPERTY);
@@ -37,17 +39,20 @@ public class AbstractInOutForTransformer {
                 functionDependencies.add(ScriptFunction.CHECK_EMPTY);
             }
         }
-        return new Accumulator(functionDependencies, systemPropertyDependencies);
+        return new Accumulator(functionDependencies, systemPropertyDependencies, variableDependencies);
     }
 
     protected static class Accumulator {
 
         private final Set<ScriptFunction> functionDependencies;
         private final Set<String> systemPropertyDependencies;
+        private final Set<String> variableDependencies;
 
-        public Accumulator(Set<ScriptFunction> functionDependencies, Set<String> systemPropertyDependencies) {
+        public Accumulator(Set<ScriptFunction> functionDependencies, Set<String> systemPropertyDependencies,
+                           Set<String> variableDependencies) {
             this.functionDependencies = functionDependencies;
             this.systemPropertyDependencies = systemPropertyDependencies;
+            this.variableDependencies = variableDependencies;
         }
 
         public Set<ScriptFunction> getFunctionDependencies() {
@@ -58,5 +63,9 @@ public class AbstractInOutForTransformer {
             return systemPropertyDependencies;
         }
 
+        public Set<String> getVariableDependencies() {
+            return variableDependencies;
+        }
+
     }
 }
@@ -176,7 +176,8 @@ public class DoTransformer extends InOutTransformer implements Transformer<Map<S
                 ValueFactory.create(entryValue, sensitive),
                 privateArgument,
                 accumulator.getFunctionDependencies(),
-                accumulator.getSystemPropertyDependencies()
+                accumulator.getSystemPropertyDependencies(),
+                accumulator.getVariableDependencies()
         );
     }
 
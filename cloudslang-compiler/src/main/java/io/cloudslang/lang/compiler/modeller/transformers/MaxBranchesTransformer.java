@@ -0,0 +1,52 @@
+/*******************************************************************************
+ * (c) Copyright 2016 Hewlett-Packard Development Company, L.P.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Apache License v2.0 which accompany this distribution.
+ *
+ * The Apache License is available at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *******************************************************************************/
+package io.cloudslang.lang.compiler.modeller.transformers;
+
+import io.cloudslang.lang.compiler.SlangTextualKeys;
+import io.cloudslang.lang.compiler.modeller.result.BasicTransformModellingResult;
+import io.cloudslang.lang.compiler.modeller.result.TransformModellingResult;
+import io.cloudslang.lang.entities.SensitivityLevel;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Transforms the maximum number of branches a parallel loop runs at the same time.
+ */
+public class MaxBranchesTransformer implements Transformer<Object, Integer> {
+
+    @Override
+    public TransformModellingResult<Integer> transform(Object rawData) {
+        if (rawData == null) {
+            return new BasicTransformModellingResult<>(null, Collections.<RuntimeException>emptyList());
+        }
+        if (rawData instanceof Integer && (Integer) rawData > 0) {
+            return new BasicTransformModellingResult<>((Integer) rawData, Collections.<RuntimeException>emptyList());
+        }
+        return new BasicTransformModellingResult<>(null, Collections.singletonList(
+                new RuntimeException("'" + SlangTextualKeys.MAX_BRANCHES_KEY +
+                        "' should be a positive integer, but instead there is: " + rawData)));
+    }
+
+    @Override
+    public TransformModellingResult<Integer> transform(Object rawData, SensitivityLevel sensitivityLevel) {
+        return transform(rawData);
+    }
+
+    @Override
+    public List<Scope> getScopes() {
+        return Collections.singletonList(Scope.BEFORE_STEP);
+    }
+
+    @Override
+    public String keyToTransform() {
+        return SlangTextualKeys.MAX_BRANCHES_KEY;
+    }
+
+}
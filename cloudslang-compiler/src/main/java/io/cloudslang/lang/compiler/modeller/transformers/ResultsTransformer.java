@@ -136,7 +136,8 @@ public class ResultsTransformer extends InOutTransformer implements Transformer<
                     resultName,
                     ValueFactory.create(resultValue),
                     accumulator.getFunctionDependencies(),
-                    accumulator.getSystemPropertyDependencies()
+                    accumulator.getSystemPropertyDependencies(),
+                    accumulator.getVariableDependencies()
             );
         }
     }
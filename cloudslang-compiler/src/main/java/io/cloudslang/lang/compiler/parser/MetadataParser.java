@@ -31,16 +31,32 @@ public class MetadataParser {
     public ParsedDescriptionData parse(SlangSource source) {
         Validate.notNull(source.getContent(), "Source " + source.getName() + " cannot be null");
         try {
-            return extractDescriptionData(source);
+            return processRawLines(SlangSourceUtils.readLines(source));
         } catch (Throwable e) {
-            throw new RuntimeException("There was a problem parsing the description: " +
-                    source.getName() + "." + System.lineSeparator() + parserExceptionHandler.getErrorMessage(e), e);
+            throw getParseException(source, e);
         }
     }
 
-    private ParsedDescriptionData extractDescriptionData(SlangSource source) {
-        List<String> lines = SlangSourceUtils.readLines(source);
-        return processRawLines(lines);
+    /**
+     * Parse the description of a source already split to lines, so the lines can be shared with other scans
+     * of the source.
+     *
+     * @param source the source
+     * @param lines  the lines of the source, as read by {@link SlangSourceUtils#readLines(SlangSource)}
+     * @return the description data of the source
+     */
+    public ParsedDescriptionData parse(SlangSource source, List<String> lines) {
+        Validate.notNull(source.getContent(), "Source " + source.getName() + " cannot be null");
+        try {
+            return processRawLines(lines);
+        } catch (Throwable e) {
+            throw getParseException(source, e);
+        }
+    }
+
+    private RuntimeException getParseException(SlangSource source, Throwable e) {
+        return new RuntimeException("There was a problem parsing the description: " +
+                source.getName() + "." + System.lineSeparator() + parserExceptionHandler.getErrorMessage(e), e);
     }
 
     private ParsedDescriptionData processRawLines(List<String> lines) {
@@ -0,0 +1,132 @@
+/*******************************************************************************
+ * (c) Copyright 2016 Hewlett-Packard Development Company, L.P.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Apache License v2.0 which accompany this distribution.
+ *
+ * The Apache License is available at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *******************************************************************************/
+package io.cloudslang.lang.compiler.parser;
+
+import io.cloudslang.lang.compiler.SlangTextualKeys;
+import io.cloudslang.lang.compiler.parser.model.ParsedSlang;
+import java.util.Map;
+import org.yaml.snakeyaml.constructor.Constructor;
+import org.yaml.snakeyaml.nodes.MappingNode;
+import org.yaml.snakeyaml.nodes.Node;
+import org.yaml.snakeyaml.nodes.NodeId;
+import org.yaml.snakeyaml.nodes.NodeTuple;
+import org.yaml.snakeyaml.nodes.ScalarNode;
+import org.yaml.snakeyaml.nodes.Tag;
+
+/**
+ * Constructs {@link ParsedSlang} directly from the nodes of a source, instead of introspecting it as a java bean.
+ * <p>
+ * Only sources whose keys and values have the types of the {@link ParsedSlang} fields are constructed directly,
+ * the values being the same objects the bean construction creates. Any other source, including the invalid ones,
+ * is left to the bean construction, so it fails with the same errors.
+ */
+public class ParsedSlangConstructor extends Constructor {
+
+    private static final String IMPORTS_KEY = "imports";
+    private static final String NAMESPACE_KEY = "namespace";
+
+    public ParsedSlangConstructor() {
+        yamlClassConstructors.put(NodeId.mapping, new ConstructParsedSlang());
+    }
+
+    private class ConstructParsedSlang extends ConstructMapping {
+
+        @Override
+        public Object construct(Node node) {
+            if (ParsedSlang.class.equals(node.getType()) && !node.isTwoStepsConstruction() &&
+                    isConstructedDirectly((MappingNode) node)) {
+                return constructParsedSlang((MappingNode) node);
+            }
+            return super.construct(node);
+        }
+    }
+
+    private boolean isConstructedDirectly(MappingNode node) {
+        for (NodeTuple tuple : node.getValue()) {
+            if (!isString(tuple.getKeyNode())) {
+                return false;
+            }
+            Node valueNode = tuple.getValueNode();
+            switch (((ScalarNode) tuple.getKeyNode()).getValue()) {
+                case NAMESPACE_KEY:
+                    if (!isString(valueNode)) {
+                        return false;
+                    }
+                    break;
+                case IMPORTS_KEY:
+                    if (!isMappingOfStrings(valueNode, true)) {
+                        return false;
+                    }
+                    break;
+                case SlangTextualKeys.FLOW_TYPE:
+                case SlangTextualKeys.OPERATION_TYPE:
+                case SlangTextualKeys.DECISION_TYPE:
+                    if (!isMappingOfStrings(valueNode, false)) {
+                        return false;
+                    }
+                    break;
+                case SlangTextualKeys.SYSTEM_PROPERTY_KEY:
+                case SlangTextualKeys.EXTENSIONS_KEY:
+                    break;
+                default:
+                    return false;
+            }
+        }
+        return true;
+    }
+
+    @SuppressWarnings("unchecked")
+    private ParsedSlang constructParsedSlang(MappingNode node) {
+        ParsedSlang parsedSlang = new ParsedSlang();
+        for (NodeTuple tuple : node.getValue()) {
+            Object value = constructObject(tuple.getValueNode());
+            switch (((ScalarNode) tuple.getKeyNode()).getValue()) {
+                case NAMESPACE_KEY:
+                    parsedSlang.setNamespace((String) value);
+                    break;
+                case IMPORTS_KEY:
+                    parsedSlang.setImports((Map<String, String>) value);
+                    break;
+                case SlangTextualKeys.FLOW_TYPE:
+                    parsedSlang.setFlow((Map<String, Object>) value);
+                    break;
+                case SlangTextualKeys.OPERATION_TYPE:
+                    parsedSlang.setOperation((Map<String, Object>) value);
+                    break;
+                case SlangTextualKeys.DECISION_TYPE:
+                    parsedSlang.setDecision((Map<String, Object>) value);
+                    break;
+                case SlangTextualKeys.SYSTEM_PROPERTY_KEY:
+                    parsedSlang.setProperties(value);
+                    break;
+                default:
+                    parsedSlang.setExtensions(value);
+                    break;
+            }
+        }
+        return parsedSlang;
+    }
+
+    private boolean isMappingOfStrings(Node node, boolean stringValues) {
+        if (!(node instanceof MappingNode)) {
+            return false;
+        }
+        for (NodeTuple tuple : ((MappingNode) node).getValue()) {
+            if (!isString(tuple.getKeyNode()) || (stringValues && !isString(tuple.getValueNode()))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean isString(Node node) {
+        return node instanceof ScalarNode && Tag.STR.equals(node.getTag());
+    }
+}
@@ -27,6 +27,14 @@ public abstract class YamlParser {
 
     private ExecutableValidator executableValidator;
 
+    // a Yaml instance is not thread safe, so every thread parsing sources reuses its own
+    private final ThreadLocal<Yaml> yamlPerThread = new ThreadLocal<Yaml>() {
+        @Override
+        protected Yaml initialValue() {
+            return getYaml();
+        }
+    };
+
     protected abstract Yaml getYaml();
 
     public ParsedSlang validateAndThrowFirstError(ParsedSlang parsedSlang) {
@@ -58,7 +66,7 @@ public abstract class YamlParser {
         Validate.notEmpty(source.getContent(), "Source " + source.getName() + " cannot be empty");
 
         try {
-            ParsedSlang parsedSlang = getYaml().loadAs(source.getContent(), ParsedSlang.class);
+            ParsedSlang parsedSlang = yamlPerThread.get().loadAs(source.getContent(), ParsedSlang.class);
             if (parsedSlang == null) {
                 throw new RuntimeException("Source " + source.getName() + " does not contain YAML content");
             }
@@ -32,30 +32,58 @@ public class ParsedSlang {
         return namespace;
     }
 
+    public void setNamespace(String namespace) {
+        this.namespace = namespace;
+    }
+
     public Map<String, Object> getFlow() {
         return flow;
     }
 
+    public void setFlow(Map<String, Object> flow) {
+        this.flow = flow;
+    }
+
     public Map<String, String> getImports() {
         return imports;
     }
 
+    public void setImports(Map<String, String> imports) {
+        this.imports = imports;
+    }
+
     public Map<String, Object> getOperation() {
         return operation;
     }
 
+    public void setOperation(Map<String, Object> operation) {
+        this.operation = operation;
+    }
+
     public Object getProperties() {
         return properties;
     }
 
+    public void setProperties(Object properties) {
+        this.properties = properties;
+    }
+
     public Object getExtensions() {
         return extensions;
     }
 
+    public void setExtensions(Object extensions) {
+        this.extensions = extensions;
+    }
+
     public Map<String, Object> getDecision() {
         return decision;
     }
 
+    public void setDecision(Map<String, Object> decision) {
+        this.decision = decision;
+    }
+
     public Type getType() {
         if (flow != null) {
             return Type.FLOW;
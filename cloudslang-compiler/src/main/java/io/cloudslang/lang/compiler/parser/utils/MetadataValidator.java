@@ -10,8 +10,13 @@
 package io.cloudslang.lang.compiler.parser.utils;
 
 import io.cloudslang.lang.compiler.SlangSource;
+import io.cloudslang.lang.compiler.parser.model.ParsedDescriptionData;
 import java.util.List;
 
 public interface MetadataValidator {
     List<RuntimeException> validateCheckstyle(SlangSource source);
+
+    // validates the lines of the source against its already parsed description
+    List<RuntimeException> validateCheckstyle(SlangSource source, List<String> lines,
+                                              ParsedDescriptionData parsedDescriptionData);
 }
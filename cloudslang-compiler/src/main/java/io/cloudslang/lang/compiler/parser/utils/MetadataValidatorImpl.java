@@ -36,18 +36,33 @@ public class MetadataValidatorImpl implements MetadataValidator {
     public List<RuntimeException> validateCheckstyle(SlangSource source) {
         Validate.notNull(source.getContent(), "Source " + source.getName() + " cannot be null");
         try {
-            return extractCheckstyleData(source);
+            List<String> lines = SlangSourceUtils.readLines(source);
+            return extractCheckstyleData(lines, metadataParser.parse(source, lines));
         } catch (Throwable e) {
-            throw new RuntimeException(
-                    "There was a problem extracting checkstyle data for source [" +
-                            source.getName() + "]  - " + e.getMessage(), e
-            );
+            throw getCheckstyleException(source, e);
         }
     }
 
-    private List<RuntimeException> extractCheckstyleData(SlangSource source) {
-        List<String> lines = SlangSourceUtils.readLines(source);
-        ParsedDescriptionData parsedDescriptionData = metadataParser.parse(source);
+    @Override
+    public List<RuntimeException> validateCheckstyle(SlangSource source, List<String> lines,
+                                                     ParsedDescriptionData parsedDescriptionData) {
+        Validate.notNull(source.getContent(), "Source " + source.getName() + " cannot be null");
+        try {
+            return extractCheckstyleData(lines, parsedDescriptionData);
+        } catch (Throwable e) {
+            throw getCheckstyleException(source, e);
+        }
+    }
+
+    private RuntimeException getCheckstyleException(SlangSource source, Throwable e) {
+        return new RuntimeException(
+                "There was a problem extracting checkstyle data for source [" +
+                        source.getName() + "]  - " + e.getMessage(), e
+        );
+    }
+
+    private List<RuntimeException> extractCheckstyleData(List<String> lines,
+                                                         ParsedDescriptionData parsedDescriptionData) {
         List<RuntimeException> errors = new ArrayList<>();
 
         // process flow descriptions
@@ -142,6 +142,9 @@ public class ExecutionStepFactory {
         actionData.put(ScoreLangConstants.BRANCH_BEGIN_STEP_ID_KEY, branchBeginStepId);
         actionData.put(ScoreLangConstants.PARALLEL_LOOP_STATEMENT_KEY,
                 preStepData.get(SlangTextualKeys.PARALLEL_LOOP_KEY));
+        actionData.put(ScoreLangConstants.MAX_BRANCHES_KEY, preStepData.get(SlangTextualKeys.MAX_BRANCHES_KEY));
+        // the join step navigates back here while branches are still pending
+        actionData.put(ScoreLangConstants.ADD_BRANCHES_STEP_ID_KEY, currentStepId);
         ExecutionStep executionStep =
                 createGeneralStep(currentStepId, PARALLEL_LOOP_STEPS_CLASS, "addBranches", actionData);
         executionStep.setSplitStep(true);
@@ -13,6 +13,7 @@ import io.cloudslang.lang.compiler.modeller.model.Executable;
 import io.cloudslang.lang.compiler.modeller.result.CompilationModellingResult;
 import io.cloudslang.lang.entities.CompilationArtifact;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 /*
@@ -51,6 +52,17 @@ public interface ScoreCompiler {
      */
     CompilationModellingResult compileSource(Executable source, Set<Executable> path);
 
+    /**
+     * Compile an {@link io.cloudslang.lang.compiler.modeller.model.Executable} against an index of the available
+     * executables, built once when compiling many executables of the same path.
+     * Does not fail but returns all the accumulated exceptions.
+     *
+     * @param source          the {@link Executable} source
+     * @param executablesById the available {@link Executable}s by their id, including the source
+     * @return modelling result containing the compiled {@link io.cloudslang.lang.entities.CompilationArtifact}
+     */
+    CompilationModellingResult compileSource(Executable source, Map<String, Executable> executablesById);
+
     /**
      * Validate that the given {@Link io.cloudslang.lang.compiler.modeller.model.Executable} is valid regarding
      * its wiring to its dependencies
@@ -65,4 +77,10 @@ public interface ScoreCompiler {
     List<RuntimeException> validateSlangModelWithDirectDependencies(Executable slangModel,
                                                                     Set<Executable> directDependenciesModels);
 
+    /**
+     * Drop the execution plans of the dependencies kept from previous compilations.
+     * The plans are kept per {@link Executable} instance, so they are not reused for a re-modelled source anyway.
+     */
+    void invalidateExecutionPlanCache();
+
 }
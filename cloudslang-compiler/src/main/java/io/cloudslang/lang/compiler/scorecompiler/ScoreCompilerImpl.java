@@ -10,6 +10,8 @@
 package io.cloudslang.lang.compiler.scorecompiler;
 
 import ch.lambdaj.function.convert.Converter;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import io.cloudslang.lang.compiler.SlangTextualKeys;
 import io.cloudslang.lang.compiler.modeller.DependenciesHelper;
 import io.cloudslang.lang.compiler.modeller.model.Decision;
@@ -25,6 +27,7 @@ import io.cloudslang.lang.entities.bindings.Result;
 import io.cloudslang.score.api.ExecutionPlan;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.Deque;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -45,6 +48,15 @@ public class ScoreCompilerImpl implements ScoreCompiler {
 
     private CompileValidator compileValidator;
 
+    // execution plans of the dependencies, shared by the artifacts of all the flows using them.
+    // keys are weak and compared by identity - a changed source is modelled to a new executable, so its stale plan
+    // is never found again and is collected together with the executable. A plan is rebuilt when the on_failure
+    // navigation it was built from has changed
+    private final Cache<Executable, DependencyPlan> dependencyPlanCache = CacheBuilder.newBuilder()
+            .weakKeys()
+            .concurrencyLevel(2 * Runtime.getRuntime().availableProcessors())
+            .build();
+
     @Override
     public CompilationArtifact compile(Executable source, Set<Executable> path) {
         CompilationModellingResult compilationModellingResult = compileSource(source, path);
@@ -60,9 +72,7 @@ public class ScoreCompilerImpl implements ScoreCompiler {
         List<RuntimeException> exceptions = new ArrayList<>();
         Map<String, Executable> filteredDependencies = new HashMap<>();
         //we handle dependencies only if the file has imports
-        boolean hasDependencies = CollectionUtils.isNotEmpty(executable.getExecutableDependencies()) &&
-                executable.getType().equals(SlangTextualKeys.FLOW_TYPE);
-        if (hasDependencies) {
+        if (hasDependencies(executable)) {
             try {
                 Validate.notEmpty(path, "Source " + executable.getName() +
                         " has dependencies but no path was given to the compiler");
@@ -79,26 +89,59 @@ public class ScoreCompilerImpl implements ScoreCompiler {
                 //than we match the references to the actual dependencies
                 filteredDependencies = dependenciesHelper.matchReferences(executable, availableExecutables);
 
-                handleOnFailureCustomResults(executable, filteredDependencies);
-
-                List<RuntimeException> errors =
-                        compileValidator.validateModelWithDependencies(executable, filteredDependencies);
-                exceptions.addAll(errors);
+                validateWithDependencies(executable, filteredDependencies, exceptions);
             } catch (RuntimeException ex) {
                 exceptions.add(ex);
             }
 
         }
 
+        return createCompilationModellingResult(executable, filteredDependencies, exceptions);
+    }
+
+    @Override
+    public CompilationModellingResult compileSource(Executable executable, Map<String, Executable> executablesById) {
+        List<RuntimeException> exceptions = new ArrayList<>();
+        Map<String, Executable> filteredDependencies = new HashMap<>();
+        if (hasDependencies(executable)) {
+            try {
+                filteredDependencies = dependenciesHelper.matchReferences(executable, executablesById);
+
+                validateWithDependencies(executable, filteredDependencies, exceptions);
+            } catch (RuntimeException ex) {
+                exceptions.add(ex);
+            }
+        }
+
+        return createCompilationModellingResult(executable, filteredDependencies, exceptions);
+    }
+
+    private boolean hasDependencies(Executable executable) {
+        return CollectionUtils.isNotEmpty(executable.getExecutableDependencies()) &&
+                executable.getType().equals(SlangTextualKeys.FLOW_TYPE);
+    }
+
+    private void validateWithDependencies(Executable executable, Map<String, Executable> filteredDependencies,
+                                          List<RuntimeException> exceptions) {
+        handleOnFailureCustomResults(executable, filteredDependencies);
+
+        List<RuntimeException> errors =
+                compileValidator.validateModelWithDependencies(executable, filteredDependencies);
+        exceptions.addAll(errors);
+    }
+
+    private CompilationModellingResult createCompilationModellingResult(Executable executable,
+                                                                        Map<String, Executable> filteredDependencies,
+                                                                        List<RuntimeException> exceptions) {
         try {
             //next we create an execution plan for the required executable
             ExecutionPlan executionPlan = compileToExecutionPlan(executable);
 
-            //and also create execution plans for all other dependencies
+            //and also create execution plans for all other dependencies, or reuse the ones already created
             Converter<Executable, ExecutionPlan> converter = new Converter<Executable, ExecutionPlan>() {
                 @Override
                 public ExecutionPlan convert(Executable compiledExecutable) {
-                    return compileToExecutionPlan(compiledExecutable);
+                    return getDependencyExecutionPlan(compiledExecutable);
                 }
             };
             Map<String, ExecutionPlan> dependencies = convertMap(filteredDependencies, converter);
@@ -128,10 +171,16 @@ public class ScoreCompilerImpl implements ScoreCompiler {
         Step onFailureStep = getOnFailureStep(executable);
         if (onFailureStep != null) {
             Executable onFailureDependency = filteredDependencies.get(onFailureStep.getRefId());
-            for (Result result : onFailureDependency.getResults()) {
-                Map<String, String> navigationString = new HashMap<>();
-                navigationString.put(result.getName(), ScoreLangConstants.FAILURE_RESULT);
-                onFailureStep.getNavigationStrings().add(navigationString);
+            List<Map<String, String>> navigationStrings = onFailureStep.getNavigationStrings();
+            // the same flow may be compiled several times, also from different threads
+            synchronized (navigationStrings) {
+                for (Result result : onFailureDependency.getResults()) {
+                    Map<String, String> navigationString = new HashMap<>();
+                    navigationString.put(result.getName(), ScoreLangConstants.FAILURE_RESULT);
+                    if (!navigationStrings.contains(navigationString)) {
+                        navigationStrings.add(navigationString);
+                    }
+                }
             }
         }
     }
@@ -156,6 +205,51 @@ public class ScoreCompilerImpl implements ScoreCompiler {
         return compileValidator.validateModelWithDirectDependencies(slangModel, dependenciesMap);
     }
 
+    /**
+     * The plan of the compiled executable itself is always created, since its subflows are set on it,
+     * but the plans of its dependencies are left untouched and can be shared.
+     */
+    private ExecutionPlan getDependencyExecutionPlan(Executable dependency) {
+        // the on_failure navigation of a flow is derived from the results of the executable its on_failure step
+        // uses, which may change while the flow itself does not
+        List<Map<String, String>> onFailureNavigation = getOnFailureNavigation(dependency);
+        DependencyPlan dependencyPlan = dependencyPlanCache.getIfPresent(dependency);
+        if (dependencyPlan == null || !dependencyPlan.isBuiltFrom(onFailureNavigation)) {
+            DependencyPlan newDependencyPlan =
+                    new DependencyPlan(compileToExecutionPlan(dependency), onFailureNavigation);
+            if (dependencyPlan == null) {
+                DependencyPlan currentDependencyPlan =
+                        dependencyPlanCache.asMap().putIfAbsent(dependency, newDependencyPlan);
+                boolean sharedPlan = currentDependencyPlan != null &&
+                        currentDependencyPlan.isBuiltFrom(onFailureNavigation);
+                dependencyPlan = sharedPlan ? currentDependencyPlan : newDependencyPlan;
+            } else {
+                dependencyPlanCache.put(dependency, newDependencyPlan);
+                dependencyPlan = newDependencyPlan;
+            }
+        }
+        return dependencyPlan.getExecutionPlan();
+    }
+
+    private List<Map<String, String>> getOnFailureNavigation(Executable executable) {
+        if (!executable.getType().equals(SlangTextualKeys.FLOW_TYPE)) {
+            return Collections.emptyList();
+        }
+        Step onFailureStep = getOnFailureStep((Flow) executable);
+        if (onFailureStep == null) {
+            return Collections.emptyList();
+        }
+        List<Map<String, String>> navigationStrings = onFailureStep.getNavigationStrings();
+        synchronized (navigationStrings) {
+            return new ArrayList<>(navigationStrings);
+        }
+    }
+
+    @Override
+    public void invalidateExecutionPlanCache() {
+        dependencyPlanCache.invalidateAll();
+    }
+
     /**
      * Utility method that cast a {@link io.cloudslang.lang.compiler.modeller.model.Executable} to its subtype
      * and create an {@link io.cloudslang.score.api.ExecutionPlan} for it
@@ -198,4 +292,22 @@ public class ScoreCompilerImpl implements ScoreCompiler {
     public void setCompileValidator(CompileValidator compileValidator) {
         this.compileValidator = compileValidator;
     }
+
+    private static class DependencyPlan {
+        private final ExecutionPlan executionPlan;
+        private final List<Map<String, String>> onFailureNavigation;
+
+        DependencyPlan(ExecutionPlan executionPlan, List<Map<String, String>> onFailureNavigation) {
+            this.executionPlan = executionPlan;
+            this.onFailureNavigation = onFailureNavigation;
+        }
+
+        ExecutionPlan getExecutionPlan() {
+            return executionPlan;
+        }
+
+        boolean isBuiltFrom(List<Map<String, String>> onFailureNavigation) {
+            return this.onFailureNavigation.equals(onFailureNavigation);
+        }
+    }
 }
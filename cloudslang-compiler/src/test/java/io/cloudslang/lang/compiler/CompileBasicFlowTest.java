@@ -18,10 +18,14 @@ import io.cloudslang.lang.entities.bindings.Argument;
 import io.cloudslang.lang.entities.bindings.Input;
 import io.cloudslang.lang.entities.bindings.Output;
 import io.cloudslang.lang.entities.bindings.Result;
+import io.cloudslang.lang.entities.bundle.CompilationArtifactBundle;
+import io.cloudslang.lang.entities.bundle.CompilationArtifactBundleWriter;
 import io.cloudslang.score.api.ExecutionPlan;
 import io.cloudslang.score.api.ExecutionStep;
 
+import java.io.File;
 import java.net.URI;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
@@ -29,7 +33,9 @@ import java.util.Map;
 import java.util.Set;
 
 import org.junit.Assert;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 import org.junit.runner.RunWith;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.test.annotation.DirtiesContext;
@@ -49,6 +55,9 @@ public class CompileBasicFlowTest {
     @Autowired
     private SlangCompiler compiler;
 
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
     @Test
     public void testCompileFlowBasic() throws Exception {
         URI flow = getClass().getResource("/basic_flow.yaml").toURI();
@@ -167,4 +176,29 @@ public class CompileBasicFlowTest {
         assertEquals("navigation values not as expected", expectedNavigationValues, actualNavigationValues);
     }
 
+    @Test
+    public void testCompiledFlowIsReadFromBundle() throws Exception {
+        URI flow = getClass().getResource("/flow_with_data.yaml").toURI();
+        URI operation = getClass().getResource("/check_Weather.sl").toURI();
+        Set<SlangSource> path = new HashSet<>();
+        path.add(SlangSource.fromFile(operation));
+        CompilationArtifact compilationArtifact = compiler.compile(SlangSource.fromFile(flow), path);
+
+        File bundleFile = new File(temporaryFolder.getRoot(), "content" + CompilationArtifactBundle.FILE_EXTENSION);
+        new CompilationArtifactBundleWriter().write(bundleFile,
+                Collections.singletonMap(compilationArtifact.getExecutionPlan().getFlowUuid(), compilationArtifact));
+        try (CompilationArtifactBundle bundle = CompilationArtifactBundle.open(bundleFile)) {
+            CompilationArtifact bundledArtifact =
+                    bundle.getCompilationArtifact(compilationArtifact.getExecutionPlan().getFlowUuid());
+            assertEquals("execution plan is different than expected",
+                    compilationArtifact.getExecutionPlan(), bundledArtifact.getExecutionPlan());
+            assertEquals("the dependencies are different than expected",
+                    compilationArtifact.getDependencies(), bundledArtifact.getDependencies());
+            assertEquals("the inputs are different than expected",
+                    compilationArtifact.getInputs(), bundledArtifact.getInputs());
+            assertEquals("the system properties are different than expected",
+                    compilationArtifact.getSystemProperties(), bundledArtifact.getSystemProperties());
+        }
+    }
+
 }
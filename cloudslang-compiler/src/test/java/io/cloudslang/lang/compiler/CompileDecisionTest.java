@@ -56,6 +56,7 @@ import static io.cloudslang.lang.compiler.SlangSource.fromFile;
 public class CompileDecisionTest {
     private static final HashSet<ScriptFunction> SP_SCRIPT_FUNCTIONS_SET =
             newHashSet(ScriptFunction.GET_SYSTEM_PROPERTY);
+    private static final Set<String> NO_VARIABLE_DEPENDENCIES = Collections.emptySet();
     @Rule
     public ExpectedException exception = ExpectedException.none();
 
@@ -67,34 +68,48 @@ public class CompileDecisionTest {
     private List<Output> emptyListOutputs = Collections.emptyList();
     private Map<String, Serializable> emptyActionData = Collections.emptyMap();
     private List<Input> inputs1 = Lists.newArrayList(
-            new Input.InputBuilder("x", null).build(),
-            new Input.InputBuilder("y", null).build()
+            new Input.InputBuilder("x", null)
+                    .withVariableDependencies(NO_VARIABLE_DEPENDENCIES)
+                    .build(),
+            new Input.InputBuilder("y", null)
+                    .withVariableDependencies(NO_VARIABLE_DEPENDENCIES)
+                    .build()
     );
     private List<Input> inputs2 = Lists.newArrayList(
-            new Input.InputBuilder("x", null).build(),
-            new Input.InputBuilder("y", null).build(),
-            new Input.InputBuilder("z", "default_value").withRequired(false).build()
+            new Input.InputBuilder("x", null)
+                    .withVariableDependencies(NO_VARIABLE_DEPENDENCIES)
+                    .build(),
+            new Input.InputBuilder("y", null)
+                    .withVariableDependencies(NO_VARIABLE_DEPENDENCIES)
+                    .build(),
+            new Input.InputBuilder("z", "default_value").withRequired(false)
+                    .withVariableDependencies(NO_VARIABLE_DEPENDENCIES)
+                    .build()
     );
     private List<Input> inputs3 = Lists.newArrayList(
             new Input.InputBuilder("x", "${get_sp('user.sys.prop1')}")
                     .withSystemPropertyDependencies(newHashSet("user.sys.prop1"))
                     .withFunctionDependencies(SP_SCRIPT_FUNCTIONS_SET)
+                    .withVariableDependencies(NO_VARIABLE_DEPENDENCIES)
                     .build(),
             new Input.InputBuilder("y", "${get_sp('user.sys.prop2')}")
                     .withRequired(false)
                     .withSystemPropertyDependencies(newHashSet("user.sys.prop2"))
                     .withFunctionDependencies(SP_SCRIPT_FUNCTIONS_SET)
+                    .withVariableDependencies(NO_VARIABLE_DEPENDENCIES)
                     .build()
     );
     private List<Output> outputs1 = Lists.newArrayList(
-            new Output("sum", ValueFactory.create("${x+y}"))
+            new Output("sum", ValueFactory.create("${x+y}"),
+                    Collections.<ScriptFunction>emptySet(), Collections.<String>emptySet(), newHashSet("x", "y"))
     );
     private List<Output> outputs2 = Lists.newArrayList(
             new Output(
                     "sum",
                     ValueFactory.create("${get_sp('user.sys.prop3')}"),
                     SP_SCRIPT_FUNCTIONS_SET,
-                    newHashSet("user.sys.prop3")
+                    newHashSet("user.sys.prop3"),
+                    NO_VARIABLE_DEPENDENCIES
             )
     );
     private Set<String> spSet1 = newHashSet(
@@ -104,8 +119,10 @@ public class CompileDecisionTest {
             "user.sys.prop4"
     );
     List<Result> results1 = Lists.newArrayList(
-            new Result("EQUAL", ValueFactory.create("${x == y}")),
-            new Result("LESS_THAN", ValueFactory.create("${x < y}")),
+            new Result("EQUAL", ValueFactory.create("${x == y}"),
+                    Collections.<ScriptFunction>emptySet(), Collections.<String>emptySet(), newHashSet("x", "y")),
+            new Result("LESS_THAN", ValueFactory.create("${x < y}"),
+                    Collections.<ScriptFunction>emptySet(), Collections.<String>emptySet(), newHashSet("x", "y")),
             new Result("GREATER_THAN", null)
     );
     List<Result> results2 = Lists.newArrayList(
@@ -113,9 +130,11 @@ public class CompileDecisionTest {
                     "EQUAL",
                     ValueFactory.create("${x == get_sp('user.sys.prop4')}"),
                     SP_SCRIPT_FUNCTIONS_SET,
-                    newHashSet("user.sys.prop4")
+                    newHashSet("user.sys.prop4"),
+                    newHashSet("x")
             ),
-            new Result("LESS_THAN", ValueFactory.create("${x < y}")),
+            new Result("LESS_THAN", ValueFactory.create("${x < y}"),
+                    Collections.<ScriptFunction>emptySet(), Collections.<String>emptySet(), newHashSet("x", "y")),
             new Result("GREATER_THAN", null)
     );
 
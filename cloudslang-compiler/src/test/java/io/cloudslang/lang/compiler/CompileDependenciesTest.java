@@ -10,6 +10,9 @@
 package io.cloudslang.lang.compiler;
 
 import io.cloudslang.lang.compiler.configuration.SlangCompilerSpringConfig;
+import io.cloudslang.lang.compiler.modeller.model.Executable;
+import io.cloudslang.lang.compiler.modeller.result.CompilationModellingResult;
+import io.cloudslang.lang.compiler.scorecompiler.ScoreCompiler;
 import io.cloudslang.lang.entities.CompilationArtifact;
 import io.cloudslang.lang.entities.ScoreLangConstants;
 import io.cloudslang.score.api.ExecutionPlan;
@@ -26,13 +29,22 @@ import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
 
 import java.net.URI;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.not;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
 
 /*
  * Created by orius123 on 05/11/14.
@@ -48,6 +60,9 @@ public class CompileDependenciesTest {
     @Autowired
     private SlangCompiler compiler;
 
+    @Autowired
+    private ScoreCompiler scoreCompiler;
+
     @Test(expected = RuntimeException.class)
     public void emptyPathButThereAreImports() throws Exception {
         final URI flow = getClass().getResource("/basic_flow.yaml").toURI();
@@ -178,4 +193,119 @@ public class CompileDependenciesTest {
         Assert.assertNotNull(compilationArtifact);
     }
 
-}
\ No newline at end of file
+    @Test
+    public void testCompileSourcesMatchesCompilingEachSource() throws Exception {
+        List<SlangSource> sources = new ArrayList<>();
+        sources.add(SlangSource.fromFile(getClass().getResource("/circular-dependencies/parent_flow.yaml").toURI()));
+        sources.add(SlangSource.fromFile(getClass().getResource("/circular-dependencies/child_flow.yaml").toURI()));
+        sources.add(SlangSource.fromFile(getClass().getResource("/test_op.sl").toURI()));
+        sources.add(SlangSource.fromFile(getClass().getResource("/check_Weather.sl").toURI()));
+
+        List<CompilationModellingResult> results = compiler.compileSources(sources, PrecompileStrategy.WITH_CACHE);
+
+        assertEquals(sources.size(), results.size());
+        for (int i = 0; i < sources.size(); i++) {
+            CompilationModellingResult expected = compiler.compileSource(sources.get(i), new HashSet<>(sources));
+            CompilationModellingResult result = results.get(i);
+            assertEquals(expected.getErrors().size(), result.getErrors().size());
+            CompilationArtifact expectedArtifact = expected.getCompilationArtifact();
+            CompilationArtifact artifact = result.getCompilationArtifact();
+            assertEquals(expectedArtifact.getExecutionPlan().getName(), artifact.getExecutionPlan().getName());
+            assertEquals(expectedArtifact.getDependencies().keySet(), artifact.getDependencies().keySet());
+            assertEquals(expectedArtifact.getSystemProperties(), artifact.getSystemProperties());
+        }
+    }
+
+    @Test
+    public void testCompileSourcesReportsMissingReferenceOfTheFlowOnly() throws Exception {
+        List<SlangSource> sources = new ArrayList<>();
+        sources.add(SlangSource.fromFile(getClass().getResource("/basic_flow.yaml").toURI()));
+        sources.add(SlangSource.fromFile(getClass().getResource("/operation_with_data.sl").toURI()));
+
+        List<CompilationModellingResult> results = compiler.compileSources(sources, PrecompileStrategy.WITHOUT_CACHE);
+
+        assertEquals(1, results.get(0).getErrors().size());
+        assertThat(results.get(0).getErrors().get(0).getMessage(), containsString("ops.test_op"));
+        assertEquals(0, results.get(1).getErrors().size());
+        Assert.assertNotNull(results.get(1).getCompilationArtifact());
+    }
+
+    @Test
+    public void testDependencyExecutionPlansAreShared() throws Exception {
+        List<SlangSource> sources = new ArrayList<>();
+        sources.add(SlangSource.fromFile(getClass().getResource("/circular-dependencies/parent_flow.yaml").toURI()));
+        sources.add(SlangSource.fromFile(getClass().getResource("/circular-dependencies/child_flow.yaml").toURI()));
+        sources.add(SlangSource.fromFile(getClass().getResource("/test_op.sl").toURI()));
+
+        List<CompilationModellingResult> results = compiler.compileSources(sources, PrecompileStrategy.WITH_CACHE);
+        ExecutionPlan operationPlan = results.get(0).getCompilationArtifact().getDependencies().get("user.ops.test_op");
+
+        assertNotNull(operationPlan);
+        assertSame(operationPlan, results.get(1).getCompilationArtifact().getDependencies().get("user.ops.test_op"));
+        // the plan of the compiled flow itself is not shared with the flows using it
+        assertNotSame(results.get(2).getCompilationArtifact().getExecutionPlan(), operationPlan);
+
+        compiler.invalidateAllInPreCompileCache();
+        results = compiler.compileSources(sources, PrecompileStrategy.WITH_CACHE);
+
+        ExecutionPlan recompiledPlan =
+                results.get(0).getCompilationArtifact().getDependencies().get("user.ops.test_op");
+        assertNotSame(operationPlan, recompiledPlan);
+        assertEquals(operationPlan.getFlowUuid(), recompiledPlan.getFlowUuid());
+    }
+
+    @Test
+    public void testDependencyExecutionPlanFollowsTheResultsOfItsOnFailureOperation() throws Exception {
+        Executable parentFlow = preCompile("namespace: user.flows\n" +
+                "imports:\n  flows: user.flows\n" +
+                "flow:\n  name: parent_flow\n  workflow:\n" +
+                "    - run_child:\n        do:\n          flows.child_flow: []\n" +
+                "  results:\n    - SUCCESS\n    - FAILURE\n", "parent_flow.sl");
+        Executable childFlow = preCompile("namespace: user.flows\n" +
+                "imports:\n  ops: user.ops\n" +
+                "flow:\n  name: child_flow\n  workflow:\n" +
+                "    - step1:\n        do:\n          ops.test_op:\n            - alla: 'a'\n" +
+                "    - on_failure:\n        - handle_failure:\n            do:\n              ops.failure_op: []\n" +
+                "  results:\n    - SUCCESS\n    - FAILURE\n", "child_flow.sl");
+        Executable testOperation = compiler.preCompile(
+                SlangSource.fromFile(getClass().getResource("/test_op.sl").toURI()));
+        String failureOperation = "namespace: user.ops\n" +
+                "operation:\n  name: failure_op\n  python_action:\n    script: 'pass'\n" +
+                "  results:\n    - SUCCESS: ${1 == 1}\n    - FAILURE\n";
+
+        ExecutionPlan childPlan = compileChildPlan(parentFlow, childFlow, testOperation,
+                preCompile(failureOperation, "failure_op.sl"));
+        assertSame(childPlan, compileChildPlan(parentFlow, childFlow, testOperation,
+                preCompile(failureOperation, "failure_op.sl")));
+        assertFalse(hasNavigation(childPlan, "CUSTOM"));
+
+        // only the operation changed, the flow is the same executable
+        ExecutionPlan recompiledChildPlan = compileChildPlan(parentFlow, childFlow, testOperation,
+                preCompile(failureOperation.replace("    - FAILURE\n", "    - CUSTOM: ${1 == 2}\n    - FAILURE\n"),
+                        "failure_op.sl"));
+        assertNotSame(childPlan, recompiledChildPlan);
+        assertTrue(hasNavigation(recompiledChildPlan, "CUSTOM"));
+    }
+
+    private Executable preCompile(String content, String name) {
+        return compiler.preCompile(new SlangSource(content, name));
+    }
+
+    private ExecutionPlan compileChildPlan(Executable parentFlow, Executable childFlow, Executable... operations) {
+        Set<Executable> path = new HashSet<>(Arrays.asList(operations));
+        path.add(childFlow);
+        CompilationArtifact artifact = scoreCompiler.compile(parentFlow, path);
+        return artifact.getDependencies().get("user.flows.child_flow");
+    }
+
+    private boolean hasNavigation(ExecutionPlan executionPlan, String resultName) {
+        for (ExecutionStep step : executionPlan.getSteps().values()) {
+            Map<?, ?> navigation = (Map<?, ?>) step.getActionData().get(ScoreLangConstants.STEP_NAVIGATION_KEY);
+            if (navigation != null && navigation.containsKey(resultName)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+}
@@ -42,6 +42,7 @@ import org.springframework.test.annotation.DirtiesContext;
 import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
 
+import static com.google.common.collect.Sets.newHashSet;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertTrue;
@@ -124,13 +125,15 @@ public class CompileForLoopsFlowTest {
                         ValueFactory.create("${ x }"),
                         true,
                         Collections.<ScriptFunction>emptySet(),
-                        Collections.<String>emptySet()
+                        Collections.<String>emptySet(),
+                        newHashSet("x")
                 ),
                 new Argument(
                         "step_input_02",
                         ValueFactory.create(null),
                         false,
                         Collections.<ScriptFunction>emptySet(),
+                        Collections.<String>emptySet(),
                         Collections.<String>emptySet()
                 ),
                 new Argument(
@@ -138,14 +141,16 @@ public class CompileForLoopsFlowTest {
                         ValueFactory.create("${ step_input_03_value }"),
                         true,
                         Collections.<ScriptFunction>emptySet(),
-                        Collections.<String>emptySet()
+                        Collections.<String>emptySet(),
+                        newHashSet("step_input_03_value")
                 ),
                 new Argument(
                         "step_input_04",
                         ValueFactory.create("${ step_input_04_value }", true),
                         true,
                         Collections.<ScriptFunction>emptySet(),
-                        Collections.<String>emptySet()
+                        Collections.<String>emptySet(),
+                        newHashSet("step_input_04_value")
                 )
         );
     }
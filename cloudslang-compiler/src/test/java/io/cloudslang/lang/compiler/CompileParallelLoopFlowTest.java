@@ -18,6 +18,7 @@ import io.cloudslang.lang.entities.ListLoopStatement;
 import io.cloudslang.lang.entities.ResultNavigation;
 import io.cloudslang.lang.entities.ScoreLangConstants;
 import io.cloudslang.lang.entities.bindings.Output;
+import io.cloudslang.lang.entities.bindings.ScriptFunction;
 import io.cloudslang.lang.entities.bindings.values.ValueFactory;
 import io.cloudslang.score.api.ExecutionPlan;
 import io.cloudslang.score.api.ExecutionStep;
@@ -25,6 +26,7 @@ import io.cloudslang.score.api.ExecutionStep;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Deque;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -42,8 +44,10 @@ import org.springframework.test.annotation.DirtiesContext;
 import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
 
+import static com.google.common.collect.Sets.newHashSet;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 
 /**
@@ -449,6 +453,55 @@ public class CompileParallelLoopFlowTest {
         compiler.compile(SlangSource.fromFile(flow), path);
     }
 
+    @Test
+    public void testCompileParallelLoopFlowMaxBranches() throws Exception {
+        final URI flow = getClass().getResource("/loops/parallel_loop/parallel_loop_max_branches.sl").toURI();
+        final URI operation = getClass().getResource("/loops/parallel_loop/print_branch.sl").toURI();
+        Set<SlangSource> path = new HashSet<>();
+        path.add(SlangSource.fromFile(operation));
+        CompilationArtifact artifact = compiler.compile(SlangSource.fromFile(flow), path);
+
+        ExecutionStep addBranchesStep = artifact.getExecutionPlan().getStep(2L);
+        Map<String, ?> addBranchesActionData = addBranchesStep.getActionData();
+        verifyParallelLoopStatement(addBranchesActionData);
+        assertEquals(2, addBranchesActionData.get(ScoreLangConstants.MAX_BRANCHES_KEY));
+        assertEquals(2L, addBranchesActionData.get(ScoreLangConstants.ADD_BRANCHES_STEP_ID_KEY));
+    }
+
+    @Test
+    public void testCompileParallelLoopFlowWithoutMaxBranches() throws Exception {
+        final URI flow = getClass().getResource("/loops/parallel_loop/simple_parallel_loop.sl").toURI();
+        final URI operation = getClass().getResource("/loops/parallel_loop/print_branch.sl").toURI();
+        Set<SlangSource> path = new HashSet<>();
+        path.add(SlangSource.fromFile(operation));
+        CompilationArtifact artifact = compiler.compile(SlangSource.fromFile(flow), path);
+
+        Map<String, ?> addBranchesActionData = artifact.getExecutionPlan().getStep(2L).getActionData();
+        assertNull(addBranchesActionData.get(ScoreLangConstants.MAX_BRANCHES_KEY));
+        assertEquals(2L, addBranchesActionData.get(ScoreLangConstants.ADD_BRANCHES_STEP_ID_KEY));
+    }
+
+    @Test
+    public void testInvalidMaxBranchesThrowsException() throws Exception {
+        final URI flow = getClass()
+                .getResource("/corrupted/loops/parallel_loop/parallel_loop_max_branches_invalid.sl").toURI();
+
+        expectedException.expect(RuntimeException.class);
+        expectedException.expectMessage("'max_branches' should be a positive integer, but instead there is: 0");
+
+        compiler.preCompile(SlangSource.fromFile(flow));
+    }
+
+    @Test
+    public void testMaxBranchesOutsideOfParallelLoopThrowsException() throws Exception {
+        final URI flow = getClass().getResource("/corrupted/loops/parallel_loop/loop_max_branches.sl").toURI();
+
+        expectedException.expect(RuntimeException.class);
+        expectedException.expectMessage("'max_branches' can only be declared below the 'parallel_loop' keyword.");
+
+        compiler.preCompile(SlangSource.fromFile(flow));
+    }
+
     private void verifyPublishValues(Map<String, ?> joinBranchesActionData) {
         assertTrue(joinBranchesActionData.containsKey(ScoreLangConstants.STEP_PUBLISH_KEY));
         @SuppressWarnings("unchecked") List<Output> actualPublishOutputs =
@@ -456,10 +509,14 @@ public class CompileParallelLoopFlowTest {
         List<Output> expectedPublishOutputs = new ArrayList<>();
         expectedPublishOutputs
                 .add(new Output("name_list",
-                        ValueFactory.create("${ map(lambda x:str(x['name']), branches_context) }")));
+                        ValueFactory.create("${ map(lambda x:str(x['name']), branches_context) }"),
+                        Collections.<ScriptFunction>emptySet(), Collections.<String>emptySet(),
+                        newHashSet("map", "x", "str", "branches_context")));
         expectedPublishOutputs
                 .add(new Output("number_from_last_branch",
-                        ValueFactory.create("${ branches_context[-1]['number'] }")));
+                        ValueFactory.create("${ branches_context[-1]['number'] }"),
+                        Collections.<ScriptFunction>emptySet(), Collections.<String>emptySet(),
+                        newHashSet("branches_context")));
         assertEquals("publish values not as expected", expectedPublishOutputs, actualPublishOutputs);
     }
 
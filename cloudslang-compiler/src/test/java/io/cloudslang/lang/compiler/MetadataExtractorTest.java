@@ -286,6 +286,26 @@ public class MetadataExtractorTest {
         );
     }
 
+    @Test
+    public void testCheckstyleWithMetadata() throws Exception {
+        SlangSource source = SlangSource.fromFile(
+                getClass().getResource("/metadata/step/step_description_11.sl").toURI());
+        MetadataModellingResult metadataModellingResult =
+                metadataExtractor.extractMetadataModellingResult(source, true);
+        MetadataModellingResult metadataOnlyResult = metadataExtractor.extractMetadataModellingResult(source);
+        List<RuntimeException> checkstyleViolations = metadataExtractor.validateCheckstyle(source);
+
+        List<RuntimeException> errors = metadataModellingResult.getErrors();
+        int metadataErrorCount = metadataOnlyResult.getErrors().size();
+        Assert.assertEquals(metadataErrorCount + checkstyleViolations.size(), errors.size());
+        for (int i = 0; i < checkstyleViolations.size(); i++) {
+            Assert.assertEquals(checkstyleViolations.get(i).getMessage(),
+                    errors.get(metadataErrorCount + i).getMessage());
+        }
+        Assert.assertEquals(metadataOnlyResult.getMetadata().getDescription(),
+                metadataModellingResult.getMetadata().getDescription());
+    }
+
     private void assertStep01(List<StepMetadata> stepDescriptions) {
         Map<String, String> stepInputs = new HashMap<>();
         stepInputs.put("step_input_1", "description step input 1");
@@ -9,6 +9,8 @@
  *******************************************************************************/
 package io.cloudslang.lang.compiler;
 
+import io.cloudslang.lang.compiler.caching.CacheResult;
+import io.cloudslang.lang.compiler.caching.CacheValueState;
 import io.cloudslang.lang.compiler.caching.CachedPrecompileService;
 import io.cloudslang.lang.compiler.modeller.SlangModeller;
 import io.cloudslang.lang.compiler.parser.YamlParser;
@@ -24,7 +26,10 @@ import org.mockito.Mock;
 import org.mockito.Spy;
 import org.mockito.runners.MockitoJUnitRunner;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
 import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.when;
 
 @RunWith(MockitoJUnitRunner.class)
 public class PrecompileCacheTest {
@@ -68,6 +73,27 @@ public class PrecompileCacheTest {
         inOrderCache.verifyNoMoreInteractions();
     }
 
+    @Test
+    public void testFailedPrecompileInvalidatesTheEntry() throws Exception {
+        URL resource = getClass().getResource("/corrupted/op_without_namespace.sl");
+        SlangSource slangSource = SlangSource.fromFile(resource.toURI());
+        when(cachedPrecompileService.getValueFromCache(slangSource.getFilePath(), slangSource))
+                .thenReturn(new CacheResult(CacheValueState.MISSING, null));
+        when(yamlParser.parse(slangSource)).thenThrow(new RuntimeException("parse failed"));
+
+        try {
+            compiler.preCompileSource(slangSource, PrecompileStrategy.WITH_CACHE);
+            fail("pre-compile should fail");
+        } catch (RuntimeException ex) {
+            assertEquals("parse failed", ex.getMessage());
+        }
+
+        InOrder inOrderCache = inOrder(cachedPrecompileService);
+        inOrderCache.verify(cachedPrecompileService).getValueFromCache(slangSource.getFilePath(), slangSource);
+        inOrderCache.verify(cachedPrecompileService).invalidateEntry(slangSource.getFilePath());
+        inOrderCache.verifyNoMoreInteractions();
+    }
+
     @Test
     public void testPrecompileCacheDisabled() throws Exception {
         URL resource = getClass().getResource("/corrupted/op_without_namespace.sl");
@@ -264,4 +264,16 @@ public class SlangSourceTest {
                 Charset.forName(cslangEncoding);
     }
 
-}
\ No newline at end of file
+    @Test
+    public void testFingerprintDoesNotDependOnHowTheSourceIsRead() throws Exception {
+        final String sourceString = "ÈûÜ噂閏없다哱嘰ЕеЖ lœuvre àît André Citroën";
+        File file = folder.newFile(name);
+        FileUtils.writeStringToFile(file, sourceString, "UTF-8");
+
+        String fingerprint = SlangSource.fromFile(file).getFingerprint();
+
+        Assert.assertEquals(fingerprint, new SlangSource(sourceString, name).getFingerprint());
+        Assert.assertEquals(fingerprint, SlangSource.fromBytes(sourceString.getBytes("UTF-8"), name).getFingerprint());
+        Assert.assertNotEquals(fingerprint, new SlangSource(sourceString + " ", name).getFingerprint());
+    }
+}
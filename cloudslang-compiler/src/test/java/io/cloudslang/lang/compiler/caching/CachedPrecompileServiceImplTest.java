@@ -10,9 +10,12 @@
 package io.cloudslang.lang.compiler.caching;
 
 import com.google.common.cache.Cache;
+import com.google.common.cache.CacheStats;
 import io.cloudslang.lang.compiler.SlangSource;
 import io.cloudslang.lang.compiler.modeller.result.ExecutableModellingResult;
+import java.io.File;
 import java.lang.reflect.Field;
+import java.util.concurrent.ConcurrentHashMap;
 import junit.framework.Assert;
 import org.apache.commons.lang3.tuple.MutablePair;
 import org.junit.Test;
@@ -26,11 +29,14 @@ import org.mockito.invocation.InvocationOnMock;
 import org.mockito.runners.MockitoJUnitRunner;
 import org.mockito.stubbing.Answer;
 
+import static io.cloudslang.lang.compiler.caching.CacheValueState.MISSING;
 import static io.cloudslang.lang.compiler.caching.CacheValueState.OUTDATED;
 import static io.cloudslang.lang.compiler.caching.CacheValueState.VALID;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.anyObject;
@@ -160,6 +166,7 @@ public class CachedPrecompileServiceImplTest {
     public void testInvalidateEntryWithRealPath() {
         String myPath = "invalidatepath";
         doNothing().when(cache).invalidate(anyString());
+        doReturn(new ConcurrentHashMap<String, CacheValue>()).when(cache).asMap();
 
         // Tested call
         cachedPrecompileServiceImpl.invalidateEntry(myPath);
@@ -167,6 +174,29 @@ public class CachedPrecompileServiceImplTest {
         verify(cache).invalidate(eq(myPath));
     }
 
+    @Test
+    public void testInvalidateDirectory() {
+        CachedPrecompileServiceImpl cachedPrecompileService = new CachedPrecompileServiceImpl();
+        cachedPrecompileService.init();
+        SlangSource source = new SlangSource("content", "name");
+        ExecutableModellingResult modellingResult = mock(ExecutableModellingResult.class);
+        String directory = "content" + File.separator + "ops";
+        cachedPrecompileService.cacheValue(directory + File.separator + "op.sl", modellingResult, source);
+        cachedPrecompileService.cacheValue(directory + File.separator + "sub" + File.separator + "op.sl",
+                modellingResult, source);
+        cachedPrecompileService.cacheValue(directory + "_other" + File.separator + "op.sl", modellingResult, source);
+
+        // Tested call
+        cachedPrecompileService.invalidateEntry(directory);
+
+        assertEquals(MISSING, cachedPrecompileService
+                .getValueFromCache(directory + File.separator + "op.sl", source).getState());
+        assertEquals(MISSING, cachedPrecompileService
+                .getValueFromCache(directory + File.separator + "sub" + File.separator + "op.sl", source).getState());
+        assertEquals(VALID, cachedPrecompileService
+                .getValueFromCache(directory + "_other" + File.separator + "op.sl", source).getState());
+    }
+
     @Test
     public void testInvalidateEntryWithNullPath() {
         doNothing().when(cache).invalidate(anyString());
@@ -217,4 +247,51 @@ public class CachedPrecompileServiceImplTest {
         Assert.assertNotNull(internalCache);
     }
 
+    @Test
+    public void testHasChangedSinceCachedComparesFingerprints() throws Exception {
+        SlangSource source = SlangSource.fromFile(getClass().getResource("/check_op.sl").toURI());
+        SlangSource sameSource = SlangSource.fromFile(getClass().getResource("/check_op.sl").toURI());
+        SlangSource otherName = new SlangSource(source.getContent(), source.getName());
+        SlangSource otherContent = new SlangSource(source.getContent().replace('a', 'b'), source.getName());
+
+        assertFalse(cachedPrecompileServiceImpl.hasChangedSinceCached(source, sameSource));
+        assertTrue(cachedPrecompileServiceImpl.hasChangedSinceCached(source, otherName));
+        assertTrue(cachedPrecompileServiceImpl.hasChangedSinceCached(otherName, otherContent));
+    }
+
+    @Test
+    public void testStats() {
+        CachedPrecompileServiceImpl cachedPrecompileService = new CachedPrecompileServiceImpl();
+        cachedPrecompileService.init();
+        SlangSource source = new SlangSource("content", "name");
+        ExecutableModellingResult modellingResult = mock(ExecutableModellingResult.class);
+
+        cachedPrecompileService.getValueFromCache("path", source);
+        cachedPrecompileService.cacheValue("path", modellingResult, source);
+        cachedPrecompileService.getValueFromCache("path", source);
+        cachedPrecompileService.getValueFromCache("path", new SlangSource("changed content", "name"));
+
+        CacheStats stats = cachedPrecompileService.getStats();
+        assertEquals(1, stats.hitCount());
+        assertEquals(2, stats.missCount());
+        assertEquals(1, stats.loadCount());
+        assertEquals(0, stats.evictionCount());
+        assertEquals(1.0 / 3, stats.hitRate(), 0.001);
+    }
+
+    @Test
+    public void testInvalidatedLoadIsNotCounted() {
+        CachedPrecompileServiceImpl cachedPrecompileService = new CachedPrecompileServiceImpl();
+        cachedPrecompileService.init();
+        SlangSource source = new SlangSource("content", "name");
+        ExecutableModellingResult modellingResult = mock(ExecutableModellingResult.class);
+
+        cachedPrecompileService.getValueFromCache("path", source);
+        cachedPrecompileService.invalidateEntry("path");
+        cachedPrecompileService.cacheValue("path", modellingResult, source);
+
+        CacheStats stats = cachedPrecompileService.getStats();
+        assertEquals(1, stats.missCount());
+        assertEquals(0, stats.loadCount());
+    }
 }
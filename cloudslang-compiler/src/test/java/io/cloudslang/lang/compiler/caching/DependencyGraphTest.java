@@ -0,0 +1,174 @@
+/*******************************************************************************
+ * (c) Copyright 2016 Hewlett-Packard Development Company, L.P.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Apache License v2.0 which accompany this distribution.
+ *
+ * The Apache License is available at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *******************************************************************************/
+package io.cloudslang.lang.compiler.caching;
+
+import io.cloudslang.lang.compiler.modeller.model.Executable;
+import io.cloudslang.lang.compiler.modeller.model.Flow;
+import io.cloudslang.lang.entities.bindings.Input;
+import io.cloudslang.lang.entities.bindings.Output;
+import io.cloudslang.lang.entities.bindings.Result;
+import java.io.File;
+import java.io.Serializable;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import static org.junit.Assert.assertEquals;
+
+public class DependencyGraphTest {
+
+    private static final String NAMESPACE = "user.flows";
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private String directoryPath;
+
+    private Map<String, String> fingerprints;
+
+    private Map<String, Executable> executables;
+
+    private DependencyGraph dependencyGraph;
+
+    @Before
+    public void setUp() throws Exception {
+        directoryPath = temporaryFolder.newFolder().getAbsolutePath();
+        fingerprints = new HashMap<>();
+        executables = new HashMap<>();
+        // op <- child <- parent, other stands alone
+        addFile("op", "1");
+        addFile("child", "1", "op");
+        addFile("parent", "1", "child");
+        addFile("other", "1");
+        dependencyGraph = new DependencyGraph();
+    }
+
+    @Test
+    public void testAllExecutablesAreStaleOnTheFirstUpdate() {
+        assertEquals(ids("op", "child", "parent", "other"), update());
+        assertEquals(ids("child"), dependencyGraph.getReferences(id("parent")));
+        assertEquals(ids("parent"), dependencyGraph.getDependents(id("child")));
+    }
+
+    @Test
+    public void testNothingIsStaleWithoutChanges() {
+        update();
+        assertEquals(ids(), update());
+    }
+
+    @Test
+    public void testChangedExecutableAndItsTransitiveDependentsAreStale() {
+        update();
+        addFile("op", "2");
+        assertEquals(ids("op", "child", "parent"), update());
+        assertEquals(ids(), update());
+
+        addFile("child", "2");
+        assertEquals(ids("child", "parent"), update());
+    }
+
+    @Test
+    public void testReferencesAreUpdated() {
+        update();
+        addFile("parent", "2", "other");
+        assertEquals(ids("parent"), update());
+        assertEquals(ids("other"), dependencyGraph.getReferences(id("parent")));
+        assertEquals(ids(), dependencyGraph.getDependents(id("child")));
+
+        addFile("other", "2");
+        assertEquals(ids("other", "parent"), update());
+    }
+
+    @Test
+    public void testDeletedExecutableAndItsDependentsAreStale() {
+        update();
+        fingerprints.remove(path("child"));
+        executables.remove(path("child"));
+        assertEquals(ids("child", "parent"), update());
+        assertEquals(ids(), dependencyGraph.getReferences(id("child")));
+    }
+
+    @Test
+    public void testFilesOfOtherDirectoriesAreKept() throws Exception {
+        update();
+        String otherDirectoryPath = temporaryFolder.newFolder().getAbsolutePath();
+        Map<String, String> testFingerprints = Collections.singletonMap(otherDirectoryPath + "/test.sl", "1");
+        Map<String, Executable> testExecutables = Collections.singletonMap(otherDirectoryPath + "/test.sl",
+                createFlow("test", "parent"));
+
+        assertEquals(ids("test"), dependencyGraph.update(otherDirectoryPath, testFingerprints, testExecutables));
+        addFile("op", "2");
+        assertEquals(ids("op", "child", "parent", "test"), update());
+    }
+
+    @Test
+    public void testSavedGraphIsLoadedBack() throws Exception {
+        update();
+        File graphFile = new File(temporaryFolder.getRoot(), "graph/dependencies.ser");
+        dependencyGraph.save(graphFile);
+        dependencyGraph = DependencyGraph.load(graphFile);
+
+        assertEquals(ids(), update());
+        addFile("op", "2");
+        assertEquals(ids("op", "child", "parent"), update());
+    }
+
+    @Test
+    public void testUnreadableGraphIsDiscarded() throws Exception {
+        File graphFile = temporaryFolder.newFile();
+        Files.write(graphFile.toPath(), "not a graph".getBytes("UTF-8"));
+
+        assertEquals(ids("op", "child", "parent", "other"), DependencyGraph.load(graphFile)
+                .update(directoryPath, fingerprints, executables));
+    }
+
+    private Set<String> update() {
+        return dependencyGraph.update(directoryPath, fingerprints, executables);
+    }
+
+    private void addFile(String name, String fingerprint, String... references) {
+        fingerprints.put(path(name), fingerprint);
+        executables.put(path(name), createFlow(name, references));
+    }
+
+    private String path(String name) {
+        return directoryPath + File.separator + name + ".sl";
+    }
+
+    private Executable createFlow(String name, String... references) {
+        Set<String> executableDependencies = new HashSet<>();
+        for (String reference : references) {
+            executableDependencies.add(id(reference));
+        }
+        return new Flow(new HashMap<String, Serializable>(), new HashMap<String, Serializable>(), null, NAMESPACE,
+                name, Collections.<Input>emptyList(), Collections.<Output>emptyList(),
+                Collections.<Result>emptyList(), executableDependencies, Collections.<String>emptySet());
+    }
+
+    private String id(String name) {
+        return NAMESPACE + "." + name;
+    }
+
+    private Set<String> ids(String... names) {
+        Set<String> ids = new HashSet<>();
+        for (String name : Arrays.asList(names)) {
+            ids.add(id(name));
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,188 @@
+/*******************************************************************************
+ * (c) Copyright 2016 Hewlett-Packard Development Company, L.P.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Apache License v2.0 which accompany this distribution.
+ *
+ * The Apache License is available at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *******************************************************************************/
+package io.cloudslang.lang.compiler.caching;
+
+import io.cloudslang.lang.compiler.SlangSource;
+import io.cloudslang.lang.compiler.modeller.model.Executable;
+import io.cloudslang.lang.compiler.modeller.model.Flow;
+import io.cloudslang.lang.entities.bindings.Input;
+import io.cloudslang.lang.entities.bindings.Output;
+import io.cloudslang.lang.entities.bindings.Result;
+import java.io.File;
+import java.io.Serializable;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class NamespaceIndexTest {
+
+    private static final String NAMESPACE = "user.flows";
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private File folder;
+
+    private NamespaceIndex namespaceIndex;
+
+    @Before
+    public void setUp() throws Exception {
+        folder = temporaryFolder.newFolder();
+        namespaceIndex = new NamespaceIndex(folder);
+        // op <- child <- parent, other stands alone
+        addFile("op");
+        addFile("child", "op");
+        addFile("parent", "child");
+        addFile("other");
+    }
+
+    @Test
+    public void testTransitiveReferencesAreReachable() {
+        assertEquals(paths("child", "op"), getReachableFiles(namespaceIndex.getReferences(file("parent"))));
+        assertEquals(paths(), getReachableFiles(namespaceIndex.getReferences(file("other"))));
+    }
+
+    @Test
+    public void testUnresolvedReferenceIsReported() {
+        assertNull(getReachableFiles(Collections.singleton(id("missing"))));
+    }
+
+    @Test
+    public void testReferencesAreResolvedAcrossIndexes() throws Exception {
+        File otherFolder = temporaryFolder.newFolder();
+        NamespaceIndex otherIndex = new NamespaceIndex(otherFolder);
+        File test = write(otherFolder, "test");
+        otherIndex.put(test, fingerprint(test), createFlow("test", "parent"));
+
+        List<NamespaceIndex> indexes = Arrays.asList(namespaceIndex, otherIndex);
+        assertEquals(paths("parent", "child", "op"),
+                NamespaceIndex.getReachableFiles(indexes, otherIndex.getReferences(test)));
+    }
+
+    @Test
+    public void testChangedFileIsNotUpToDate() throws Exception {
+        assertTrue(isUpToDate(namespaceIndex, "op"));
+        Files.write(file("op").toPath(), "changed".getBytes("UTF-8"));
+        assertFalse(isUpToDate(namespaceIndex, "op"));
+    }
+
+    @Test
+    public void testChangedContentWithSameTimeAndLengthIsNotUpToDate() throws Exception {
+        File op = file("op");
+        long lastModified = op.lastModified();
+        Files.write(op.toPath(), "po".getBytes("UTF-8"));
+        assertTrue(op.setLastModified(lastModified));
+        assertFalse(isUpToDate(namespaceIndex, "op"));
+    }
+
+    @Test
+    public void testTouchedFileIsUpToDate() throws Exception {
+        File op = file("op");
+        assertTrue(op.setLastModified(op.lastModified() + 10000));
+        Files.write(op.toPath(), "op".getBytes("UTF-8"));
+        assertTrue(isUpToDate(namespaceIndex, "op"));
+    }
+
+    @Test
+    public void testDeletedFilesAreDropped() {
+        namespaceIndex.retainFiles(Arrays.asList(file("parent"), file("op"), file("other")));
+        assertNull(getReachableFiles(namespaceIndex.getReferences(file("parent"))));
+        assertFalse(isUpToDate(namespaceIndex, "child"));
+    }
+
+    @Test
+    public void testFileThatCannotBeModelledHasNoReferences() throws Exception {
+        namespaceIndex.put(file("child"), fingerprint(file("child")), null);
+        assertTrue(isUpToDate(namespaceIndex, "child"));
+        assertNull(namespaceIndex.getReferences(file("child")));
+        assertNull(getReachableFiles(namespaceIndex.getReferences(file("parent"))));
+    }
+
+    @Test
+    public void testSavedIndexIsLoadedBack() throws Exception {
+        File indexFile = new File(temporaryFolder.getRoot(), "index/flows.index");
+        namespaceIndex.save(indexFile);
+        namespaceIndex = NamespaceIndex.load(indexFile, folder);
+
+        assertTrue(isUpToDate(namespaceIndex, "parent"));
+        assertEquals(paths("child", "op"), getReachableFiles(namespaceIndex.getReferences(file("parent"))));
+        assertFalse(isUpToDate(NamespaceIndex.load(indexFile, temporaryFolder.newFolder()), "parent"));
+    }
+
+    @Test
+    public void testUnreadableIndexIsDiscarded() throws Exception {
+        File indexFile = temporaryFolder.newFile();
+        Files.write(indexFile.toPath(), "not an index".getBytes("UTF-8"));
+
+        assertFalse(isUpToDate(NamespaceIndex.load(indexFile, folder), "op"));
+    }
+
+    private boolean isUpToDate(NamespaceIndex index, String name) {
+        return index.isUpToDate(file(name), fingerprint(file(name)));
+    }
+
+    private String fingerprint(File file) {
+        return file.isFile() ? SlangSource.fromFile(file).getFingerprint() : null;
+    }
+
+    private Set<String> getReachableFiles(Set<String> references) {
+        return NamespaceIndex.getReachableFiles(Collections.singletonList(namespaceIndex), references);
+    }
+
+    private void addFile(String name, String... references) throws Exception {
+        File file = write(folder, name);
+        namespaceIndex.put(file, fingerprint(file), createFlow(name, references));
+    }
+
+    private File write(File directory, String name) throws Exception {
+        File file = new File(directory, name + ".sl");
+        Files.write(file.toPath(), name.getBytes("UTF-8"));
+        return file;
+    }
+
+    private File file(String name) {
+        return new File(folder, name + ".sl");
+    }
+
+    private Set<String> paths(String... names) {
+        Set<String> paths = new HashSet<>();
+        for (String name : names) {
+            paths.add(file(name).getAbsolutePath());
+        }
+        return paths;
+    }
+
+    private Executable createFlow(String name, String... references) {
+        Set<String> executableDependencies = new HashSet<>();
+        for (String reference : references) {
+            executableDependencies.add(id(reference));
+        }
+        return new Flow(new HashMap<String, Serializable>(), new HashMap<String, Serializable>(), null, NAMESPACE,
+                name, Collections.<Input>emptyList(), Collections.<Output>emptyList(),
+                Collections.<Result>emptyList(), executableDependencies, Collections.<String>emptySet());
+    }
+
+    private String id(String name) {
+        return NAMESPACE + "." + name;
+    }
+}
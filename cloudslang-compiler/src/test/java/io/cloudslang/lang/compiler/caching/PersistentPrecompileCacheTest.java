@@ -0,0 +1,168 @@
+/*******************************************************************************
+ * (c) Copyright 2016 Hewlett-Packard Development Company, L.P.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Apache License v2.0 which accompany this distribution.
+ *
+ * The Apache License is available at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *******************************************************************************/
+package io.cloudslang.lang.compiler.caching;
+
+import io.cloudslang.lang.compiler.SlangCompiler;
+import io.cloudslang.lang.compiler.SlangSource;
+import io.cloudslang.lang.compiler.configuration.SlangCompilerSpringConfig;
+import io.cloudslang.lang.compiler.modeller.model.Executable;
+import io.cloudslang.lang.compiler.modeller.result.ExecutableModellingResult;
+import java.io.File;
+import java.io.RandomAccessFile;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(SpringJUnit4ClassRunner.class)
+@ContextConfiguration(classes = SlangCompilerSpringConfig.class)
+public class PersistentPrecompileCacheTest {
+
+    private static final long MAX_SIZE = 1024 * 1024;
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Autowired
+    private SlangCompiler compiler;
+
+    private File directory;
+
+    private PersistentPrecompileCache persistentCache;
+
+    @Before
+    public void setUp() throws Exception {
+        directory = temporaryFolder.newFolder();
+        persistentCache = new PersistentPrecompileCache(directory, MAX_SIZE, "1.0");
+    }
+
+    @Test
+    public void testCachedResultIsReadBack() throws Exception {
+        SlangSource source = getSource("/check_op.sl");
+        ExecutableModellingResult modellingResult = compiler.preCompileSource(source);
+
+        persistentCache.put(source, modellingResult);
+        ExecutableModellingResult cachedResult = persistentCache.get(source);
+
+        assertNotNull(cachedResult);
+        Executable executable = cachedResult.getExecutable();
+        assertEquals(modellingResult.getExecutable(), executable);
+        assertEquals(modellingResult.getExecutable().getId(), executable.getId());
+        assertEquals(modellingResult.getErrors(), cachedResult.getErrors());
+        assertEquals(persistentCache.getEntryFile(source).length(), persistentCache.getSize());
+    }
+
+    @Test
+    public void testChangedSourceMisses() throws Exception {
+        SlangSource source = getSource("/check_op.sl");
+        persistentCache.put(source, compiler.preCompileSource(source));
+
+        assertNull(persistentCache.get(new SlangSource(source.getContent() + "\n", source.getName())));
+        assertNull(new PersistentPrecompileCache(directory, MAX_SIZE, "1.1").get(source));
+    }
+
+    @Test
+    public void testBuildVersionChangesWithSnapshotBuilds() throws Exception {
+        File classesDirectory = temporaryFolder.newFolder();
+        File classFile = new File(classesDirectory, "SlangCompilerImpl.class");
+        assertTrue(classFile.createNewFile());
+        assertTrue(classFile.setLastModified(1000000L));
+        assertTrue(classesDirectory.setLastModified(1000000L));
+        String version = PersistentPrecompileCache.getBuildVersion("1.0-SNAPSHOT", classesDirectory);
+
+        assertEquals(version, PersistentPrecompileCache.getBuildVersion("1.0-SNAPSHOT", classesDirectory));
+        assertTrue(classFile.setLastModified(2000000L));
+        assertNotEquals(version, PersistentPrecompileCache.getBuildVersion("1.0-SNAPSHOT", classesDirectory));
+    }
+
+    @Test
+    public void testCorruptedEntryIsDeleted() throws Exception {
+        SlangSource source = getSource("/check_op.sl");
+        persistentCache.put(source, compiler.preCompileSource(source));
+        File entry = persistentCache.getEntryFile(source);
+        try (RandomAccessFile file = new RandomAccessFile(entry, "rw")) {
+            file.seek(file.length() - 1);
+            int last = file.read();
+            file.seek(file.length() - 1);
+            file.write(last ^ 1);
+        }
+
+        assertNull(persistentCache.get(source));
+        assertFalse(entry.exists());
+        assertEquals(0, persistentCache.getSize());
+    }
+
+    @Test
+    public void testResultWithSensitiveValuesIsNotCached() throws Exception {
+        SlangSource source = getSource("/check_weather_flow_sensitive_inputs_outputs.sl");
+        persistentCache.put(source, compiler.preCompileSource(source));
+
+        assertNull(persistentCache.get(source));
+        assertEquals(0, directory.list().length);
+    }
+
+    @Test
+    public void testLeastRecentlyUsedEntriesAreEvicted() throws Exception {
+        SlangSource source1 = getSource("/check_op.sl");
+        SlangSource source2 = new SlangSource(source1.getContent() + "\n", source1.getName());
+        ExecutableModellingResult modellingResult = compiler.preCompileSource(source1);
+        persistentCache.put(source1, modellingResult);
+        long entrySize = persistentCache.getSize();
+        persistentCache.getEntryFile(source1).setLastModified(System.currentTimeMillis() - 60000);
+
+        PersistentPrecompileCache smallCache = new PersistentPrecompileCache(directory, 2 * entrySize - 1, "1.0");
+        smallCache.put(source2, modellingResult);
+
+        assertFalse(smallCache.getEntryFile(source1).exists());
+        assertNotNull(smallCache.get(source2));
+        assertEquals(entrySize, smallCache.getSize());
+    }
+
+    @Test
+    public void testPrecompileServiceFallsBackToDisk() throws Exception {
+        SlangSource source = getSource("/check_op.sl");
+        ExecutableModellingResult modellingResult = compiler.preCompileSource(source);
+        CachedPrecompileServiceImpl service1 = createService();
+        service1.cacheValue(source.getFilePath(), modellingResult, source);
+
+        // a new service has an empty memory cache, as in a new JVM
+        CachedPrecompileServiceImpl service2 = createService();
+        CacheResult cacheResult = service2.getValueFromCache(source.getFilePath(), source);
+
+        assertEquals(CacheValueState.VALID, cacheResult.getState());
+        assertEquals(modellingResult.getExecutable(), cacheResult.getExecutableModellingResult().getExecutable());
+        // and is kept in memory from then on
+        assertSame(cacheResult.getExecutableModellingResult(),
+                service2.getValueFromCache(source.getFilePath(), source).getExecutableModellingResult());
+    }
+
+    private CachedPrecompileServiceImpl createService() {
+        CachedPrecompileServiceImpl service = new CachedPrecompileServiceImpl();
+        service.init();
+        service.setPersistentCache(persistentCache);
+        return service;
+    }
+
+    private SlangSource getSource(String resource) throws Exception {
+        return SlangSource.fromFile(getClass().getResource(resource).toURI());
+    }
+}
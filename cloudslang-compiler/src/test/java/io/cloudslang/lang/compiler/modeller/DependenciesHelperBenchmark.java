@@ -0,0 +1,92 @@
+/*******************************************************************************
+ * (c) Copyright 2016 Hewlett-Packard Development Company, L.P.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Apache License v2.0 which accompany this distribution.
+ *
+ * The Apache License is available at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *******************************************************************************/
+package io.cloudslang.lang.compiler.modeller;
+
+import io.cloudslang.lang.compiler.modeller.model.Executable;
+import io.cloudslang.lang.compiler.modeller.model.Flow;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Cost of matching the references of a flow that reaches the whole path, for paths of growing size.
+ * Every flow references the next {@value #REFERENCES_PER_FLOW} flows of the path.
+ * <p>
+ * Not part of the test suite - run {@link #main(String[])} with the test classpath.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class DependenciesHelperBenchmark {
+
+    private static final int REFERENCES_PER_FLOW = 3;
+
+    @Param({"100", "1000", "5000", "20000"})
+    private int pathSize;
+
+    private DependenciesHelper dependenciesHelper;
+
+    private List<Executable> path;
+
+    private Map<String, Executable> executablesById;
+
+    @Setup
+    public void setUp() {
+        dependenciesHelper = new DependenciesHelper();
+        path = new ArrayList<>(pathSize);
+        executablesById = new HashMap<>();
+        for (int i = 0; i < pathSize; i++) {
+            Set<String> dependencies = new HashSet<>();
+            for (int j = i + 1; j <= i + REFERENCES_PER_FLOW && j < pathSize; j++) {
+                dependencies.add("ns.flow_" + j);
+            }
+            Flow flow = new Flow(null, null, null, "ns", "flow_" + i, null, null, null, dependencies,
+                    Collections.<String>emptySet());
+            path.add(flow);
+            executablesById.put(flow.getId(), flow);
+        }
+    }
+
+    @Benchmark
+    public Map<String, Executable> matchReferencesInPath() {
+        return dependenciesHelper.matchReferences(path.get(0), path);
+    }
+
+    @Benchmark
+    public Map<String, Executable> matchReferencesInIndex() {
+        return dependenciesHelper.matchReferences(path.get(0), executablesById);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(DependenciesHelperBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -18,9 +18,12 @@ import io.cloudslang.lang.compiler.modeller.model.Step;
 import io.cloudslang.lang.compiler.modeller.model.Workflow;
 
 import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.Deque;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
@@ -30,6 +33,7 @@ import org.junit.Test;
 import org.junit.rules.ExpectedException;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
@@ -97,4 +101,49 @@ public class DependenciesHelperTest {
         assertEquals(Sets.newHashSet(stepRefId), result);
     }
 
-}
\ No newline at end of file
+    @Test
+    public void testMatchReferencesOfALongChain() throws Exception {
+        // deeper than a recursive traversal could go
+        List<Executable> path = new ArrayList<>();
+        int length = 20000;
+        for (int i = 0; i < length; i++) {
+            Set<String> dependencies = i < length - 1 ?
+                    Collections.singleton("ns.flow_" + (i + 1)) : Collections.<String>emptySet();
+            path.add(createFlow("flow_" + i, dependencies));
+        }
+
+        Map<String, Executable> result = dependenciesHelper.matchReferences(path.get(0), path);
+
+        assertEquals(length - 1, result.size());
+        assertSame(path.get(length - 1), result.get("ns.flow_" + (length - 1)));
+    }
+
+    @Test
+    public void testMatchReferencesMatchesTheFirstExecutableOfAnId() throws Exception {
+        Flow flow = createFlow("flow", Sets.newHashSet("ns.sub_flow"));
+        Flow subFlow = createFlow("sub_flow", Collections.<String>emptySet());
+        Flow otherSubFlow = createFlow("sub_flow", Sets.newHashSet("ns.missing"));
+
+        Map<String, Executable> result = dependenciesHelper.matchReferences(flow,
+                Arrays.<Executable>asList(flow, subFlow, otherSubFlow));
+
+        assertEquals(1, result.size());
+        assertSame(subFlow, result.get("ns.sub_flow"));
+    }
+
+    @Test
+    public void testMatchReferencesReportsTheFlowMissingAReference() throws Exception {
+        Flow flow = createFlow("flow", Sets.newHashSet("ns.sub_flow"));
+        Flow subFlow = createFlow("sub_flow", Sets.newHashSet("ns.missing"));
+
+        exception.expect(RuntimeException.class);
+        exception.expectMessage("Reference: 'ns.missing' in executable: 'sub_flow', wasn't found in path");
+        dependenciesHelper.matchReferences(flow, Arrays.<Executable>asList(flow, subFlow));
+    }
+
+    private Flow createFlow(String name, Set<String> dependencies) {
+        return new Flow(null, null, null, "ns", name, null, null, null, dependencies,
+                Collections.<String>emptySet());
+    }
+
+}
@@ -288,6 +288,19 @@ public class InputsTransformerTest extends TransformersTestParent {
         verifyFunctionsAndSpDependencies(inputs, 13, setGetAndCheckEmpty, emptySetString);
     }
 
+    @Test
+    public void testVariableDependencies() throws Exception {
+        @SuppressWarnings("unchecked")
+        List<Input> inputs = inputTransformer.transform(inputsMapWithFunctions).getTransformedData();
+
+        Assert.assertEquals(new HashSet<String>(), inputs.get(0).getVariableDependencies());
+        Assert.assertEquals(new HashSet<String>(), inputs.get(1).getVariableDependencies());
+        Assert.assertEquals(Sets.newHashSet("key"), inputs.get(2).getVariableDependencies());
+        Assert.assertEquals(Sets.newHashSet("expression"), inputs.get(9).getVariableDependencies());
+        Assert.assertEquals(Sets.newHashSet("key1", "key2"), inputs.get(11).getVariableDependencies());
+        Assert.assertEquals(Sets.newHashSet("i_dont_exist"), inputs.get(13).getVariableDependencies());
+    }
+
     private void verifyFunctionsAndSpDependencies(
             List<Input> inputs,
             int inputIndex,
@@ -0,0 +1,48 @@
+/*******************************************************************************
+ * (c) Copyright 2016 Hewlett-Packard Development Company, L.P.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Apache License v2.0 which accompany this distribution.
+ *
+ * The Apache License is available at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *******************************************************************************/
+package io.cloudslang.lang.compiler.modeller.transformers;
+
+import io.cloudslang.lang.compiler.modeller.result.TransformModellingResult;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class MaxBranchesTransformerTest {
+
+    private MaxBranchesTransformer maxBranchesTransformer = new MaxBranchesTransformer();
+
+    @Test
+    public void testTransformPositiveInteger() throws Exception {
+        TransformModellingResult<Integer> result = maxBranchesTransformer.transform(5);
+        Assert.assertEquals(Integer.valueOf(5), result.getTransformedData());
+        Assert.assertTrue(result.getErrors().isEmpty());
+    }
+
+    @Test
+    public void testTransformNullIsUnbounded() throws Exception {
+        TransformModellingResult<Integer> result = maxBranchesTransformer.transform(null);
+        Assert.assertNull(result.getTransformedData());
+        Assert.assertTrue(result.getErrors().isEmpty());
+    }
+
+    @Test
+    public void testTransformNonPositiveInteger() throws Exception {
+        TransformModellingResult<Integer> result = maxBranchesTransformer.transform(0);
+        Assert.assertNull(result.getTransformedData());
+        Assert.assertEquals(1, result.getErrors().size());
+    }
+
+    @Test
+    public void testTransformString() throws Exception {
+        TransformModellingResult<Integer> result = maxBranchesTransformer.transform("${ max }");
+        Assert.assertNull(result.getTransformedData());
+        Assert.assertEquals("'max_branches' should be a positive integer, but instead there is: ${ max }",
+                result.getErrors().get(0).getMessage());
+    }
+}
@@ -0,0 +1,84 @@
+/*******************************************************************************
+ * (c) Copyright 2016 Hewlett-Packard Development Company, L.P.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Apache License v2.0 which accompany this distribution.
+ *
+ * The Apache License is available at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *******************************************************************************/
+package io.cloudslang.lang.compiler.parser;
+
+import io.cloudslang.lang.compiler.parser.model.ParsedSlang;
+import io.cloudslang.lang.compiler.parser.utils.ParserExceptionHandler;
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Collection;
+import org.apache.commons.io.FileUtils;
+import org.junit.Test;
+import org.yaml.snakeyaml.Yaml;
+import org.yaml.snakeyaml.introspector.BeanAccess;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class ParsedSlangConstructorTest {
+
+    private final Yaml beanYaml = createYaml(false);
+
+    private final Yaml yaml = createYaml(true);
+
+    private final ParserExceptionHandler parserExceptionHandler = new ParserExceptionHandler();
+
+    @Test
+    public void testSourcesAreParsedAsJavaBeans() throws Exception {
+        File resources = new File(getClass().getResource("/").toURI());
+        Collection<File> files = FileUtils.listFiles(resources, new String[]{"sl", "yaml"}, true);
+        assertTrue(files.size() > 100);
+        for (File file : files) {
+            String content = new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8);
+            assertEquals(file.getPath(), load(beanYaml, content), load(yaml, content));
+        }
+    }
+
+    @Test
+    public void testSourcesOfOtherShapesAreParsedAsJavaBeans() {
+        String[] contents = {
+            "namespace: user.ops\noperation:\n  name: op",
+            "namespace: 1.0\nflow:\n  name: flow",
+            "namespace: user.ops\nimports:\n  ops: 1\noperation:\n  name: op",
+            "namespace: user.ops\nimports:\noperation:\n  name: op",
+            "namespace: user.ops\noperation: op",
+            "namespace: user.ops\noperations:\n  name: op",
+            "namespace: user.ops\n  operation:\n  name: op",
+            "namespace: &ns user.ops\noperation:\n  name: *ns",
+            "base: &base\n  name: op\noperation:\n  <<: *base"
+        };
+        for (String content : contents) {
+            assertEquals(content, load(beanYaml, content), load(yaml, content));
+        }
+    }
+
+    // the parsed fields, or the error as reported to the user
+    private String load(Yaml yaml, String content) {
+        try {
+            ParsedSlang parsedSlang = yaml.loadAs(content, ParsedSlang.class);
+            if (parsedSlang == null) {
+                return null;
+            }
+            return parsedSlang.getNamespace() + parsedSlang.getImports() + parsedSlang.getFlow() +
+                    parsedSlang.getOperation() + parsedSlang.getDecision() + parsedSlang.getProperties() +
+                    parsedSlang.getExtensions();
+        } catch (RuntimeException e) {
+            // the message of a bean error names the instance being constructed
+            return e.getClass().getName() + parserExceptionHandler.getErrorMessage(e).replaceAll("@\\w+", "");
+        }
+    }
+
+    private static Yaml createYaml(boolean constructParsedSlang) {
+        Yaml yaml = constructParsedSlang ? new Yaml(new ParsedSlangConstructor()) : new Yaml();
+        yaml.setBeanAccess(BeanAccess.FIELD);
+        return yaml;
+    }
+}
@@ -0,0 +1,89 @@
+/*******************************************************************************
+ * (c) Copyright 2016 Hewlett-Packard Development Company, L.P.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Apache License v2.0 which accompany this distribution.
+ *
+ * The Apache License is available at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *******************************************************************************/
+package io.cloudslang.lang.compiler.parser;
+
+import io.cloudslang.lang.compiler.SlangSource;
+import io.cloudslang.lang.compiler.parser.model.ParsedSlang;
+import java.io.File;
+import java.net.URISyntaxException;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.yaml.snakeyaml.Yaml;
+import org.yaml.snakeyaml.introspector.BeanAccess;
+
+/**
+ * Cost of parsing a source, from a small operation to a flow with documented steps.
+ * The bean parser creates a new Yaml for every source and introspects {@link ParsedSlang} as a java bean,
+ * the way sources were parsed before {@link ParsedSlangConstructor}.
+ * <p>
+ * Not part of the test suite - run {@link #main(String[])} with the test classpath.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class YamlParserBenchmark {
+
+    @Param({
+            "/python_action_simple.sl",
+            "/flow_with_on_failure.sl",
+            "/functions/system_property_dependencies_flow.sl",
+            "/metadata/step/step_description_05.sl"
+        })
+    private String resource;
+
+    private SlangSource source;
+
+    private YamlParser yamlParser;
+
+    @Setup
+    public void setUp() throws URISyntaxException {
+        source = SlangSource.fromFile(new File(getClass().getResource(resource).toURI()));
+        yamlParser = new YamlParser() {
+            @Override
+            protected Yaml getYaml() {
+                Yaml yaml = new Yaml(new ParsedSlangConstructor());
+                yaml.setBeanAccess(BeanAccess.FIELD);
+                return yaml;
+            }
+        };
+    }
+
+    @Benchmark
+    public ParsedSlang beanParser() {
+        Yaml yaml = new Yaml();
+        yaml.setBeanAccess(BeanAccess.FIELD);
+        return yaml.loadAs(source.getContent(), ParsedSlang.class);
+    }
+
+    @Benchmark
+    public ParsedSlang reusedParser() {
+        return yamlParser.parse(source);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(YamlParserBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -222,6 +222,15 @@ public class ExecutionStepFactoryTest {
         Assert.assertSame("parallel loop statement in not correctly set under the key", statement, actualStatement);
     }
 
+    @Test
+    public void testCreateAddBranchesStepPutsMaxBranchesAndItsOwnId() throws Exception {
+        HashMap<String, Serializable> preStepData = new HashMap<>();
+        preStepData.put(SlangTextualKeys.MAX_BRANCHES_KEY, 4);
+        ExecutionStep startStep = factory.createAddBranchesStep(2L, 5L, 3L, preStepData, "refID", "evenCoolerStep");
+        Assert.assertEquals(4, startStep.getActionData().get(ScoreLangConstants.MAX_BRANCHES_KEY));
+        Assert.assertEquals(2L, startStep.getActionData().get(ScoreLangConstants.ADD_BRANCHES_STEP_ID_KEY));
+    }
+
     @Test
     public void testCreateJoinBranchesStep() throws Exception {
         Map<String, Serializable> postStepData = new HashMap<>();
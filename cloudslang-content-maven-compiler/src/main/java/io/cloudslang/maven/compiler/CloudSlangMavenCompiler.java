@@ -34,6 +34,8 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.Enumeration;
 import java.util.HashMap;
@@ -41,10 +43,16 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 import java.util.jar.JarEntry;
 import java.util.jar.JarFile;
 
 import static java.util.Collections.emptySet;
+import static java.util.concurrent.Executors.newFixedThreadPool;
 
 /**
  * Created by hanael on 10/07/2016.
@@ -55,6 +63,9 @@ public class CloudSlangMavenCompiler extends AbstractCompiler {
 
     private static String IGNORE_DEPENDENCIES = "ignore-dependencies";
     private static String IGNORE_ERRORS = "ignore-errors";
+    private static String THREADS = "threads";
+
+    private static final String STATE_FILE_NAME = "cloudslang-compiler.state";
 
     private SlangCompiler slangCompiler;
 
@@ -62,6 +73,8 @@ public class CloudSlangMavenCompiler extends AbstractCompiler {
 
     private CompilerMessage.Kind errorLevel;
 
+    private int threadCount;
+
     public CloudSlangMavenCompiler() {
         super(CompilerOutputStyle.ONE_OUTPUT_FILE_FOR_ALL_INPUT_FILES, null, null, null);
         ApplicationContext ctx = new AnnotationConfigApplicationContext(SlangCompilerSpringConfig.class);
@@ -69,6 +82,10 @@ public class CloudSlangMavenCompiler extends AbstractCompiler {
     }
 
 
+    /**
+     * The stale sources are detected by {@link #performCompile(CompilerConfiguration)} itself, from the
+     * fingerprints of the sources kept in the build directory, so it is always called with all the sources.
+     */
     @Override
     public boolean canUpdateTarget(CompilerConfiguration configuration) throws CompilerException {
         return false;
@@ -86,10 +103,13 @@ public class CloudSlangMavenCompiler extends AbstractCompiler {
         String[] sourceFiles = getSourceFiles(config);
         Map<String, byte[]> dependenciesSourceFiles = getDependenciesSourceFiles(config);
         if (sourceFiles.length > 0) {
-            System.out.println("Compiling " + sourceFiles.length + " " +
-                    "source file" + (sourceFiles.length == 1 ? "" : "s"));
-            for (String sourceFile : sourceFiles) {
-                compilerMessage.addAll(compileFile(sourceFile, sourceFiles, dependenciesSourceFiles));
+            ExecutorService executorService = threadCount > 1 ? newFixedThreadPool(threadCount) : null;
+            try {
+                compilerMessage.addAll(compileFiles(config, sourceFiles, dependenciesSourceFiles, executorService));
+            } finally {
+                if (executorService != null) {
+                    executorService.shutdownNow();
+                }
             }
 
             if (compilerMessage.size() > 0) {
@@ -104,33 +124,196 @@ public class CloudSlangMavenCompiler extends AbstractCompiler {
         return compilerResult;
     }
 
-    private void init(CompilerConfiguration config) {
+    private void init(CompilerConfiguration config) throws CompilerException {
         //This parameter is passed in the compiler plugin whether to compile the flow with its dependencies
         compileWithDependencies = !config.getCustomCompilerArgumentsAsMap().containsKey(IGNORE_DEPENDENCIES);
         //This parameter is used to control the error level. if not set only warnings will be shown
         errorLevel = config.getCustomCompilerArgumentsAsMap().containsKey(IGNORE_ERRORS) ?
                 CompilerMessage.Kind.WARNING : CompilerMessage.Kind.ERROR;
+        //This parameter is the number of source files compiled in parallel. if not set they are compiled one by one
+        String threads = getThreads(config.getCustomCompilerArgumentsAsMap());
+        try {
+            threadCount = threads == null ? 1 : Integer.parseInt(threads.trim());
+        } catch (NumberFormatException e) {
+            threadCount = 0;
+        }
+        if (threadCount < 1) {
+            throw new CompilerException("The number of threads must be a positive number, but was: " + threads);
+        }
     }
 
-    private List<CompilerMessage> compileFile(String sourceFile, String[] sourceFiles,
-                                              Map<String, byte[]> dependenciesSourceFiles) {
-        ExecutableModellingResult executableModellingResult;
+    /**
+     * The number of threads is given either as the value of the argument, or in the argument itself
+     * as with {@code <arg>threads=4</arg>}.
+     */
+    private static String getThreads(Map<String, String> customCompilerArguments) {
+        if (customCompilerArguments.containsKey(THREADS)) {
+            return customCompilerArguments.get(THREADS);
+        }
+        for (String argument : customCompilerArguments.keySet()) {
+            if (argument.startsWith(THREADS + "=")) {
+                return argument.substring(THREADS.length() + 1);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Only the source files that changed since the last compilation are precompiled. When the flows are
+     * validated against their dependencies, the unchanged flows depending on a changed executable are validated
+     * again as well.
+     */
+    private List<CompilerMessage> compileFiles(CompilerConfiguration config, String[] sourceFiles,
+                                               Map<String, byte[]> dependenciesSourceFiles,
+                                               ExecutorService executorService) throws CompilerException {
+        Map<String, List<CompilerMessage>> messagesByFile = new HashMap<>();
+        Map<String, SlangSource> slangSources = new HashMap<>();
+        for (String sourceFile : sourceFiles) {
+            try {
+                slangSources.put(sourceFile, SlangSource.fromFile(new File(sourceFile)));
+            } catch (Exception e) {
+                addMessage(messagesByFile, sourceFile, new CompilerMessage(sourceFile + ": " + e.getMessage(),
+                        errorLevel));
+            }
+        }
+
+        File stateFile = config.getBuildDirectory() == null ? null :
+                new File(config.getBuildDirectory(), STATE_FILE_NAME);
+        Map<String, String> dependencyFingerprints = getFingerprints(dependenciesSourceFiles);
+        CompilationState compilationState = stateFile == null ?
+                new CompilationState(compileWithDependencies, dependencyFingerprints) :
+                CompilationState.load(stateFile, compileWithDependencies, dependencyFingerprints);
+
+        //the ids of the executables that changed, so the flows depending on them are validated again
+        Set<String> changedIds = compilationState.retainFiles(getAbsolutePaths(Arrays.asList(sourceFiles)));
+        List<String> staleFiles = new ArrayList<>();
+        List<String> upToDateFiles = new ArrayList<>();
+        Map<String, String> upToDateFilesById = new HashMap<>();
+        for (String sourceFile : sourceFiles) {
+            String filePath = new File(sourceFile).getAbsolutePath();
+            SlangSource slangSource = slangSources.get(sourceFile);
+            if (slangSource != null && compilationState.isUpToDate(filePath, slangSource.getFingerprint())) {
+                upToDateFiles.add(sourceFile);
+                upToDateFilesById.put(compilationState.get(filePath).getExecutableId(), sourceFile);
+            } else {
+                CompilationState.FileEntry fileEntry = compilationState.remove(filePath);
+                if (fileEntry != null) {
+                    changedIds.add(fileEntry.getExecutableId());
+                }
+                if (slangSource != null) {
+                    staleFiles.add(sourceFile);
+                }
+            }
+        }
+        System.out.println("Compiling " + staleFiles.size() + " " +
+                "source file" + (staleFiles.size() == 1 ? "" : "s") +
+                (upToDateFiles.isEmpty() ? "" : ", " + upToDateFiles.size() + " up to date"));
+
+        Map<String, ExecutableModellingResult> modellingResults = new ConcurrentHashMap<>();
+        preCompileFiles(staleFiles, slangSources, modellingResults, messagesByFile, executorService);
+
+        List<String> filesToValidate = new ArrayList<>(staleFiles);
+        if (compileWithDependencies) {
+            for (ExecutableModellingResult modellingResult : modellingResults.values()) {
+                changedIds.add(modellingResult.getExecutable().getId());
+            }
+            //unchanged flows are precompiled again when they depend on a changed executable,
+            //and unchanged executables when a flow to validate depends on them
+            Set<String> references = new HashSet<>();
+            for (ExecutableModellingResult modellingResult : modellingResults.values()) {
+                Set<String> executableDependencies = modellingResult.getExecutable().getExecutableDependencies();
+                if (executableDependencies != null) {
+                    references.addAll(executableDependencies);
+                }
+            }
+            List<String> dependentFiles = new ArrayList<>();
+            for (String sourceFile : upToDateFiles) {
+                String filePath = new File(sourceFile).getAbsolutePath();
+                Set<String> fileReferences = compilationState.get(filePath).getReferences();
+                if (!Collections.disjoint(fileReferences, changedIds)) {
+                    compilationState.remove(filePath);
+                    dependentFiles.add(sourceFile);
+                    references.addAll(fileReferences);
+                }
+            }
+            List<String> filesToPreCompile = new ArrayList<>(dependentFiles);
+            for (String reference : references) {
+                String sourceFile = upToDateFilesById.get(reference);
+                if (sourceFile != null && !filesToPreCompile.contains(sourceFile)) {
+                    filesToPreCompile.add(sourceFile);
+                }
+            }
+            preCompileFiles(filesToPreCompile, slangSources, modellingResults, messagesByFile, executorService);
+            filesToValidate.addAll(dependentFiles);
+
+            validateFiles(filesToValidate, modellingResults, dependenciesSourceFiles, messagesByFile,
+                    executorService);
+        }
+
+        for (String sourceFile : filesToValidate) {
+            ExecutableModellingResult modellingResult = modellingResults.get(sourceFile);
+            if (modellingResult != null && !messagesByFile.containsKey(sourceFile)) {
+                compilationState.put(new File(sourceFile).getAbsolutePath(),
+                        slangSources.get(sourceFile).getFingerprint(), modellingResult.getExecutable());
+            }
+        }
+        for (String sourceFile : messagesByFile.keySet()) {
+            compilationState.remove(new File(sourceFile).getAbsolutePath());
+        }
+        if (stateFile != null) {
+            try {
+                compilationState.save(stateFile);
+            } catch (IOException e) {
+                this.getLogger().warn("Could not save the compilation state to: " + stateFile.getAbsolutePath() +
+                        ". " + e.getMessage());
+            }
+        }
+
         List<CompilerMessage> compilerMessages = new ArrayList<>();
+        for (String sourceFile : sourceFiles) {
+            if (messagesByFile.containsKey(sourceFile)) {
+                compilerMessages.addAll(messagesByFile.get(sourceFile));
+            }
+        }
+        return compilerMessages;
+    }
 
+    private void preCompileFiles(List<String> sourceFiles, final Map<String, SlangSource> slangSources,
+                                 final Map<String, ExecutableModellingResult> modellingResults,
+                                 Map<String, List<CompilerMessage>> messagesByFile,
+                                 ExecutorService executorService) throws CompilerException {
+        List<Callable<List<CompilerMessage>>> tasks = new ArrayList<>();
+        for (final String sourceFile : sourceFiles) {
+            tasks.add(new Callable<List<CompilerMessage>>() {
+                @Override
+                public List<CompilerMessage> call() {
+                    return preCompileFile(sourceFile, slangSources.get(sourceFile), modellingResults);
+                }
+            });
+        }
+        addMessages(messagesByFile, sourceFiles, invokeAll(tasks, executorService));
+    }
+
+    /**
+     * Precompiles the source file and reports its errors.
+     * Every source file that could be modelled is added to the modelling results, since it can still be used as
+     * a dependency, but only the ones modelled without errors are validated later.
+     */
+    private List<CompilerMessage> preCompileFile(String sourceFile, SlangSource slangSource,
+                                                 Map<String, ExecutableModellingResult> modellingResults) {
+        ExecutableModellingResult executableModellingResult;
+        List<CompilerMessage> compilerMessages = new ArrayList<>();
 
         try {
-            SlangSource slangSource = SlangSource.fromFile(new File(sourceFile));
             executableModellingResult = slangCompiler.preCompileSource(slangSource);
             if (!CollectionUtils.isEmpty(executableModellingResult.getErrors())) {
                 for (RuntimeException runtimeException : executableModellingResult.getErrors()) {
                     compilerMessages.add(new CompilerMessage(sourceFile + ": " +
                             runtimeException.getMessage(), errorLevel));
                 }
-            } else {
-                if (compileWithDependencies) {
-                    compilerMessages.addAll(validateSlangModelWithDependencies(executableModellingResult,
-                            sourceFiles, dependenciesSourceFiles, sourceFile));
-                }
+            }
+            if (executableModellingResult.getExecutable() != null) {
+                modellingResults.put(sourceFile, executableModellingResult);
             }
         } catch (Exception e) {
             compilerMessages.add(new CompilerMessage(sourceFile + ": " + e.getMessage(), errorLevel));
@@ -139,46 +322,170 @@ public class CloudSlangMavenCompiler extends AbstractCompiler {
         return compilerMessages;
     }
 
+    private void validateFiles(List<String> sourceFiles, Map<String, ExecutableModellingResult> modellingResults,
+                               Map<String, byte[]> dependenciesSourceFiles,
+                               Map<String, List<CompilerMessage>> messagesByFile,
+                               ExecutorService executorService) throws CompilerException {
+        final List<String> filesToValidate = new ArrayList<>();
+        for (String sourceFile : sourceFiles) {
+            ExecutableModellingResult modellingResult = modellingResults.get(sourceFile);
+            //we need to verify only flows
+            if (modellingResult != null && CollectionUtils.isEmpty(modellingResult.getErrors()) &&
+                    modellingResult.getExecutable().getType().equals("flow")) {
+                filesToValidate.add(sourceFile);
+            }
+        }
+        if (filesToValidate.isEmpty()) {
+            return;
+        }
+
+        final Map<String, Executable> executablesById = getExecutablesById(modellingResults.values(),
+                dependenciesSourceFiles, executorService);
+        List<Callable<List<CompilerMessage>>> tasks = new ArrayList<>();
+        for (final String sourceFile : filesToValidate) {
+            final ExecutableModellingResult modellingResult = modellingResults.get(sourceFile);
+            tasks.add(new Callable<List<CompilerMessage>>() {
+                @Override
+                public List<CompilerMessage> call() {
+                    return validateSlangModelWithDependencies(modellingResult, executablesById, sourceFile);
+                }
+            });
+        }
+        addMessages(messagesByFile, filesToValidate, invokeAll(tasks, executorService));
+    }
+
+    /**
+     * The executables of the dependencies jars are added first, so an executable of the compiled sources
+     * takes precedence over a dependency with the same id.
+     */
+    private Map<String, Executable> getExecutablesById(Collection<ExecutableModellingResult> modellingResults,
+                                                       Map<String, byte[]> dependenciesSourceFiles,
+                                                       ExecutorService executorService) throws CompilerException {
+        List<Callable<Executable>> tasks = new ArrayList<>();
+        for (final Map.Entry<String, byte[]> dependencyEntry : dependenciesSourceFiles.entrySet()) {
+            tasks.add(new Callable<Executable>() {
+                @Override
+                public Executable call() {
+                    try {
+                        SlangSource slangSource = SlangSource.fromBytes(dependencyEntry.getValue(),
+                                dependencyEntry.getKey());
+                        return slangCompiler.preCompileSource(slangSource).getExecutable();
+                    } catch (Exception e) {
+                        CloudSlangMavenCompiler.this.getLogger().warn("Could not compile source: " +
+                                dependencyEntry.getKey());
+                        return null;
+                    }
+                }
+            });
+        }
+
+        Map<String, Executable> executablesById = new HashMap<>();
+        for (Executable executable : invokeAll(tasks, executorService)) {
+            if (executable != null) {
+                executablesById.put(executable.getId(), executable);
+            }
+        }
+
+        for (ExecutableModellingResult modellingResult : modellingResults) {
+            Executable executable = modellingResult.getExecutable();
+            executablesById.put(executable.getId(), executable);
+        }
+
+        return executablesById;
+    }
+
     private List<CompilerMessage> validateSlangModelWithDependencies(ExecutableModellingResult modellingResult,
-                                                                     String[] dependencies,
-                                                                     Map<String, byte[]> dependenciesSourceFiles,
+                                                                     Map<String, Executable> executablesById,
                                                                      String sourceFile) {
         List<CompilerMessage> compilerMessages = new ArrayList<>();
+        Executable executable = modellingResult.getExecutable();
+
         Set<Executable> dependenciesExecutables = new HashSet<>();
+        for (String dependencyId : executable.getExecutableDependencies()) {
+            Executable dependency = executablesById.get(dependencyId);
+            if (dependency != null) {
+                dependenciesExecutables.add(dependency);
+            }
+        }
 
-        Executable executable = modellingResult.getExecutable();
-        //we need to verify only flows
-        if (!executable.getType().equals("flow")) {
-            return compilerMessages;
+        try {
+            List<RuntimeException> exceptions = slangCompiler.validateSlangModelWithDirectDependencies(executable,
+                    dependenciesExecutables);
+            for (RuntimeException runtimeException : exceptions) {
+                compilerMessages.add(new CompilerMessage(sourceFile + ": " + runtimeException.getMessage(),
+                        errorLevel));
+            }
+        } catch (Exception e) {
+            compilerMessages.add(new CompilerMessage(sourceFile + ": " + e.getMessage(), errorLevel));
         }
 
-        for (String dependency : dependencies) {
-            try {
-                SlangSource slangSource = SlangSource.fromFile(new File(dependency));
-                modellingResult = slangCompiler.preCompileSource(slangSource);
-                dependenciesExecutables.add(modellingResult.getExecutable());
-            } catch (Exception e) {
-                this.getLogger().warn("Could not compile source: " + dependency);
+        return compilerMessages;
+    }
+
+    /**
+     * Runs the tasks on the executor service, or one by one if there is none.
+     *
+     * @return the results of the tasks, in the order of the tasks
+     */
+    private static <T> List<T> invokeAll(List<Callable<T>> tasks, ExecutorService executorService)
+            throws CompilerException {
+        List<T> results = new ArrayList<>(tasks.size());
+        try {
+            if (executorService == null) {
+                for (Callable<T> task : tasks) {
+                    results.add(task.call());
+                }
+            } else {
+                for (Future<T> future : executorService.invokeAll(tasks)) {
+                    results.add(future.get());
+                }
             }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CompilerException("Interrupted while compiling source files", e);
+        } catch (ExecutionException e) {
+            throw new CompilerException("Failed to compile source files: " + e.getCause().getMessage(),
+                    e.getCause());
+        } catch (Exception e) {
+            throw new CompilerException("Failed to compile source files: " + e.getMessage(), e);
         }
+        return results;
+    }
 
-        for (Map.Entry<String, byte[]> dependencyEntry : dependenciesSourceFiles.entrySet()) {
-            try {
-                SlangSource slangSource = SlangSource.fromBytes(dependencyEntry.getValue(), dependencyEntry.getKey());
-                modellingResult = slangCompiler.preCompileSource(slangSource);
-                dependenciesExecutables.add(modellingResult.getExecutable());
-            } catch (Exception e) {
-                this.getLogger().warn("Could not compile source: " + dependencyEntry.getKey());
+    private static void addMessages(Map<String, List<CompilerMessage>> messagesByFile, List<String> sourceFiles,
+                                    List<List<CompilerMessage>> compilerMessages) {
+        for (int i = 0; i < sourceFiles.size(); i++) {
+            for (CompilerMessage compilerMessage : compilerMessages.get(i)) {
+                addMessage(messagesByFile, sourceFiles.get(i), compilerMessage);
             }
         }
+    }
 
-        List<RuntimeException> exceptions = slangCompiler.validateSlangModelWithDirectDependencies(executable,
-                dependenciesExecutables);
-        for (RuntimeException runtimeException : exceptions) {
-            compilerMessages.add(new CompilerMessage(sourceFile + ": " + runtimeException.getMessage(), errorLevel));
+    private static void addMessage(Map<String, List<CompilerMessage>> messagesByFile, String sourceFile,
+                                   CompilerMessage compilerMessage) {
+        List<CompilerMessage> compilerMessages = messagesByFile.get(sourceFile);
+        if (compilerMessages == null) {
+            compilerMessages = new ArrayList<>();
+            messagesByFile.put(sourceFile, compilerMessages);
         }
+        compilerMessages.add(compilerMessage);
+    }
 
-        return compilerMessages;
+    private static Set<String> getAbsolutePaths(Collection<String> sourceFiles) {
+        Set<String> absolutePaths = new HashSet<>();
+        for (String sourceFile : sourceFiles) {
+            absolutePaths.add(new File(sourceFile).getAbsolutePath());
+        }
+        return absolutePaths;
+    }
+
+    private static Map<String, String> getFingerprints(Map<String, byte[]> dependenciesSourceFiles) {
+        Map<String, String> fingerprints = new HashMap<>();
+        for (Map.Entry<String, byte[]> dependencyEntry : dependenciesSourceFiles.entrySet()) {
+            fingerprints.put(dependencyEntry.getKey(),
+                    SlangSource.fromBytes(dependencyEntry.getValue(), dependencyEntry.getKey()).getFingerprint());
+        }
+        return fingerprints;
     }
 
     public String[] createCommandLine(CompilerConfiguration config) throws CompilerException {
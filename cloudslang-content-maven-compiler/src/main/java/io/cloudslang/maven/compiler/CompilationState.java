@@ -0,0 +1,166 @@
+/*******************************************************************************
+ * (c) Copyright 2016 Hewlett-Packard Development Company, L.P.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Apache License v2.0 which accompany this distribution.
+ *
+ * The Apache License is available at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *******************************************************************************/
+package io.cloudslang.maven.compiler;
+
+import io.cloudslang.lang.compiler.modeller.model.Executable;
+import io.cloudslang.lang.entities.utils.AtomicFileUtils;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.Serializable;
+import java.nio.file.Files;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The state of the last compilation of a module, kept in its build directory so the next compilation can skip
+ * the source files that did not change.
+ * <p>
+ * Only the source files that compiled without errors are kept, together with the fingerprint of their content,
+ * the id of their executable and the ids it references. The state is only valid for the same compiler arguments
+ * and the same sources in the dependencies, otherwise it is discarded and everything is compiled again.
+ */
+class CompilationState implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private final boolean compileWithDependencies;
+
+    // dependency source name -> fingerprint of the source
+    private final Map<String, String> dependencyFingerprints;
+
+    // absolute source file path -> entry of the file
+    private final Map<String, FileEntry> files = new HashMap<>();
+
+    CompilationState(boolean compileWithDependencies, Map<String, String> dependencyFingerprints) {
+        this.compileWithDependencies = compileWithDependencies;
+        this.dependencyFingerprints = new HashMap<>(dependencyFingerprints);
+    }
+
+    /**
+     * @param file                    the file the state was saved to
+     * @param compileWithDependencies whether the flows are validated against their dependencies
+     * @param dependencyFingerprints  the fingerprints of the sources in the dependencies
+     * @return the saved state, or an empty state if the file is missing, cannot be read or was saved for other
+     *     compiler arguments or dependencies
+     */
+    static CompilationState load(File file, boolean compileWithDependencies,
+                                 Map<String, String> dependencyFingerprints) {
+        if (file.isFile()) {
+            try (InputStream in = Files.newInputStream(file.toPath());
+                 ObjectInputStream objectIn = new ObjectInputStream(in)) {
+                CompilationState compilationState = (CompilationState) objectIn.readObject();
+                if (compilationState.compileWithDependencies == compileWithDependencies &&
+                        compilationState.dependencyFingerprints.equals(dependencyFingerprints)) {
+                    return compilationState;
+                }
+            } catch (IOException | ClassNotFoundException | ClassCastException ignore) {
+                // an unreadable state only means the module is compiled again
+            }
+        }
+        return new CompilationState(compileWithDependencies, dependencyFingerprints);
+    }
+
+    /**
+     * Save the state. A state that failed to save leaves the previously saved one in place.
+     *
+     * @param file the file to save the state to
+     * @throws IOException if the state cannot be written
+     */
+    void save(File file) throws IOException {
+        AtomicFileUtils.writeObject(file, this);
+    }
+
+    /**
+     * Drop the entries of the source files that are not compiled anymore.
+     *
+     * @param currentFiles the absolute paths of the source files currently compiled
+     * @return the ids of the executables of the dropped files
+     */
+    Set<String> retainFiles(Collection<String> currentFiles) {
+        Set<String> removedIds = new HashSet<>();
+        for (Iterator<Map.Entry<String, FileEntry>> iterator = files.entrySet().iterator(); iterator.hasNext(); ) {
+            Map.Entry<String, FileEntry> entry = iterator.next();
+            if (!currentFiles.contains(entry.getKey())) {
+                removedIds.add(entry.getValue().getExecutableId());
+                iterator.remove();
+            }
+        }
+        return removedIds;
+    }
+
+    /**
+     * @param file        the absolute path of a source file
+     * @param fingerprint the fingerprint of the current content of the file
+     * @return whether the file compiled without errors the last time, with the same content
+     */
+    boolean isUpToDate(String file, String fingerprint) {
+        FileEntry entry = files.get(file);
+        return entry != null && entry.getFingerprint().equals(fingerprint);
+    }
+
+    /**
+     * Keep a source file that compiled without errors.
+     *
+     * @param file        the absolute path of the source file
+     * @param fingerprint the fingerprint of the compiled content of the file
+     * @param executable  the executable modelled from the file
+     */
+    void put(String file, String fingerprint, Executable executable) {
+        Set<String> references = executable.getExecutableDependencies() == null ?
+                Collections.<String>emptySet() : new HashSet<>(executable.getExecutableDependencies());
+        files.put(file, new FileEntry(fingerprint, executable.getId(), references));
+    }
+
+    /**
+     * @param file the absolute path of a source file
+     * @return the entry of the file removed, or null if the file had none
+     */
+    FileEntry remove(String file) {
+        return files.remove(file);
+    }
+
+    FileEntry get(String file) {
+        return files.get(file);
+    }
+
+    static class FileEntry implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        private final String fingerprint;
+        private final String executableId;
+        private final Set<String> references;
+
+        FileEntry(String fingerprint, String executableId, Set<String> references) {
+            this.fingerprint = fingerprint;
+            this.executableId = executableId;
+            this.references = references;
+        }
+
+        String getFingerprint() {
+            return fingerprint;
+        }
+
+        String getExecutableId() {
+            return executableId;
+        }
+
+        Set<String> getReferences() {
+            return references;
+        }
+    }
+}
@@ -9,12 +9,23 @@
  *******************************************************************************/
 package io.cloudslang.maven.compiler;
 
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+import org.apache.commons.io.FileUtils;
 import org.codehaus.plexus.compiler.AbstractCompilerTest;
 import org.codehaus.plexus.compiler.Compiler;
 import org.codehaus.plexus.compiler.CompilerConfiguration;
+import org.codehaus.plexus.compiler.CompilerMessage;
 
 /**
  * Created by hanael on 10/07/2016.
@@ -22,6 +33,40 @@ import org.codehaus.plexus.compiler.CompilerConfiguration;
 
 public class CloudSlangMavenCompilerTest extends AbstractCompilerTest {
 
+    private static final String OPERATION = "namespace: user.ops\n\n" +
+            "operation:\n" +
+            "  name: say_hi\n" +
+            "  inputs:\n" +
+            "    - text\n" +
+            "  python_action:\n" +
+            "    script: print text\n" +
+            "  results:\n" +
+            "    - FAILURE: ${ text == '' }\n" +
+            "    - SUCCESS\n";
+
+    private static final String OPERATION_WITH_NAME = "namespace: user.ops\n\n" +
+            "operation:\n" +
+            "  name: say_hi\n" +
+            "  inputs:\n" +
+            "    - text\n" +
+            "    - name\n" +
+            "  python_action:\n" +
+            "    script: print text + name\n" +
+            "  results:\n" +
+            "    - FAILURE: ${ text == '' }\n" +
+            "    - SUCCESS\n";
+
+    private static final String FLOW = "namespace: user.flows\n\n" +
+            "imports:\n" +
+            "  ops: user.ops\n\n" +
+            "flow:\n" +
+            "  name: greet\n" +
+            "  workflow:\n" +
+            "    - say_hi:\n" +
+            "        do:\n" +
+            "          ops.say_hi:\n" +
+            "            - text: 'hi'\n";
+
 
     public CloudSlangMavenCompilerTest() {
         super();
@@ -58,6 +103,133 @@ public class CloudSlangMavenCompilerTest extends AbstractCompilerTest {
         assertEquals("Wrong number of compilation errors.", 0, numCompilerErrors);
     }
 
+    public void testCompilingSourcesIncrementally() throws Exception {
+        ArrayList messages = new ArrayList();
+        File buildDirectory = new File(getBasedir(), "target/incremental-compile");
+        FileUtils.deleteDirectory(buildDirectory);
+
+        Compiler compiler = (Compiler) this.lookup(Compiler.ROLE, this.getRoleHint());
+        messages.addAll(compiler.performCompile(getCompilerConfigurationIncremental(buildDirectory))
+                .getCompilerMessages());
+
+        assertEquals("Wrong number of compilation errors.", 4, compilerErrorCount(messages));
+        assertTrue("Compilation state not saved.", new File(buildDirectory, "cloudslang-compiler.state").isFile());
+
+        //the sources with errors are compiled again, so their errors are reported again
+        messages.clear();
+        messages.addAll(compiler.performCompile(getCompilerConfigurationIncremental(buildDirectory))
+                .getCompilerMessages());
+
+        assertEquals("Wrong number of compilation errors.", 4, compilerErrorCount(messages));
+    }
+
+    public void testUnchangedSourcesAreSkipped() throws Exception {
+        List<CompilerMessage> messages = new ArrayList<>();
+        File sourceDirectory = createSources("unchanged-sources");
+        File buildDirectory = new File(getBasedir(), "target/incremental-compile/unchanged-sources");
+        FileUtils.deleteDirectory(buildDirectory);
+
+        Compiler compiler = (Compiler) this.lookup(Compiler.ROLE, this.getRoleHint());
+        CompilerConfiguration config = getCompilerConfigurationIncremental(sourceDirectory, buildDirectory,
+                Collections.<String>emptyList());
+        assertEquals("Compiling 2 source files", performCompile(compiler, config, messages));
+        assertEquals("Compiling 0 source files, 2 up to date", performCompile(compiler, config, messages));
+
+        FileUtils.writeStringToFile(new File(sourceDirectory, "ops/say_hi.sl"), OPERATION + "\n");
+        assertEquals("Compiling 1 source file, 1 up to date", performCompile(compiler, config, messages));
+        assertEquals("Wrong number of compilation errors.", 0, compilerErrorCount(messages));
+    }
+
+    public void testUnchangedFlowIsValidatedWhenItsDependencyChanges() throws Exception {
+        List<CompilerMessage> messages = new ArrayList<>();
+        File sourceDirectory = createSources("changed-dependency");
+        File buildDirectory = new File(getBasedir(), "target/incremental-compile/changed-dependency");
+        FileUtils.deleteDirectory(buildDirectory);
+
+        Compiler compiler = (Compiler) this.lookup(Compiler.ROLE, this.getRoleHint());
+        CompilerConfiguration config = getCompilerConfigurationIncremental(sourceDirectory, buildDirectory,
+                Collections.<String>emptyList());
+        performCompile(compiler, config, messages);
+        assertEquals("Wrong number of compilation errors.", 0, compilerErrorCount(messages));
+
+        FileUtils.writeStringToFile(new File(sourceDirectory, "ops/say_hi.sl"), OPERATION_WITH_NAME);
+        assertEquals("Compiling 1 source file, 1 up to date", performCompile(compiler, config, messages));
+        assertEquals("Wrong number of compilation errors.", 1, compilerErrorCount(messages));
+        assertTrue(messages.get(0).getMessage().startsWith(new File(sourceDirectory, "flows/greet.sl").getPath()));
+        assertTrue(messages.get(0).getMessage().contains("are not private, required and with no default value: name"));
+    }
+
+    public void testUnchangedFlowIsValidatedWhenItsDependencyIsRemoved() throws Exception {
+        List<CompilerMessage> messages = new ArrayList<>();
+        File sourceDirectory = createSources("removed-dependency");
+        File buildDirectory = new File(getBasedir(), "target/incremental-compile/removed-dependency");
+        FileUtils.deleteDirectory(buildDirectory);
+
+        Compiler compiler = (Compiler) this.lookup(Compiler.ROLE, this.getRoleHint());
+        CompilerConfiguration config = getCompilerConfigurationIncremental(sourceDirectory, buildDirectory,
+                Collections.<String>emptyList());
+        performCompile(compiler, config, messages);
+        assertEquals("Wrong number of compilation errors.", 0, compilerErrorCount(messages));
+
+        FileUtils.forceDelete(new File(sourceDirectory, "ops/say_hi.sl"));
+        assertEquals("Compiling 0 source files, 1 up to date", performCompile(compiler, config, messages));
+        assertEquals("Wrong number of compilation errors.", 1, compilerErrorCount(messages));
+        assertTrue(messages.get(0).getMessage().endsWith(
+                "Dependency user.ops.say_hi used by step: say_hi must be supplied for validation"));
+    }
+
+    public void testSourcesTakePrecedenceOverDependencies() throws Exception {
+        List<CompilerMessage> messages = new ArrayList<>();
+        File sourceDirectory = createSources("dependency-precedence");
+        File buildDirectory = new File(getBasedir(), "target/incremental-compile/dependency-precedence");
+        FileUtils.deleteDirectory(buildDirectory);
+        File dependencyJar = new File(getBasedir(), "target/incremental-sources/dependency-precedence.jar");
+        try (JarOutputStream out = new JarOutputStream(new FileOutputStream(dependencyJar))) {
+            out.putNextEntry(new JarEntry("user/ops/say_hi.sl"));
+            out.write(OPERATION_WITH_NAME.getBytes(StandardCharsets.UTF_8));
+            out.closeEntry();
+        }
+
+        Compiler compiler = (Compiler) this.lookup(Compiler.ROLE, this.getRoleHint());
+        CompilerConfiguration config = getCompilerConfigurationIncremental(sourceDirectory, buildDirectory,
+                Collections.singletonList(dependencyJar.getPath()));
+        performCompile(compiler, config, messages);
+        assertEquals("Wrong number of compilation errors.", 0, compilerErrorCount(messages));
+
+        //without its own operation the flow is validated against the one of the dependency
+        FileUtils.forceDelete(new File(sourceDirectory, "ops/say_hi.sl"));
+        performCompile(compiler, config, messages);
+        assertEquals("Wrong number of compilation errors.", 1, compilerErrorCount(messages));
+        assertTrue(messages.get(0).getMessage().contains("are not private, required and with no default value: name"));
+    }
+
+    private File createSources(String name) throws Exception {
+        File sourceDirectory = new File(getBasedir(), "target/incremental-sources/" + name);
+        FileUtils.deleteDirectory(sourceDirectory);
+        FileUtils.writeStringToFile(new File(sourceDirectory, "ops/say_hi.sl"), OPERATION);
+        FileUtils.writeStringToFile(new File(sourceDirectory, "flows/greet.sl"), FLOW);
+        return sourceDirectory;
+    }
+
+    /**
+     * Replaces the given messages with the messages of the compilation.
+     *
+     * @return the summary of the compilation printed by the compiler
+     */
+    private String performCompile(Compiler compiler, CompilerConfiguration config, List<CompilerMessage> messages)
+            throws Exception {
+        PrintStream systemOut = System.out;
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        System.setOut(new PrintStream(output, true, StandardCharsets.UTF_8.name()));
+        try {
+            messages.clear();
+            messages.addAll(compiler.performCompile(config).getCompilerMessages());
+        } finally {
+            System.setOut(systemOut);
+        }
+        return output.toString(StandardCharsets.UTF_8.name()).trim();
+    }
+
     private CompilerConfiguration getCompilerConfigurationShallowCompile() throws Exception {
         String sourceDir = getBasedir() + "/src/test/resources/content";
         Map<String, String> customCompilerArguments = new HashMap<>();
@@ -96,4 +268,29 @@ public class CloudSlangMavenCompilerTest extends AbstractCompilerTest {
 
         return compilerConfig;
     }
+
+    private CompilerConfiguration getCompilerConfigurationIncremental(File buildDirectory) throws Exception {
+        String sourceDir = getBasedir() + "/src/test/resources/content";
+        Map<String, String> customCompilerArguments = new HashMap<>();
+        customCompilerArguments.put("threads", "2");
+
+        CompilerConfiguration compilerConfig = new CompilerConfiguration();
+        compilerConfig.setClasspathEntries(this.getClasspath());
+        compilerConfig.addSourceLocation(sourceDir);
+        compilerConfig.setBuildDirectory(buildDirectory);
+        compilerConfig.setCustomCompilerArgumentsAsMap(customCompilerArguments);
+
+        return compilerConfig;
+    }
+
+    private CompilerConfiguration getCompilerConfigurationIncremental(File sourceDirectory, File buildDirectory,
+                                                                      List<String> classpathEntries) {
+        CompilerConfiguration compilerConfig = new CompilerConfiguration();
+        compilerConfig.setClasspathEntries(classpathEntries);
+        compilerConfig.addSourceLocation(sourceDirectory.getPath());
+        compilerConfig.setBuildDirectory(buildDirectory);
+        compilerConfig.setCustomCompilerArgumentsAsMap(new HashMap<String, String>());
+
+        return compilerConfig;
+    }
 }
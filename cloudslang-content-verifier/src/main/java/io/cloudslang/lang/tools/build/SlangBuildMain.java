@@ -14,6 +14,7 @@ import com.beust.jcommander.ParameterException;
 import io.cloudslang.lang.api.Slang;
 import io.cloudslang.lang.commons.services.api.UserConfigurationService;
 import io.cloudslang.lang.commons.services.impl.UserConfigurationServiceImpl;
+import io.cloudslang.lang.commons.watch.SlangSourceWatcher;
 import io.cloudslang.lang.logging.LoggingService;
 import io.cloudslang.lang.logging.LoggingServiceImpl;
 import io.cloudslang.lang.tools.build.commands.ApplicationArgs;
@@ -48,6 +49,7 @@ import static io.cloudslang.lang.tools.build.ArgumentProcessorUtils.getBooleanFr
 import static io.cloudslang.lang.tools.build.ArgumentProcessorUtils.getEnumInstanceFromPropertiesWithDefault;
 import static io.cloudslang.lang.tools.build.ArgumentProcessorUtils.getIntFromPropertiesWithDefaultAndRange;
 import static io.cloudslang.lang.tools.build.ArgumentProcessorUtils.getListForPrint;
+import static io.cloudslang.lang.tools.build.SlangBuilder.SLANG_BUILDER_BUNDLE;
 import static io.cloudslang.lang.tools.build.SlangBuildMain.BulkRunMode.ALL_PARALLEL;
 import static io.cloudslang.lang.tools.build.SlangBuildMain.BulkRunMode.ALL_SEQUENTIAL;
 import static io.cloudslang.lang.tools.build.SlangBuildMain.BulkRunMode.POSSIBLY_MIXED;
@@ -60,6 +62,9 @@ import static io.cloudslang.lang.tools.build.SlangBuildMain.RunConfigurationProp
 import static io.cloudslang.lang.tools.build.tester.SlangTestRunner.MAX_TIME_PER_TESTCASE_IN_MINUTES;
 import static io.cloudslang.lang.tools.build.tester.SlangTestRunner.TEST_CASE_TIMEOUT_IN_MINUTES_KEY;
 import static io.cloudslang.lang.tools.build.tester.parallel.services.ParallelTestCaseExecutorService.SLANG_TEST_RUNNER_THREAD_COUNT;
+import static io.cloudslang.lang.tools.build.verifier.SlangContentVerifier.SLANG_VERIFIER_DEPENDENCY_GRAPH;
+import static io.cloudslang.lang.tools.build.verifier.SlangContentVerifier.SLANG_VERIFIER_PRECOMPILE_CACHE;
+import static io.cloudslang.lang.tools.build.verifier.SlangContentVerifier.SLANG_VERIFIER_THREAD_COUNT;
 import static java.lang.Integer.parseInt;
 import static java.lang.String.format;
 import static java.lang.String.valueOf;
@@ -152,18 +157,36 @@ public class SlangBuildMain {
         boolean shouldPrintCoverageData = appArgs.shouldOutputCoverage();
         boolean runTestsInParallel = appArgs.isParallel();
         int threadCount = parseThreadCountArg(appArgs, runTestsInParallel);
+        final int compileThreadCount = parseCompileThreadCountArg(appArgs);
         String testCaseTimeout = parseTestTimeout(appArgs);
         setProperty(TEST_CASE_TIMEOUT_IN_MINUTES_KEY, valueOf(testCaseTimeout));
         final boolean shouldValidateDescription = appArgs.shouldValidateDescription();
         final boolean shouldValidateCheckstyle = appArgs.shouldValidateCheckstyle();
         String runConfigPath = FilenameUtils.normalize(appArgs.getRunConfigPath());
+        final boolean watch = appArgs.isWatch();
 
         BuildMode buildMode = null;
         Set<String> changedFiles = null;
         try {
+            String dependencyGraphPath = appArgs.getDependencyGraphPath();
+            if (watch && StringUtils.isEmpty(dependencyGraphPath)) {
+                // the rebuilds of watch mode run only the tests affected by the changes since the previous build
+                File dependencyGraphFile = File.createTempFile("slang-dependency-graph", ".ser");
+                dependencyGraphFile.deleteOnExit();
+                dependencyGraphPath = dependencyGraphFile.getAbsolutePath();
+            }
+            if (StringUtils.isNotEmpty(dependencyGraphPath)) {
+                // Setting the dependency graph location for visibility in SlangContentVerifier
+                setProperty(SLANG_VERIFIER_DEPENDENCY_GRAPH, new File(dependencyGraphPath).getAbsolutePath());
+            }
+            if (StringUtils.isNotEmpty(appArgs.getBundlePath())) {
+                // Setting the bundle location for visibility in SlangBuilder
+                setProperty(SLANG_BUILDER_BUNDLE, new File(appArgs.getBundlePath()).getAbsolutePath());
+            }
             String smartModePath = appArgs.getChangesOnlyConfigPath();
             if (StringUtils.isEmpty(smartModePath)) {
-                buildMode = BuildMode.BASIC;
+                // with a dependency graph the changes since the last build are found by the build itself
+                buildMode = StringUtils.isEmpty(dependencyGraphPath) ? BuildMode.BASIC : BuildMode.CHANGED;
                 changedFiles = new HashSet<>();
                 printBuildModeInfo(buildMode);
             } else {
@@ -212,6 +235,10 @@ public class SlangBuildMain {
 
         // Setting thread count for visibility in ParallelTestCaseExecutorService
         setProperty(SLANG_TEST_RUNNER_THREAD_COUNT, valueOf(threadCount));
+        // Setting compile thread count for visibility in SlangContentVerifier
+        setProperty(SLANG_VERIFIER_THREAD_COUNT, valueOf(compileThreadCount));
+        // Watch mode builds several times in the same process, so the pre-compiled sources are worth caching
+        setProperty(SLANG_VERIFIER_PRECOMPILE_CACHE, valueOf(watch));
 
         log.info(NEW_LINE + "------------------------------------------------------------");
         log.info("Building project: " + projectPath);
@@ -232,6 +259,8 @@ public class SlangBuildMain {
         log.info("Validate description: " + valueOf(shouldValidateDescription));
         log.info("Validate checkstyle: " + valueOf(shouldValidateCheckstyle));
         log.info("Thread count: " + threadCount);
+        log.info("Compile thread count: " + compileThreadCount);
+        log.info("Watch for changes: " + valueOf(watch));
         log.info("Test case timeout in minutes: " + (isEmpty(testCaseTimeout) ?
                 valueOf(MAX_TIME_PER_TESTCASE_IN_MINUTES) : testCaseTimeout));
 
@@ -250,39 +279,30 @@ public class SlangBuildMain {
 
             registerEventHandlers(slang);
 
-            List<RuntimeException> exceptions = new ArrayList<>();
-
-            SlangBuildResults buildResults =
-                    slangBuilder.buildSlangContent(projectPath, contentPath, testsPath, testSuites,
-                            shouldValidateDescription, shouldValidateCheckstyle, bulkRunMode, buildMode, changedFiles);
-            exceptions.addAll(buildResults.getCompilationExceptions());
-            if (exceptions.size() > 0) {
-                logErrors(exceptions, projectPath, loggingService);
-            }
-            IRunTestResults runTestsResults = buildResults.getRunTestsResults();
-            Map<String, TestRun> skippedTests = runTestsResults.getSkippedTests();
-
-            if (isNotEmpty(skippedTests)) {
-                printSkippedTestsSummary(skippedTests, loggingService);
-            }
-            printPassedTests(runTestsResults, loggingService);
-            if (shouldPrintCoverageData) {
-                printTestCoverageData(runTestsResults, loggingService);
-            }
-
-            if (isNotEmpty(runTestsResults.getFailedTests())) {
-                printBuildFailureSummary(projectPath, runTestsResults, loggingService);
-            } else {
-                printBuildSuccessSummary(contentPath, buildResults, runTestsResults, loggingService);
+            SlangSourceWatcher sourceWatcher = watch ? watchProject(contentPath, testsPath) : null;
+            boolean buildFailed;
+            while (true) {
+                List<RuntimeException> exceptions = new ArrayList<>();
+
+                SlangBuildResults buildResults =
+                        slangBuilder.buildSlangContent(projectPath, contentPath, testsPath, testSuites,
+                                shouldValidateDescription, shouldValidateCheckstyle, bulkRunMode, buildMode,
+                                changedFiles);
+                exceptions.addAll(buildResults.getCompilationExceptions());
+                if (exceptions.size() > 0) {
+                    logErrors(exceptions, projectPath, loggingService);
+                    buildFailed = true;
+                } else {
+                    buildFailed = printBuildResults(buildResults, projectPath, contentPath, shouldPrintCoverageData,
+                            context.getBean(SlangTestCaseRunReportGeneratorService.class), testCaseReportLocation,
+                            loggingService);
+                }
+                if (sourceWatcher == null) {
+                    break;
+                }
+                awaitChanges(sourceWatcher, slang, loggingService);
             }
-            loggingService.waitForAllLogTasksToFinish();
-
-            generateTestCaseReport(
-                    context.getBean(SlangTestCaseRunReportGeneratorService.class),
-                    runTestsResults,
-                    testCaseReportLocation
-            );
-            System.exit(isNotEmpty(runTestsResults.getFailedTests()) ? 1 : 0);
+            System.exit(buildFailed ? 1 : 0);
 
         } catch (Throwable e) {
             logErrorsPrefix(loggingService);
@@ -293,6 +313,62 @@ public class SlangBuildMain {
         }
     }
 
+    /**
+     * Print the results of a build whose sources compiled.
+     *
+     * @return whether some tests failed
+     */
+    private static boolean printBuildResults(SlangBuildResults buildResults, String projectPath, String contentPath,
+                                             boolean shouldPrintCoverageData,
+                                             SlangTestCaseRunReportGeneratorService reportGeneratorService,
+                                             String testCaseReportLocation,
+                                             final LoggingService loggingService) throws IOException {
+        IRunTestResults runTestsResults = buildResults.getRunTestsResults();
+        Map<String, TestRun> skippedTests = runTestsResults.getSkippedTests();
+
+        if (isNotEmpty(skippedTests)) {
+            printSkippedTestsSummary(skippedTests, loggingService);
+        }
+        printPassedTests(runTestsResults, loggingService);
+        if (shouldPrintCoverageData) {
+            printTestCoverageData(runTestsResults, loggingService);
+        }
+
+        if (isNotEmpty(runTestsResults.getFailedTests())) {
+            printBuildFailureSummary(projectPath, runTestsResults, loggingService);
+        } else {
+            printBuildSuccessSummary(contentPath, buildResults, runTestsResults, loggingService);
+        }
+        loggingService.waitForAllLogTasksToFinish();
+
+        generateTestCaseReport(reportGeneratorService, runTestsResults, testCaseReportLocation);
+        return isNotEmpty(runTestsResults.getFailedTests());
+    }
+
+    private static SlangSourceWatcher watchProject(String contentPath, String testsPath) throws IOException {
+        SlangSourceWatcher sourceWatcher = new SlangSourceWatcher(SlangSourceWatcher.DEFAULT_QUIET_PERIOD_MILLIS);
+        for (String rootPath : new String[] {contentPath, testsPath}) {
+            if (new File(rootPath).isDirectory()) {
+                sourceWatcher.register(new File(rootPath));
+            }
+        }
+        return sourceWatcher;
+    }
+
+    private static void awaitChanges(SlangSourceWatcher sourceWatcher, Slang slang,
+                                     final LoggingService loggingService) throws InterruptedException {
+        loggingService.logEvent(Level.INFO, "");
+        loggingService.logEvent(Level.INFO, "Watching for changes...");
+        Set<File> changedFiles = sourceWatcher.awaitChanges();
+        while (changedFiles.isEmpty()) {
+            changedFiles = sourceWatcher.awaitChanges();
+        }
+        for (File changedFile : changedFiles) {
+            slang.invalidateInPreCompileCache(changedFile.getPath());
+        }
+        loggingService.logEvent(Level.INFO, "Detected changes in " + changedFiles.size() + " files, building again");
+    }
+
     private static void configureLog4j() {
         String configFilename = System.getProperty(LOG4J_CONFIGURATION_KEY);
         String errorMessage = null;
@@ -488,7 +564,6 @@ public class SlangBuildMain {
         }
         logErrorsSuffix(projectPath, loggingService);
         loggingService.waitForAllLogTasksToFinish();
-        System.exit(1);
     }
 
     private static void logErrorsSuffix(String projectPath, final LoggingService loggingService) {
@@ -576,6 +651,26 @@ public class SlangBuildMain {
         }
     }
 
+    private static int parseCompileThreadCountArg(ApplicationArgs appArgs) {
+        int defaultThreadCount = Runtime.getRuntime().availableProcessors();
+        String threadCountErrorMessage = format("Compile thread count is misconfigured. The compile thread count " +
+                "value must be a positive integer. Using %d threads.", defaultThreadCount);
+        try {
+            String stringThreadCount = appArgs.getCompileThreadCount();
+            if (stringThreadCount != null) {
+                int threadCount = parseInt(stringThreadCount);
+                if (threadCount > 0) {
+                    return threadCount;
+                } else {
+                    log.warn(threadCountErrorMessage);
+                }
+            }
+        } catch (NumberFormatException nfEx) {
+            log.warn(threadCountErrorMessage);
+        }
+        return defaultThreadCount;
+    }
+
     private static void printBuildSuccessSummary(String contentPath, SlangBuildResults buildResults,
                                                  IRunTestResults runTestsResults,
                                                  final LoggingService loggingService) {
@@ -9,8 +9,10 @@
  *******************************************************************************/
 package io.cloudslang.lang.tools.build;
 
+import io.cloudslang.lang.compiler.caching.DependencyGraph;
 import io.cloudslang.lang.compiler.modeller.model.Executable;
 import io.cloudslang.lang.entities.CompilationArtifact;
+import io.cloudslang.lang.entities.bundle.CompilationArtifactBundleWriter;
 import io.cloudslang.lang.logging.LoggingService;
 import io.cloudslang.lang.tools.build.SlangBuildMain.BulkRunMode;
 import io.cloudslang.lang.tools.build.constants.Messages;
@@ -32,6 +34,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
 import java.io.File;
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
@@ -54,8 +57,12 @@ import static io.cloudslang.lang.tools.build.SlangBuildMain.BulkRunMode.POSSIBLY
 @Component
 public class SlangBuilder {
 
+    public static final String SLANG_BUILDER_BUNDLE = "slang.builder.bundle";
+
     private static final String UNSUPPORTED_BULK_RUN_MODE = "Unsupported bulk run mode '%s'.";
 
+    private final CompilationArtifactBundleWriter bundleWriter = new CompilationArtifactBundleWriter();
+
     @Autowired
     private SlangContentVerifier slangContentVerifier;
 
@@ -88,19 +95,28 @@ public class SlangBuilder {
                 slangContentVerifier.createModelsAndValidate(contentPath,
                         shouldValidateDescription, shouldValidateCheckstyle);
         Map<String, Executable> slangModels = preCompileResult.getResults();
+        DependencyGraph dependencyGraph = slangContentVerifier.loadDependencyGraph();
+        Set<String> affectedExecutables = addStaleExecutables(changedFiles,
+                slangContentVerifier.updateDependencyGraph(dependencyGraph, contentPath, preCompileResult));
 
         List<RuntimeException> exceptions = new ArrayList<>(preCompileResult.getExceptions());
 
         CompileResult compileResult = compileModels(slangModels);
         exceptions.addAll(compileResult.getExceptions());
+        writeBundle(compileResult, exceptions);
 
         IRunTestResults runTestsResults = new RunTestsResults();
         if (compileResult.getExceptions().size() == 0 &&
                 StringUtils.isNotBlank(testsPath) && new File(testsPath).isDirectory()) {
             runTestsResults =
-                    runTests(slangModels, projectPath, testsPath, testSuits, bulkRunMode, buildMode, changedFiles);
+                    runTests(slangModels, projectPath, testsPath, testSuits, bulkRunMode, buildMode,
+                            affectedExecutables, dependencyGraph);
         }
         exceptions.addAll(runTestsResults.getExceptions());
+        // the graph of a failed build is not saved, so its changes stay stale until a build succeeds
+        if (exceptions.isEmpty() && runTestsResults.getFailedTests().isEmpty()) {
+            slangContentVerifier.saveDependencyGraph(dependencyGraph);
+        }
         return new SlangBuildResults(compileResult.getResults().size(), runTestsResults, exceptions);
     }
 
@@ -125,6 +141,30 @@ public class SlangBuilder {
         return compileResult;
     }
 
+    /**
+     * Writes the compilation artifacts of the content to the bundle file given by {@value #SLANG_BUILDER_BUNDLE},
+     * as long as the whole content compiled
+     */
+    private void writeBundle(CompileResult compileResult, List<RuntimeException> exceptions) {
+        String bundlePath = System.getProperty(SLANG_BUILDER_BUNDLE);
+        if (StringUtils.isEmpty(bundlePath)) {
+            return;
+        }
+        if (!exceptions.isEmpty()) {
+            loggingService.logEvent(Level.WARN, "Compilation artifact bundle was not written since the content " +
+                    "has errors");
+            return;
+        }
+        try {
+            bundleWriter.write(new File(bundlePath), compileResult.getResults());
+            loggingService.logEvent(Level.INFO, "Wrote the compilation artifacts of " +
+                    compileResult.getResults().size() + " executables to: " + bundlePath);
+        } catch (IOException e) {
+            exceptions.add(new RuntimeException("Failed to write compilation artifact bundle: " + bundlePath +
+                    ". " + e.getMessage(), e));
+        }
+    }
+
     IRunTestResults runTests(
             Map<String, Executable> contentSlangModels,
             String projectPath,
@@ -132,7 +172,8 @@ public class SlangBuilder {
             List<String> testSuites,
             BulkRunMode bulkRunMode,
             SlangBuildMain.BuildMode buildMode,
-            Set<String> changedFiles) {
+            Set<String> changedFiles,
+            DependencyGraph dependencyGraph) {
         loggingService.logEvent(Level.INFO, "");
         loggingService.logEvent(Level.INFO, "--- compiling tests sources ---");
         // Compile all slang test flows under the test directory
@@ -154,7 +195,9 @@ public class SlangBuilder {
         loggingService.logEvent(Level.INFO, "Found " + testCases.size() + " tests");
         IRunTestResults runTestsResults;
 
-        BuildModeConfig buildModeConfig = createBuildModeConfig(buildMode, changedFiles, allTestedFlowModels);
+        Set<String> affectedExecutables = addStaleExecutables(changedFiles,
+                slangContentVerifier.updateDependencyGraph(dependencyGraph, testsPath, preCompileResult));
+        BuildModeConfig buildModeConfig = createBuildModeConfig(buildMode, affectedExecutables, allTestedFlowModels);
 
         runTestsResults =
                 processRunTests(projectPath, testSuites, bulkRunMode, compiledFlows, testCases, buildModeConfig);
@@ -165,6 +208,19 @@ public class SlangBuilder {
         return runTestsResults;
     }
 
+    /**
+     * The executables the dependency graph found stale since the last build are affected as well
+     * as the changed files.
+     */
+    private Set<String> addStaleExecutables(Set<String> changedFiles, Set<String> staleExecutables) {
+        if (staleExecutables == null || staleExecutables.isEmpty()) {
+            return changedFiles;
+        }
+        Set<String> affectedExecutables = changedFiles == null ? new HashSet<String>() : new HashSet<>(changedFiles);
+        affectedExecutables.addAll(staleExecutables);
+        return affectedExecutables;
+    }
+
     private BuildModeConfig createBuildModeConfig(SlangBuildMain.BuildMode buildMode, Set<String> changedFiles,
                                                   Map<String, Executable> allTestedFlowModels) {
         BuildModeConfig buildModeConfig;
@@ -55,6 +55,11 @@ public class ApplicationArgs {
                     "Has no effect for sequential execution. By default, it is set to the number of processors.")
     public String threadCount;
 
+    @Parameter(names = {"--compile-thread-count", "-cth"},
+            description = "Number of threads to be used to compile and validate the content and test files. " +
+                    "By default, it is set to the number of processors.")
+    public String compileThreadCount;
+
     @Parameter(names = {"--run-config-file", "-rcf"},
             description = "Specifies the absolute path for the run configuration properties file.")
     public String runConfigPath;
@@ -71,6 +76,21 @@ public class ApplicationArgs {
             description = "Run only tests from active suites that were affected by this changelist")
     public String changesOnlyConfigPath;
 
+    @Parameter(names = {"--dependency-graph", "-dg"},
+            description = "Keeps the dependency graph of the executables in the given file between builds and " +
+                    "runs only the tests affected by the changes since the last build")
+    public String dependencyGraphPath;
+
+    @Parameter(names = {"--bundle", "-b"},
+            description = "Writes the compilation artifacts of the content to the given bundle (.slc) file, " +
+                    "for nodes that run the content without compiling it")
+    public String bundlePath;
+
+    @Parameter(names = {"--watch", "-w"},
+            description = "Keep watching the content and test roots after the build, and build again whenever they " +
+                    "change, running only the tests affected by the changes")
+    public boolean watch = false;
+
     @Parameter(names = {"--help", "-h"}, help = true,
             description = "Display help information")
     private boolean help;
@@ -126,6 +146,10 @@ public class ApplicationArgs {
         return threadCount;
     }
 
+    public String getCompileThreadCount() {
+        return compileThreadCount;
+    }
+
     public String getRunConfigPath() {
         return isEmpty(runConfigPath) ? "" : runConfigPath;
     }
@@ -133,4 +157,16 @@ public class ApplicationArgs {
     public String getChangesOnlyConfigPath() {
         return changesOnlyConfigPath;
     }
+
+    public String getDependencyGraphPath() {
+        return dependencyGraphPath;
+    }
+
+    public String getBundlePath() {
+        return bundlePath;
+    }
+
+    public boolean isWatch() {
+        return watch;
+    }
 }
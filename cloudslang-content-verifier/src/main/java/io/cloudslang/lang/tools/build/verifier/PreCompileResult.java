@@ -20,10 +20,16 @@ public class PreCompileResult {
 
     private Map<String, Executable> results;
     private Queue<RuntimeException> exceptions;
+    // absolute file path -> fingerprint of the file, only filled when a dependency graph is kept
+    private Map<String, String> fileFingerprints;
+    // absolute file path -> model of the file, for the files that were modelled
+    private Map<String, Executable> fileModels;
 
     public PreCompileResult() {
         this.results = new HashMap<>();
         this.exceptions = new ArrayDeque<>();
+        this.fileFingerprints = new HashMap<>();
+        this.fileModels = new HashMap<>();
     }
 
     public Map<String, Executable> getResults() {
@@ -41,4 +47,19 @@ public class PreCompileResult {
     public void addExceptions(Queue<RuntimeException> exceptions) {
         this.exceptions.addAll(exceptions);
     }
+
+    public Map<String, String> getFileFingerprints() {
+        return fileFingerprints;
+    }
+
+    public Map<String, Executable> getFileModels() {
+        return fileModels;
+    }
+
+    public void addFile(String filePath, String fingerprint, Executable model) {
+        this.fileFingerprints.put(filePath, fingerprint);
+        if (model != null) {
+            this.fileModels.put(filePath, model);
+        }
+    }
 }
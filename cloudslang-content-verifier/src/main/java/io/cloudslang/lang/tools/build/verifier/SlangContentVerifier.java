@@ -11,8 +11,10 @@ package io.cloudslang.lang.tools.build.verifier;
 
 import io.cloudslang.lang.commons.services.api.SlangCompilationService;
 import io.cloudslang.lang.compiler.MetadataExtractor;
+import io.cloudslang.lang.compiler.PrecompileStrategy;
 import io.cloudslang.lang.compiler.SlangCompiler;
 import io.cloudslang.lang.compiler.SlangSource;
+import io.cloudslang.lang.compiler.caching.DependencyGraph;
 import io.cloudslang.lang.compiler.modeller.model.Executable;
 import io.cloudslang.lang.compiler.modeller.model.Metadata;
 import io.cloudslang.lang.compiler.modeller.result.ExecutableModellingResult;
@@ -26,23 +28,37 @@ import java.io.File;
 import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Deque;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Queue;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 import org.apache.commons.lang.Validate;
 import org.apache.log4j.Level;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
+import static java.util.concurrent.Executors.newFixedThreadPool;
+
 /**
  * Created by stoneo on 3/15/2015.
  **/
 @Component
 public class SlangContentVerifier {
 
+    public static final String SLANG_VERIFIER_THREAD_COUNT = "slang.verifier.thread.count";
+    public static final String SLANG_VERIFIER_DEPENDENCY_GRAPH = "slang.verifier.dependency.graph";
+    public static final String SLANG_VERIFIER_PRECOMPILE_CACHE = "slang.verifier.precompile.cache";
+
     @Autowired
     private SlangCompiler slangCompiler;
 
@@ -72,43 +88,17 @@ public class SlangContentVerifier {
         loggingService.logEvent(Level.INFO, slangFiles.size() + " .sl files were found");
         loggingService.logEvent(Level.INFO, "");
         Queue<RuntimeException> exceptions = new ArrayDeque<>();
-        String errorMessagePrefixMetadata = "";
-        for (File slangFile: slangFiles) {
-            Executable sourceModel = null;
-            try {
-                errorMessagePrefixMetadata = "Failed to extract metadata for file: \'" +
-                    slangFile.getAbsoluteFile() + "\'.\n";
-                String errorMessagePrefixCompilation = "Failed to compile file: \'" +
-                    slangFile.getAbsoluteFile() + "\'.\n";
-
-                Validate.isTrue(slangFile.isFile(), "file path \'" + slangFile.getAbsolutePath() +
-                        "\' must lead to a file");
-                SlangSource slangSource = SlangSource.fromFile(slangFile);
-
-                ExecutableModellingResult preCompileResult = slangCompiler.preCompileSource(slangSource);
-                sourceModel = preCompileResult.getExecutable();
-                exceptions.addAll(prependPrefix(preCompileResult.getErrors(), errorMessagePrefixCompilation));
-
-                MetadataModellingResult metadataResult = metadataExtractor
-                        .extractMetadataModellingResult(slangSource, shouldValidateCheckstyle);
-                Metadata sourceMetadata = metadataResult.getMetadata();
-                exceptions.addAll(prependPrefix(metadataResult.getErrors(), errorMessagePrefixMetadata));
-
-                if (sourceModel != null) {
-                    int size = exceptions.size();
-                    staticValidator.validateSlangFile(slangFile, sourceModel,
-                                    sourceMetadata, shouldValidateDescription, exceptions);
-                    if (size == exceptions.size()) {
-                        slangModels.put(getUniqueName(sourceModel), sourceModel);
-                    }
-                }
-            } catch (Exception e) {
-                String errorMessage = errorMessagePrefixMetadata + e.getMessage();
-                loggingService.logEvent(Level.ERROR, errorMessage);
-                exceptions.add(new RuntimeException(errorMessage, e));
-                if (e instanceof MetadataMissingException && sourceModel != null) {
-                    slangModels.put(getUniqueName(sourceModel), sourceModel);
-                }
+        PreCompileResult preCompileResult = new PreCompileResult();
+        // the files are verified independently and their results are merged in the order of the files,
+        // so the reported errors do not depend on the number of threads
+        for (FileVerificationResult result : verifyFiles(slangFiles, shouldValidateDescription,
+                shouldValidateCheckstyle)) {
+            exceptions.addAll(result.getExceptions());
+            if (result.getSlangModel() != null) {
+                slangModels.put(getUniqueName(result.getSlangModel()), result.getSlangModel());
+            }
+            if (result.getFingerprint() != null) {
+                preCompileResult.addFile(result.getFilePath(), result.getFingerprint(), result.getSlangModel());
             }
         }
         if (slangFiles.size() != slangModels.size()) {
@@ -116,12 +106,100 @@ public class SlangContentVerifier {
                     " executable files in path: \'" + directoryPath +
                     "\' But managed to create slang models for only: " + slangModels.size()));
         }
-        PreCompileResult preCompileResult = new PreCompileResult();
         preCompileResult.addExceptions(exceptions);
         preCompileResult.addResults(slangModels);
         return preCompileResult;
     }
 
+    private List<FileVerificationResult> verifyFiles(Collection<File> slangFiles,
+                                                     final boolean shouldValidateDescription,
+                                                     final boolean shouldValidateCheckstyle) {
+        List<FileVerificationResult> results = new ArrayList<>(slangFiles.size());
+        final boolean shouldFingerprint = System.getProperty(SLANG_VERIFIER_DEPENDENCY_GRAPH) != null;
+        int threadCount = Math.min(Integer.getInteger(SLANG_VERIFIER_THREAD_COUNT, 1), slangFiles.size());
+        if (threadCount <= 1) {
+            for (File slangFile : slangFiles) {
+                results.add(verifyFile(slangFile, shouldValidateDescription, shouldValidateCheckstyle,
+                        shouldFingerprint));
+            }
+            return results;
+        }
+
+        ExecutorService executorService = newFixedThreadPool(threadCount);
+        try {
+            List<Future<FileVerificationResult>> futures = new ArrayList<>(slangFiles.size());
+            for (final File slangFile : slangFiles) {
+                futures.add(executorService.submit(new Callable<FileVerificationResult>() {
+                    @Override
+                    public FileVerificationResult call() {
+                        return verifyFile(slangFile, shouldValidateDescription, shouldValidateCheckstyle,
+                                shouldFingerprint);
+                    }
+                }));
+            }
+            for (Future<FileVerificationResult> future : futures) {
+                results.add(future.get());
+            }
+            return results;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while compiling slang files", e);
+        } catch (ExecutionException e) {
+            throw new RuntimeException("Failed to compile slang files: " + e.getCause().getMessage(), e.getCause());
+        } finally {
+            executorService.shutdownNow();
+        }
+    }
+
+    private FileVerificationResult verifyFile(File slangFile, boolean shouldValidateDescription,
+                                              boolean shouldValidateCheckstyle, boolean shouldFingerprint) {
+        Queue<RuntimeException> exceptions = new ArrayDeque<>();
+        Executable sourceModel = null;
+        String fingerprint = null;
+        String errorMessagePrefixMetadata = "Failed to extract metadata for file: \'" +
+                slangFile.getAbsoluteFile() + "\'.\n";
+        try {
+            final String errorMessagePrefixCompilation = "Failed to compile file: \'" +
+                slangFile.getAbsoluteFile() + "\'.\n";
+
+            Validate.isTrue(slangFile.isFile(), "file path \'" + slangFile.getAbsolutePath() +
+                    "\' must lead to a file");
+            SlangSource slangSource = SlangSource.fromFile(slangFile);
+            if (shouldFingerprint) {
+                fingerprint = slangSource.getFingerprint();
+            }
+
+            // builds repeated in the same process pre-compile only the sources that changed
+            ExecutableModellingResult preCompileResult = Boolean.getBoolean(SLANG_VERIFIER_PRECOMPILE_CACHE) ?
+                    slangCompiler.preCompileSource(slangSource, PrecompileStrategy.WITH_CACHE) :
+                    slangCompiler.preCompileSource(slangSource);
+            sourceModel = preCompileResult.getExecutable();
+            exceptions.addAll(prependPrefix(preCompileResult.getErrors(), errorMessagePrefixCompilation));
+
+            MetadataModellingResult metadataResult = metadataExtractor
+                    .extractMetadataModellingResult(slangSource, shouldValidateCheckstyle);
+            Metadata sourceMetadata = metadataResult.getMetadata();
+            exceptions.addAll(prependPrefix(metadataResult.getErrors(), errorMessagePrefixMetadata));
+
+            if (sourceModel != null) {
+                int size = exceptions.size();
+                staticValidator.validateSlangFile(slangFile, sourceModel,
+                                sourceMetadata, shouldValidateDescription, exceptions);
+                if (size == exceptions.size()) {
+                    return new FileVerificationResult(slangFile, fingerprint, sourceModel, exceptions);
+                }
+            }
+        } catch (Exception e) {
+            String errorMessage = errorMessagePrefixMetadata + e.getMessage();
+            loggingService.logEvent(Level.ERROR, errorMessage);
+            exceptions.add(new RuntimeException(errorMessage, e));
+            if (e instanceof MetadataMissingException && sourceModel != null) {
+                return new FileVerificationResult(slangFile, fingerprint, sourceModel, exceptions);
+            }
+        }
+        return new FileVerificationResult(slangFile, fingerprint, null, exceptions);
+    }
+
     private Collection<RuntimeException> prependPrefix(Collection<RuntimeException> errors, String prefix) {
         List<RuntimeException> result = new ArrayList<>();
         for (RuntimeException ex : errors) {
@@ -134,54 +212,402 @@ public class SlangContentVerifier {
         return new RuntimeException(prefix + rex.getMessage(), rex);
     }
 
+    /**
+     * @return the dependency graph kept at {@value #SLANG_VERIFIER_DEPENDENCY_GRAPH}, or null if no dependency graph
+     *     is kept
+     */
+    public DependencyGraph loadDependencyGraph() {
+        String graphPath = System.getProperty(SLANG_VERIFIER_DEPENDENCY_GRAPH);
+        return graphPath == null ? null : DependencyGraph.load(new File(graphPath));
+    }
+
+    /**
+     * Update a dependency graph with the files of a directory. The graph is not saved, so the changes are found
+     * again by the next build until it is saved.
+     *
+     * @param dependencyGraph  the graph to update, or null if no dependency graph is kept
+     * @param directoryPath    the directory the files were pre-compiled from
+     * @param preCompileResult the result of pre-compiling the directory
+     * @return the ids of the executables whose compilation artifacts are stale since the graph was last saved,
+     *     or null if no dependency graph is kept
+     */
+    public Set<String> updateDependencyGraph(DependencyGraph dependencyGraph, String directoryPath,
+                                             PreCompileResult preCompileResult) {
+        if (dependencyGraph == null) {
+            return null;
+        }
+        Set<String> staleExecutables = dependencyGraph.update(directoryPath, preCompileResult.getFileFingerprints(),
+                preCompileResult.getFileModels());
+        loggingService.logEvent(Level.INFO, staleExecutables.size() +
+                " executables are affected by the changes under: " + directoryPath);
+        return staleExecutables;
+    }
+
+    /**
+     * Save a dependency graph to {@value #SLANG_VERIFIER_DEPENDENCY_GRAPH}.
+     *
+     * @param dependencyGraph the graph to save, or null if no dependency graph is kept
+     */
+    public void saveDependencyGraph(DependencyGraph dependencyGraph) {
+        String graphPath = System.getProperty(SLANG_VERIFIER_DEPENDENCY_GRAPH);
+        if (dependencyGraph != null && graphPath != null) {
+            dependencyGraph.save(new File(graphPath));
+        }
+    }
+
     public CompileResult compileSlangModels(Map<String, Executable> slangModels) {
+        // the dependencies of every model are computed once, reusing the ones of the models it depends on
+        Map<String, Set<Executable>> modelsDependencies = new HashMap<>();
+        Map<String, RuntimeException> dependencyErrors = new HashMap<>();
+        computeModelsDependencies(slangModels, modelsDependencies, dependencyErrors);
+
+        Map<String, ModelCompilationResult> compilationResults = new HashMap<>();
+        int threadCount = Math.min(Integer.getInteger(SLANG_VERIFIER_THREAD_COUNT, 1), slangModels.size());
+        if (threadCount > 1) {
+            compileInDependencyOrder(slangModels, modelsDependencies, dependencyErrors, threadCount,
+                    compilationResults);
+        }
+        for (Executable slangModel : slangModels.values()) {
+            String uniqueName = getUniqueName(slangModel);
+            if (!compilationResults.containsKey(uniqueName)) {
+                compilationResults.put(uniqueName, compileSlangModel(slangModel,
+                        modelsDependencies.get(uniqueName), dependencyErrors.get(uniqueName)));
+            }
+        }
+
+        // the results are collected in the order of the models, whatever the order they were compiled in
         CompileResult compileResult = new CompileResult();
         Map<String, CompilationArtifact> compiledArtifacts = new HashMap<>();
-        for (Map.Entry<String, Executable> slangModelEntry : slangModels.entrySet()) {
-            Executable slangModel = slangModelEntry.getValue();
-            try {
-                CompilationArtifact compiledSource = compiledArtifacts.get(getUniqueName(slangModel));
-                if (compiledSource == null) {
-                    Set<Executable> dependenciesModels = getModelDependenciesRecursively(slangModels, slangModel);
-                    compiledSource = scoreCompiler.compile(slangModel, dependenciesModels);
-                    if (compiledSource != null) {
-                        loggingService.logEvent(Level.INFO, "Compiled: \'" + slangModel.getNamespace() + "." +
-                                slangModel.getName() + "\' successfully");
-                        compiledArtifacts.put(getUniqueName(slangModel), compiledSource);
-                    } else {
-                        loggingService.logEvent(Level.ERROR, "Failed to compile source: \'" +
-                                slangModel.getNamespace() + "." + slangModel.getName() + "\'");
+        for (Executable slangModel : slangModels.values()) {
+            ModelCompilationResult compilationResult = compilationResults.get(getUniqueName(slangModel));
+            if (compilationResult.getCompilationArtifact() != null) {
+                compiledArtifacts.put(getUniqueName(slangModel), compilationResult.getCompilationArtifact());
+            }
+            if (compilationResult.getException() != null) {
+                compileResult.addException(compilationResult.getException());
+            }
+        }
+        compileResult.addResults(compiledArtifacts);
+        return compileResult;
+    }
+
+    /**
+     * Compiles the models on a worker pool, each one after the models it depends on, so that the models shared
+     * by several compilations are not modified concurrently. Models that are part of a dependency cycle, or depend
+     * on one, are left for sequential compilation.
+     */
+    private void compileInDependencyOrder(Map<String, Executable> slangModels,
+                                          final Map<String, Set<Executable>> modelsDependencies,
+                                          final Map<String, RuntimeException> dependencyErrors,
+                                          int threadCount,
+                                          Map<String, ModelCompilationResult> compilationResults) {
+        Set<String> cyclicModels = new HashSet<>();
+        for (Map.Entry<String, Set<Executable>> entry : modelsDependencies.entrySet()) {
+            if (entry.getValue().contains(slangModels.get(entry.getKey()))) {
+                cyclicModels.add(entry.getKey());
+            }
+        }
+        Map<String, Integer> pendingDependencies = new HashMap<>();
+        Map<String, List<Executable>> dependents = new HashMap<>();
+        List<Executable> readyModels = new ArrayList<>();
+        for (Executable slangModel : slangModels.values()) {
+            String uniqueName = getUniqueName(slangModel);
+            if (dependencyErrors.containsKey(uniqueName) ||
+                    dependsOnAny(modelsDependencies.get(uniqueName), cyclicModels)) {
+                continue;
+            }
+            Set<String> directDependencies = new HashSet<>(slangModel.getExecutableDependencies());
+            pendingDependencies.put(uniqueName, directDependencies.size());
+            for (String dependencyName : directDependencies) {
+                List<Executable> dependencyDependents = dependents.get(dependencyName);
+                if (dependencyDependents == null) {
+                    dependencyDependents = new ArrayList<>();
+                    dependents.put(dependencyName, dependencyDependents);
+                }
+                dependencyDependents.add(slangModel);
+            }
+            if (directDependencies.isEmpty()) {
+                readyModels.add(slangModel);
+            }
+        }
+
+        ExecutorService executorService = newFixedThreadPool(threadCount);
+        CompletionService<ModelCompilationResult> completionService =
+                new ExecutorCompletionService<>(executorService);
+        try {
+            int running = 0;
+            for (Executable slangModel : readyModels) {
+                submitCompilation(completionService, slangModel, modelsDependencies);
+                running++;
+            }
+            while (running > 0) {
+                ModelCompilationResult compilationResult = completionService.take().get();
+                running--;
+                String uniqueName = compilationResult.getUniqueName();
+                compilationResults.put(uniqueName, compilationResult);
+                List<Executable> modelDependents = dependents.get(uniqueName);
+                if (modelDependents != null) {
+                    for (Executable dependent : modelDependents) {
+                        String dependentName = getUniqueName(dependent);
+                        int pending = pendingDependencies.get(dependentName) - 1;
+                        pendingDependencies.put(dependentName, pending);
+                        if (pending == 0) {
+                            submitCompilation(completionService, dependent, modelsDependencies);
+                            running++;
+                        }
                     }
                 }
-            } catch (Exception e) {
-                String errorMessage = "Failed compiling Slang source: \'" + slangModel.getNamespace() + "." +
-                        slangModel.getName() + "\'.\n" + e.getMessage();
-                loggingService.logEvent(Level.ERROR, errorMessage);
-                compileResult.addException(new RuntimeException(errorMessage, e));
             }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while compiling slang models", e);
+        } catch (ExecutionException e) {
+            throw new RuntimeException("Failed to compile slang models: " + e.getCause().getMessage(), e.getCause());
+        } finally {
+            executorService.shutdownNow();
         }
+    }
 
-        compileResult.addResults(compiledArtifacts);
-        return compileResult;
+    private boolean dependsOnAny(Set<Executable> dependencies, Set<String> uniqueNames) {
+        if (!uniqueNames.isEmpty()) {
+            for (Executable dependency : dependencies) {
+                if (uniqueNames.contains(getUniqueName(dependency))) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private void submitCompilation(CompletionService<ModelCompilationResult> completionService,
+                                   final Executable slangModel,
+                                   final Map<String, Set<Executable>> modelsDependencies) {
+        completionService.submit(new Callable<ModelCompilationResult>() {
+            @Override
+            public ModelCompilationResult call() {
+                return compileSlangModel(slangModel, modelsDependencies.get(getUniqueName(slangModel)), null);
+            }
+        });
+    }
+
+    private ModelCompilationResult compileSlangModel(Executable slangModel, Set<Executable> dependenciesModels,
+                                                     RuntimeException dependencyError) {
+        String uniqueName = getUniqueName(slangModel);
+        try {
+            if (dependencyError != null) {
+                throw dependencyError;
+            }
+            CompilationArtifact compiledSource = scoreCompiler.compile(slangModel, dependenciesModels);
+            if (compiledSource != null) {
+                loggingService.logEvent(Level.INFO, "Compiled: \'" + slangModel.getNamespace() + "." +
+                        slangModel.getName() + "\' successfully");
+            } else {
+                loggingService.logEvent(Level.ERROR, "Failed to compile source: \'" +
+                        slangModel.getNamespace() + "." + slangModel.getName() + "\'");
+            }
+            return new ModelCompilationResult(uniqueName, compiledSource, null);
+        } catch (Exception e) {
+            String errorMessage = "Failed compiling Slang source: \'" + slangModel.getNamespace() + "." +
+                    slangModel.getName() + "\'.\n" + e.getMessage();
+            loggingService.logEvent(Level.ERROR, errorMessage);
+            return new ModelCompilationResult(uniqueName, null, new RuntimeException(errorMessage, e));
+        }
     }
 
-    private Set<Executable> getModelDependenciesRecursively(Map<String, Executable> slangModels,
-                                                            Executable slangModel) {
-        Set<Executable> dependenciesModels = new HashSet<>();
-        for (String dependencyName : slangModel.getExecutableDependencies()) {
-            Executable dependency = slangModels.get(dependencyName);
-            if (dependency == null) {
-                throw new RuntimeException("Failed compiling slang source: " + slangModel.getNamespace() + "." +
-                        slangModel.getName() + ". Missing dependency: " + dependencyName);
+    /**
+     * Computes the transitive dependencies of all the models in a single post-order traversal, so that the
+     * dependencies of every model are computed once, from the already finished dependencies of the models it uses.
+     * Models of a dependency cycle are finished together, as a strongly connected component, and share their
+     * dependencies.
+     */
+    private void computeModelsDependencies(Map<String, Executable> slangModels,
+                                           Map<String, Set<Executable>> modelsDependencies,
+                                           Map<String, RuntimeException> dependencyErrors) {
+        DependencyTraversal traversal = new DependencyTraversal(slangModels, modelsDependencies, dependencyErrors);
+        for (Executable slangModel : slangModels.values()) {
+            if (!traversal.isVisited(slangModel)) {
+                traversal.visit(slangModel);
             }
-            dependenciesModels.add(dependency);
-            dependenciesModels.addAll(getModelDependenciesRecursively(slangModels, dependency));
         }
-        return dependenciesModels;
     }
 
     private String getUniqueName(Executable sourceModel) {
         return sourceModel.getNamespace() + "." + sourceModel.getName();
     }
 
+    /**
+     * Tarjan's strongly connected components traversal, a component is finished once all the models it reaches
+     * are finished.
+     */
+    private class DependencyTraversal {
+
+        private final Map<String, Executable> slangModels;
+        private final Map<String, Set<Executable>> modelsDependencies;
+        private final Map<String, RuntimeException> dependencyErrors;
+        // visit order of the models, and the earliest model still open each one reaches
+        private final Map<String, Integer> indexes = new HashMap<>();
+        private final Map<String, Integer> lowLinks = new HashMap<>();
+        private final Deque<Executable> openModels = new ArrayDeque<>();
+        private final Set<String> openNames = new HashSet<>();
+
+        DependencyTraversal(Map<String, Executable> slangModels, Map<String, Set<Executable>> modelsDependencies,
+                            Map<String, RuntimeException> dependencyErrors) {
+            this.slangModels = slangModels;
+            this.modelsDependencies = modelsDependencies;
+            this.dependencyErrors = dependencyErrors;
+        }
+
+        boolean isVisited(Executable slangModel) {
+            return indexes.containsKey(getUniqueName(slangModel));
+        }
+
+        /**
+         * Depth first traversal from a model, with an explicit stack of the models being visited and of the
+         * dependencies left to visit of each, so that long dependency chains do not overflow the call stack.
+         */
+        void visit(Executable slangModel) {
+            Deque<Executable> models = new ArrayDeque<>();
+            Deque<Iterator<String>> dependencies = new ArrayDeque<>();
+            open(slangModel, models, dependencies);
+            while (!models.isEmpty()) {
+                Executable model = models.peek();
+                String uniqueName = getUniqueName(model);
+                if (dependencies.peek().hasNext()) {
+                    String dependencyName = dependencies.peek().next();
+                    Executable dependency = slangModels.get(dependencyName);
+                    if (dependency == null) {
+                        // reported when the component is finished
+                        continue;
+                    }
+                    if (!indexes.containsKey(dependencyName)) {
+                        open(dependency, models, dependencies);
+                    } else if (openNames.contains(dependencyName)) {
+                        lowLinks.put(uniqueName, Math.min(lowLinks.get(uniqueName), indexes.get(dependencyName)));
+                    }
+                    continue;
+                }
+
+                models.pop();
+                dependencies.pop();
+                int lowLink = lowLinks.get(uniqueName);
+                if (lowLink == indexes.get(uniqueName)) {
+                    finishComponent(model);
+                }
+                if (!models.isEmpty()) {
+                    String parentName = getUniqueName(models.peek());
+                    lowLinks.put(parentName, Math.min(lowLinks.get(parentName), lowLink));
+                }
+            }
+        }
+
+        private void open(Executable model, Deque<Executable> models, Deque<Iterator<String>> dependencies) {
+            String uniqueName = getUniqueName(model);
+            int index = indexes.size();
+            indexes.put(uniqueName, index);
+            lowLinks.put(uniqueName, index);
+            openModels.push(model);
+            openNames.add(uniqueName);
+            models.push(model);
+            dependencies.push(model.getExecutableDependencies().iterator());
+        }
+
+        private void finishComponent(Executable root) {
+            List<Executable> component = new ArrayList<>();
+            Set<String> componentNames = new HashSet<>();
+            Executable model;
+            do {
+                model = openModels.pop();
+                openNames.remove(getUniqueName(model));
+                component.add(model);
+                componentNames.add(getUniqueName(model));
+            } while (model != root);
+
+            Set<Executable> dependenciesModels = new HashSet<>();
+            RuntimeException error = null;
+            for (Executable member : component) {
+                for (String dependencyName : member.getExecutableDependencies()) {
+                    Executable dependency = slangModels.get(dependencyName);
+                    if (dependency == null) {
+                        error = error != null ? error : new RuntimeException("Failed compiling slang source: " +
+                                member.getNamespace() + "." + member.getName() + ". Missing dependency: " +
+                                dependencyName);
+                    } else if (dependenciesModels.add(dependency) && !componentNames.contains(dependencyName)) {
+                        // dependencies outside of the component are finished already
+                        Set<Executable> knownDependencies = modelsDependencies.get(dependencyName);
+                        if (knownDependencies != null) {
+                            dependenciesModels.addAll(knownDependencies);
+                        } else if (error == null) {
+                            error = dependencyErrors.get(dependencyName);
+                        }
+                    }
+                }
+            }
+            for (Executable member : component) {
+                if (error != null) {
+                    dependencyErrors.put(getUniqueName(member), error);
+                } else {
+                    modelsDependencies.put(getUniqueName(member), dependenciesModels);
+                }
+            }
+        }
+    }
+
+    private static class FileVerificationResult {
+
+        private final String filePath;
+        private final String fingerprint;
+        private final Executable slangModel;
+        private final Queue<RuntimeException> exceptions;
+
+        FileVerificationResult(File slangFile, String fingerprint, Executable slangModel,
+                               Queue<RuntimeException> exceptions) {
+            this.filePath = slangFile.getAbsolutePath();
+            this.fingerprint = fingerprint;
+            this.slangModel = slangModel;
+            this.exceptions = exceptions;
+        }
+
+        String getFilePath() {
+            return filePath;
+        }
+
+        String getFingerprint() {
+            return fingerprint;
+        }
+
+        Executable getSlangModel() {
+            return slangModel;
+        }
+
+        Queue<RuntimeException> getExceptions() {
+            return exceptions;
+        }
+    }
+
+    private static class ModelCompilationResult {
+
+        private final String uniqueName;
+        private final CompilationArtifact compilationArtifact;
+        private final RuntimeException exception;
+
+        ModelCompilationResult(String uniqueName, CompilationArtifact compilationArtifact,
+                               RuntimeException exception) {
+            this.uniqueName = uniqueName;
+            this.compilationArtifact = compilationArtifact;
+            this.exception = exception;
+        }
+
+        String getUniqueName() {
+            return uniqueName;
+        }
+
+        CompilationArtifact getCompilationArtifact() {
+            return compilationArtifact;
+        }
+
+        RuntimeException getException() {
+            return exception;
+        }
+    }
+
 }
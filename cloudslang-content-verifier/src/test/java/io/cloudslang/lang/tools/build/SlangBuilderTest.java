@@ -17,6 +17,7 @@ import io.cloudslang.lang.commons.services.impl.SlangCompilationServiceImpl;
 import io.cloudslang.lang.compiler.MetadataExtractor;
 import io.cloudslang.lang.compiler.SlangCompiler;
 import io.cloudslang.lang.compiler.SlangSource;
+import io.cloudslang.lang.compiler.caching.DependencyGraph;
 import io.cloudslang.lang.compiler.modeller.DependenciesHelper;
 import io.cloudslang.lang.compiler.modeller.TransformersHandler;
 import io.cloudslang.lang.compiler.modeller.model.Executable;
@@ -56,6 +57,7 @@ import io.cloudslang.lang.tools.build.tester.runconfiguration.strategy.ConflictR
 import io.cloudslang.lang.tools.build.tester.runconfiguration.strategy.DefaultResolutionStrategy;
 import io.cloudslang.lang.tools.build.validation.StaticValidator;
 import io.cloudslang.lang.tools.build.validation.StaticValidatorImpl;
+import io.cloudslang.lang.tools.build.verifier.CompileResult;
 import io.cloudslang.lang.tools.build.verifier.SlangContentVerifier;
 import io.cloudslang.score.api.ExecutionPlan;
 import java.io.File;
@@ -96,6 +98,7 @@ import static io.cloudslang.lang.tools.build.SlangBuildMain.BulkRunMode.ALL_SEQU
 import static io.cloudslang.lang.tools.build.SlangBuildMain.BulkRunMode.POSSIBLY_MIXED;
 import static java.util.Arrays.asList;
 import static junit.framework.Assert.assertEquals;
+import static junit.framework.Assert.assertFalse;
 import static junit.framework.Assert.assertNotNull;
 import static junit.framework.Assert.assertTrue;
 import static org.mockito.Matchers.any;
@@ -116,6 +119,7 @@ import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.reset;
 import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.when;
@@ -142,6 +146,9 @@ public class SlangBuilderTest {
     @Autowired
     private SlangBuilder slangBuilder;
 
+    @Autowired
+    private SlangContentVerifier slangContentVerifier;
+
     @Autowired
     private SlangCompiler slangCompiler;
 
@@ -216,7 +223,7 @@ public class SlangBuilderTest {
             doReturn(Maps.newHashMap()).when(slangTestRunner).createTestCases(anyString(), anySet());
 
             slangBuilder.runTests(Maps.<String, Executable>newHashMap(), projectPath,
-                    testPathString, suites, ALL_PARALLEL, buildMode, changedFiles);
+                    testPathString, suites, ALL_PARALLEL, buildMode, changedFiles, null);
             verify(slangTestRunner).runTestsParallel(eq(projectPath), anyMap(), anyMap(), eq(runTestsResults));
             verify(slangTestRunner, never())
                     .runTestsSequential(anyString(), anyMap(), anyMap(), any(RunTestsResults.class));
@@ -380,6 +387,235 @@ public class SlangBuilderTest {
                 numberOfCompiledSlangFiles, numberOfCompiledSlangFiles, 2);
     }
 
+    @Test
+    public void testParallelPreCompileReportsErrorsInTheSequentialOrder() throws Exception {
+        final URI resource = getClass().getResource("/dependencies").toURI();
+        Answer<ExecutableModellingResult> failingPreCompile = new Answer<ExecutableModellingResult>() {
+            @Override
+            public ExecutableModellingResult answer(InvocationOnMock invocation) throws Throwable {
+                SlangSource source = (SlangSource) invocation.getArguments()[0];
+                List<RuntimeException> errors = new ArrayList<>();
+                errors.add(new RuntimeException("first error of " + source.getName()));
+                errors.add(new RuntimeException("second error of " + source.getName()));
+                return new ExecutableModellingResult(null, errors);
+            }
+        };
+        when(slangCompiler.preCompileSource(any(SlangSource.class))).thenAnswer(failingPreCompile);
+        when(metadataExtractor.extractMetadataModellingResult(any(SlangSource.class), eq(false)))
+                .thenReturn(new MetadataModellingResult(EMPTY_METADATA, new ArrayList<RuntimeException>()));
+
+        List<String> sequentialErrors = getPreCompileErrorMessages(resource.getPath());
+        System.setProperty(SlangContentVerifier.SLANG_VERIFIER_THREAD_COUNT, "2");
+        List<String> parallelErrors;
+        try {
+            parallelErrors = getPreCompileErrorMessages(resource.getPath());
+        } finally {
+            System.clearProperty(SlangContentVerifier.SLANG_VERIFIER_THREAD_COUNT);
+        }
+
+        assertEquals(5, sequentialErrors.size());
+        assertEquals(sequentialErrors, parallelErrors);
+    }
+
+    private List<String> getPreCompileErrorMessages(String path) {
+        List<String> messages = new ArrayList<>();
+        for (RuntimeException exception : slangContentVerifier.createModelsAndValidate(path, false, false)
+                .getExceptions()) {
+            messages.add(exception.getMessage());
+        }
+        return messages;
+    }
+
+    @Test
+    public void testParallelCompileFollowsTheDependencies() throws Exception {
+        final Map<String, Executable> slangModels = new LinkedHashMap<>();
+        addFlow(slangModels, "flow", "ns.subflow", "ns.op");
+        addFlow(slangModels, "subflow", "ns.op");
+        addFlow(slangModels, "op");
+        addFlow(slangModels, "broken_flow", "ns.missing");
+        addFlow(slangModels, "cyclic_flow", "ns.other_cyclic_flow");
+        addFlow(slangModels, "other_cyclic_flow", "ns.cyclic_flow");
+        final List<String> compiledIds = Collections.synchronizedList(new ArrayList<String>());
+        final List<String> compiledTooEarly = Collections.synchronizedList(new ArrayList<String>());
+        when(scoreCompiler.compile(any(Executable.class), anySetOf(Executable.class)))
+                .thenAnswer(new Answer<CompilationArtifact>() {
+                    @Override
+                    public CompilationArtifact answer(InvocationOnMock invocation) throws Throwable {
+                        Executable executable = (Executable) invocation.getArguments()[0];
+                        for (String dependency : executable.getExecutableDependencies()) {
+                            if (!compiledIds.contains(dependency)) {
+                                compiledTooEarly.add(executable.getId());
+                            }
+                        }
+                        compiledIds.add(executable.getId());
+                        return EMPTY_COMPILATION_ARTIFACT;
+                    }
+                });
+
+        final CompileResult sequentialResult = slangContentVerifier.compileSlangModels(slangModels);
+        compiledIds.clear();
+        compiledTooEarly.clear();
+        System.setProperty(SlangContentVerifier.SLANG_VERIFIER_THREAD_COUNT, "3");
+        CompileResult parallelResult;
+        try {
+            parallelResult = slangContentVerifier.compileSlangModels(slangModels);
+        } finally {
+            System.clearProperty(SlangContentVerifier.SLANG_VERIFIER_THREAD_COUNT);
+        }
+
+        // only the flows of the cycle cannot be compiled after their dependencies
+        assertEquals(asList("ns.cyclic_flow"), compiledTooEarly);
+        assertEquals(5, parallelResult.getResults().size());
+        assertEquals(sequentialResult.getResults().keySet(), parallelResult.getResults().keySet());
+        assertEquals(1, parallelResult.getExceptions().size());
+        assertEquals(sequentialResult.getExceptions().peek().getMessage(),
+                parallelResult.getExceptions().peek().getMessage());
+        assertTrue(parallelResult.getExceptions().peek().getMessage().contains("Missing dependency: ns.missing"));
+        // once by each compilation
+        verify(scoreCompiler, times(2)).compile(slangModels.get("ns.cyclic_flow"),
+                newHashSet(slangModels.get("ns.cyclic_flow"), slangModels.get("ns.other_cyclic_flow")));
+    }
+
+    @Test
+    public void testDependencyGraphReportsTheStaleExecutables() throws Exception {
+        Path contentPath = Files.createTempDirectory("content");
+        File graphFile = new File(contentPath.toFile().getParentFile(), contentPath.getFileName() + ".graph");
+        try {
+            final File opFile = new File(contentPath.toFile(), "op.sl");
+            FileUtils.writeStringToFile(opFile, "op");
+            FileUtils.writeStringToFile(new File(contentPath.toFile(), "flow.sl"), "flow");
+            FileUtils.writeStringToFile(new File(contentPath.toFile(), "other_flow.sl"), "other_flow");
+            when(slangCompiler.preCompileSource(any(SlangSource.class)))
+                    .thenAnswer(new Answer<ExecutableModellingResult>() {
+                        @Override
+                        public ExecutableModellingResult answer(InvocationOnMock invocation) throws Throwable {
+                            SlangSource source = (SlangSource) invocation.getArguments()[0];
+                            Set<String> dependencies = source.getName().equals("flow.sl") ?
+                                    newHashSet("ns.op") : new HashSet<String>();
+                            Flow flow = new Flow(null, null, null, "ns", source.getName().replace(".sl", ""), null,
+                                    null, null, dependencies, SYSTEM_PROPERTY_DEPENDENCIES);
+                            return new ExecutableModellingResult(flow, new ArrayList<RuntimeException>());
+                        }
+                    });
+            when(metadataExtractor.extractMetadataModellingResult(any(SlangSource.class), eq(false)))
+                    .thenReturn(new MetadataModellingResult(EMPTY_METADATA, new ArrayList<RuntimeException>()));
+            doNothing().when(staticValidator).validateSlangFile(any(File.class), any(Executable.class),
+                    eq(EMPTY_METADATA), eq(false), any(Queue.class));
+            String path = contentPath.toString();
+
+            assertEquals(null, slangContentVerifier.loadDependencyGraph());
+            System.setProperty(SlangContentVerifier.SLANG_VERIFIER_DEPENDENCY_GRAPH, graphFile.getPath());
+            try {
+                assertEquals(newHashSet("ns.op", "ns.flow", "ns.other_flow"), updateDependencyGraph(path, true));
+                assertEquals(new HashSet<String>(), updateDependencyGraph(path, true));
+                FileUtils.writeStringToFile(opFile, "changed op");
+                // the changes are found again as long as the graph is not saved
+                assertEquals(newHashSet("ns.op", "ns.flow"), updateDependencyGraph(path, false));
+                assertEquals(newHashSet("ns.op", "ns.flow"), updateDependencyGraph(path, true));
+                assertEquals(new HashSet<String>(), updateDependencyGraph(path, true));
+            } finally {
+                System.clearProperty(SlangContentVerifier.SLANG_VERIFIER_DEPENDENCY_GRAPH);
+            }
+        } finally {
+            reset(staticValidator);
+            FileUtils.deleteQuietly(contentPath.toFile());
+            FileUtils.deleteQuietly(graphFile);
+        }
+    }
+
+    private Set<String> updateDependencyGraph(String path, boolean save) {
+        DependencyGraph dependencyGraph = slangContentVerifier.loadDependencyGraph();
+        Set<String> staleExecutables = slangContentVerifier.updateDependencyGraph(dependencyGraph, path,
+                slangContentVerifier.createModelsAndValidate(path, false, false));
+        if (save) {
+            slangContentVerifier.saveDependencyGraph(dependencyGraph);
+        }
+        return staleExecutables;
+    }
+
+    @Test
+    public void testDependencyGraphIsSavedOnlyByASuccessfulBuild() throws Exception {
+        final URI resource = getClass().getResource("/no_dependencies").toURI();
+        File graphFile = File.createTempFile("dependency", ".graph");
+        assertTrue(graphFile.delete());
+        when(slangCompiler.preCompileSource(any(SlangSource.class)))
+                .thenReturn(new ExecutableModellingResult(EMPTY_EXECUTABLE, new ArrayList<RuntimeException>()));
+        when(metadataExtractor.extractMetadataModellingResult(any(SlangSource.class), eq(false)))
+                .thenReturn(new MetadataModellingResult(null, new ArrayList<RuntimeException>()));
+        System.setProperty(SlangContentVerifier.SLANG_VERIFIER_DEPENDENCY_GRAPH, graphFile.getPath());
+        try {
+            when(scoreCompiler.compile(EMPTY_EXECUTABLE, new HashSet<Executable>()))
+                    .thenThrow(new RuntimeException());
+            SlangBuildResults buildResults = slangBuilder.buildSlangContent(resource.getPath(), resource.getPath(),
+                    null, null, false, false, ALL_SEQUENTIAL, buildMode, changedFiles);
+            assertTrue(buildResults.getCompilationExceptions().size() > 0);
+            assertFalse(graphFile.exists());
+
+            reset(scoreCompiler);
+            when(scoreCompiler.compile(EMPTY_EXECUTABLE, new HashSet<Executable>()))
+                    .thenReturn(EMPTY_COMPILATION_ARTIFACT);
+            buildResults = slangBuilder.buildSlangContent(resource.getPath(), resource.getPath(),
+                    null, null, false, false, ALL_SEQUENTIAL, buildMode, changedFiles);
+            assertEquals(0, buildResults.getCompilationExceptions().size());
+            assertTrue(graphFile.exists());
+        } finally {
+            System.clearProperty(SlangContentVerifier.SLANG_VERIFIER_DEPENDENCY_GRAPH);
+            FileUtils.deleteQuietly(graphFile);
+        }
+    }
+
+    @Test
+    public void testDependenciesOfEveryModelAreComputedOnce() throws Exception {
+        // the models depending on the most others come first, so the traversal reaches each model many times
+        final int chainLength = 30;
+        final Map<String, Executable> slangModels = new LinkedHashMap<>();
+        for (int index = 0; index < chainLength; index++) {
+            addFlow(slangModels, "flow_" + index, "ns.flow_" + (index + 1), "ns.op");
+        }
+        addFlow(slangModels, "flow_" + chainLength, "ns.op");
+        addFlow(slangModels, "op");
+        for (Map.Entry<String, Executable> entry : slangModels.entrySet()) {
+            entry.setValue(spy(entry.getValue()));
+        }
+        when(scoreCompiler.compile(any(Executable.class), anySetOf(Executable.class)))
+                .thenReturn(EMPTY_COMPILATION_ARTIFACT);
+
+        CompileResult compileResult = slangContentVerifier.compileSlangModels(slangModels);
+
+        assertEquals(chainLength + 2, compileResult.getResults().size());
+        Set<Executable> firstFlowDependencies = new HashSet<>(slangModels.values());
+        firstFlowDependencies.remove(slangModels.get("ns.flow_0"));
+        verify(scoreCompiler).compile(slangModels.get("ns.flow_0"), firstFlowDependencies);
+        verify(scoreCompiler).compile(slangModels.get("ns.flow_" + chainLength), newHashSet(slangModels.get("ns.op")));
+        for (Executable slangModel : slangModels.values()) {
+            // once when visited and once when finished
+            verify(slangModel, times(2)).getExecutableDependencies();
+        }
+    }
+
+    @Test
+    public void testLongDependencyChainIsTraversedWithoutRecursion() throws Exception {
+        // a chain deeper than a recursive traversal could go, closed into one cycle so the models share one closure
+        final int chainLength = 100000;
+        final Map<String, Executable> slangModels = new LinkedHashMap<>();
+        for (int index = 0; index < chainLength; index++) {
+            addFlow(slangModels, "flow_" + index, "ns.flow_" + ((index + 1) % chainLength));
+        }
+        when(scoreCompiler.compile(any(Executable.class), anySetOf(Executable.class)))
+                .thenReturn(EMPTY_COMPILATION_ARTIFACT);
+
+        CompileResult compileResult = slangContentVerifier.compileSlangModels(slangModels);
+
+        assertEquals(chainLength, compileResult.getResults().size());
+        assertTrue(compileResult.getExceptions().isEmpty());
+    }
+
+    private void addFlow(Map<String, Executable> slangModels, String name, String... dependencies) {
+        Flow flow = new Flow(null, null, null, "ns", name, null, null, null,
+                new HashSet<>(asList(dependencies)), SYSTEM_PROPERTY_DEPENDENCIES);
+        slangModels.put(flow.getId(), flow);
+    }
+
     @Test
     public void testInvalidNamespaceFlow() throws Exception {
         final URI resource = getClass().getResource("/no_dependencies").toURI();
@@ -11,6 +11,7 @@ package io.cloudslang.lang.entities;
 
 import io.cloudslang.lang.entities.bindings.Input;
 import io.cloudslang.score.api.ExecutionPlan;
+import java.io.Serializable;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -21,7 +22,9 @@ import org.apache.commons.lang3.builder.ToStringBuilder;
 /*
  * Created by orius123 on 10/11/14.
  */
-public class CompilationArtifact {
+public class CompilationArtifact implements Serializable {
+
+    private static final long serialVersionUID = 1L;
 
     private final ExecutionPlan executionPlan;
     private final Map<String, ExecutionPlan> dependencies;
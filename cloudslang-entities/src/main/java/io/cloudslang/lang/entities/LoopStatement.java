@@ -26,15 +26,23 @@ public abstract class LoopStatement implements Serializable {
     private final String expression;
     private Set<ScriptFunction> functionDependencies;
     private Set<String> systemPropertyDependencies;
+    // null when unknown or when the expression needs the whole context
+    private Set<String> variableDependencies;
 
     public LoopStatement(String expression, Set<ScriptFunction> functionDependencies,
                          Set<String> systemPropertyDependencies) {
+        this(expression, functionDependencies, systemPropertyDependencies, null);
+    }
+
+    public LoopStatement(String expression, Set<ScriptFunction> functionDependencies,
+                         Set<String> systemPropertyDependencies, Set<String> variableDependencies) {
 
         Validate.notBlank(expression, "loop expression cannot be empty");
 
         this.expression = expression;
         this.functionDependencies = functionDependencies;
         this.systemPropertyDependencies = systemPropertyDependencies;
+        this.variableDependencies = variableDependencies;
     }
 
     /**
@@ -57,6 +65,13 @@ public abstract class LoopStatement implements Serializable {
         return systemPropertyDependencies;
     }
 
+    /**
+     * @return the context variables the loop expression reads, null if the whole context may be read
+     */
+    public Set<String> getVariableDependencies() {
+        return variableDependencies;
+    }
+
     @Override
     public String toString() {
         return new ToStringBuilder(this)
@@ -78,6 +93,7 @@ public abstract class LoopStatement implements Serializable {
 
         return new EqualsBuilder()
                 .append(expression, that.expression)
+                .append(variableDependencies, that.variableDependencies)
                 .isEquals();
     }
 
@@ -85,6 +101,7 @@ public abstract class LoopStatement implements Serializable {
     public int hashCode() {
         return new HashCodeBuilder(17, 37)
                 .append(expression)
+                .append(variableDependencies)
                 .toHashCode();
     }
 
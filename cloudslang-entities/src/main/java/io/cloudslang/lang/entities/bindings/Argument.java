@@ -45,6 +45,17 @@ public class Argument extends InOutParam {
         this.privateArgument = privateArgument;
     }
 
+    public Argument(
+            String name,
+            Value value,
+            boolean privateArgument,
+            Set<ScriptFunction> scriptFunctions,
+            Set<String> systemPropertyDependencies,
+            Set<String> variableDependencies) {
+        super(name, value, scriptFunctions, systemPropertyDependencies, variableDependencies);
+        this.privateArgument = privateArgument;
+    }
+
     public Argument(String name) {
         super(name, ValueFactory.create(null));
         privateArgument = false;
@@ -31,16 +31,28 @@ public abstract class InOutParam implements Serializable {
     private Value value;
     private Set<ScriptFunction> functionDependencies;
     private Set<String> systemPropertyDependencies;
+    // null when unknown or when the expression needs the whole context
+    private Set<String> variableDependencies;
 
     public InOutParam(
             String name,
             Value value,
             Set<ScriptFunction> functionDependencies,
             Set<String> systemPropertyDependencies) {
+        this(name, value, functionDependencies, systemPropertyDependencies, null);
+    }
+
+    public InOutParam(
+            String name,
+            Value value,
+            Set<ScriptFunction> functionDependencies,
+            Set<String> systemPropertyDependencies,
+            Set<String> variableDependencies) {
         this.name = name;
         this.value = value;
         this.functionDependencies = functionDependencies;
         this.systemPropertyDependencies = systemPropertyDependencies;
+        this.variableDependencies = variableDependencies;
     }
 
     public InOutParam(String name, Value value) {
@@ -74,6 +86,13 @@ public abstract class InOutParam implements Serializable {
         return systemPropertyDependencies;
     }
 
+    /**
+     * @return the context variables the value expression reads, null if the whole context may be read
+     */
+    public Set<String> getVariableDependencies() {
+        return variableDependencies;
+    }
+
     @Override
     public String toString() {
         return new ToStringBuilder(this)
@@ -81,6 +100,7 @@ public abstract class InOutParam implements Serializable {
                 .append("value", value)
                 .append("functionDependencies", functionDependencies)
                 .append("systemPropertyDependencies", systemPropertyDependencies)
+                .append("variableDependencies", variableDependencies)
                 .toString();
     }
 
@@ -101,6 +121,7 @@ public abstract class InOutParam implements Serializable {
                 .append(value, that.value)
                 .append(functionDependencies, that.functionDependencies)
                 .append(systemPropertyDependencies, that.systemPropertyDependencies)
+                .append(variableDependencies, that.variableDependencies)
                 .isEquals();
     }
 
@@ -111,6 +132,7 @@ public abstract class InOutParam implements Serializable {
                 .append(value)
                 .append(functionDependencies)
                 .append(systemPropertyDependencies)
+                .append(variableDependencies)
                 .toHashCode();
     }
 
@@ -35,7 +35,8 @@ public class Input extends InOutParam {
         super(inputBuilder.name,
                 inputBuilder.value,
                 inputBuilder.functionDependencies,
-                inputBuilder.systemPropertyDependencies
+                inputBuilder.systemPropertyDependencies,
+                inputBuilder.variableDependencies
         );
         this.required = inputBuilder.required;
         this.privateInput = inputBuilder.privateInput;
@@ -100,6 +101,7 @@ public class Input extends InOutParam {
         private boolean privateInput;
         private Set<ScriptFunction> functionDependencies;
         private Set<String> systemPropertyDependencies;
+        private Set<String> variableDependencies;
 
         public InputBuilder(String name, Serializable serializable) {
             this(name, serializable, false);
@@ -144,6 +146,11 @@ public class Input extends InOutParam {
             return this;
         }
 
+        public InputBuilder withVariableDependencies(Set<String> variableDependencies) {
+            this.variableDependencies = variableDependencies;
+            return this;
+        }
+
         public Input build() {
             return new Input(this);
         }
@@ -17,4 +17,9 @@ package io.cloudslang.lang.entities.bindings.values;
 public interface PyObjectValue extends Value {
 
     boolean isAccessed();
+
+    /**
+     * Clears the accessed flag, so a value read by more than one expression tells which of them accessed it.
+     */
+    void resetAccessed();
 }
@@ -118,6 +118,7 @@ public class PyObjectValueProxyFactory {
     private static class PyObjectValueMethodHandler implements MethodHandler, Serializable {
 
         private static final String ACCESSED_GETTER_METHOD = "isAccessed";
+        private static final String ACCESSED_RESET_METHOD = "resetAccessed";
 
         protected Value value;
         protected PyObject pyObject;
@@ -133,6 +134,9 @@ public class PyObjectValueProxyFactory {
         public Object invoke(Object self, Method thisMethod, Method proceed, Object[] args) throws Throwable {
             if (thisMethod.getName().equals(ACCESSED_GETTER_METHOD)) {
                 return accessed;
+            } else if (thisMethod.getName().equals(ACCESSED_RESET_METHOD)) {
+                accessed = false;
+                return null;
             } else if (Value.class.isAssignableFrom(thisMethod.getDeclaringClass())) {
                 Method valueMethod = value.getClass().getMethod(thisMethod.getName(), thisMethod.getParameterTypes());
                 return valueMethod.invoke(value, args);
@@ -0,0 +1,356 @@
+/*******************************************************************************
+ * (c) Copyright 2016 Hewlett-Packard Development Company, L.P.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Apache License v2.0 which accompany this distribution.
+ *
+ * The Apache License is available at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *******************************************************************************/
+package io.cloudslang.lang.entities.bundle;
+
+import io.cloudslang.lang.entities.CompilationArtifact;
+import io.cloudslang.lang.entities.bindings.Input;
+import io.cloudslang.score.api.ExecutionPlan;
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InvalidClassException;
+import java.io.ObjectInputStream;
+import java.io.ObjectStreamClass;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Read side of a bundle of precompiled content - the compilation artifacts of a set of executables, written by
+ * {@link CompilationArtifactBundleWriter}. A node holding a bundle runs its flows without parsing or compiling
+ * any source.
+ * <p>
+ * The bundle file is memory mapped and only its index is read when it is opened. An artifact is deserialized
+ * the first time it is requested, and kept for the next requests.
+ * <p>
+ * Every execution plan is stored once, keyed by its flow uuid, and the artifacts refer to the plans they hold by
+ * that uuid - so the plan of an executable many others depend on is neither written nor read once per dependent.
+ * Only the types a compilation artifact is made of are deserialized.
+ * <p>
+ * Layout, all numbers big-endian:
+ * <pre>
+ * header   magic "SLC1" (int), format version (int)
+ * plans    the serialized execution plans, one after the other
+ * entries  the serialized artifacts, one after the other: flow uuid of the execution plan, dependency count,
+ *          then for every dependency its key and flow uuid, then the inputs and the system properties
+ * index    plan count (int), then for every plan: flow uuid (int length + UTF-8 bytes), offset (long),
+ *          length (int); entry count (int), then for every entry: executable id (int length + UTF-8 bytes),
+ *          offset (long), length (int)
+ * footer   offset of the index (long)
+ * </pre>
+ */
+public class CompilationArtifactBundle implements Closeable {
+
+    public static final String FILE_EXTENSION = ".slc";
+
+    static final int MAGIC = 0x534C4331;
+    static final int FORMAT_VERSION = 2;
+    static final int HEADER_SIZE = 8;
+    static final int FOOTER_SIZE = 8;
+    // offset (long) and length (int) of an entry
+    private static final int ENTRY_LOCATION_SIZE = 8 + 4;
+    // an index entry with an empty executable id
+    private static final int MIN_INDEX_ENTRY_SIZE = 4 + ENTRY_LOCATION_SIZE;
+
+    private static final List<String> ALLOWED_PACKAGES =
+            Arrays.asList("io.cloudslang.lang.entities.", "io.cloudslang.score.api.");
+    private static final Set<String> ALLOWED_CLASSES = new HashSet<>(Arrays.asList(String.class.getName(),
+            Boolean.class.getName(), Byte.class.getName(), Character.class.getName(), Short.class.getName(),
+            Integer.class.getName(), Long.class.getName(), Float.class.getName(), Double.class.getName(),
+            Number.class.getName(), Enum.class.getName()));
+    private static final String COLLECTIONS_PACKAGE = "java.util.";
+
+    private final File file;
+
+    private final FileChannel channel;
+
+    private final ByteBuffer buffer;
+
+    private final Map<String, Entry> plans;
+
+    private final Map<String, Entry> entries;
+
+    private final ConcurrentMap<String, ExecutionPlan> executionPlans = new ConcurrentHashMap<>();
+
+    private final ConcurrentMap<String, CompilationArtifact> artifacts = new ConcurrentHashMap<>();
+
+    private CompilationArtifactBundle(File file, FileChannel channel, ByteBuffer buffer, Map<String, Entry> plans,
+                                      Map<String, Entry> entries) {
+        this.file = file;
+        this.channel = channel;
+        this.buffer = buffer;
+        this.plans = plans;
+        this.entries = entries;
+    }
+
+    /**
+     * @param file a bundle file
+     * @return the bundle, with its index read
+     * @throws IOException if the file cannot be read, is not a bundle or was written in another format version
+     */
+    public static CompilationArtifactBundle open(File file) throws IOException {
+        FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+        try {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE) {
+                throw new IOException("Bundle " + file.getPath() + " is larger than 2GB");
+            }
+            if (size < HEADER_SIZE + FOOTER_SIZE) {
+                throw new IOException("File " + file.getPath() + " is not a compilation artifact bundle");
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            if (buffer.getInt(0) != MAGIC) {
+                throw new IOException("File " + file.getPath() + " is not a compilation artifact bundle");
+            }
+            int version = buffer.getInt(4);
+            if (version != FORMAT_VERSION) {
+                throw new IOException("Bundle " + file.getPath() + " has format version " + version +
+                        ", only version " + FORMAT_VERSION + " is supported");
+            }
+            return readIndex(file, channel, buffer, (int) size);
+        } catch (IOException | RuntimeException ex) {
+            channel.close();
+            throw ex;
+        }
+    }
+
+    private static CompilationArtifactBundle readIndex(File file, FileChannel channel, ByteBuffer buffer, int size)
+            throws IOException {
+        try {
+            long indexOffset = buffer.getLong(size - FOOTER_SIZE);
+            if (indexOffset < HEADER_SIZE || indexOffset > size - FOOTER_SIZE) {
+                throw new IOException("Bundle " + file.getPath() + " has a corrupted index");
+            }
+            ByteBuffer index = buffer.duplicate();
+            index.limit(size - FOOTER_SIZE);
+            index.position((int) indexOffset);
+            Map<String, Entry> plans = readTable(file, index, indexOffset);
+            Map<String, Entry> entries = readTable(file, index, indexOffset);
+            return new CompilationArtifactBundle(file, channel, buffer, plans, entries);
+        } catch (RuntimeException ex) {
+            throw new IOException("Bundle " + file.getPath() + " has a corrupted index", ex);
+        }
+    }
+
+    private static Map<String, Entry> readTable(File file, ByteBuffer index, long indexOffset) throws IOException {
+        int count = index.getInt();
+        // sizes are checked against the bytes left in the index before anything is allocated for them
+        if (count < 0 || count > index.remaining() / MIN_INDEX_ENTRY_SIZE) {
+            throw new IOException("Bundle " + file.getPath() + " has a corrupted index");
+        }
+        Map<String, Entry> entries = new HashMap<>(count * 2);
+        for (int i = 0; i < count; i++) {
+            int idLength = index.getInt();
+            if (idLength < 0 || idLength > index.remaining() - ENTRY_LOCATION_SIZE) {
+                throw new IOException("Bundle " + file.getPath() + " has a corrupted index");
+            }
+            byte[] idBytes = new byte[idLength];
+            index.get(idBytes);
+            long offset = index.getLong();
+            int length = index.getInt();
+            if (offset < HEADER_SIZE || length < 0 || offset + length > indexOffset) {
+                throw new IOException("Bundle " + file.getPath() + " has a corrupted index");
+            }
+            entries.put(new String(idBytes, StandardCharsets.UTF_8), new Entry((int) offset, length));
+        }
+        return entries;
+    }
+
+    /**
+     * @return the ids of the executables in the bundle
+     */
+    public Set<String> getExecutableIds() {
+        return Collections.unmodifiableSet(entries.keySet());
+    }
+
+    /**
+     * @param executableId the id of an executable - its namespace and name
+     * @return whether the bundle holds the artifact of the executable
+     */
+    public boolean contains(String executableId) {
+        return entries.containsKey(executableId);
+    }
+
+    /**
+     * @param executableId the id of an executable - its namespace and name
+     * @return the compilation artifact of the executable, or null if it is not in the bundle
+     */
+    public CompilationArtifact getCompilationArtifact(String executableId) {
+        CompilationArtifact compilationArtifact = artifacts.get(executableId);
+        if (compilationArtifact == null) {
+            Entry entry = entries.get(executableId);
+            if (entry == null) {
+                return null;
+            }
+            compilationArtifact = readArtifact(executableId, entry);
+            CompilationArtifact currentArtifact = artifacts.putIfAbsent(executableId, compilationArtifact);
+            if (currentArtifact != null) {
+                compilationArtifact = currentArtifact;
+            }
+        }
+        return compilationArtifact;
+    }
+
+    @SuppressWarnings("unchecked")
+    private CompilationArtifact readArtifact(String executableId, Entry entry) {
+        try (ObjectInputStream in = new BundleObjectInputStream(new ByteBufferInputStream(slice(entry)))) {
+            ExecutionPlan executionPlan = getExecutionPlan(in.readUTF());
+            int dependencyCount = in.readInt();
+            Map<String, ExecutionPlan> dependencies = new HashMap<>();
+            for (int i = 0; i < dependencyCount; i++) {
+                String key = in.readUTF();
+                dependencies.put(key, getExecutionPlan(in.readUTF()));
+            }
+            List<Input> inputs = (List<Input>) in.readObject();
+            Set<String> systemProperties = (Set<String>) in.readObject();
+            return new CompilationArtifact(executionPlan, dependencies, inputs, systemProperties);
+        } catch (IOException | ClassNotFoundException | ClassCastException ex) {
+            throw new RuntimeException("Failed to read executable " + executableId + " from bundle " +
+                    file.getPath(), ex);
+        }
+    }
+
+    private ExecutionPlan getExecutionPlan(String flowUuid) throws IOException, ClassNotFoundException {
+        ExecutionPlan executionPlan = executionPlans.get(flowUuid);
+        if (executionPlan == null) {
+            Entry entry = plans.get(flowUuid);
+            if (entry == null) {
+                throw new IOException("Missing execution plan " + flowUuid);
+            }
+            try (ObjectInputStream in = new BundleObjectInputStream(new ByteBufferInputStream(slice(entry)))) {
+                executionPlan = (ExecutionPlan) in.readObject();
+            }
+            ExecutionPlan currentPlan = executionPlans.putIfAbsent(flowUuid, executionPlan);
+            if (currentPlan != null) {
+                executionPlan = currentPlan;
+            }
+        }
+        return executionPlan;
+    }
+
+    private ByteBuffer slice(Entry entry) {
+        ByteBuffer entryBuffer = buffer.duplicate();
+        entryBuffer.position(entry.getOffset());
+        entryBuffer.limit(entry.getOffset() + entry.getLength());
+        return entryBuffer;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private static class Entry {
+
+        private final int offset;
+        private final int length;
+
+        Entry(int offset, int length) {
+            this.offset = offset;
+            this.length = length;
+        }
+
+        int getOffset() {
+            return offset;
+        }
+
+        int getLength() {
+            return length;
+        }
+    }
+
+    /**
+     * Deserializes only the types a compilation artifact is made of - the entities, the score api and the java
+     * collections and values they hold - so a tampered bundle cannot make the reader instantiate other classes.
+     */
+    private static class BundleObjectInputStream extends ObjectInputStream {
+
+        BundleObjectInputStream(InputStream in) throws IOException {
+            super(in);
+        }
+
+        @Override
+        protected Class<?> resolveClass(ObjectStreamClass description) throws IOException, ClassNotFoundException {
+            if (!isAllowed(description.getName())) {
+                throw new InvalidClassException(description.getName(), "Type is not allowed in a bundle");
+            }
+            return super.resolveClass(description);
+        }
+
+        @Override
+        protected Class<?> resolveProxyClass(String[] interfaces) throws IOException {
+            throw new InvalidClassException(Arrays.toString(interfaces), "Proxies are not allowed in a bundle");
+        }
+
+        private static boolean isAllowed(String className) {
+            String componentName = className;
+            if (componentName.startsWith("[")) {
+                componentName = componentName.substring(componentName.lastIndexOf('[') + 1);
+                if (!componentName.startsWith("L")) {
+                    // an array of primitives
+                    return true;
+                }
+                componentName = componentName.substring(1, componentName.length() - 1);
+            }
+            if (ALLOWED_CLASSES.contains(componentName)) {
+                return true;
+            }
+            for (String allowedPackage : ALLOWED_PACKAGES) {
+                if (componentName.startsWith(allowedPackage)) {
+                    return true;
+                }
+            }
+            // the collections themselves, not the sub packages of java.util
+            return componentName.startsWith(COLLECTIONS_PACKAGE) &&
+                    componentName.indexOf('.', COLLECTIONS_PACKAGE.length()) < 0;
+        }
+    }
+
+    private static class ByteBufferInputStream extends InputStream {
+
+        private final ByteBuffer buffer;
+
+        ByteBufferInputStream(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        @Override
+        public int read() {
+            return buffer.hasRemaining() ? buffer.get() & 0xFF : -1;
+        }
+
+        @Override
+        public int read(byte[] bytes, int offset, int length) {
+            if (!buffer.hasRemaining()) {
+                return -1;
+            }
+            int count = Math.min(length, buffer.remaining());
+            buffer.get(bytes, offset, count);
+            return count;
+        }
+
+        @Override
+        public int available() {
+            return buffer.remaining();
+        }
+    }
+}
@@ -0,0 +1,136 @@
+/*******************************************************************************
+ * (c) Copyright 2016 Hewlett-Packard Development Company, L.P.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Apache License v2.0 which accompany this distribution.
+ *
+ * The Apache License is available at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *******************************************************************************/
+package io.cloudslang.lang.entities.bundle;
+
+import io.cloudslang.lang.entities.CompilationArtifact;
+import io.cloudslang.lang.entities.utils.AtomicFileUtils;
+import io.cloudslang.score.api.ExecutionPlan;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static io.cloudslang.lang.entities.bundle.CompilationArtifactBundle.FORMAT_VERSION;
+import static io.cloudslang.lang.entities.bundle.CompilationArtifactBundle.MAGIC;
+
+/**
+ * Writes the compilation artifacts of a set of executables to a bundle file, read by
+ * {@link CompilationArtifactBundle}.
+ * <p>
+ * The execution plans are written once per flow uuid - the artifacts of one compilation hold the same plan for
+ * the same flow.
+ */
+public class CompilationArtifactBundleWriter {
+
+    /**
+     * Write a bundle. A bundle that failed to write leaves the previous bundle file in place.
+     *
+     * @param file      the bundle file
+     * @param artifacts the compilation artifacts by the id of their executable
+     * @throws IOException if the bundle cannot be written
+     */
+    public void write(File file, final Map<String, CompilationArtifact> artifacts) throws IOException {
+        AtomicFileUtils.write(file, new AtomicFileUtils.ContentWriter() {
+            @Override
+            public void write(OutputStream out) throws IOException {
+                DataOutputStream dataOut = new DataOutputStream(out);
+                writeBundle(dataOut, artifacts);
+                dataOut.flush();
+            }
+        });
+    }
+
+    private void writeBundle(DataOutputStream out, Map<String, CompilationArtifact> artifacts) throws IOException {
+        out.writeInt(MAGIC);
+        out.writeInt(FORMAT_VERSION);
+
+        // sorted, so the same content always gives the same bundle
+        Map<String, ExecutionPlan> executionPlans = new TreeMap<>();
+        for (CompilationArtifact artifact : artifacts.values()) {
+            addExecutionPlan(executionPlans, artifact.getExecutionPlan());
+            for (ExecutionPlan dependency : artifact.getDependencies().values()) {
+                addExecutionPlan(executionPlans, dependency);
+            }
+        }
+        Map<String, Long> planOffsets = new TreeMap<>();
+        Map<String, Integer> planLengths = new TreeMap<>();
+        long offset = CompilationArtifactBundle.HEADER_SIZE;
+        for (Map.Entry<String, ExecutionPlan> executionPlan : executionPlans.entrySet()) {
+            byte[] bytes = serialize(executionPlan.getValue());
+            out.write(bytes);
+            planOffsets.put(executionPlan.getKey(), offset);
+            planLengths.put(executionPlan.getKey(), bytes.length);
+            offset += bytes.length;
+        }
+
+        Map<String, CompilationArtifact> sortedArtifacts = new TreeMap<>(artifacts);
+        Map<String, Long> entryOffsets = new TreeMap<>();
+        Map<String, Integer> entryLengths = new TreeMap<>();
+        for (Map.Entry<String, CompilationArtifact> artifact : sortedArtifacts.entrySet()) {
+            byte[] bytes = serialize(artifact.getValue());
+            out.write(bytes);
+            entryOffsets.put(artifact.getKey(), offset);
+            entryLengths.put(artifact.getKey(), bytes.length);
+            offset += bytes.length;
+        }
+
+        long indexOffset = offset;
+        writeTable(out, planOffsets, planLengths);
+        writeTable(out, entryOffsets, entryLengths);
+        out.writeLong(indexOffset);
+    }
+
+    private void addExecutionPlan(Map<String, ExecutionPlan> executionPlans, ExecutionPlan executionPlan) {
+        if (!executionPlans.containsKey(executionPlan.getFlowUuid())) {
+            executionPlans.put(executionPlan.getFlowUuid(), executionPlan);
+        }
+    }
+
+    private void writeTable(DataOutputStream out, Map<String, Long> offsets, Map<String, Integer> lengths)
+            throws IOException {
+        out.writeInt(offsets.size());
+        for (Map.Entry<String, Long> offset : offsets.entrySet()) {
+            byte[] idBytes = offset.getKey().getBytes(StandardCharsets.UTF_8);
+            out.writeInt(idBytes.length);
+            out.write(idBytes);
+            out.writeLong(offset.getValue());
+            out.writeInt(lengths.get(offset.getKey()));
+        }
+    }
+
+    private byte[] serialize(ExecutionPlan executionPlan) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(executionPlan);
+        }
+        return bytes.toByteArray();
+    }
+
+    private byte[] serialize(CompilationArtifact artifact) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            // the execution plans are referred to by their flow uuid
+            out.writeUTF(artifact.getExecutionPlan().getFlowUuid());
+            out.writeInt(artifact.getDependencies().size());
+            for (Map.Entry<String, ExecutionPlan> dependency : artifact.getDependencies().entrySet()) {
+                out.writeUTF(dependency.getKey());
+                out.writeUTF(dependency.getValue().getFlowUuid());
+            }
+            out.writeObject(artifact.getInputs());
+            out.writeObject(artifact.getSystemProperties());
+        }
+        return bytes.toByteArray();
+    }
+}
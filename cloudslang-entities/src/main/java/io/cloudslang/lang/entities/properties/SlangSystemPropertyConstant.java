@@ -12,7 +12,14 @@ package io.cloudslang.lang.entities.properties;
 public enum SlangSystemPropertyConstant {
     CSLANG_ENCODING("cslang.encoding"),
     LOG4J_CONFIGURATION("log4j.configuration"),
-    CSLANG_RUNTIME_EVENTS_VERBOSITY("cslang.runtime.events.verbosity");
+    CSLANG_RUNTIME_EVENTS_VERBOSITY("cslang.runtime.events.verbosity"),
+    CSLANG_RUNTIME_EXPRESSION_CACHE_SIZE("cslang.runtime.expression.cache.size"),
+    CSLANG_RUNTIME_EXPRESSION_FAST_PATH_ENABLED("cslang.runtime.expression.fast.path.enabled"),
+    CSLANG_RUNTIME_PYTHON_CODE_CACHE_SIZE("cslang.runtime.python.code.cache.size"),
+    CSLANG_RUNTIME_PARALLEL_LOOP_MAX_BRANCHES("cslang.runtime.parallel.loop.max.branches"),
+    CSLANG_COMPILER_PRECOMPILE_CACHE_DIRECTORY("cslang.compiler.precompile.cache.directory"),
+    CSLANG_COMPILER_PRECOMPILE_CACHE_MAX_SIZE("cslang.compiler.precompile.cache.max.size"),
+    CSLANG_COMPILER_NAMESPACE_INDEX_DIRECTORY("cslang.compiler.namespace.index.directory");
 
     private final String value;
 
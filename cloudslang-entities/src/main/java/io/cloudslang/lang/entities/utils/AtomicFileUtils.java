@@ -0,0 +1,96 @@
+/*******************************************************************************
+ * (c) Copyright 2016 Hewlett-Packard Development Company, L.P.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Apache License v2.0 which accompany this distribution.
+ *
+ * The Apache License is available at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *******************************************************************************/
+package io.cloudslang.lang.entities.utils;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+import java.io.Serializable;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+/**
+ * Writes files through a temporary file in the same directory, which then replaces the target at once.
+ * A file that failed to write is therefore never half written, and readers see either its old or its new content.
+ */
+public final class AtomicFileUtils {
+
+    private static final String TEMP_SUFFIX = ".tmp";
+
+    private AtomicFileUtils() {
+    }
+
+    /**
+     * Writes the content of a file to the given stream.
+     */
+    public interface ContentWriter {
+        void write(OutputStream out) throws IOException;
+    }
+
+    /**
+     * @param file          the file to write, its directory is created if missing
+     * @param contentWriter writes the content of the file
+     * @throws IOException if the file cannot be written
+     */
+    public static void write(File file, ContentWriter contentWriter) throws IOException {
+        File directory = file.getAbsoluteFile().getParentFile();
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            throw new IOException("Cannot create directory: " + directory.getAbsolutePath());
+        }
+        Path tempFile = Files.createTempFile(directory.toPath(), file.getName(), TEMP_SUFFIX);
+        try {
+            try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(tempFile))) {
+                contentWriter.write(out);
+            }
+            try {
+                Files.move(tempFile, file.toPath(), StandardCopyOption.ATOMIC_MOVE,
+                        StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException ex) {
+                Files.move(tempFile, file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(tempFile);
+        }
+    }
+
+    /**
+     * @param file    the file to write, its directory is created if missing
+     * @param content the content of the file
+     * @throws IOException if the file cannot be written
+     */
+    public static void write(File file, final byte[] content) throws IOException {
+        write(file, new ContentWriter() {
+            @Override
+            public void write(OutputStream out) throws IOException {
+                out.write(content);
+            }
+        });
+    }
+
+    /**
+     * @param file   the file to write, its directory is created if missing
+     * @param object the object serialized as the content of the file
+     * @throws IOException if the file cannot be written
+     */
+    public static void writeObject(File file, final Serializable object) throws IOException {
+        write(file, new ContentWriter() {
+            @Override
+            public void write(OutputStream out) throws IOException {
+                ObjectOutputStream objectOut = new ObjectOutputStream(out);
+                objectOut.writeObject(object);
+                objectOut.flush();
+            }
+        });
+    }
+}
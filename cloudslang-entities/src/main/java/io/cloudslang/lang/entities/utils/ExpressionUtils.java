@@ -10,6 +10,7 @@
 package io.cloudslang.lang.entities.utils;
 
 import java.io.Serializable;
+import java.util.Arrays;
 import java.util.HashSet;
 import java.util.Set;
 import java.util.regex.Matcher;
@@ -48,6 +49,15 @@ public final class ExpressionUtils {
     private static final Pattern GET_PATTERN_WITH_DEFAULT = compile(GET_REGEX_WITH_DEFAULT);
     private static final Pattern CHECK_EMPTY_PATTERN = compile(CHECK_EMPTY_REGEX);
 
+    private static final String GET_FUNCTION = "get";
+    private static final Set<String> LANGUAGE_FUNCTIONS = new HashSet<>(Arrays.asList("get_sp", "check_empty"));
+    private static final Set<String> DYNAMIC_LOOKUP_FUNCTIONS = new HashSet<>(Arrays.asList(
+            "globals", "locals", "vars", "dir", "eval", "exec", "execfile", "__import__"));
+    private static final Set<String> KEYWORDS = new HashSet<>(Arrays.asList(
+            "and", "as", "assert", "break", "class", "continue", "def", "del", "elif", "else", "except",
+            "finally", "for", "from", "global", "if", "import", "in", "is", "lambda", "not", "or", "pass", "print",
+            "raise", "return", "try", "while", "with", "yield"));
+
     public static String extractExpression(Serializable value) {
         String expression = null;
         if (value instanceof String) {
@@ -76,6 +86,128 @@ public final class ExpressionUtils {
         return matchPattern(CHECK_EMPTY_PATTERN, text);
     }
 
+    /**
+     * Collects the names an expression may read from the context. Attribute names are skipped, while names
+     * bound by the expression itself (lambda parameters, comprehension variables, keyword arguments)
+     * are reported as well, which is harmless.
+     *
+     * @param expression the python expression
+     * @return the referenced names, or null if the expression looks up names dynamically,
+     *     e.g. using globals() or get() with a non literal key, and needs the whole context
+     */
+    public static Set<String> extractVariableReferences(String expression) {
+        Set<String> references = new HashSet<>();
+        int length = expression.length();
+        int index = 0;
+        char previous = ' ';
+        while (index < length) {
+            char current = expression.charAt(index);
+            if (current == '\'' || current == '"') {
+                index = skipStringLiteral(expression, index);
+                if (index < 0) {
+                    return null;
+                }
+                previous = current;
+            } else if (current == '#') {
+                while (index < length && expression.charAt(index) != '\n') {
+                    index++;
+                }
+            } else if (Character.isDigit(current)) {
+                // number literals with fractions, exponents, suffixes or hex digits
+                while (index < length && (isNameChar(expression.charAt(index)) || expression.charAt(index) == '.')) {
+                    index++;
+                }
+                previous = current;
+            } else if (isNameChar(current)) {
+                int start = index;
+                while (index < length && isNameChar(expression.charAt(index))) {
+                    index++;
+                }
+                String name = expression.substring(start, index);
+                if (previous != '.' && !KEYWORDS.contains(name)) {
+                    if (DYNAMIC_LOOKUP_FUNCTIONS.contains(name)) {
+                        return null;
+                    }
+                    boolean call = isCall(expression, index);
+                    if (GET_FUNCTION.equals(name)) {
+                        String key = call ? extractLiteralArgument(expression, index) : null;
+                        if (key == null) {
+                            return null;
+                        }
+                        references.add(key);
+                    } else if (!call || !LANGUAGE_FUNCTIONS.contains(name)) {
+                        references.add(name);
+                    }
+                }
+                previous = current;
+            } else {
+                if (!Character.isWhitespace(current)) {
+                    previous = current;
+                }
+                index++;
+            }
+        }
+        return references;
+    }
+
+    private static int skipStringLiteral(String expression, int start) {
+        char quote = expression.charAt(start);
+        String tripleQuote = new String(new char[]{quote, quote, quote});
+        boolean triple = expression.startsWith(tripleQuote, start);
+        int index = start + (triple ? tripleQuote.length() : 1);
+        while (index < expression.length()) {
+            char current = expression.charAt(index);
+            if (current == '\\') {
+                index += 2;
+            } else if (triple ? expression.startsWith(tripleQuote, index) : current == quote) {
+                return index + (triple ? tripleQuote.length() : 1);
+            } else {
+                index++;
+            }
+        }
+        return -1;
+    }
+
+    private static boolean isCall(String expression, int nameEnd) {
+        int index = skipWhitespaces(expression, nameEnd);
+        return index < expression.length() && expression.charAt(index) == '(';
+    }
+
+    // the literal first argument of a call starting at the given index, e.g. 'key' for ('key', default)
+    private static String extractLiteralArgument(String expression, int start) {
+        int index = skipWhitespaces(expression, expression.indexOf('(', start) + 1);
+        if (index == expression.length()) {
+            return null;
+        }
+        char quote = expression.charAt(index);
+        if (quote != '\'' && quote != '"') {
+            return null;
+        }
+        int end = expression.indexOf(quote, index + 1);
+        if (end < 0) {
+            return null;
+        }
+        String literal = expression.substring(index + 1, end);
+        int next = skipWhitespaces(expression, end + 1);
+        if (literal.indexOf('\\') >= 0 || next == expression.length() ||
+                expression.charAt(next) != ',' && expression.charAt(next) != ')') {
+            return null;
+        }
+        return literal;
+    }
+
+    private static int skipWhitespaces(String expression, int start) {
+        int index = start;
+        while (index < expression.length() && Character.isWhitespace(expression.charAt(index))) {
+            index++;
+        }
+        return index;
+    }
+
+    private static boolean isNameChar(char current) {
+        return Character.isLetterOrDigit(current) || current == '_';
+    }
+
     private static boolean matchPattern(Pattern pattern, String text) {
         Matcher matcher = pattern.matcher(text);
         return matcher.find();
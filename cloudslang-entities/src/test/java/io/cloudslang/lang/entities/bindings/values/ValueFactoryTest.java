@@ -14,6 +14,7 @@ import io.cloudslang.lang.spi.encryption.Encryption;
 import junit.framework.Assert;
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import org.python.core.PyObject;
 import org.springframework.context.annotation.Bean;
 import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
@@ -42,6 +43,17 @@ public class ValueFactoryTest {
         Assert.assertEquals("value1", pyObjectValue.get());
     }
 
+    @Test
+    public void testResetAccessedPyObjectValue() {
+        PyObjectValue pyObjectValue = ValueFactory.createPyObjectValue("value1", false);
+        ((PyObject) pyObjectValue).__len__();
+        Assert.assertTrue(pyObjectValue.isAccessed());
+
+        pyObjectValue.resetAccessed();
+        Assert.assertFalse(pyObjectValue.isAccessed());
+        Assert.assertEquals("value1", pyObjectValue.get());
+    }
+
     static class Config {
 
         @Bean
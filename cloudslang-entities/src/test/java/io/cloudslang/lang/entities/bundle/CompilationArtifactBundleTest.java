@@ -0,0 +1,223 @@
+/*******************************************************************************
+ * (c) Copyright 2016 Hewlett-Packard Development Company, L.P.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Apache License v2.0 which accompany this distribution.
+ *
+ * The Apache License is available at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *******************************************************************************/
+package io.cloudslang.lang.entities.bundle;
+
+import io.cloudslang.lang.entities.CompilationArtifact;
+import io.cloudslang.lang.entities.bindings.Input;
+import io.cloudslang.score.api.ExecutionPlan;
+import io.cloudslang.score.api.ExecutionStep;
+import java.io.File;
+import java.io.IOException;
+import java.io.InvalidClassException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.junit.rules.TemporaryFolder;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class CompilationArtifactBundleTest {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Rule
+    public ExpectedException exception = ExpectedException.none();
+
+    private final CompilationArtifactBundleWriter bundleWriter = new CompilationArtifactBundleWriter();
+
+    // as in a compilation, the artifacts hold the same plan for the same flow
+    private final Map<String, ExecutionPlan> executionPlans = new HashMap<>();
+
+    @Test
+    public void testArtifactsAreReadBack() throws Exception {
+        Map<String, CompilationArtifact> artifacts = new HashMap<>();
+        artifacts.put("user.flows.parent", createArtifact("parent", "child"));
+        artifacts.put("user.flows.child", createArtifact("child"));
+        File bundleFile = writeBundle(artifacts);
+
+        try (CompilationArtifactBundle bundle = CompilationArtifactBundle.open(bundleFile)) {
+            assertEquals(artifacts.keySet(), bundle.getExecutableIds());
+            assertTrue(bundle.contains("user.flows.child"));
+            assertEquals(artifacts.get("user.flows.parent"), bundle.getCompilationArtifact("user.flows.parent"));
+            assertEquals(artifacts.get("user.flows.child"), bundle.getCompilationArtifact("user.flows.child"));
+        }
+    }
+
+    @Test
+    public void testArtifactIsReadOnce() throws Exception {
+        File bundleFile = writeBundle(Collections.singletonMap("user.flows.child", createArtifact("child")));
+
+        try (CompilationArtifactBundle bundle = CompilationArtifactBundle.open(bundleFile)) {
+            assertSame(bundle.getCompilationArtifact("user.flows.child"),
+                    bundle.getCompilationArtifact("user.flows.child"));
+        }
+    }
+
+    @Test
+    public void testExecutionPlanIsStoredOnce() throws Exception {
+        Map<String, CompilationArtifact> artifacts = new HashMap<>();
+        artifacts.put("user.flows.parent", createArtifact("parent", "child"));
+        artifacts.put("user.flows.other_parent", createArtifact("other_parent", "child"));
+        artifacts.put("user.flows.child", createArtifact("child"));
+        File bundleFile = writeBundle(artifacts);
+        long withDependencySize = bundleFile.length();
+        artifacts.put("user.flows.other_parent", createArtifact("other_parent"));
+        long withoutDependencySize = writeBundle(artifacts, "other_content").length();
+
+        // the bundle grows by the dependency reference only, not by another copy of the plan
+        assertTrue(withDependencySize - withoutDependencySize < 100);
+        try (CompilationArtifactBundle bundle = CompilationArtifactBundle.open(bundleFile)) {
+            ExecutionPlan childPlan = bundle.getCompilationArtifact("user.flows.child").getExecutionPlan();
+            assertSame(childPlan,
+                    bundle.getCompilationArtifact("user.flows.parent").getDependencies().get("user.flows.child"));
+            assertSame(childPlan,
+                    bundle.getCompilationArtifact("user.flows.other_parent").getDependencies().get("user.flows.child"));
+        }
+    }
+
+    @Test
+    public void testOtherTypesAreNotDeserialized() throws Exception {
+        CompilationArtifact artifact = createArtifact("child");
+        artifact.getExecutionPlan().addStep(new ExecutionStep(1L)
+                .setActionData(Collections.singletonMap("file", new File("child.sl"))));
+        File bundleFile = writeBundle(Collections.singletonMap("user.flows.child", artifact));
+
+        try (CompilationArtifactBundle bundle = CompilationArtifactBundle.open(bundleFile)) {
+            bundle.getCompilationArtifact("user.flows.child");
+            fail("a type outside of the compilation artifact types was deserialized");
+        } catch (RuntimeException ex) {
+            assertTrue(ex.getCause() instanceof InvalidClassException);
+        }
+    }
+
+    @Test
+    public void testMissingArtifactIsNull() throws Exception {
+        File bundleFile = writeBundle(Collections.<String, CompilationArtifact>emptyMap());
+
+        try (CompilationArtifactBundle bundle = CompilationArtifactBundle.open(bundleFile)) {
+            assertFalse(bundle.contains("user.flows.child"));
+            assertNull(bundle.getCompilationArtifact("user.flows.child"));
+        }
+    }
+
+    @Test
+    public void testOtherFileIsRejected() throws Exception {
+        File file = temporaryFolder.newFile("flow.sl");
+        Files.write(file.toPath(), "namespace: user.flows\nflow:\n  name: flow".getBytes("UTF-8"));
+
+        exception.expect(IOException.class);
+        exception.expectMessage("is not a compilation artifact bundle");
+        CompilationArtifactBundle.open(file);
+    }
+
+    @Test
+    public void testOtherFormatVersionIsRejected() throws Exception {
+        File bundleFile = writeBundle(Collections.singletonMap("user.flows.child", createArtifact("child")));
+        try (RandomAccessFile file = new RandomAccessFile(bundleFile, "rw")) {
+            file.seek(4);
+            file.writeInt(CompilationArtifactBundle.FORMAT_VERSION + 1);
+        }
+
+        exception.expect(IOException.class);
+        exception.expectMessage("only version " + CompilationArtifactBundle.FORMAT_VERSION + " is supported");
+        CompilationArtifactBundle.open(bundleFile);
+    }
+
+    @Test
+    public void testCorruptedIndexIsRejected() throws Exception {
+        File bundleFile = writeBundle(Collections.singletonMap("user.flows.child", createArtifact("child")));
+        try (RandomAccessFile file = new RandomAccessFile(bundleFile, "rw")) {
+            file.seek(file.length() - CompilationArtifactBundle.FOOTER_SIZE);
+            file.writeLong(file.length());
+        }
+
+        exception.expect(IOException.class);
+        exception.expectMessage("has a corrupted index");
+        CompilationArtifactBundle.open(bundleFile);
+    }
+
+    @Test
+    public void testCorruptedEntryCountIsRejected() throws Exception {
+        File bundleFile = writeBundle(Collections.singletonMap("user.flows.child", createArtifact("child")));
+        try (RandomAccessFile file = new RandomAccessFile(bundleFile, "rw")) {
+            file.seek(readIndexOffset(file));
+            file.writeInt(1 << 28);
+        }
+
+        exception.expect(IOException.class);
+        exception.expectMessage("has a corrupted index");
+        CompilationArtifactBundle.open(bundleFile);
+    }
+
+    @Test
+    public void testCorruptedIdLengthIsRejected() throws Exception {
+        File bundleFile = writeBundle(Collections.singletonMap("user.flows.child", createArtifact("child")));
+        try (RandomAccessFile file = new RandomAccessFile(bundleFile, "rw")) {
+            file.seek(readIndexOffset(file) + 4);
+            file.writeInt(Integer.MAX_VALUE);
+        }
+
+        exception.expect(IOException.class);
+        exception.expectMessage("has a corrupted index");
+        CompilationArtifactBundle.open(bundleFile);
+    }
+
+    private long readIndexOffset(RandomAccessFile file) throws IOException {
+        file.seek(file.length() - CompilationArtifactBundle.FOOTER_SIZE);
+        return file.readLong();
+    }
+
+    private File writeBundle(Map<String, CompilationArtifact> artifacts) throws IOException {
+        return writeBundle(artifacts, "content");
+    }
+
+    private File writeBundle(Map<String, CompilationArtifact> artifacts, String name) throws IOException {
+        File bundleFile = new File(temporaryFolder.getRoot(), "bundle/" + name +
+                CompilationArtifactBundle.FILE_EXTENSION);
+        bundleWriter.write(bundleFile, artifacts);
+        return bundleFile;
+    }
+
+    private CompilationArtifact createArtifact(String name, String... dependencies) {
+        ExecutionPlan executionPlan = createExecutionPlan(name);
+        Map<String, ExecutionPlan> dependencyPlans = new HashMap<>();
+        for (String dependency : dependencies) {
+            dependencyPlans.put("user.flows." + dependency, createExecutionPlan(dependency));
+        }
+        Input input = new Input.InputBuilder("input_" + name, "${ get_sp('user.flows.property') }")
+                .withRequired(true)
+                .build();
+        return new CompilationArtifact(executionPlan, dependencyPlans, Collections.singletonList(input),
+                Collections.singleton("user.flows.property"));
+    }
+
+    private ExecutionPlan createExecutionPlan(String name) {
+        ExecutionPlan executionPlan = executionPlans.get(name);
+        if (executionPlan == null) {
+            executionPlan = new ExecutionPlan();
+            executionPlan.setName(name);
+            executionPlan.setFlowUuid("user.flows." + name);
+            executionPlan.setBeginStep(0L);
+            executionPlans.put(name, executionPlan);
+        }
+        return executionPlan;
+    }
+}
@@ -0,0 +1,87 @@
+/*******************************************************************************
+ * (c) Copyright 2016 Hewlett-Packard Development Company, L.P.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Apache License v2.0 which accompany this distribution.
+ *
+ * The Apache License is available at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *******************************************************************************/
+package io.cloudslang.lang.entities.utils;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+public class AtomicFileUtilsTest {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void testWriteCreatesTheDirectory() throws Exception {
+        File file = new File(temporaryFolder.getRoot(), "missing/file.bin");
+
+        AtomicFileUtils.write(file, bytes("content"));
+
+        assertArrayEquals(bytes("content"), Files.readAllBytes(file.toPath()));
+    }
+
+    @Test
+    public void testWriteReplacesTheFile() throws Exception {
+        File file = temporaryFolder.newFile("file.bin");
+        AtomicFileUtils.write(file, bytes("old"));
+
+        AtomicFileUtils.write(file, bytes("new"));
+
+        assertArrayEquals(bytes("new"), Files.readAllBytes(file.toPath()));
+        assertEquals(1, temporaryFolder.getRoot().list().length);
+    }
+
+    @Test
+    public void testFailedWriteKeepsTheFile() throws Exception {
+        File file = temporaryFolder.newFile("file.bin");
+        AtomicFileUtils.write(file, bytes("old"));
+
+        try {
+            AtomicFileUtils.write(file, new AtomicFileUtils.ContentWriter() {
+                @Override
+                public void write(OutputStream out) throws IOException {
+                    out.write(bytes("partial"));
+                    throw new IOException("write failed");
+                }
+            });
+            fail("write should fail");
+        } catch (IOException ex) {
+            assertEquals("write failed", ex.getMessage());
+        }
+
+        assertArrayEquals(bytes("old"), Files.readAllBytes(file.toPath()));
+        assertEquals(1, temporaryFolder.getRoot().list().length);
+    }
+
+    @Test
+    public void testWriteObject() throws Exception {
+        File file = temporaryFolder.newFile("object.bin");
+
+        AtomicFileUtils.writeObject(file, "value");
+
+        try (ObjectInputStream in = new ObjectInputStream(Files.newInputStream(file.toPath()))) {
+            assertEquals("value", in.readObject());
+        }
+    }
+
+    private static byte[] bytes(String content) {
+        return content.getBytes(StandardCharsets.UTF_8);
+    }
+}
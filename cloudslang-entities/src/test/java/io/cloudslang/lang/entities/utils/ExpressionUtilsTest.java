@@ -19,6 +19,7 @@ import org.junit.Test;
 
 import static io.cloudslang.lang.entities.utils.ExpressionUtils.extractExpression;
 import static io.cloudslang.lang.entities.utils.ExpressionUtils.extractSystemProperties;
+import static io.cloudslang.lang.entities.utils.ExpressionUtils.extractVariableReferences;
 import static io.cloudslang.lang.entities.utils.ExpressionUtils.matchGetFunction;
 
 /**
@@ -203,4 +204,48 @@ public class ExpressionUtilsTest {
         Assert.assertTrue(matchGetFunction("exec(get(get(var, default_expr), default_expr))"));
     }
 
+    ///////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+    @Test
+    public void testExtractVariableReferencesNames() throws Exception {
+        Assert.assertEquals(Sets.newHashSet("var1", "var2"), extractVariableReferences("var1 + var2 * 2"));
+    }
+
+    @Test
+    public void testExtractVariableReferencesSkipsStringsAndAttributes() throws Exception {
+        Assert.assertEquals(Sets.newHashSet("var"),
+                extractVariableReferences("'not_a_var ' + var.upper() + \"other\" + '''a'b''' + 'esc\\'aped'"));
+    }
+
+    @Test
+    public void testExtractVariableReferencesSkipsKeywordsAndNumbers() throws Exception {
+        Assert.assertEquals(Sets.newHashSet("var", "other", "None"),
+                extractVariableReferences("var if 1.5e3 > 0x1F and not other is None else 5L"));
+    }
+
+    @Test
+    public void testExtractVariableReferencesFunctions() throws Exception {
+        Assert.assertEquals(Sets.newHashSet("key", "var", "value"),
+                extractVariableReferences("get( 'key' , var) + get_sp('a.b.c.key') + check_empty(value, 'x')"));
+    }
+
+    @Test
+    public void testExtractVariableReferencesGetNonLiteral() throws Exception {
+        Assert.assertNull(extractVariableReferences("get(var)"));
+        Assert.assertNull(extractVariableReferences("get('a' + 'b')"));
+        Assert.assertNull(extractVariableReferences("map(get, ['a'])"));
+    }
+
+    @Test
+    public void testExtractVariableReferencesDynamicLookup() throws Exception {
+        Assert.assertNull(extractVariableReferences("globals()['var']"));
+        Assert.assertNull(extractVariableReferences("eval('var')"));
+        Assert.assertEquals(Sets.newHashSet("obj"), extractVariableReferences("obj.globals()"));
+    }
+
+    @Test
+    public void testExtractVariableReferencesUnterminatedString() throws Exception {
+        Assert.assertNull(extractVariableReferences("var + 'abc"));
+    }
+
 }
@@ -20,5 +20,6 @@ public interface RuntimeConstants {
     String BRANCHES_CONTEXT_KEY = "branches_context";
     String SPLIT_ITEM_KEY = "splitItem";
     String BRANCH_RETURN_VALUES_KEY = "branchReturnValues";
+    String PENDING_BRANCHES_KEY = "pendingBranches";
 
 }
@@ -70,7 +70,7 @@ public class ArgumentsBinding extends AbstractBinding {
                     //so you can resolve previous arguments already bound
                     scriptContext.putAll(targetContext);
                     inputValue = scriptEvaluator.evalExpr(expressionToEvaluate, scriptContext, systemProperties,
-                            argument.getFunctionDependencies());
+                            argument.getFunctionDependencies(), argument.getVariableDependencies());
                 } else {
                     inputValue = rawValue;
                 }
@@ -24,7 +24,10 @@ import io.cloudslang.lang.entities.bindings.Input;
 import io.cloudslang.lang.entities.bindings.values.Value;
 import io.cloudslang.lang.entities.bindings.values.ValueFactory;
 import io.cloudslang.lang.entities.utils.ExpressionUtils;
+import io.cloudslang.lang.runtime.bindings.scripts.ExpressionBinding;
+import io.cloudslang.lang.runtime.bindings.scripts.ExpressionResult;
 import io.cloudslang.lang.runtime.bindings.scripts.ScriptEvaluator;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -50,18 +53,19 @@ public class InputsBinding extends AbstractBinding {
                                          Set<SystemProperty> systemProperties) {
         Map<String, Value> resultContext = new HashMap<>();
 
-        //we do not want to change original context map
-        Map<String, Value> srcContext = new HashMap<>(context);
-
+        List<InputBinding> bindings = new ArrayList<>(inputs.size());
         for (Input input : inputs) {
-            bindInput(input, srcContext, resultContext, systemProperties);
+            bindings.add(new InputBinding(input, context, resultContext));
         }
+        //we do not want to change original context map
+        //the inputs are evaluated in order, so you can resolve previous inputs already bound
+        scriptEvaluator.evalExprs(bindings, context, systemProperties);
 
         return resultContext;
     }
 
-    private void bindInput(Input input, Map<String, ? extends Value> context, Map<String, Value> targetContext,
-                           Set<SystemProperty> systemProperties) {
+    private Value bindInput(Input input, Map<String, ? extends Value> context, Map<String, Value> targetContext,
+                            String expressionToEvaluate, ExpressionResult result) {
         Value value;
 
         String inputName = input.getName();
@@ -69,7 +73,7 @@ public class InputsBinding extends AbstractBinding {
         String errorMessagePrefix = "Error binding input: '" + inputName;
 
         try {
-            value = resolveValue(input, context, targetContext, systemProperties);
+            value = resolveValue(input, context, expressionToEvaluate, result);
         } catch (Throwable t) {
             throw new RuntimeException(errorMessagePrefix + "', \n\tError is: " + t.getMessage(), t);
         }
@@ -80,35 +84,17 @@ public class InputsBinding extends AbstractBinding {
 
         validateStringValue(errorMessagePrefix, value);
         targetContext.put(inputName, value);
+        return value;
     }
 
-    private Value resolveValue(Input input, Map<String, ? extends Value> context,
-                               Map<String, ? extends Value> targetContext, Set<SystemProperty> systemProperties) {
-        Value value = null;
-
-        //we do not want to change original context map
-        Map<String, Value> scriptContext = new HashMap<>(context);
-
-        String inputName = input.getName();
-        Value valueFromContext = context.get(inputName);
-        boolean sensitive = input.getValue() != null && input.getValue().isSensitive() ||
-                valueFromContext != null && valueFromContext.isSensitive();
-        if (!input.isPrivateInput()) {
-            value = ValueFactory.create(valueFromContext, sensitive);
-        }
+    private Value resolveValue(Input input, Map<String, ? extends Value> context, String expressionToEvaluate,
+                               ExpressionResult result) {
+        Value value = getValueFromContext(input, context);
 
         if (isEmpty(value)) {
             Value rawValue = input.getValue();
-            String expressionToEvaluate = ExpressionUtils.extractExpression(rawValue == null ? null : rawValue.get());
             if (expressionToEvaluate != null) {
-                if (context.containsKey(inputName)) {
-                    scriptContext.put(inputName, valueFromContext);
-                }
-                //so you can resolve previous inputs already bound
-                scriptContext.putAll(targetContext);
-                value = scriptEvaluator.evalExpr(expressionToEvaluate, scriptContext, systemProperties,
-                        input.getFunctionDependencies());
-                value = ValueFactory.create(value, sensitive);
+                value = ValueFactory.create(result.get(), isSensitive(input, context));
             } else if ((value == null && rawValue != null) ||
                     (containsEmptyStringOrNull(value) && doesNotContainNull(rawValue))) {
                 value = rawValue;
@@ -118,6 +104,29 @@ public class InputsBinding extends AbstractBinding {
         return value;
     }
 
+    /**
+     * @return the expression the value of the input is evaluated from, null if the input has none, or if its
+     *     value is given by the context
+     */
+    private String getExpressionToEvaluate(Input input, Map<String, ? extends Value> context) {
+        if (!isEmpty(getValueFromContext(input, context))) {
+            return null;
+        }
+        Value rawValue = input.getValue();
+        return ExpressionUtils.extractExpression(rawValue == null ? null : rawValue.get());
+    }
+
+    private Value getValueFromContext(Input input, Map<String, ? extends Value> context) {
+        return input.isPrivateInput() ? null : ValueFactory.create(context.get(input.getName()),
+                isSensitive(input, context));
+    }
+
+    private boolean isSensitive(Input input, Map<String, ? extends Value> context) {
+        Value valueFromContext = context.get(input.getName());
+        return input.getValue() != null && input.getValue().isSensitive() ||
+                valueFromContext != null && valueFromContext.isSensitive();
+    }
+
     private boolean containsEmptyStringOrNull(Value value) {
         return value != null &&
                 (value.get() == null || value.get().equals(""));
@@ -131,4 +140,22 @@ public class InputsBinding extends AbstractBinding {
         return value == null || value.get() == null || value.get().equals("");
     }
 
+    private class InputBinding extends ExpressionBinding {
+
+        private final Input input;
+        private final Map<String, ? extends Value> context;
+        private final Map<String, Value> targetContext;
+
+        InputBinding(Input input, Map<String, ? extends Value> context, Map<String, Value> targetContext) {
+            super(input.getName(), getExpressionToEvaluate(input, context), input);
+            this.input = input;
+            this.context = context;
+            this.targetContext = targetContext;
+        }
+
+        @Override
+        protected Value bind(ExpressionResult result) {
+            return bindInput(input, context, targetContext, getExpression(), result);
+        }
+    }
 }
@@ -17,12 +17,16 @@ import io.cloudslang.lang.runtime.bindings.scripts.ScriptEvaluator;
 import io.cloudslang.lang.runtime.env.Context;
 import io.cloudslang.lang.runtime.env.ForLoopCondition;
 import io.cloudslang.lang.runtime.env.LoopCondition;
+import io.cloudslang.lang.runtime.env.RangeLoopCollection;
+import io.cloudslang.lang.runtime.env.SplitStringLoopCollection;
 
+import java.io.Serializable;
 import java.util.Map;
 import java.util.Set;
 
 import org.apache.commons.lang3.Validate;
 import org.apache.log4j.Logger;
+import org.python.core.PyXRange;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
@@ -96,7 +100,7 @@ public class LoopsBinding extends AbstractBinding {
         String collectionExpression = forLoopStatement.getExpression();
         try {
             evalResult = scriptEvaluator.evalExpr(collectionExpression, variables, systemProperties,
-                    forLoopStatement.getFunctionDependencies());
+                    forLoopStatement.getFunctionDependencies(), forLoopStatement.getVariableDependencies());
         } catch (Throwable t) {
             throw new RuntimeException(FOR_LOOP_EXPRESSION_ERROR_MESSAGE + " '" +
                     nodeName + "',\n\tError is: " + t.getMessage(), t);
@@ -119,11 +123,32 @@ public class LoopsBinding extends AbstractBinding {
     }
 
     private ForLoopCondition createForLoopCondition(Value evalResult) {
-        Iterable<Value> iterable = getIterableFromEvalResult(evalResult);
+        Iterable<Value> iterable = getStreamingIterable(evalResult);
+        if (iterable == null) {
+            iterable = getIterableFromEvalResult(evalResult);
+        }
         if (iterable == null) {
             return null;
         }
         return new ForLoopCondition(iterable);
     }
 
+    /**
+     * Strings and xranges are iterated on demand, so only the loop position is kept in the run environment.
+     * Sensitive collections are always copied into sensitive values, to keep their content protected.
+     */
+    private Iterable<Value> getStreamingIterable(Value evalResult) {
+        if (evalResult.isSensitive()) {
+            return null;
+        }
+        Serializable content = evalResult.get();
+        if (content instanceof String) {
+            return new SplitStringLoopCollection((String) content);
+        } else if (content instanceof PyXRange) {
+            return RangeLoopCollection.of((PyXRange) content);
+        } else {
+            return null;
+        }
+    }
+
 }
@@ -13,11 +13,12 @@ import io.cloudslang.lang.entities.SystemProperty;
 import io.cloudslang.lang.entities.bindings.Output;
 import io.cloudslang.lang.entities.bindings.values.Value;
 import io.cloudslang.lang.entities.bindings.values.ValueFactory;
-import io.cloudslang.lang.entities.utils.ExpressionUtils;
-import io.cloudslang.lang.entities.utils.MapUtils;
+import io.cloudslang.lang.runtime.bindings.scripts.ExpressionBinding;
+import io.cloudslang.lang.runtime.bindings.scripts.ExpressionResult;
 import io.cloudslang.lang.runtime.bindings.scripts.ScriptEvaluator;
 
-import java.util.HashMap;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
@@ -43,33 +44,105 @@ public class OutputsBinding extends AbstractBinding {
             Set<SystemProperty> systemProperties,
             List<Output> possibleOutputs) {
 
-        Map<String, Value> outputs = new LinkedHashMap<>();
-        Map<String, Value> context = new HashMap<>(initialContext);
+        OutputBindings outputBindings = createOutputBindings(initialContext, possibleOutputs);
+        scriptEvaluator.evalExprs(outputBindings.getBindings(), initialContext, systemProperties);
+        return outputBindings.getOutputs();
+    }
 
+    /**
+     * Creates the bindings of the outputs, for callers that evaluate them together with other bindings in one
+     * {@link ScriptEvaluator#evalExprs} call, against the initial context.
+     *
+     * @return the bindings, and the outputs they bind
+     */
+    public OutputBindings createOutputBindings(Map<String, Value> initialContext, List<Output> possibleOutputs) {
+        OutputBindings outputBindings = new OutputBindings();
         if (possibleOutputs != null) {
+            Set<String> outputKeys = new HashSet<>();
             for (Output output : possibleOutputs) {
                 String outputKey = output.getName();
-                String errorMessagePrefix = "Error binding output: '" + output.getName();
                 Value rawValue = output.getValue();
-                Value valueToAssign = rawValue;
                 String expressionToEvaluate = extractExpression(rawValue == null ? null : rawValue.get());
-                if (expressionToEvaluate != null) {
+                if (expressionToEvaluate != null && !initialContext.containsKey(outputKey) &&
+                        !outputKeys.contains(outputKey)) {
                     // initialize with null value if key does not exist
-                    context.put(outputKey, context.get(outputKey));
-                    try {
-                        //evaluate expression
-                        Value value = scriptEvaluator.evalExpr(expressionToEvaluate, context,
-                                systemProperties, output.getFunctionDependencies());
-                        valueToAssign = ValueFactory.create(value, rawValue != null && rawValue.isSensitive());
-                    } catch (Throwable t) {
-                        throw new RuntimeException(errorMessagePrefix + "',\n\tError is: " + t.getMessage(), t);
-                    }
+                    outputBindings.bindings.add(new NullBinding(outputKey));
                 }
-                validateStringValue(errorMessagePrefix, valueToAssign);
-                outputs.put(outputKey, valueToAssign);
-                context.put(outputKey, valueToAssign);
+                outputBindings.bindings.add(new OutputBinding(output, expressionToEvaluate, outputBindings));
+                outputKeys.add(outputKey);
             }
         }
-        return outputs;
+        return outputBindings;
+    }
+
+    private Value bindOutput(Output output, String expressionToEvaluate, ExpressionResult result,
+                             Map<String, Value> outputs) {
+        String outputKey = output.getName();
+        String errorMessagePrefix = "Error binding output: '" + output.getName();
+        Value rawValue = output.getValue();
+        Value valueToAssign = rawValue;
+        if (expressionToEvaluate != null) {
+            try {
+                //evaluate expression
+                valueToAssign = ValueFactory.create(result.get(), rawValue != null && rawValue.isSensitive());
+            } catch (Throwable t) {
+                throw new RuntimeException(errorMessagePrefix + "',\n\tError is: " + t.getMessage(), t);
+            }
+        }
+        validateStringValue(errorMessagePrefix, valueToAssign);
+        outputs.put(outputKey, valueToAssign);
+        return valueToAssign;
+    }
+
+    /**
+     * The bindings of the outputs, see {@link #createOutputBindings}.
+     */
+    public static class OutputBindings {
+
+        private final List<ExpressionBinding> bindings = new ArrayList<>();
+        private final Map<String, Value> outputs = new LinkedHashMap<>();
+
+        public List<ExpressionBinding> getBindings() {
+            return bindings;
+        }
+
+        /**
+         * @return the bound outputs, once the bindings are bound
+         */
+        public Map<String, Value> getOutputs() {
+            return outputs;
+        }
+    }
+
+    private class OutputBinding extends ExpressionBinding {
+
+        private final Output output;
+        private final OutputBindings outputBindings;
+
+        OutputBinding(Output output, String expressionToEvaluate, OutputBindings outputBindings) {
+            super(output.getName(), expressionToEvaluate, output);
+            this.output = output;
+            this.outputBindings = outputBindings;
+        }
+
+        @Override
+        protected Value bind(ExpressionResult result) {
+            return bindOutput(output, getExpression(), result, outputBindings.outputs);
+        }
+    }
+
+    /**
+     * Binds the name of an output missing in the context to null, before the expression of the output.
+     */
+    private static class NullBinding extends ExpressionBinding {
+
+        NullBinding(String name) {
+            super(name, null, null);
+        }
+
+        @Override
+        protected Value bind(ExpressionResult result) {
+            return null;
+        }
     }
 }
@@ -54,7 +54,8 @@ public class ParallelLoopBinding extends AbstractBinding {
         try {
             Value evalResult = scriptEvaluator.evalExpr(parallelLoopStatement.getExpression(),
                     flowContext.getImmutableViewOfVariables(),
-                    systemProperties, parallelLoopStatement.getFunctionDependencies());
+                    systemProperties, parallelLoopStatement.getFunctionDependencies(),
+                    parallelLoopStatement.getVariableDependencies());
 
             evalResult = getEvalResultForMap(evalResult, parallelLoopStatement, parallelLoopStatement.getExpression());
 
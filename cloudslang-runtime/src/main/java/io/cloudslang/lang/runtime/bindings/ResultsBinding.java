@@ -18,8 +18,11 @@ import io.cloudslang.lang.entities.bindings.values.Value;
 import io.cloudslang.lang.entities.utils.ExpressionUtils;
 import io.cloudslang.lang.entities.utils.MapUtils;
 import io.cloudslang.lang.entities.utils.ResultUtils;
+import io.cloudslang.lang.runtime.bindings.scripts.ExpressionBinding;
+import io.cloudslang.lang.runtime.bindings.scripts.ExpressionResult;
 import io.cloudslang.lang.runtime.bindings.scripts.ScriptEvaluator;
 import java.io.Serializable;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -59,12 +62,45 @@ public class ResultsBinding {
                                 Set<SystemProperty> systemProperties,
                                 List<Result> possibleResults,
                                 String presetResult) {
+        return resolveResult(MapUtils.mergeMaps(inputs, context), systemProperties, possibleResults, presetResult);
+    }
+
+    /**
+     * Same as {@link #resolveResult(Map, Map, Set, List, String)}, for callers that already merged the inputs and
+     * the run context - the result expressions are evaluated against the given context as is.
+     *
+     * @param scriptContext   the executable's inputs merged with the run context
+     * @param possibleResults list of all the possible Result objects of the executable
+     * @param presetResult    a given result name. Will be not null only in the case of resolving a result of a flow
+     * @return the resolved result name
+     */
+    public String resolveResult(Map<String, Value> scriptContext,
+                                Set<SystemProperty> systemProperties,
+                                List<Result> possibleResults,
+                                String presetResult) {
+        ResultBindings resultBindings = createResultBindings(possibleResults, presetResult);
+        scriptEvaluator.evalExprs(resultBindings.getBindings(), scriptContext, systemProperties);
+        return resultBindings.getResult();
+    }
+
+    /**
+     * Creates the bindings resolving the result of an executable, for callers that evaluate them together with
+     * other bindings in one {@link ScriptEvaluator#evalExprs} call. The result is resolved once they are bound,
+     * with the errors of {@link #resolveResult(Map, Set, List, String)}.
+     *
+     * @param possibleResults list of all the possible Result objects of the executable
+     * @param presetResult    a given result name. Will be not null only in the case of resolving a result of a flow
+     * @return the bindings, and the result they resolve
+     */
+    public ResultBindings createResultBindings(List<Result> possibleResults, String presetResult) {
 
         // We must have possible results
         if (CollectionUtils.isEmpty(possibleResults)) {
             throw new RuntimeException("No results were found");
         }
 
+        ResultBindings resultBindings = new ResultBindings();
+
         // In case of calculating the result of a flow, we already have a preset result from the last step of the flow,
         // we look for it in the possible results of the flow.
         // If the flow has it as a possible result, we return it as the resolved result.
@@ -72,7 +108,8 @@ public class ResultsBinding {
         if (presetResult != null) {
             for (Result possibleResult : possibleResults) {
                 if (presetResult.equals(possibleResult.getName())) {
-                    return presetResult;
+                    resultBindings.result = presetResult;
+                    return resultBindings;
                 }
             }
             throw new RuntimeException("Result: " + presetResult +
@@ -82,52 +119,139 @@ public class ResultsBinding {
         // In the case of operation, we resolve the result by searching for the first result with a true expression
         // An empty expression passes as true
         for (Result result : possibleResults) {
-            String resultName = result.getName();
+            resultBindings.bindings.add(new ResultBinding(result, resultBindings));
+        }
+        resultBindings.bindings.add(new NoResultBinding(resultBindings));
+        return resultBindings;
+    }
+
+    private void bindResult(Result result, String expression, ExpressionResult expressionResult,
+                            ResultBindings resultBindings) {
+        String resultName = result.getName();
+
+        if (ResultUtils.isDefaultResult(result)) {
+            resultBindings.result = resultName;
+            return;
+        }
 
-            if (ResultUtils.isDefaultResult(result)) {
-                return resultName;
+        Serializable rawValue = result.getValue().get();
+        if (rawValue instanceof String) {
+            if (expression == null) {
+                throw new RuntimeException(
+                        "Error resolving the result. The expression: '" + rawValue + "' is not valid." +
+                                " Accepted format is: " + ScoreLangConstants.EXPRESSION_START_DELIMITER +
+                                " expression " + ScoreLangConstants.EXPRESSION_END_DELIMITER);
             }
 
-            Serializable rawValue = result.getValue().get();
-            if (rawValue instanceof String) {
-                String expression = ExpressionUtils.extractExpression(rawValue);
-                if (expression == null) {
-                    throw new RuntimeException(
-                            "Error resolving the result. The expression: '" + rawValue + "' is not valid." +
-                                    " Accepted format is: " + ScoreLangConstants.EXPRESSION_START_DELIMITER +
-                                    " expression " + ScoreLangConstants.EXPRESSION_END_DELIMITER);
+            try {
+                Value value = expressionResult.get();
+                Boolean evaluatedResult;
+                if (value.get() instanceof Integer) {
+                    evaluatedResult = (Integer) value.get() != 0;
+                } else {
+                    evaluatedResult = (Boolean) value.get();
                 }
-
-                Map<String, Value> scriptContext = MapUtils.mergeMaps(inputs, context);
-
-                try {
-                    Value expressionResult = scriptEvaluator.evalExpr(expression, scriptContext, systemProperties,
-                            result.getFunctionDependencies());
-                    Boolean evaluatedResult;
-                    if (expressionResult.get() instanceof Integer) {
-                        evaluatedResult = (Integer) expressionResult.get() != 0;
-                    } else {
-                        evaluatedResult = (Boolean) expressionResult.get();
-                    }
-                    if (evaluatedResult == null) {
-                        throw new RuntimeException("Expression of the operation result: " + expression +
-                                " cannot be evaluated correctly to true or false value");
-                    }
-                    if (evaluatedResult) {
-                        return resultName;
-                    }
-                } catch (ClassCastException ex) {
-                    throw new RuntimeException("Error resolving the result. The expression " + expression +
-                            " does not return boolean value", ex);
-                } catch (Throwable t) {
-                    throw new RuntimeException("Error evaluating result: '" + resultName + "',\n\tError is: " +
-                            t.getMessage(), t);
+                if (evaluatedResult == null) {
+                    throw new RuntimeException("Expression of the operation result: " + expression +
+                            " cannot be evaluated correctly to true or false value");
+                }
+                if (evaluatedResult) {
+                    resultBindings.result = resultName;
                 }
-            } else {
-                throw new RuntimeException("Error resolving the result. Value: '" + rawValue + "' is not valid.");
+            } catch (ClassCastException ex) {
+                throw new RuntimeException("Error resolving the result. The expression " + expression +
+                        " does not return boolean value", ex);
+            } catch (Throwable t) {
+                throw new RuntimeException("Error evaluating result: '" + resultName + "',\n\tError is: " +
+                        t.getMessage(), t);
             }
+        } else {
+            throw new RuntimeException("Error resolving the result. Value: '" + rawValue + "' is not valid.");
+        }
+    }
+
+    /**
+     * The bindings resolving the result of an executable, see {@link #createResultBindings}.
+     */
+    public static class ResultBindings {
+
+        private final List<ExpressionBinding> bindings = new ArrayList<>();
+        private String result;
+
+        /**
+         * @return the bindings, which bind no name
+         */
+        public List<ExpressionBinding> getBindings() {
+            return bindings;
+        }
+
+        /**
+         * @return the resolved result name, once the bindings are bound
+         */
+        public String getResult() {
+            return result;
+        }
+    }
+
+    /**
+     * Evaluates the expression of a possible result, until a previous one is resolved.
+     */
+    private class ResultBinding extends ExpressionBinding {
+
+        private final Result result;
+        private final ResultBindings resultBindings;
+
+        ResultBinding(Result result, ResultBindings resultBindings) {
+            super(null, getResultExpression(result), result);
+            this.result = result;
+            this.resultBindings = resultBindings;
+        }
+
+        @Override
+        protected boolean isEvaluated() {
+            return resultBindings.result == null;
+        }
+
+        @Override
+        protected Value bind(ExpressionResult expressionResult) {
+            bindResult(result, getExpression(), expressionResult, resultBindings);
+            return null;
+        }
+    }
+
+    /**
+     * Fails the resolution when none of the possible results is resolved.
+     */
+    private static class NoResultBinding extends ExpressionBinding {
+
+        private final ResultBindings resultBindings;
+
+        NoResultBinding(ResultBindings resultBindings) {
+            super(null, null, null);
+            this.resultBindings = resultBindings;
+        }
+
+        @Override
+        protected boolean isEvaluated() {
+            return resultBindings.result == null;
+        }
+
+        @Override
+        protected Value bind(ExpressionResult expressionResult) {
+            throw new RuntimeException("No possible result was resolved");
+        }
+    }
+
+    /**
+     * @return the expression of a possible result, null for the default result or a value that is not a valid
+     *     expression
+     */
+    private static String getResultExpression(Result result) {
+        if (ResultUtils.isDefaultResult(result)) {
+            return null;
         }
-        throw new RuntimeException("No possible result was resolved");
+        Serializable rawValue = result.getValue().get();
+        return rawValue instanceof String ? ExpressionUtils.extractExpression(rawValue) : null;
     }
 
 }
@@ -0,0 +1,26 @@
+/*******************************************************************************
+ * (c) Copyright 2016 Hewlett-Packard Development Company, L.P.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Apache License v2.0 which accompany this distribution.
+ *
+ * The Apache License is available at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *******************************************************************************/
+package io.cloudslang.lang.runtime.bindings.scripts;
+
+import io.cloudslang.runtime.impl.python.PythonExecutionCachedEngine;
+import io.cloudslang.runtime.impl.python.PythonExecutor;
+import java.util.Set;
+
+/**
+ * Cached python execution engine whose executors keep the code their interpreter compiled, see
+ * {@link CompiledCodePythonInterpreter}.
+ */
+public class CompiledCodePythonExecutionEngine extends PythonExecutionCachedEngine {
+
+    @Override
+    protected PythonExecutor createNewExecutor(Set<String> filePaths) {
+        return new CompiledCodePythonExecutor(filePaths);
+    }
+}
@@ -0,0 +1,44 @@
+/*******************************************************************************
+ * (c) Copyright 2016 Hewlett-Packard Development Company, L.P.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Apache License v2.0 which accompany this distribution.
+ *
+ * The Apache License is available at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *******************************************************************************/
+package io.cloudslang.lang.runtime.bindings.scripts;
+
+import io.cloudslang.runtime.impl.python.PythonExecutor;
+import java.util.Set;
+import org.python.core.PyString;
+import org.python.core.PySystemState;
+import org.python.util.PythonInterpreter;
+
+/**
+ * Python executor running its scripts and expressions in a {@link CompiledCodePythonInterpreter}.
+ */
+class CompiledCodePythonExecutor extends PythonExecutor {
+
+    /**
+     * Shared by the executors without dependencies, as {@link PythonExecutor} shares its global interpreter.
+     */
+    private static final CompiledCodePythonInterpreter SHARED_INTERPRETER =
+            new CompiledCodePythonInterpreter(null, true);
+
+    CompiledCodePythonExecutor(Set<String> dependencies) {
+        super(dependencies);
+    }
+
+    @Override
+    protected PythonInterpreter initInterpreter(Set<String> dependencies) {
+        if (dependencies.isEmpty()) {
+            return SHARED_INTERPRETER;
+        }
+        PySystemState systemState = new PySystemState();
+        for (String dependency : dependencies) {
+            systemState.path.append(new PyString(dependency));
+        }
+        return new CompiledCodePythonInterpreter(systemState, false);
+    }
+}
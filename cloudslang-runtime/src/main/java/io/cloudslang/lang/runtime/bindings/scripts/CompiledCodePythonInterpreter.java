@@ -0,0 +1,105 @@
+/*******************************************************************************
+ * (c) Copyright 2016 Hewlett-Packard Development Company, L.P.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Apache License v2.0 which accompany this distribution.
+ *
+ * The Apache License is available at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *******************************************************************************/
+package io.cloudslang.lang.runtime.bindings.scripts;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import org.python.core.CompileMode;
+import org.python.core.Py;
+import org.python.core.PyCode;
+import org.python.core.PyObject;
+import org.python.core.PySystemState;
+import org.python.core.__builtin__;
+import org.python.util.PythonInterpreter;
+
+import static io.cloudslang.lang.entities.properties.SlangSystemPropertyConstant.CSLANG_RUNTIME_PYTHON_CODE_CACHE_SIZE;
+
+/**
+ * Python interpreter that keeps the code it compiles, keyed by the python source, so an expression or a script
+ * run again by the interpreter is not compiled by Jython again.
+ * <p>
+ * The sources are compiled as {@link PythonInterpreter} compiles them, and a source that does not compile is not
+ * kept, so the results and the errors are the ones of {@link PythonInterpreter}.
+ */
+class CompiledCodePythonInterpreter extends PythonInterpreter {
+
+    private static final String SOURCE_NAME = "<string>";
+    private static final long DEFAULT_CACHE_SIZE = 5000;
+
+    private final boolean shared;
+    private final Cache<String, PyCode> evalCodes;
+    private final Cache<String, PyCode> execCodes;
+
+    /**
+     * @param systemState the system state of the interpreter, null for the default one
+     * @param shared      whether the interpreter is shared between executors, in which case it is never closed
+     */
+    CompiledCodePythonInterpreter(PySystemState systemState, boolean shared) {
+        super(null, systemState, true);
+        this.shared = shared;
+        long cacheSize = Long.getLong(CSLANG_RUNTIME_PYTHON_CODE_CACHE_SIZE.getValue(), DEFAULT_CACHE_SIZE);
+        evalCodes = createCache(cacheSize);
+        execCodes = createCache(cacheSize);
+    }
+
+    @Override
+    public PyObject eval(String source) {
+        setSystemState();
+        PyCode code = evalCodes.getIfPresent(source);
+        if (code == null) {
+            // the flags the eval builtin compiles a string with
+            code = Py.compile_flags(source, SOURCE_NAME, CompileMode.eval, Py.getCompilerFlags(0, false));
+            evalCodes.put(source, code);
+        }
+        return __builtin__.eval(code, getLocals());
+    }
+
+    @Override
+    public void exec(String source) {
+        setSystemState();
+        PyCode code = execCodes.getIfPresent(source);
+        if (code == null) {
+            code = Py.compile_flags(source, SOURCE_NAME, CompileMode.exec, cflags);
+            execCodes.put(source, code);
+        }
+        Py.exec(code, getLocals(), null);
+        Py.flushLine();
+    }
+
+    @Override
+    public void close() {
+        if (!shared) {
+            super.close();
+        }
+    }
+
+    /**
+     * @return hit, miss and eviction counters of the code compiled for evaluated expressions
+     */
+    CacheStats getEvalStats() {
+        return evalCodes.stats();
+    }
+
+    /**
+     * @return hit, miss and eviction counters of the code compiled for executed scripts
+     */
+    CacheStats getExecStats() {
+        return execCodes.stats();
+    }
+
+    private static Cache<String, PyCode> createCache(long cacheSize) {
+        return CacheBuilder.newBuilder()
+                .maximumSize(cacheSize)
+                .concurrencyLevel(2 * Runtime.getRuntime().availableProcessors())
+                .recordStats()
+                .build();
+    }
+}
@@ -0,0 +1,84 @@
+/*******************************************************************************
+ * (c) Copyright 2016 Hewlett-Packard Development Company, L.P.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Apache License v2.0 which accompany this distribution.
+ *
+ * The Apache License is available at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *******************************************************************************/
+package io.cloudslang.lang.runtime.bindings.scripts;
+
+import io.cloudslang.lang.entities.bindings.InOutParam;
+import io.cloudslang.lang.entities.bindings.ScriptFunction;
+import io.cloudslang.lang.entities.bindings.values.Value;
+import java.util.Collections;
+import java.util.Set;
+
+/**
+ * A binding of a list evaluated by {@link ScriptEvaluator#evalExprs}: the value of an optional expression,
+ * evaluated against the context and the values bound by the previous bindings of the list, bound to a name seen
+ * by the expressions of the following bindings.
+ */
+public abstract class ExpressionBinding {
+
+    private final String name;
+    private final String expression;
+    private final Set<ScriptFunction> functionDependencies;
+    private final Set<String> variableDependencies;
+
+    /**
+     * @param name       the name the binding binds, null for a binding that binds no value
+     * @param expression the expression to evaluate, null for a binding whose value is known without evaluation
+     * @param param      the parameter the expression belongs to, for its function and variable dependencies
+     */
+    protected ExpressionBinding(String name, String expression, InOutParam param) {
+        this.name = name;
+        this.expression = expression;
+        if (expression == null) {
+            functionDependencies = Collections.emptySet();
+            variableDependencies = Collections.emptySet();
+        } else {
+            functionDependencies = param.getFunctionDependencies() == null ?
+                    Collections.<ScriptFunction>emptySet() : param.getFunctionDependencies();
+            variableDependencies = param.getVariableDependencies();
+        }
+    }
+
+    /**
+     * @return false to skip the binding, e.g. once an earlier binding made it irrelevant
+     */
+    protected boolean isEvaluated() {
+        return true;
+    }
+
+    /**
+     * Binds the result of the expression. Called in list order, for the bindings that are evaluated.
+     * <p>
+     * A failed expression stops the evaluation of the list: its error, thrown by {@link ExpressionResult#get()},
+     * is expected to be thrown on by this method.
+     *
+     * @param result the result of the expression, {@link ExpressionResult#get()} returning null without expression
+     * @return the value bound to the name of the binding, ignored if the binding has no name
+     */
+    protected abstract Value bind(ExpressionResult result);
+
+    protected final String getName() {
+        return name;
+    }
+
+    protected final String getExpression() {
+        return expression;
+    }
+
+    protected final Set<ScriptFunction> getFunctionDependencies() {
+        return functionDependencies;
+    }
+
+    /**
+     * @return the context variables the expression reads, null for the whole context
+     */
+    protected final Set<String> getVariableDependencies() {
+        return variableDependencies;
+    }
+}
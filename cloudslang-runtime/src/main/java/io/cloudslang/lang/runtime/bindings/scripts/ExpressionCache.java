@@ -0,0 +1,250 @@
+/*******************************************************************************
+ * (c) Copyright 2016 Hewlett-Packard Development Company, L.P.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Apache License v2.0 which accompany this distribution.
+ *
+ * The Apache License is available at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *******************************************************************************/
+package io.cloudslang.lang.runtime.bindings.scripts;
+
+import com.google.common.base.Optional;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.CacheStats;
+import com.google.common.cache.LoadingCache;
+import io.cloudslang.lang.entities.bindings.ScriptFunction;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import javax.annotation.PostConstruct;
+import org.apache.commons.lang3.builder.EqualsBuilder;
+import org.apache.commons.lang3.builder.HashCodeBuilder;
+import org.python.core.CompileMode;
+import org.python.core.Py;
+import org.python.core.PyException;
+import org.springframework.stereotype.Component;
+
+import static io.cloudslang.lang.entities.properties.SlangSystemPropertyConstant.CSLANG_RUNTIME_EXPRESSION_CACHE_SIZE;
+
+/**
+ * Bounded cache of prepared expressions, keyed by the expression text and its function dependencies, and of the
+ * scripts evaluating a list of expressions in one python call.
+ * <p>
+ * Only the java side of an evaluation is kept here. The python code compiled for an expression and its functions
+ * script is kept by the interpreter that compiled it, see {@link CompiledCodePythonInterpreter}.
+ */
+@Component
+public class ExpressionCache {
+
+    private static final String LINE_SEPARATOR = System.lineSeparator();
+    private static final long DEFAULT_CACHE_SIZE = 5000;
+    private static final String SOURCE_NAME = "<string>";
+
+    static final String GET_FUNCTION_DEFINITION =
+            "def get(key, default_value=None):" + LINE_SEPARATOR +
+                    "  value = globals().get(key)" + LINE_SEPARATOR +
+                    "  return default_value if value is None else value";
+    static final String GET_SP_FUNCTION_DEFINITION =
+            "def get_sp(key, default_value=None):" + LINE_SEPARATOR +
+                    "  property_value = " + ScriptEvaluator.SYSTEM_PROPERTIES_MAP + ".get(key)" + LINE_SEPARATOR +
+                    "  return default_value if property_value is None else property_value";
+    static final String CHECK_EMPTY_FUNCTION_DEFINITION =
+            "def check_empty(value_to_check, default_value=None):" + LINE_SEPARATOR +
+                    "  return default_value if value_to_check is None else value_to_check";
+
+    private LoadingCache<ExpressionKey, PreparedExpression> cache;
+    private LoadingCache<ExpressionListKey, Optional<String>> listScripts;
+
+    @PostConstruct
+    public void init() {
+        cache = CacheBuilder.newBuilder()
+                .maximumSize(Long.getLong(CSLANG_RUNTIME_EXPRESSION_CACHE_SIZE.getValue(), DEFAULT_CACHE_SIZE))
+                .concurrencyLevel(2 * Runtime.getRuntime().availableProcessors())
+                .recordStats()
+                .build(new CacheLoader<ExpressionKey, PreparedExpression>() {
+                    @Override
+                    public PreparedExpression load(ExpressionKey key) {
+                        return new PreparedExpression(buildAddFunctionsScript(key.functionDependencies),
+                                FastExpressionParser.parse(key.expression, key.functionDependencies));
+                    }
+                });
+        listScripts = CacheBuilder.newBuilder()
+                .maximumSize(Long.getLong(CSLANG_RUNTIME_EXPRESSION_CACHE_SIZE.getValue(), DEFAULT_CACHE_SIZE))
+                .concurrencyLevel(2 * Runtime.getRuntime().availableProcessors())
+                .build(new CacheLoader<ExpressionListKey, Optional<String>>() {
+                    @Override
+                    public Optional<String> load(ExpressionListKey key) {
+                        return buildListScript(key.expressions, key.functionDependencies);
+                    }
+                });
+    }
+
+    /**
+     * Get the prepared form of an expression, preparing it on a cache miss.
+     *
+     * @param expression           the python expression
+     * @param functionDependencies the functions the expression uses
+     * @return the prepared expression
+     */
+    PreparedExpression get(String expression, Set<ScriptFunction> functionDependencies) {
+        return cache.getUnchecked(new ExpressionKey(expression, toEnumSet(functionDependencies)));
+    }
+
+    /**
+     * Get the script evaluating the expressions of a list in one python call, see {@link ExpressionListBinder},
+     * generating it on a cache miss.
+     *
+     * @param expressions          the expressions of the list, null for a binding without expression
+     * @param functionDependencies the functions the expressions use
+     * @return the script, absent if an expression does not compile on its own: it is evaluated alone, to fail
+     *     as it does alone
+     */
+    Optional<String> getListScript(List<String> expressions, Set<ScriptFunction> functionDependencies) {
+        return listScripts.getUnchecked(new ExpressionListKey(expressions, toEnumSet(functionDependencies)));
+    }
+
+    /**
+     * @return hit, miss and eviction counters of the expression cache
+     */
+    public CacheStats getStats() {
+        return cache.stats();
+    }
+
+    public long size() {
+        return cache.size();
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+        listScripts.invalidateAll();
+    }
+
+    String buildAddFunctionsScript(Set<ScriptFunction> functionDependencies) {
+        StringBuilder functions = new StringBuilder();
+        for (ScriptFunction function : functionDependencies) {
+            switch (function) {
+                case GET:
+                    functions.append(GET_FUNCTION_DEFINITION);
+                    break;
+                case GET_SYSTEM_PROPERTY:
+                    functions.append(GET_SP_FUNCTION_DEFINITION);
+                    break;
+                case CHECK_EMPTY:
+                    functions.append(CHECK_EMPTY_FUNCTION_DEFINITION);
+                    break;
+                default:
+                    throw new RuntimeException("Error adding function to context: '" + function.getValue() +
+                            "' is not valid.");
+            }
+            appendDelimiterBetweenFunctions(functions);
+        }
+        return functions.toString();
+    }
+
+    /**
+     * Each expression of the script is evaluated within parentheses, on lines of its own, so a trailing comment
+     * does not hide the closing parenthesis.
+     */
+    Optional<String> buildListScript(List<String> expressions, Set<ScriptFunction> functionDependencies) {
+        StringBuilder script = new StringBuilder(buildAddFunctionsScript(functionDependencies));
+        String binder = ExpressionListBinder.NAME;
+        script.append(binder).append(".begin(globals())").append(LINE_SEPARATOR);
+        for (int index = 0; index < expressions.size(); index++) {
+            String expression = expressions.get(index);
+            if (expression == null) {
+                continue;
+            }
+            try {
+                Py.compile_flags(expression, SOURCE_NAME, CompileMode.eval, Py.getCompilerFlags(0, false));
+            } catch (PyException e) {
+                return Optional.absent();
+            }
+            script.append("if ").append(binder).append(".start(").append(index).append("):").append(LINE_SEPARATOR)
+                    .append("  ").append(binder).append(".end((").append(LINE_SEPARATOR)
+                    .append(expression).append(LINE_SEPARATOR)
+                    .append("))").append(LINE_SEPARATOR);
+        }
+        return Optional.of(script.toString());
+    }
+
+    private void appendDelimiterBetweenFunctions(StringBuilder text) {
+        text.append(LINE_SEPARATOR).append(LINE_SEPARATOR);
+    }
+
+    private Set<ScriptFunction> toEnumSet(Set<ScriptFunction> functionDependencies) {
+        return functionDependencies == null || functionDependencies.isEmpty() ?
+                EnumSet.noneOf(ScriptFunction.class) : EnumSet.copyOf(functionDependencies);
+    }
+
+    private static class ExpressionKey {
+        private final String expression;
+        private final Set<ScriptFunction> functionDependencies;
+
+        ExpressionKey(String expression, Set<ScriptFunction> functionDependencies) {
+            this.expression = expression;
+            this.functionDependencies = functionDependencies;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+
+            ExpressionKey that = (ExpressionKey) o;
+
+            return new EqualsBuilder()
+                    .append(expression, that.expression)
+                    .append(functionDependencies, that.functionDependencies)
+                    .isEquals();
+        }
+
+        @Override
+        public int hashCode() {
+            return new HashCodeBuilder()
+                    .append(expression)
+                    .append(functionDependencies)
+                    .toHashCode();
+        }
+    }
+
+    private static class ExpressionListKey {
+        private final List<String> expressions;
+        private final Set<ScriptFunction> functionDependencies;
+
+        ExpressionListKey(List<String> expressions, Set<ScriptFunction> functionDependencies) {
+            this.expressions = expressions;
+            this.functionDependencies = functionDependencies;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+
+            ExpressionListKey that = (ExpressionListKey) o;
+
+            return new EqualsBuilder()
+                    .append(expressions, that.expressions)
+                    .append(functionDependencies, that.functionDependencies)
+                    .isEquals();
+        }
+
+        @Override
+        public int hashCode() {
+            return new HashCodeBuilder()
+                    .append(expressions)
+                    .append(functionDependencies)
+                    .toHashCode();
+        }
+    }
+}
@@ -0,0 +1,247 @@
+/*******************************************************************************
+ * (c) Copyright 2016 Hewlett-Packard Development Company, L.P.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Apache License v2.0 which accompany this distribution.
+ *
+ * The Apache License is available at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *******************************************************************************/
+package io.cloudslang.lang.runtime.bindings.scripts;
+
+import io.cloudslang.lang.entities.SystemProperty;
+import io.cloudslang.lang.entities.bindings.ScriptFunction;
+import io.cloudslang.lang.entities.bindings.values.PyObjectValue;
+import io.cloudslang.lang.entities.bindings.values.Value;
+import io.cloudslang.lang.entities.bindings.values.ValueFactory;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.python.core.PyObject;
+
+/**
+ * Binds the bindings of a list evaluated in one python call by {@link ScriptEvaluator#evalExprs}.
+ * <p>
+ * The script generated for the list, see {@link ExpressionCache#getListScript}, calls back the binder around the
+ * expression of every binding: {@link #start} tells whether python evaluates the expression, {@link #end} binds its
+ * value. The bindings without expression are bound from these calls, in list order.
+ * <p>
+ * Before an expression python evaluates, the namespace of the script is set back to what {@link
+ * ScriptEvaluator#evalExpr} would give it: the names the expression reads hold the values bound so far, whatever
+ * a previous expression assigned to them, and only the functions the expression depends on are defined.
+ */
+public final class ExpressionListBinder {
+
+    static final String NAME = "__binder__";
+
+    /**
+     * The names the script defines for the functions, and the function each one is defined for.
+     */
+    static final Map<String, ScriptFunction> DEFINITIONS;
+
+    static {
+        Map<String, ScriptFunction> definitions = new HashMap<>();
+        definitions.put("get", ScriptFunction.GET);
+        definitions.put("get_sp", ScriptFunction.GET_SYSTEM_PROPERTY);
+        definitions.put(ScriptEvaluator.SYSTEM_PROPERTIES_MAP, ScriptFunction.GET_SYSTEM_PROPERTY);
+        definitions.put("check_empty", ScriptFunction.CHECK_EMPTY);
+        DEFINITIONS = Collections.unmodifiableMap(definitions);
+    }
+
+    private final ScriptEvaluator scriptEvaluator;
+    private final List<? extends ExpressionBinding> bindings;
+    private final Map<String, Value> context;
+    private final Set<SystemProperty> systemProperties;
+    private final List<PyObjectValue> pythonValues = new ArrayList<>();
+    private final Map<String, PyObject> names = new HashMap<>();
+    private final Map<String, PyObject> definitions = new HashMap<>();
+
+    private PyObject globals;
+    private int next;
+    private int evaluated = -1;
+    private Throwable failure;
+
+    ExpressionListBinder(ScriptEvaluator scriptEvaluator, List<? extends ExpressionBinding> bindings,
+                         Map<String, Value> context, Set<SystemProperty> systemProperties) {
+        this.scriptEvaluator = scriptEvaluator;
+        this.bindings = bindings;
+        this.context = context;
+        this.systemProperties = systemProperties;
+    }
+
+    /**
+     * Called by the script once, before the first expression.
+     *
+     * @param globals the namespace of the script, which the bound values are put in
+     */
+    public void begin(PyObject globals) {
+        this.globals = globals;
+        for (String name : getGlobalNames()) {
+            PyObject value = globals.__finditem__(name);
+            if (DEFINITIONS.containsKey(name)) {
+                definitions.put(name, value);
+            } else {
+                names.put(name, value);
+            }
+        }
+    }
+
+    /**
+     * Called by the script before the expression of a binding.
+     *
+     * @param index the index of the binding in the list
+     * @return whether python evaluates the expression: false for a skipped binding, or one bound by the fast path
+     */
+    public boolean start(int index) {
+        try {
+            bindUpTo(index);
+            next = index + 1;
+            ExpressionBinding binding = bindings.get(index);
+            if (!binding.isEvaluated()) {
+                return false;
+            }
+            ExpressionResult result = scriptEvaluator.evalFastExpr(binding.getExpression(),
+                    binding.getFunctionDependencies(), context, systemProperties);
+            if (result != null) {
+                bind(binding, result);
+                return false;
+            }
+            prepare(binding);
+            evaluated = index;
+            return true;
+        } catch (RuntimeException | Error e) {
+            failure = e;
+            throw e;
+        }
+    }
+
+    /**
+     * Called by the script with the value of the expression {@link #start} let python evaluate.
+     */
+    public void end(PyObject value) {
+        ExpressionBinding binding = bindings.get(evaluated);
+        evaluated = -1;
+        try {
+            bind(binding, scriptEvaluator.toResult(binding.getExpression(), value, pythonValues));
+        } catch (RuntimeException | Error e) {
+            failure = e;
+            throw e;
+        }
+    }
+
+    void addPythonValues(Collection<Serializable> values) {
+        for (Serializable value : values) {
+            if (value instanceof PyObjectValue) {
+                pythonValues.add((PyObjectValue) value);
+            }
+        }
+    }
+
+    /**
+     * Binds the bindings after the last expression, once python returned.
+     */
+    void finish() {
+        globals = null;
+        bindUpTo(bindings.size());
+    }
+
+    /**
+     * Binds the binding whose expression python failed to evaluate with the error of the evaluation.
+     */
+    void fail(RuntimeException error) {
+        ExpressionBinding binding = bindings.get(evaluated);
+        evaluated = -1;
+        bind(binding, ExpressionResult.failed(error));
+    }
+
+    boolean isStarted() {
+        return globals != null;
+    }
+
+    /**
+     * @return the index of the binding whose expression python is evaluating, -1 if none
+     */
+    int getEvaluated() {
+        return evaluated;
+    }
+
+    String getEvaluatedExpression() {
+        return bindings.get(evaluated).getExpression();
+    }
+
+    /**
+     * @return the error thrown by a binding from a call of the script, null if none
+     */
+    Throwable getFailure() {
+        return failure;
+    }
+
+    private void prepare(ExpressionBinding binding) {
+        Set<String> variables = binding.getVariableDependencies();
+        if (variables == null) {
+            variables = new HashSet<>(names.keySet());
+            variables.addAll(getGlobalNames());
+        }
+        for (String variable : variables) {
+            if (!DEFINITIONS.containsKey(variable)) {
+                restore(variable, names.get(variable));
+            }
+        }
+        Set<ScriptFunction> functions = binding.getFunctionDependencies();
+        for (Map.Entry<String, PyObject> definition : definitions.entrySet()) {
+            String name = definition.getKey();
+            restore(name, functions.contains(DEFINITIONS.get(name)) ? definition.getValue() : null);
+        }
+    }
+
+    private void restore(String name, PyObject value) {
+        PyObject current = globals.__finditem__(name);
+        if (value == null) {
+            if (current != null) {
+                globals.__delitem__(name);
+            }
+        } else if (current != value) {
+            globals.__setitem__(name, value);
+        }
+    }
+
+    private Set<String> getGlobalNames() {
+        Set<String> globalNames = new HashSet<>();
+        for (PyObject key : globals.invoke("keys").asIterable()) {
+            globalNames.add(key.toString());
+        }
+        return globalNames;
+    }
+
+    private void bindUpTo(int index) {
+        for (; next < index; next++) {
+            ExpressionBinding binding = bindings.get(next);
+            if (binding.isEvaluated()) {
+                bind(binding, ExpressionResult.NONE);
+            }
+        }
+    }
+
+    private void bind(ExpressionBinding binding, ExpressionResult result) {
+        Value value = binding.bind(result);
+        if (result.isFailed()) {
+            result.get();
+        }
+        String name = binding.getName();
+        if (name != null) {
+            context.put(name, value);
+            if (globals != null) {
+                PyObjectValue pythonValue = ValueFactory.createPyObjectValue(value);
+                pythonValues.add(pythonValue);
+                names.put(name, (PyObject) pythonValue);
+                globals.__setitem__(name, (PyObject) pythonValue);
+            }
+        }
+    }
+}
@@ -0,0 +1,58 @@
+/*******************************************************************************
+ * (c) Copyright 2016 Hewlett-Packard Development Company, L.P.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Apache License v2.0 which accompany this distribution.
+ *
+ * The Apache License is available at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *******************************************************************************/
+package io.cloudslang.lang.runtime.bindings.scripts;
+
+import io.cloudslang.lang.entities.bindings.values.Value;
+
+/**
+ * The outcome of evaluating the expression of an {@link ExpressionBinding}: its value, or the error of the
+ * evaluation.
+ */
+public final class ExpressionResult {
+
+    static final ExpressionResult NONE = new ExpressionResult(null, null);
+
+    private final Value value;
+    private final Throwable error;
+
+    private ExpressionResult(Value value, Throwable error) {
+        this.value = value;
+        this.error = error;
+    }
+
+    static ExpressionResult of(Value value) {
+        return new ExpressionResult(value, null);
+    }
+
+    /**
+     * @param error a {@link RuntimeException} or an {@link Error}
+     */
+    static ExpressionResult failed(Throwable error) {
+        return new ExpressionResult(null, error);
+    }
+
+    /**
+     * @return the value of the expression, as {@link ScriptEvaluator#evalExpr} returns it; null for a binding
+     *     without expression
+     * @throws RuntimeException the error of the evaluation, as {@link ScriptEvaluator#evalExpr} throws it
+     */
+    public Value get() {
+        if (error instanceof Error) {
+            throw (Error) error;
+        } else if (error != null) {
+            throw (RuntimeException) error;
+        }
+        return value;
+    }
+
+    boolean isFailed() {
+        return error != null;
+    }
+}
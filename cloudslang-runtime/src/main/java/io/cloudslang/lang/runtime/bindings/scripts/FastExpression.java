@@ -0,0 +1,343 @@
+/*******************************************************************************
+ * (c) Copyright 2016 Hewlett-Packard Development Company, L.P.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Apache License v2.0 which accompany this distribution.
+ *
+ * The Apache License is available at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *******************************************************************************/
+package io.cloudslang.lang.runtime.bindings.scripts;
+
+import io.cloudslang.lang.entities.SystemProperty;
+import io.cloudslang.lang.entities.bindings.values.Value;
+import io.cloudslang.lang.entities.bindings.values.ValueFactory;
+import java.io.Serializable;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Expression from the trivial subset recognised by {@link FastExpressionParser}, evaluated directly over the
+ * context values instead of through Jython.
+ * <p>
+ * Evaluation mirrors the python semantics for string, int, bool and None operands. Whenever an operand falls
+ * outside of these types, or python would raise an error, {@link UnsupportedExpressionException} is thrown
+ * and the caller is expected to evaluate the expression with python instead.
+ * A value makes the result sensitive the same way it does in python - only when the expression reads it.
+ */
+abstract class FastExpression {
+
+    private static final UnsupportedExpressionException UNSUPPORTED = new UnsupportedExpressionException();
+
+    Value eval(Map<String, Value> context, Set<SystemProperty> systemProperties) {
+        EvaluationContext evaluationContext = new EvaluationContext(context, systemProperties);
+        Serializable result = evaluationContext.read(evaluate(evaluationContext));
+        return ValueFactory.create(result, evaluationContext.sensitive);
+    }
+
+    abstract Operand evaluate(EvaluationContext context);
+
+    /**
+     * Signals that the expression can not be evaluated natively for the given context.
+     * Thrown for control flow only, so the stack trace is not filled.
+     */
+    static class UnsupportedExpressionException extends RuntimeException {
+        UnsupportedExpressionException() {
+            super("Expression is not supported by the fast path", null, false, false);
+        }
+    }
+
+    static class EvaluationContext {
+        private final Map<String, Value> context;
+        private final Set<SystemProperty> systemProperties;
+        private boolean sensitive;
+
+        EvaluationContext(Map<String, Value> context, Set<SystemProperty> systemProperties) {
+            this.context = context;
+            this.systemProperties = systemProperties;
+        }
+
+        Serializable read(Operand operand) {
+            if (operand.source != null && operand.source.isSensitive()) {
+                sensitive = true;
+            }
+            return operand.content;
+        }
+    }
+
+    static final class Operand {
+        private static final Operand NONE = new Operand(null, null);
+        private static final Operand TRUE = new Operand(Boolean.TRUE, null);
+        private static final Operand FALSE = new Operand(Boolean.FALSE, null);
+
+        private final Serializable content;
+        private final Value source;
+
+        private Operand(Serializable content, Value source) {
+            this.content = content;
+            this.source = source;
+        }
+
+        static Operand of(boolean value) {
+            return value ? TRUE : FALSE;
+        }
+
+        static Operand ofValue(Value value) {
+            Serializable content = value == null ? null : value.get();
+            if (content != null && !(content instanceof String) && !(content instanceof Integer) &&
+                    !(content instanceof Boolean)) {
+                throw UNSUPPORTED;
+            }
+            return new Operand(content, value);
+        }
+    }
+
+    static class Literal extends FastExpression {
+        private final Operand operand;
+
+        Literal(Serializable content) {
+            this.operand = content == null ? Operand.NONE : new Operand(content, null);
+        }
+
+        @Override
+        Operand evaluate(EvaluationContext context) {
+            return operand;
+        }
+    }
+
+    static class Name extends FastExpression {
+        private final String name;
+
+        Name(String name) {
+            this.name = name;
+        }
+
+        @Override
+        Operand evaluate(EvaluationContext context) {
+            if (context.context.containsKey(name)) {
+                return Operand.ofValue(context.context.get(name));
+            }
+            switch (name) {
+                case "True":
+                    return Operand.TRUE;
+                case "False":
+                    return Operand.FALSE;
+                default:
+                    // python raises a NameError
+                    throw UNSUPPORTED;
+            }
+        }
+    }
+
+    static class NoneLiteral extends FastExpression {
+        @Override
+        Operand evaluate(EvaluationContext context) {
+            if (context.context.containsKey(FastExpressionParser.NONE)) {
+                throw UNSUPPORTED;
+            }
+            return Operand.NONE;
+        }
+    }
+
+    /**
+     * get('key', default_value) - the key is always a literal.
+     */
+    static class GetFunction extends FastExpression {
+        private final String key;
+        private final FastExpression defaultValue;
+
+        GetFunction(String key, FastExpression defaultValue) {
+            this.key = key;
+            this.defaultValue = defaultValue;
+        }
+
+        @Override
+        Operand evaluate(EvaluationContext context) {
+            Operand defaultOperand = defaultValue.evaluate(context);
+            if (FastExpressionParser.isReservedName(key)) {
+                // globals() holds more than the context
+                throw UNSUPPORTED;
+            }
+            if (!context.context.containsKey(key)) {
+                return defaultOperand;
+            }
+            Operand value = Operand.ofValue(context.context.get(key));
+            context.read(value);
+            return value.content == null ? defaultOperand : value;
+        }
+    }
+
+    /**
+     * get_sp('fully.qualified.name', default_value) - the name is always a literal.
+     */
+    static class GetSystemPropertyFunction extends FastExpression {
+        private final String key;
+        private final FastExpression defaultValue;
+
+        GetSystemPropertyFunction(String key, FastExpression defaultValue) {
+            this.key = key;
+            this.defaultValue = defaultValue;
+        }
+
+        @Override
+        Operand evaluate(EvaluationContext context) {
+            Operand defaultOperand = defaultValue.evaluate(context);
+            SystemProperty match = null;
+            for (SystemProperty systemProperty : context.systemProperties) {
+                // the last property with the same name wins, as in ScriptEvaluator
+                if (key.equals(systemProperty.getFullyQualifiedName())) {
+                    match = systemProperty;
+                }
+            }
+            if (match == null) {
+                return defaultOperand;
+            }
+            Operand value = Operand.ofValue(match.getValue());
+            context.read(value);
+            return value.content == null ? defaultOperand : value;
+        }
+    }
+
+    static class CheckEmptyFunction extends FastExpression {
+        private final FastExpression valueToCheck;
+        private final FastExpression defaultValue;
+
+        CheckEmptyFunction(FastExpression valueToCheck, FastExpression defaultValue) {
+            this.valueToCheck = valueToCheck;
+            this.defaultValue = defaultValue;
+        }
+
+        @Override
+        Operand evaluate(EvaluationContext context) {
+            Operand value = valueToCheck.evaluate(context);
+            Operand defaultOperand = defaultValue.evaluate(context);
+            return context.read(value) == null ? defaultOperand : value;
+        }
+    }
+
+    static class Not extends FastExpression {
+        private final FastExpression operand;
+
+        Not(FastExpression operand) {
+            this.operand = operand;
+        }
+
+        @Override
+        Operand evaluate(EvaluationContext context) {
+            return Operand.of(!isTrue(context.read(operand.evaluate(context))));
+        }
+    }
+
+    static class And extends FastExpression {
+        private final FastExpression left;
+        private final FastExpression right;
+
+        And(FastExpression left, FastExpression right) {
+            this.left = left;
+            this.right = right;
+        }
+
+        @Override
+        Operand evaluate(EvaluationContext context) {
+            Operand leftOperand = left.evaluate(context);
+            return isTrue(context.read(leftOperand)) ? right.evaluate(context) : leftOperand;
+        }
+    }
+
+    static class Or extends FastExpression {
+        private final FastExpression left;
+        private final FastExpression right;
+
+        Or(FastExpression left, FastExpression right) {
+            this.left = left;
+            this.right = right;
+        }
+
+        @Override
+        Operand evaluate(EvaluationContext context) {
+            Operand leftOperand = left.evaluate(context);
+            return isTrue(context.read(leftOperand)) ? leftOperand : right.evaluate(context);
+        }
+    }
+
+    static class Equals extends FastExpression {
+        private final FastExpression left;
+        private final FastExpression right;
+        private final boolean negated;
+
+        Equals(FastExpression left, FastExpression right, boolean negated) {
+            this.left = left;
+            this.right = right;
+            this.negated = negated;
+        }
+
+        @Override
+        Operand evaluate(EvaluationContext context) {
+            Operand leftOperand = left.evaluate(context);
+            Operand rightOperand = right.evaluate(context);
+            Serializable leftValue = context.read(leftOperand);
+            Serializable rightValue = context.read(rightOperand);
+            if (leftValue == null && rightValue == null) {
+                // a None from the context is wrapped by a proxy, which python's None does not consider equal
+                return Operand.of(negated != (leftOperand.source != null || rightOperand.source == null));
+            }
+            return Operand.of(negated != areEqual(leftValue, rightValue));
+        }
+
+        private boolean areEqual(Serializable left, Serializable right) {
+            if (left == null || right == null) {
+                return false;
+            }
+            if (left instanceof String || right instanceof String) {
+                return left.equals(right);
+            }
+            // bool is a subclass of int
+            return toInt(left) == toInt(right);
+        }
+
+        private int toInt(Serializable value) {
+            return value instanceof Boolean ? ((Boolean) value ? 1 : 0) : (Integer) value;
+        }
+    }
+
+    static class Add extends FastExpression {
+        private final FastExpression left;
+        private final FastExpression right;
+
+        Add(FastExpression left, FastExpression right) {
+            this.left = left;
+            this.right = right;
+        }
+
+        @Override
+        Operand evaluate(EvaluationContext context) {
+            Operand leftOperand = left.evaluate(context);
+            Operand rightOperand = right.evaluate(context);
+            Serializable leftValue = context.read(leftOperand);
+            Serializable rightValue = context.read(rightOperand);
+            if (leftValue instanceof String && rightValue instanceof String) {
+                return new Operand((String) leftValue + rightValue, null);
+            }
+            if (leftValue instanceof Integer && rightValue instanceof Integer) {
+                long sum = (long) (Integer) leftValue + (Integer) rightValue;
+                if (sum == (int) sum) {
+                    return new Operand((int) sum, null);
+                }
+            }
+            // type errors, long promotion and bool arithmetic are left to python
+            throw UNSUPPORTED;
+        }
+    }
+
+    private static boolean isTrue(Serializable value) {
+        if (value == null) {
+            return false;
+        } else if (value instanceof Boolean) {
+            return (Boolean) value;
+        } else if (value instanceof Integer) {
+            return (Integer) value != 0;
+        } else {
+            return !((String) value).isEmpty();
+        }
+    }
+}
@@ -0,0 +1,327 @@
+/*******************************************************************************
+ * (c) Copyright 2016 Hewlett-Packard Development Company, L.P.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Apache License v2.0 which accompany this distribution.
+ *
+ * The Apache License is available at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *******************************************************************************/
+package io.cloudslang.lang.runtime.bindings.scripts;
+
+import io.cloudslang.lang.entities.bindings.ScriptFunction;
+import io.cloudslang.lang.runtime.bindings.scripts.FastExpression.UnsupportedExpressionException;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Recognises the subset of python expressions that {@link FastExpression} evaluates natively:
+ * names, ascii string literals, int literals, True/False/None, parentheses,
+ * {@code get('key'[, default])}, {@code get_sp('key'[, default])}, {@code check_empty(value[, default])},
+ * {@code +}, {@code ==}, {@code !=}, {@code not}, {@code and} and {@code or}.
+ * <p>
+ * The parser does not report syntax errors - anything outside the subset, malformed or not, yields null and is
+ * left to python, which reports the error. Everything inside the subset is valid python.
+ */
+final class FastExpressionParser {
+
+    static final String NONE = "None";
+
+    private static final String AND = "and";
+    private static final String OR = "or";
+    private static final String NOT = "not";
+    private static final String GET = "get";
+    private static final String GET_SP = "get_sp";
+    private static final String CHECK_EMPTY = "check_empty";
+
+    private static final Set<String> KEYWORDS = new HashSet<>(Arrays.asList(
+            "and", "as", "assert", "break", "class", "continue", "def", "del", "elif", "else", "except", "exec",
+            "finally", "for", "from", "global", "if", "import", "in", "is", "lambda", "not", "or", "pass", "print",
+            "raise", "return", "try", "while", "with", "yield"));
+
+    // names defined in the evaluation namespace on top of the context, true and false are set by the python runtime
+    private static final Set<String> NAMESPACE_NAMES = new HashSet<>(Arrays.asList(
+            ScriptEvaluator.SYSTEM_PROPERTIES_MAP, GET, GET_SP, CHECK_EMPTY, "true", "false"));
+
+    private enum TokenType {
+        NAME, STRING, INT, LEFT_PARENTHESIS, RIGHT_PARENTHESIS, COMMA, PLUS, EQUALS, NOT_EQUALS, END
+    }
+
+    private final String expression;
+    private final Set<ScriptFunction> functionDependencies;
+    private int position;
+    private TokenType tokenType;
+    private String tokenText;
+
+    private FastExpressionParser(String expression, Set<ScriptFunction> functionDependencies) {
+        this.expression = expression;
+        this.functionDependencies = functionDependencies;
+    }
+
+    /**
+     * @param expression           the expression as written in the source, without the delimiters
+     * @param functionDependencies the functions defined for the expression
+     * @return the natively evaluable form of the expression, or null if it is not part of the subset
+     */
+    static FastExpression parse(String expression, Set<ScriptFunction> functionDependencies) {
+        try {
+            FastExpressionParser parser = new FastExpressionParser(expression, functionDependencies);
+            parser.next();
+            FastExpression fastExpression = parser.parseOr();
+            parser.expect(TokenType.END);
+            return fastExpression;
+        } catch (UnsupportedExpressionException ex) {
+            return null;
+        }
+    }
+
+    /**
+     * @param name a key looked up through get()
+     * @return true if the evaluation namespace may hold the name even though it is not in the context
+     */
+    static boolean isReservedName(String name) {
+        return NAMESPACE_NAMES.contains(name) || name.startsWith("__");
+    }
+
+    private FastExpression parseOr() {
+        FastExpression left = parseAnd();
+        while (isKeyword(OR)) {
+            next();
+            left = new FastExpression.Or(left, parseAnd());
+        }
+        return left;
+    }
+
+    private FastExpression parseAnd() {
+        FastExpression left = parseNot();
+        while (isKeyword(AND)) {
+            next();
+            left = new FastExpression.And(left, parseNot());
+        }
+        return left;
+    }
+
+    private FastExpression parseNot() {
+        if (isKeyword(NOT)) {
+            next();
+            return new FastExpression.Not(parseNot());
+        }
+        return parseComparison();
+    }
+
+    private FastExpression parseComparison() {
+        FastExpression left = parseSum();
+        if (tokenType == TokenType.EQUALS || tokenType == TokenType.NOT_EQUALS) {
+            boolean negated = tokenType == TokenType.NOT_EQUALS;
+            next();
+            FastExpression right = parseSum();
+            if (tokenType == TokenType.EQUALS || tokenType == TokenType.NOT_EQUALS) {
+                // chained comparison
+                throw unsupported();
+            }
+            return new FastExpression.Equals(left, right, negated);
+        }
+        return left;
+    }
+
+    private FastExpression parseSum() {
+        FastExpression left = parseAtom();
+        while (tokenType == TokenType.PLUS) {
+            next();
+            left = new FastExpression.Add(left, parseAtom());
+        }
+        return left;
+    }
+
+    private FastExpression parseAtom() {
+        String text = tokenText;
+        switch (tokenType) {
+            case STRING:
+                next();
+                return new FastExpression.Literal(text);
+            case INT:
+                next();
+                return new FastExpression.Literal(Integer.valueOf(text));
+            case LEFT_PARENTHESIS:
+                next();
+                FastExpression inner = parseOr();
+                expect(TokenType.RIGHT_PARENTHESIS);
+                return inner;
+            case NAME:
+                next();
+                if (NONE.equals(text)) {
+                    return new FastExpression.NoneLiteral();
+                }
+                if (KEYWORDS.contains(text)) {
+                    throw unsupported();
+                }
+                if (tokenType == TokenType.LEFT_PARENTHESIS) {
+                    next();
+                    return parseFunction(text);
+                }
+                if (NAMESPACE_NAMES.contains(text) || text.startsWith("__")) {
+                    throw unsupported();
+                }
+                return new FastExpression.Name(text);
+            default:
+                throw unsupported();
+        }
+    }
+
+    private FastExpression parseFunction(String name) {
+        FastExpression function;
+        if (name.equals(GET) && functionDependencies.contains(ScriptFunction.GET)) {
+            String key = parseKey();
+            function = new FastExpression.GetFunction(key, parseOptionalDefault());
+        } else if (name.equals(GET_SP) &&
+                functionDependencies.contains(ScriptFunction.GET_SYSTEM_PROPERTY)) {
+            String key = parseKey();
+            function = new FastExpression.GetSystemPropertyFunction(key, parseOptionalDefault());
+        } else if (name.equals(CHECK_EMPTY) &&
+                functionDependencies.contains(ScriptFunction.CHECK_EMPTY)) {
+            FastExpression valueToCheck = parseOr();
+            function = new FastExpression.CheckEmptyFunction(valueToCheck, parseOptionalDefault());
+        } else {
+            throw unsupported();
+        }
+        expect(TokenType.RIGHT_PARENTHESIS);
+        return function;
+    }
+
+    private String parseKey() {
+        if (tokenType != TokenType.STRING) {
+            throw unsupported();
+        }
+        String key = tokenText;
+        next();
+        return key;
+    }
+
+    private FastExpression parseOptionalDefault() {
+        if (tokenType == TokenType.COMMA) {
+            next();
+            return parseOr();
+        }
+        return new FastExpression.Literal(null);
+    }
+
+    private boolean isKeyword(String keyword) {
+        return tokenType == TokenType.NAME && keyword.equals(tokenText);
+    }
+
+    private void expect(TokenType expected) {
+        if (tokenType != expected) {
+            throw unsupported();
+        }
+        next();
+    }
+
+    private void next() {
+        while (position < expression.length() &&
+                (expression.charAt(position) == ' ' || expression.charAt(position) == '\t')) {
+            position++;
+        }
+        tokenText = null;
+        if (position == expression.length()) {
+            tokenType = TokenType.END;
+            return;
+        }
+        char current = expression.charAt(position);
+        if (isNameChar(current) && !isDigit(current)) {
+            scanName();
+        } else if (isDigit(current)) {
+            scanInt();
+        } else if (current == '\'' || current == '"') {
+            scanString(current);
+        } else {
+            scanOperator(current);
+        }
+    }
+
+    private void scanName() {
+        int start = position;
+        while (position < expression.length() && isNameChar(expression.charAt(position))) {
+            position++;
+        }
+        tokenType = TokenType.NAME;
+        tokenText = expression.substring(start, position);
+    }
+
+    private void scanInt() {
+        int start = position;
+        while (position < expression.length() && isDigit(expression.charAt(position))) {
+            position++;
+        }
+        // octal, long, float, hex and exponent notations are left to python
+        if (position < expression.length() &&
+                (isNameChar(expression.charAt(position)) || expression.charAt(position) == '.')) {
+            throw unsupported();
+        }
+        String digits = expression.substring(start, position);
+        if (digits.length() > 1 && digits.charAt(0) == '0' || digits.length() > 10 ||
+                Long.parseLong(digits) > Integer.MAX_VALUE) {
+            throw unsupported();
+        }
+        tokenType = TokenType.INT;
+        tokenText = digits;
+    }
+
+    private void scanString(char quote) {
+        final int start = ++position;
+        while (position < expression.length() && expression.charAt(position) != quote) {
+            char current = expression.charAt(position);
+            // escape sequences and non printable or non ascii characters are left to python
+            if (current == '\\' || current < ' ' || current > '~') {
+                throw unsupported();
+            }
+            position++;
+        }
+        if (position == expression.length()) {
+            throw unsupported();
+        }
+        tokenType = TokenType.STRING;
+        tokenText = expression.substring(start, position++);
+    }
+
+    private void scanOperator(char current) {
+        position++;
+        switch (current) {
+            case '(':
+                tokenType = TokenType.LEFT_PARENTHESIS;
+                break;
+            case ')':
+                tokenType = TokenType.RIGHT_PARENTHESIS;
+                break;
+            case ',':
+                tokenType = TokenType.COMMA;
+                break;
+            case '+':
+                tokenType = TokenType.PLUS;
+                break;
+            case '=':
+            case '!':
+                if (position == expression.length() || expression.charAt(position) != '=') {
+                    throw unsupported();
+                }
+                position++;
+                tokenType = current == '=' ? TokenType.EQUALS : TokenType.NOT_EQUALS;
+                break;
+            default:
+                throw unsupported();
+        }
+    }
+
+    private boolean isNameChar(char current) {
+        return current >= 'a' && current <= 'z' || current >= 'A' && current <= 'Z' || isDigit(current) ||
+                current == '_';
+    }
+
+    private boolean isDigit(char current) {
+        return current >= '0' && current <= '9';
+    }
+
+    private UnsupportedExpressionException unsupported() {
+        return new UnsupportedExpressionException();
+    }
+}
@@ -0,0 +1,37 @@
+/*******************************************************************************
+ * (c) Copyright 2016 Hewlett-Packard Development Company, L.P.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Apache License v2.0 which accompany this distribution.
+ *
+ * The Apache License is available at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *******************************************************************************/
+package io.cloudslang.lang.runtime.bindings.scripts;
+
+/**
+ * An expression prepared once and shared between threads: the script defining the functions it depends on,
+ * passed to the python runtime with every evaluation, and its native form if it is from the trivial subset,
+ * see {@link FastExpression}.
+ */
+class PreparedExpression {
+
+    private final String functionsScript;
+    private final FastExpression fastExpression;
+
+    PreparedExpression(String functionsScript, FastExpression fastExpression) {
+        this.functionsScript = functionsScript;
+        this.fastExpression = fastExpression;
+    }
+
+    String getFunctionsScript() {
+        return functionsScript;
+    }
+
+    /**
+     * @return the natively evaluable form of the expression, null if it is outside of the supported subset
+     */
+    FastExpression getFastExpression() {
+        return fastExpression;
+    }
+}
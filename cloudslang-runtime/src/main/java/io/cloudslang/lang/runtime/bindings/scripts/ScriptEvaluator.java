@@ -9,6 +9,7 @@
  *******************************************************************************/
 package io.cloudslang.lang.runtime.bindings.scripts;
 
+import com.google.common.base.Optional;
 import io.cloudslang.lang.entities.SystemProperty;
 import io.cloudslang.lang.entities.bindings.ScriptFunction;
 import io.cloudslang.lang.entities.bindings.values.PyObjectValue;
@@ -17,16 +18,25 @@ import io.cloudslang.lang.entities.bindings.values.ValueFactory;
 import io.cloudslang.runtime.api.python.PythonEvaluationResult;
 import io.cloudslang.runtime.api.python.PythonRuntimeService;
 import java.io.Serializable;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.EnumSet;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import org.apache.commons.lang3.StringUtils;
 import org.python.core.Py;
+import org.python.core.PyBoolean;
+import org.python.core.PyException;
 import org.python.core.PyObject;
+import org.python.core.PyType;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
+import static io.cloudslang.lang.entities.properties.SlangSystemPropertyConstant.CSLANG_RUNTIME_EXPRESSION_FAST_PATH_ENABLED;
+
 /**
  * @author stoneo
  * @version $Id$
@@ -34,33 +44,47 @@ import org.springframework.stereotype.Component;
  */
 @Component
 public class ScriptEvaluator extends ScriptProcessor {
-    private static String LINE_SEPARATOR = System.lineSeparator();
-    private static final String SYSTEM_PROPERTIES_MAP = "sys_prop";
-    private static final String GET_FUNCTION_DEFINITION =
-            "def get(key, default_value=None):" + LINE_SEPARATOR +
-                    "  value = globals().get(key)" + LINE_SEPARATOR +
-                    "  return default_value if value is None else value";
-    private static final String GET_SP_FUNCTION_DEFINITION =
-            "def get_sp(key, default_value=None):" + LINE_SEPARATOR +
-                    "  property_value = " + SYSTEM_PROPERTIES_MAP + ".get(key)" + LINE_SEPARATOR +
-                    "  return default_value if property_value is None else property_value";
-    private static final String CHECK_EMPTY_FUNCTION_DEFINITION =
-            "def check_empty(value_to_check, default_value=None):" + LINE_SEPARATOR +
-                    "  return default_value if value_to_check is None else value_to_check";
+    static final String SYSTEM_PROPERTIES_MAP = "sys_prop";
+    private static final String NONE = "None";
 
     @Autowired
     private PythonRuntimeService pythonRuntimeService;
 
+    @Autowired
+    private ExpressionCache expressionCache;
+
+    private boolean fastPathEnabled = Boolean.parseBoolean(
+            System.getProperty(CSLANG_RUNTIME_EXPRESSION_FAST_PATH_ENABLED.getValue(), Boolean.TRUE.toString()));
+
     public Value evalExpr(String expr, Map<String, Value> context, Set<SystemProperty> systemProperties,
                           Set<ScriptFunction> functionDependencies) {
+        return evalExpr(expr, context, systemProperties, functionDependencies, null);
+    }
+
+    /**
+     * @param variableDependencies the context variables the expression reads, as computed by the compiler;
+     *                             only these are passed to python. null passes the whole context
+     */
+    public Value evalExpr(String expr, Map<String, Value> context, Set<SystemProperty> systemProperties,
+                          Set<ScriptFunction> functionDependencies, Set<String> variableDependencies) {
         try {
-            Map<String, Serializable> pythonContext = createPythonContext(context);
+            PreparedExpression preparedExpression = expressionCache.get(expr, functionDependencies);
+            FastExpression fastExpression = preparedExpression.getFastExpression();
+            if (fastPathEnabled && fastExpression != null) {
+                try {
+                    return fastExpression.eval(context, systemProperties);
+                } catch (FastExpression.UnsupportedExpressionException ex) {
+                    // not supported for the current values, evaluated by python
+                }
+            }
+
+            Map<String, Serializable> pythonContext = createPythonContext(context, variableDependencies);
             boolean systemPropertiesDefined = functionDependencies.contains(ScriptFunction.GET_SYSTEM_PROPERTY);
             if (systemPropertiesDefined) {
                 pythonContext.put(SYSTEM_PROPERTIES_MAP, (Serializable) prepareSystemProperties(systemProperties));
             }
             PythonEvaluationResult result = pythonRuntimeService.eval(
-                    buildAddFunctionsScript(functionDependencies), expr, pythonContext);
+                    preparedExpression.getFunctionsScript(), expr, pythonContext);
             if (systemPropertiesDefined) {
                 pythonContext.remove(SYSTEM_PROPERTIES_MAP);
             }
@@ -68,38 +92,230 @@ public class ScriptEvaluator extends ScriptProcessor {
             return ValueFactory.create(result.getEvalResult(),
                     getSensitive(result.getResultContext(), systemPropertiesDefined));
         } catch (Exception exception) {
-            throw new RuntimeException("Error in running script expression: '" +
-                            expr + "',\n\tException is: " +
-                    handleExceptionSpecialCases(exception.getMessage()), exception);
-        }
-    }
-
-    private String buildAddFunctionsScript(Set<ScriptFunction> functionDependencies) {
-        String functions = "";
-        for (ScriptFunction function : functionDependencies) {
-            switch (function) {
-                case GET:
-                    functions += GET_FUNCTION_DEFINITION;
-                    functions = appendDelimiterBetweenFunctions(functions);
-                    break;
-                case GET_SYSTEM_PROPERTY:
-                    functions += GET_SP_FUNCTION_DEFINITION;
-                    functions = appendDelimiterBetweenFunctions(functions);
-                    break;
-                case CHECK_EMPTY:
-                    functions += CHECK_EMPTY_FUNCTION_DEFINITION;
-                    functions = appendDelimiterBetweenFunctions(functions);
-                    break;
-                default:
-                    throw new RuntimeException("Error adding function to context: '" + function.getValue() +
-                            "' is not valid.");
+            throw wrapException(expr, exception);
+        }
+    }
+
+    /**
+     * Evaluates the expressions of a list of bindings in list order, each one against the context and the values
+     * bound by the previous bindings, as {@link #evalExpr} evaluates them one by one.
+     * <p>
+     * A list with more than one expression for python is evaluated in a single python call: one python context is
+     * built for the list, and the script generated for it runs every expression in turn, binding the values from
+     * its calls to {@link ExpressionListBinder}.
+     *
+     * @param bindings the bindings of the list
+     * @param context  the context of the first expression, which is not changed
+     */
+    public void evalExprs(List<? extends ExpressionBinding> bindings, Map<String, ? extends Value> context,
+                          Set<SystemProperty> systemProperties) {
+        Map<String, Value> scriptContext = new HashMap<>(context);
+        Optional<String> listScript = getListScript(bindings);
+        if (listScript.isPresent() && evalList(listScript.get(), bindings, scriptContext, systemProperties)) {
+            return;
+        }
+
+        for (ExpressionBinding binding : bindings) {
+            if (binding.isEvaluated()) {
+                ExpressionResult result = ExpressionResult.NONE;
+                String expression = binding.getExpression();
+                if (expression != null) {
+                    try {
+                        result = ExpressionResult.of(evalExpr(expression, scriptContext, systemProperties,
+                                binding.getFunctionDependencies(), binding.getVariableDependencies()));
+                    } catch (RuntimeException | Error e) {
+                        result = ExpressionResult.failed(e);
+                    }
+                }
+                Value value = binding.bind(result);
+                if (result.isFailed()) {
+                    result.get();
+                }
+                if (binding.getName() != null) {
+                    scriptContext.put(binding.getName(), value);
+                }
+            }
+        }
+    }
+
+    void setFastPathEnabled(boolean fastPathEnabled) {
+        this.fastPathEnabled = fastPathEnabled;
+    }
+
+    /**
+     * Evaluates an expression of a list by the fast path, as {@link #evalExpr} would.
+     *
+     * @return the result, null for an expression python has to evaluate
+     */
+    ExpressionResult evalFastExpr(String expr, Set<ScriptFunction> functionDependencies, Map<String, Value> context,
+                                  Set<SystemProperty> systemProperties) {
+        try {
+            FastExpression fastExpression = expressionCache.get(expr, functionDependencies).getFastExpression();
+            if (!fastPathEnabled || fastExpression == null) {
+                return null;
+            }
+            try {
+                return ExpressionResult.of(fastExpression.eval(context, systemProperties));
+            } catch (FastExpression.UnsupportedExpressionException ex) {
+                return null;
+            }
+        } catch (Exception exception) {
+            return ExpressionResult.failed(wrapException(expr, exception));
+        }
+    }
+
+    /**
+     * Converts the value python evaluated an expression of a list to, as {@link #evalExpr} would. The values of
+     * the python context are sensitive to the expression that accessed them only.
+     *
+     * @param pythonValues the values of the python context, which are marked as not accessed again
+     */
+    ExpressionResult toResult(String expr, PyObject value, Collection<PyObjectValue> pythonValues) {
+        try {
+            Serializable evalResult;
+            try {
+                evalResult = toJava(expr, value);
+            } catch (PyException e) {
+                throw new RuntimeException("Error in running script expression: '" + expr + "',\n\tException is: " +
+                        handleExceptionSpecialCases(e.value.toString()), e);
+            } catch (Exception e) {
+                throw new RuntimeException("Error in running script expression: '" + expr + "',\n\tException is: " +
+                        handleExceptionSpecialCases(e.getMessage()), e);
+            }
+            return ExpressionResult.of(ValueFactory.create(evalResult, isAccessed(pythonValues)));
+        } catch (Exception exception) {
+            return ExpressionResult.failed(wrapException(expr, exception));
+        }
+    }
+
+    private boolean evalList(String listScript, List<? extends ExpressionBinding> bindings,
+                             Map<String, Value> scriptContext, Set<SystemProperty> systemProperties) {
+        Set<String> variableDependencies = new HashSet<>();
+        Set<ScriptFunction> functionDependencies = EnumSet.noneOf(ScriptFunction.class);
+        for (ExpressionBinding binding : bindings) {
+            if (binding.getExpression() != null) {
+                functionDependencies.addAll(binding.getFunctionDependencies());
+                if (variableDependencies != null && binding.getVariableDependencies() != null) {
+                    variableDependencies.addAll(binding.getVariableDependencies());
+                } else {
+                    variableDependencies = null;
+                }
+            }
+        }
+
+        Map<String, Serializable> pythonContext = createPythonContext(scriptContext, variableDependencies);
+        if (bindsReservedName(pythonContext.keySet())) {
+            return false;
+        }
+        ExpressionListBinder binder = new ExpressionListBinder(this, bindings, scriptContext, systemProperties);
+        if (functionDependencies.contains(ScriptFunction.GET_SYSTEM_PROPERTY)) {
+            Map<String, Value> pythonSystemProperties = prepareSystemProperties(systemProperties);
+            binder.addPythonValues(new ArrayList<Serializable>(pythonSystemProperties.values()));
+            pythonContext.put(SYSTEM_PROPERTIES_MAP, (Serializable) pythonSystemProperties);
+        }
+        binder.addPythonValues(pythonContext.values());
+        pythonContext.put(ExpressionListBinder.NAME, Py.java2py(binder));
+        try {
+            pythonRuntimeService.eval(listScript, NONE, pythonContext);
+        } catch (RuntimeException e) {
+            Throwable failure = binder.getFailure();
+            if (failure instanceof Error) {
+                throw (Error) failure;
+            } else if (failure != null) {
+                throw (RuntimeException) failure;
+            } else if (binder.getEvaluated() >= 0) {
+                // python failed to evaluate an expression: the error evaluating it alone
+                String expr = binder.getEvaluatedExpression();
+                String message = e.getCause() instanceof PyException ?
+                        ((PyException) e.getCause()).value.toString() : e.getMessage();
+                binder.fail(wrapException(expr, new RuntimeException("Error in running script expression: '" +
+                        expr + "',\n\tException is: " + handleExceptionSpecialCases(message), e.getCause())));
+            } else if (!binder.isStarted()) {
+                // the script did not run, the list is evaluated one expression at a time
+                return false;
+            }
+            throw e;
+        }
+        binder.finish();
+        return true;
+    }
+
+    /**
+     * @return the script evaluating the list in one python call, absent for a list evaluated one expression at
+     *     a time
+     */
+    private Optional<String> getListScript(List<? extends ExpressionBinding> bindings) {
+        List<String> expressions = new ArrayList<>(bindings.size());
+        Set<ScriptFunction> functionDependencies = EnumSet.noneOf(ScriptFunction.class);
+        Set<String> names = new HashSet<>();
+        int pythonExpressions = 0;
+        for (ExpressionBinding binding : bindings) {
+            String expression = binding.getExpression();
+            expressions.add(expression);
+            if (binding.getName() != null) {
+                names.add(binding.getName());
+            }
+            if (expression != null) {
+                functionDependencies.addAll(binding.getFunctionDependencies());
+                if (!fastPathEnabled || expressionCache.get(expression, binding.getFunctionDependencies())
+                        .getFastExpression() == null) {
+                    pythonExpressions++;
+                }
+            }
+        }
+        if (pythonExpressions < 2 || bindsReservedName(names)) {
+            return Optional.absent();
+        }
+        return expressionCache.getListScript(expressions, functionDependencies);
+    }
+
+    /**
+     * A name the script defines itself, and that {@link #evalExpr} defines again for every expression.
+     */
+    private boolean bindsReservedName(Set<String> names) {
+        if (names.contains(ExpressionListBinder.NAME)) {
+            return true;
+        }
+        for (String name : ExpressionListBinder.DEFINITIONS.keySet()) {
+            if (names.contains(name)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private Serializable toJava(String expr, PyObject value) {
+        if (value == null) {
+            return null;
+        } else if (value instanceof PyBoolean) {
+            return ((PyBoolean) value).getBooleanValue();
+        }
+        try {
+            return Py.tojava(value, Serializable.class);
+        } catch (PyException e) {
+            if (e.type instanceof PyType && "TypeError".equals(((PyType) e.type).getName())) {
+                throw new RuntimeException("Evaluation result for a Python expression should be serializable:\n\t" +
+                        "Conversion failed for '" + expr + "' (" + value + ").\n", e);
+            }
+            throw e;
+        }
+    }
+
+    private boolean isAccessed(Collection<PyObjectValue> pythonValues) {
+        boolean sensitive = false;
+        for (PyObjectValue pythonValue : pythonValues) {
+            if (pythonValue.isAccessed()) {
+                sensitive |= pythonValue.isSensitive();
+                pythonValue.resetAccessed();
             }
         }
-        return functions;
+        return sensitive;
     }
 
-    private String appendDelimiterBetweenFunctions(String text) {
-        return text + LINE_SEPARATOR + LINE_SEPARATOR;
+    private RuntimeException wrapException(String expr, Exception exception) {
+        return new RuntimeException("Error in running script expression: '" +
+                expr + "',\n\tException is: " +
+                handleExceptionSpecialCases(exception.getMessage()), exception);
     }
 
     private Map<String, Value> prepareSystemProperties(Set<SystemProperty> properties) {
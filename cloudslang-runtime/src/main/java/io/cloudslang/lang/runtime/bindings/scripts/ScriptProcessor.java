@@ -14,6 +14,7 @@ import io.cloudslang.lang.entities.bindings.values.ValueFactory;
 import java.io.Serializable;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Set;
 
 /**
  * Script processor
@@ -29,4 +30,17 @@ public abstract class ScriptProcessor {
         }
         return pythonContext;
     }
+
+    protected Map<String, Serializable> createPythonContext(Map<String, Value> context, Set<String> variableNames) {
+        if (variableNames == null) {
+            return createPythonContext(context);
+        }
+        Map<String, Serializable> pythonContext = new HashMap<>();
+        for (String variableName : variableNames) {
+            if (context.containsKey(variableName)) {
+                pythonContext.put(variableName, ValueFactory.createPyObjectValue(context.get(variableName)));
+            }
+        }
+        return pythonContext;
+    }
 }
@@ -11,14 +11,22 @@ package io.cloudslang.lang.runtime.configuration;
 
 
 import io.cloudslang.lang.entities.properties.SlangSystemPropertyConstant;
+import io.cloudslang.lang.runtime.bindings.scripts.CompiledCodePythonExecutionEngine;
 import io.cloudslang.runtime.impl.RuntimeManagementConfiguration;
+import io.cloudslang.runtime.impl.python.PythonExecutionCachedEngine;
+import io.cloudslang.runtime.impl.python.PythonExecutionEngine;
+import io.cloudslang.runtime.impl.python.PythonExecutionNotCachedEngine;
 import java.nio.charset.StandardCharsets;
 import org.apache.commons.lang3.StringUtils;
 import org.python.core.Options;
 import org.python.core.PySystemState;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.ComponentScan;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Import;
+import org.springframework.context.annotation.Primary;
+
+import static io.cloudslang.runtime.impl.python.PythonExecutionConfigurationConsts.PYTHON_EXECUTOR_ENGINE;
 
 @Configuration
 @Import({RuntimeManagementConfiguration.class})
@@ -30,6 +38,20 @@ public class SlangRuntimeSpringConfig {
         setPythonIoEncoding();
     }
 
+    /**
+     * Takes the place of the cached python engine of the runtime management configuration, with executors that keep
+     * the code they compiled. The not cached engine, when selected, is kept as is.
+     */
+    @Bean
+    @Primary
+    public PythonExecutionEngine compiledCodePythonExecutionEngine() {
+        String engine = System.getProperty(PYTHON_EXECUTOR_ENGINE, PythonExecutionCachedEngine.class.getSimpleName());
+        if (PythonExecutionNotCachedEngine.class.getSimpleName().equals(engine)) {
+            return new PythonExecutionNotCachedEngine();
+        }
+        return new CompiledCodePythonExecutionEngine();
+    }
+
     private static void setPythonIoEncoding() {
         String encodingValue = System.getProperty(SlangSystemPropertyConstant.CSLANG_ENCODING.getValue());
         if (StringUtils.isEmpty(encodingValue)) {
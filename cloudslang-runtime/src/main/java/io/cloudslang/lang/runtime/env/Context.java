@@ -14,6 +14,7 @@ import java.io.Serializable;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
+import org.apache.commons.lang3.SerializationUtils;
 import org.apache.commons.lang3.builder.EqualsBuilder;
 import org.apache.commons.lang3.builder.HashCodeBuilder;
 
@@ -27,6 +28,20 @@ public class Context implements Serializable {
         langVariables = new HashMap<>();
     }
 
+    /**
+     * Creates the context of a parallel loop branch.
+     * The branch gets variable maps of its own, while the variable values are shared with this context -
+     * the branch always writes its loop variables, so an overlay on top of the parent map would be copied at once.
+     * Language variables hold mutable loop state and are copied deeply.
+     *
+     * @return the branch context
+     */
+    public Context createBranchContext() {
+        Context branchContext = new Context(new HashMap<>(variables));
+        branchContext.langVariables.putAll(SerializationUtils.clone(new HashMap<>(langVariables)));
+        return branchContext;
+    }
+
     public Value getVariable(String name) {
         return variables.get(name);
     }
@@ -13,28 +13,34 @@ import io.cloudslang.lang.entities.bindings.values.Value;
 import io.cloudslang.lang.entities.bindings.values.ValueFactory;
 import java.io.Serializable;
 import java.util.Iterator;
+import java.util.List;
+import java.util.RandomAccess;
 import org.apache.commons.lang3.builder.EqualsBuilder;
 import org.apache.commons.lang3.builder.HashCodeBuilder;
 
+/**
+ * Iterates over the collection of a sequential for loop, one element per step.
+ * <p>
+ * Random access lists are read by index. Any other iterable is read through a cursor that is kept between
+ * the steps, so each iteration costs O(1). The cursor is not serialized - after the condition is restored from
+ * the run environment it is positioned again once, on the first access.
+ */
 public class ForLoopCondition implements LoopCondition {
 
+    // the serialized form is the iterable and the index only, same as before the cursor was introduced
+    private static final long serialVersionUID = -2974335212434204529L;
+
     private final Iterable<? extends Serializable> iterable;
     private int index = 0;
+    private transient Iterator<? extends Serializable> cursor;
 
     public ForLoopCondition(Iterable<? extends Serializable> iterable) {
         this.iterable = iterable;
     }
 
-    private Iterator<? extends Serializable> loopToCurrentObject() {
-        Iterator<? extends Serializable> iterator = iterable.iterator();
-        for (int i = 0; i < index; i++) {
-            iterator.next();
-        }
-        return iterator;
-    }
-
     public Value next() {
-        Serializable serializable = loopToCurrentObject().next();
+        Serializable serializable = isRandomAccess() ? ((List<? extends Serializable>) iterable).get(index) :
+                getCursor().next();
         Value next = serializable instanceof Value ? (Value) serializable : ValueFactory.create(serializable);
         index++;
         return next;
@@ -42,7 +48,21 @@ public class ForLoopCondition implements LoopCondition {
 
     @Override
     public boolean hasMore() {
-        return loopToCurrentObject().hasNext();
+        return isRandomAccess() ? index < ((List<? extends Serializable>) iterable).size() : getCursor().hasNext();
+    }
+
+    private boolean isRandomAccess() {
+        return iterable instanceof List && iterable instanceof RandomAccess;
+    }
+
+    private Iterator<? extends Serializable> getCursor() {
+        if (cursor == null) {
+            cursor = iterable.iterator();
+            for (int i = 0; i < index; i++) {
+                cursor.next();
+            }
+        }
+        return cursor;
     }
 
     @Override
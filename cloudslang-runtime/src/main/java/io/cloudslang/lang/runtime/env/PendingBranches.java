@@ -0,0 +1,77 @@
+/*******************************************************************************
+ * (c) Copyright 2016 Hewlett-Packard Development Company, L.P.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Apache License v2.0 which accompany this distribution.
+ *
+ * The Apache License is available at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *******************************************************************************/
+package io.cloudslang.lang.runtime.env;
+
+import io.cloudslang.lang.entities.ScoreLangConstants;
+import io.cloudslang.lang.entities.bindings.values.Value;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * State of a throttled parallel loop between its waves of branches.
+ * <p>
+ * The branches are created at most {@code maxBranches} at a time. When a wave is joined its branches are folded
+ * into the branches context and the result, and the next wave is started from the add branches step,
+ * until the split data is exhausted.
+ */
+public class PendingBranches implements Serializable {
+
+    private final List<Value> splitData;
+    private final int maxBranches;
+    private final Long addBranchesStepId;
+    private final List<Map<String, Serializable>> branchesContext;
+    private int nextIndex = 0;
+    private String result = ScoreLangConstants.SUCCESS_RESULT;
+
+    public PendingBranches(List<Value> splitData, int maxBranches, Long addBranchesStepId) {
+        this.splitData = new ArrayList<>(splitData);
+        this.maxBranches = maxBranches;
+        this.addBranchesStepId = addBranchesStepId;
+        this.branchesContext = new ArrayList<>(splitData.size());
+    }
+
+    /**
+     * @return the split items of the next wave, at most maxBranches of them
+     */
+    public List<Value> nextWave() {
+        int end = Math.min(nextIndex + maxBranches, splitData.size());
+        List<Value> wave = new ArrayList<>(splitData.subList(nextIndex, end));
+        for (int i = nextIndex; i < end; i++) {
+            // the split items are only needed once
+            splitData.set(i, null);
+        }
+        nextIndex = end;
+        return wave;
+    }
+
+    public boolean hasMore() {
+        return nextIndex < splitData.size();
+    }
+
+    public void addResult(String branchesResult) {
+        if (ScoreLangConstants.FAILURE_RESULT.equals(branchesResult)) {
+            result = ScoreLangConstants.FAILURE_RESULT;
+        }
+    }
+
+    public String getResult() {
+        return result;
+    }
+
+    public List<Map<String, Serializable>> getBranchesContext() {
+        return branchesContext;
+    }
+
+    public Long getAddBranchesStepId() {
+        return addBranchesStepId;
+    }
+}
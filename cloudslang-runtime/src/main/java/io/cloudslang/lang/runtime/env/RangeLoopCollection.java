@@ -0,0 +1,57 @@
+/*******************************************************************************
+ * (c) Copyright 2016 Hewlett-Packard Development Company, L.P.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Apache License v2.0 which accompany this distribution.
+ *
+ * The Apache License is available at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *******************************************************************************/
+package io.cloudslang.lang.runtime.env;
+
+import io.cloudslang.lang.entities.bindings.values.Value;
+import io.cloudslang.lang.entities.bindings.values.ValueFactory;
+import java.io.Serializable;
+import java.util.AbstractList;
+import java.util.RandomAccess;
+import org.python.core.Py;
+import org.python.core.PyObject;
+import org.python.core.PyXRange;
+
+/**
+ * The items of a python {@code xrange}, computed by index instead of being stored in the run environment.
+ * Items are python ints, the same objects iterating the xrange yields.
+ */
+public class RangeLoopCollection extends AbstractList<Value> implements RandomAccess, Serializable {
+
+    private final long start;
+    private final long step;
+    private final int size;
+
+    public RangeLoopCollection(long start, long step, int size) {
+        this.start = start;
+        this.step = step;
+        this.size = size;
+    }
+
+    public static RangeLoopCollection of(PyXRange range) {
+        int size = range.__len__();
+        long start = size > 0 ? range.__finditem__(0).asLong() : 0;
+        long step = size > 1 ? range.__finditem__(1).asLong() - start : 1;
+        return new RangeLoopCollection(start, step, size);
+    }
+
+    @Override
+    public Value get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+        PyObject item = Py.newInteger(start + index * step);
+        return ValueFactory.create(item);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+}
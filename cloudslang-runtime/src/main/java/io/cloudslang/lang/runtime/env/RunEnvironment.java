@@ -23,6 +23,7 @@ import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import org.apache.commons.lang3.SerializationUtils;
 import org.apache.commons.lang3.Validate;
 
 /**
@@ -120,6 +121,22 @@ public class RunEnvironment implements Serializable {
         return serializableDataMap;
     }
 
+    /**
+     * Creates the run environment of a parallel loop branch, with empty stacks.
+     * The system properties are shared with this environment, the rest of the state is copied.
+     *
+     * @return the branch run environment
+     */
+    public RunEnvironment createBranchEnvironment() {
+        RunEnvironment branchEnvironment = new RunEnvironment(systemProperties);
+        branchEnvironment.callArguments = SerializationUtils.clone(new HashMap<>(callArguments));
+        branchEnvironment.returnValues = SerializationUtils.clone(returnValues);
+        branchEnvironment.nextStepPosition = nextStepPosition;
+        branchEnvironment.executionPath = SerializationUtils.clone(executionPath);
+        branchEnvironment.serializableDataMap = SerializationUtils.clone(new HashMap<>(serializableDataMap));
+        return branchEnvironment;
+    }
+
     public void resetStacks() {
         contextStack = new ContextStack();
         parentFlowStack = new ParentFlowStack();
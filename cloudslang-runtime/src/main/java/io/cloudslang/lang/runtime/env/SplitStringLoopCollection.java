@@ -0,0 +1,99 @@
+/*******************************************************************************
+ * (c) Copyright 2016 Hewlett-Packard Development Company, L.P.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Apache License v2.0 which accompany this distribution.
+ *
+ * The Apache License is available at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *******************************************************************************/
+package io.cloudslang.lang.runtime.env;
+
+import io.cloudslang.lang.entities.bindings.values.Value;
+import io.cloudslang.lang.entities.bindings.values.ValueFactory;
+import java.io.Serializable;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import org.apache.commons.lang3.builder.EqualsBuilder;
+import org.apache.commons.lang3.builder.HashCodeBuilder;
+
+/**
+ * The items of a comma separated string, split on demand while the loop advances.
+ * <p>
+ * Yields the same items as {@code content.split(",")} - trailing empty items are dropped - without holding
+ * all of them in the run environment.
+ */
+public class SplitStringLoopCollection implements Iterable<Value>, Serializable {
+
+    private static final char SEPARATOR = ',';
+
+    private final String content;
+
+    public SplitStringLoopCollection(String content) {
+        this.content = content;
+    }
+
+    @Override
+    public Iterator<Value> iterator() {
+        return new SplitIterator();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+
+        SplitStringLoopCollection that = (SplitStringLoopCollection) o;
+
+        return new EqualsBuilder()
+                .append(this.content, that.content)
+                .isEquals();
+    }
+
+    @Override
+    public int hashCode() {
+        return new HashCodeBuilder()
+                .append(content)
+                .toHashCode();
+    }
+
+    private class SplitIterator implements Iterator<Value> {
+        private final int limit;
+        private int position = 0;
+
+        SplitIterator() {
+            int end = content.length();
+            while (end > 0 && content.charAt(end - 1) == SEPARATOR) {
+                end--;
+            }
+            // an empty string is a single empty item, a string of separators only has no items
+            limit = content.isEmpty() || end > 0 ? end : -1;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return position <= limit;
+        }
+
+        @Override
+        public Value next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            int separatorIndex = content.indexOf(SEPARATOR, position);
+            int itemEnd = separatorIndex < 0 || separatorIndex > limit ? limit : separatorIndex;
+            String item = content.substring(position, itemEnd);
+            position = itemEnd + 1;
+            return ValueFactory.create(item);
+        }
+
+        @Override
+        public void remove() {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
@@ -20,6 +20,8 @@ import io.cloudslang.lang.entities.utils.MapUtils;
 import io.cloudslang.lang.runtime.bindings.InputsBinding;
 import io.cloudslang.lang.runtime.bindings.OutputsBinding;
 import io.cloudslang.lang.runtime.bindings.ResultsBinding;
+import io.cloudslang.lang.runtime.bindings.scripts.ExpressionBinding;
+import io.cloudslang.lang.runtime.bindings.scripts.ScriptEvaluator;
 import io.cloudslang.lang.runtime.env.Context;
 import io.cloudslang.lang.runtime.env.ParentFlowData;
 import io.cloudslang.lang.runtime.env.ReturnValues;
@@ -28,6 +30,7 @@ import io.cloudslang.lang.runtime.events.LanguageEventData;
 import io.cloudslang.score.lang.ExecutionRuntimeServices;
 
 import java.io.Serializable;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
@@ -59,6 +62,9 @@ public class ExecutableExecutionData extends AbstractExecutionData {
     @Autowired
     private OutputsBinding outputsBinding;
 
+    @Autowired
+    private ScriptEvaluator scriptEvaluator;
+
     private static final Logger logger = Logger.getLogger(ExecutableExecutionData.class);
 
     public void startExecutable(@Param(ScoreLangConstants.EXECUTABLE_INPUTS_KEY) List<Input> executableInputs,
@@ -157,23 +163,21 @@ public class ExecutableExecutionData extends AbstractExecutionData {
                         actionReturnValues)
             );
 
-            // Resolving the result of the operation/flow
-            String result = resultsBinding.resolveResult(
-                operationVariables,
-                actionReturnValues.getOutputs(),
-                runEnv.getSystemProperties(),
-                executableResults,
-                actionReturnValues.getResult()
-            );
-
+            // the results and the outputs are evaluated against the same context, in one evaluation
             Map<String, Value> outputsBindingContext =
                 MapUtils.mergeMaps(operationVariables, actionReturnValues.getOutputs());
-            Map<String, Value> operationReturnOutputs =
-                outputsBinding.bindOutputs(
-                    outputsBindingContext,
-                    runEnv.getSystemProperties(),
-                    executableOutputs
-                );
+
+            // Resolving the result of the operation/flow
+            ResultsBinding.ResultBindings resultBindings =
+                resultsBinding.createResultBindings(executableResults, actionReturnValues.getResult());
+            OutputsBinding.OutputBindings outputBindings =
+                outputsBinding.createOutputBindings(outputsBindingContext, executableOutputs);
+            List<ExpressionBinding> bindings = new ArrayList<>(resultBindings.getBindings());
+            bindings.addAll(outputBindings.getBindings());
+            scriptEvaluator.evalExprs(bindings, outputsBindingContext, runEnv.getSystemProperties());
+
+            String result = resultBindings.getResult();
+            Map<String, Value> operationReturnOutputs = outputBindings.getOutputs();
 
             ReturnValues returnValues = new ReturnValues(operationReturnOutputs, result);
             runEnv.putReturnValues(returnValues);
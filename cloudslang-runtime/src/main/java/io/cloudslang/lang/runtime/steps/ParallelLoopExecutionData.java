@@ -22,6 +22,7 @@ import io.cloudslang.lang.runtime.RuntimeConstants;
 import io.cloudslang.lang.runtime.bindings.OutputsBinding;
 import io.cloudslang.lang.runtime.bindings.ParallelLoopBinding;
 import io.cloudslang.lang.runtime.env.Context;
+import io.cloudslang.lang.runtime.env.PendingBranches;
 import io.cloudslang.lang.runtime.env.ReturnValues;
 import io.cloudslang.lang.runtime.env.RunEnvironment;
 import io.cloudslang.lang.runtime.events.LanguageEventData;
@@ -30,7 +31,6 @@ import io.cloudslang.score.api.execution.ExecutionParametersConsts;
 import io.cloudslang.score.lang.ExecutionRuntimeServices;
 import io.cloudslang.score.lang.SystemContext;
 import org.apache.commons.collections4.MapUtils;
-import org.apache.commons.lang.SerializationUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.tuple.ImmutablePair;
 import org.apache.commons.lang3.tuple.Pair;
@@ -43,8 +43,11 @@ import java.io.Serializable;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
+import java.util.ListIterator;
 import java.util.Map;
+import java.util.Set;
 
+import static io.cloudslang.lang.entities.properties.SlangSystemPropertyConstant.CSLANG_RUNTIME_PARALLEL_LOOP_MAX_BRANCHES;
 import static io.cloudslang.score.api.execution.ExecutionParametersConsts.EXECUTION_RUNTIME_SERVICES;
 
 /**
@@ -65,6 +68,8 @@ public class ParallelLoopExecutionData extends AbstractExecutionData {
 
     private static final Logger logger = Logger.getLogger(ParallelLoopExecutionData.class);
 
+    private int defaultMaxBranches = Integer.getInteger(CSLANG_RUNTIME_PARALLEL_LOOP_MAX_BRANCHES.getValue(), 0);
+
     public void addBranches(@Param(ScoreLangConstants.PARALLEL_LOOP_STATEMENT_KEY) LoopStatement parallelLoopStatement,
                             @Param(ScoreLangConstants.RUN_ENV) RunEnvironment runEnv,
                             @Param(EXECUTION_RUNTIME_SERVICES) ExecutionRuntimeServices executionRuntimeServices,
@@ -76,29 +81,51 @@ public class ParallelLoopExecutionData extends AbstractExecutionData {
 
                             @Param(ScoreLangConstants.NEXT_STEP_ID_KEY) Long nextStepId,
                             @Param(ScoreLangConstants.BRANCH_BEGIN_STEP_ID_KEY) Long branchBeginStep,
-                            @Param(ScoreLangConstants.REF_ID) String refId) {
+                            @Param(ScoreLangConstants.REF_ID) String refId,
+                            @Param(ScoreLangConstants.MAX_BRANCHES_KEY) Integer maxBranches,
+                            @Param(ScoreLangConstants.ADD_BRANCHES_STEP_ID_KEY) Long addBranchesStepId) {
 
         try {
             Context flowContext = runEnv.getStack().popContext();
+            // removed before the branch contexts are created from the flow context
+            Value pendingBranchesValue = flowContext.removeLanguageVariable(RuntimeConstants.PENDING_BRANCHES_KEY);
 
-            List<Value> splitData = parallelLoopBinding
-                .bindParallelLoopList(parallelLoopStatement, flowContext, runEnv.getSystemProperties(), nodeName);
+            PendingBranches pendingBranches;
+            List<Value> branchesData;
+            if (pendingBranchesValue == null) {
+                List<Value> splitData = parallelLoopBinding
+                    .bindParallelLoopList(parallelLoopStatement, flowContext, runEnv.getSystemProperties(), nodeName);
 
-            fireEvent(
-                executionRuntimeServices,
-                ScoreLangConstants.EVENT_SPLIT_BRANCHES,
-                "parallel loop expression bound",
-                runEnv.getExecutionPath().getCurrentPath(),
-                LanguageEventData.StepType.STEP,
-                nodeName,
-                flowContext.getImmutableViewOfVariables(),
-                Pair.of(LanguageEventData.BOUND_PARALLEL_LOOP_EXPRESSION, (Serializable) splitData));
+                fireEvent(
+                    executionRuntimeServices,
+                    ScoreLangConstants.EVENT_SPLIT_BRANCHES,
+                    "parallel loop expression bound",
+                    runEnv.getExecutionPath().getCurrentPath(),
+                    LanguageEventData.StepType.STEP,
+                    nodeName,
+                    flowContext.getImmutableViewOfVariables(),
+                    Pair.of(LanguageEventData.BOUND_PARALLEL_LOOP_EXPRESSION, (Serializable) splitData));
+
+                runEnv.getExecutionPath().down();
+
+                int branchesLimit = getBranchesLimit(maxBranches, addBranchesStepId);
+                if (splitData.size() > branchesLimit) {
+                    pendingBranches = new PendingBranches(splitData, branchesLimit, addBranchesStepId);
+                    branchesData = pendingBranches.nextWave();
+                } else {
+                    pendingBranches = null;
+                    branchesData = splitData;
+                }
+            } else {
+                // next wave of a throttled parallel loop - the path is already one level down
+                pendingBranches = (PendingBranches) pendingBranchesValue.get();
+                branchesData = pendingBranches.nextWave();
+            }
 
             runEnv.putNextStepPosition(nextStepId);
-            runEnv.getExecutionPath().down();
 
-            for (Value splitItem : splitData) {
-                Context branchContext = (Context) SerializationUtils.clone(flowContext);
+            for (Value splitItem : branchesData) {
+                Context branchContext = flowContext.createBranchContext();
 
                 // first fire event
                 fireEvent(
@@ -114,8 +141,7 @@ public class ParallelLoopExecutionData extends AbstractExecutionData {
                 // take path down one level
                 runEnv.getExecutionPath().down();
 
-                RunEnvironment branchRuntimeEnvironment = (RunEnvironment) SerializationUtils.clone(runEnv);
-                branchRuntimeEnvironment.resetStacks();
+                RunEnvironment branchRuntimeEnvironment = runEnv.createBranchEnvironment();
 
                 if (parallelLoopStatement instanceof ListLoopStatement) {
                     branchContext.putVariable(((ListLoopStatement) parallelLoopStatement).getVarName(), splitItem);
@@ -141,6 +167,10 @@ public class ParallelLoopExecutionData extends AbstractExecutionData {
                 runEnv.getExecutionPath().forward();
             }
 
+            if (pendingBranches != null) {
+                flowContext.putLanguageVariable(RuntimeConstants.PENDING_BRANCHES_KEY,
+                    ValueFactory.create(pendingBranches));
+            }
             updateCallArgumentsAndPushContextToStack(runEnv, flowContext, new HashMap<String, Value>());
         } catch (RuntimeException e) {
             logger.error("There was an error running the add branches execution step of: \'" + nodeName +
@@ -157,11 +187,33 @@ public class ParallelLoopExecutionData extends AbstractExecutionData {
                                  Map<String, ResultNavigation> stepNavigationValues,
                              @Param(ScoreLangConstants.NODE_NAME_KEY) String nodeName) {
         try {
-            runEnv.getExecutionPath().up();
-            List<Map<String, Serializable>> branchesContext = Lists.newArrayList();
             Context flowContext = runEnv.getStack().popContext();
+            boolean keepBranchContexts = isBranchesContextPublished(stepPublishValues);
+            Value pendingBranchesValue = flowContext.removeLanguageVariable(RuntimeConstants.PENDING_BRANCHES_KEY);
+
+            List<Map<String, Serializable>> branchesContext;
+            String parallelLoopResult;
+            if (pendingBranchesValue == null) {
+                branchesContext = Lists.newArrayList();
+                parallelLoopResult = collectBranchesData(executionRuntimeServices, nodeName, branchesContext,
+                    keepBranchContexts);
+            } else {
+                PendingBranches pendingBranches = (PendingBranches) pendingBranchesValue.get();
+                pendingBranches.addResult(collectBranchesData(executionRuntimeServices, nodeName,
+                    pendingBranches.getBranchesContext(), keepBranchContexts));
+                if (pendingBranches.hasMore()) {
+                    // start the next wave, the step is joined once all of the waves are done
+                    flowContext.putLanguageVariable(RuntimeConstants.PENDING_BRANCHES_KEY,
+                        ValueFactory.create(pendingBranches));
+                    runEnv.getStack().pushContext(flowContext);
+                    runEnv.putNextStepPosition(pendingBranches.getAddBranchesStepId());
+                    return;
+                }
+                branchesContext = pendingBranches.getBranchesContext();
+                parallelLoopResult = pendingBranches.getResult();
+            }
 
-            collectBranchesData(executionRuntimeServices, nodeName, branchesContext);
+            runEnv.getExecutionPath().up();
             Map<String, Value> outputBindingContext = new HashMap<>();
             outputBindingContext.put(
                 RuntimeConstants.BRANCHES_CONTEXT_KEY,
@@ -180,8 +232,6 @@ public class ParallelLoopExecutionData extends AbstractExecutionData {
 
             flowContext.putVariables(publishValues);
 
-            String parallelLoopResult = getParallelLoopResult(branchesContext);
-
             handleNavigationAndReturnValues(
                 runEnv,
                 executionRuntimeServices,
@@ -237,19 +287,6 @@ public class ParallelLoopExecutionData extends AbstractExecutionData {
         runEnv.putNextStepPosition(nextStepPosition);
     }
 
-    private String getParallelLoopResult(List<Map<String, Serializable>> branchesContext) {
-        // if one of the branches failed then return with FAILURE, otherwise return with SUCCESS
-        String parallelLoopResult = ScoreLangConstants.SUCCESS_RESULT;
-        for (Map<String, Serializable> branchContext : branchesContext) {
-            String branchResult = (String) branchContext.get(ScoreLangConstants.BRANCH_RESULT_KEY);
-            if (branchResult.equals(ScoreLangConstants.FAILURE_RESULT)) {
-                parallelLoopResult = ScoreLangConstants.FAILURE_RESULT;
-                break;
-            }
-        }
-        return parallelLoopResult;
-    }
-
     private Map<String, Value> bindPublishValues(
         RunEnvironment runEnv,
         ExecutionRuntimeServices executionRuntimeServices,
@@ -278,24 +315,41 @@ public class ParallelLoopExecutionData extends AbstractExecutionData {
         );
     }
 
-    private void collectBranchesData(
+    /**
+     * Folds the finished branches one by one into the branches context and the parallel loop result,
+     * releasing the data of each branch once it is folded.
+     *
+     * @param keepBranchContexts false if the publish section does not read the branches context -
+     *                           only the branch results are kept then
+     * @return the parallel loop result - FAILURE if one of the branches failed, otherwise SUCCESS
+     */
+    private String collectBranchesData(
         ExecutionRuntimeServices executionRuntimeServices,
         String nodeName,
-        List<Map<String, Serializable>> branchesContext) {
+        List<Map<String, Serializable>> branchesContext,
+        boolean keepBranchContexts) {
 
+        String parallelLoopResult = ScoreLangConstants.SUCCESS_RESULT;
+        // the list is removed from the system context, so it is ours to release
         List<EndBranchDataContainer> branches = executionRuntimeServices.getFinishedChildBranchesData();
-        for (EndBranchDataContainer branch : branches) {
+        for (ListIterator<EndBranchDataContainer> iterator = branches.listIterator(); iterator.hasNext(); ) {
+            EndBranchDataContainer branch = iterator.next();
+            iterator.set(null);
             checkExceptionInBranch(branch);
 
             Map<String, Serializable> branchContext = branch.getContexts();
             RunEnvironment branchRuntimeEnvironment = (RunEnvironment) branchContext.get(ScoreLangConstants.RUN_ENV);
             Map<String, Value> initialBranchContext =
                 branchRuntimeEnvironment.getStack().popContext().getImmutableViewOfVariables();
-            Map<String, Serializable> branchContextMap = convert(initialBranchContext);
+            Map<String, Serializable> branchContextMap = keepBranchContexts ?
+                convert(initialBranchContext) : new HashMap<String, Serializable>();
             ReturnValues executableReturnValues = branchRuntimeEnvironment.removeReturnValues();
             String branchResult = executableReturnValues.getResult();
             branchContextMap.put(ScoreLangConstants.BRANCH_RESULT_KEY, branchResult);
             branchesContext.add(branchContextMap);
+            if (ScoreLangConstants.FAILURE_RESULT.equals(branchResult)) {
+                parallelLoopResult = ScoreLangConstants.FAILURE_RESULT;
+            }
 
             // up branch path
             branchRuntimeEnvironment.getExecutionPath().up();
@@ -311,6 +365,39 @@ public class ParallelLoopExecutionData extends AbstractExecutionData {
                 Pair.of(RuntimeConstants.BRANCH_RETURN_VALUES_KEY, executableReturnValues)
             );
         }
+        return parallelLoopResult;
+    }
+
+    /**
+     * @return the maximum number of branches to run at the same time - the limit declared by the step, otherwise
+     *     the limit from the system property. Plans compiled without the add branches step id can not be throttled.
+     */
+    private int getBranchesLimit(Integer maxBranches, Long addBranchesStepId) {
+        if (addBranchesStepId == null) {
+            return Integer.MAX_VALUE;
+        }
+        if (maxBranches != null) {
+            return maxBranches;
+        }
+        return defaultMaxBranches > 0 ? defaultMaxBranches : Integer.MAX_VALUE;
+    }
+
+    void setDefaultMaxBranches(int defaultMaxBranches) {
+        this.defaultMaxBranches = defaultMaxBranches;
+    }
+
+    private boolean isBranchesContextPublished(List<Output> stepPublishValues) {
+        if (stepPublishValues != null) {
+            for (Output output : stepPublishValues) {
+                // unknown dependencies may read anything
+                Set<String> variableDependencies = output.getVariableDependencies();
+                if (variableDependencies == null ||
+                    variableDependencies.contains(RuntimeConstants.BRANCHES_CONTEXT_KEY)) {
+                    return true;
+                }
+            }
+        }
+        return false;
     }
 
     private void checkExceptionInBranch(EndBranchDataContainer branch) {
@@ -18,6 +18,7 @@ import io.cloudslang.lang.entities.SystemProperty;
 import io.cloudslang.lang.entities.bindings.Argument;
 import io.cloudslang.lang.entities.bindings.values.Value;
 import io.cloudslang.lang.entities.bindings.values.ValueFactory;
+import io.cloudslang.lang.runtime.bindings.scripts.ExpressionCache;
 import io.cloudslang.lang.runtime.bindings.scripts.ScriptEvaluator;
 import io.cloudslang.runtime.api.python.PythonRuntimeService;
 import io.cloudslang.runtime.impl.python.PythonExecutionCachedEngine;
@@ -356,6 +357,11 @@ public class ArgumentsBindingTest {
             return new ScriptEvaluator();
         }
 
+        @Bean
+        public ExpressionCache expressionCache() {
+            return new ExpressionCache();
+        }
+
         @Bean
         public DependencyService mavenRepositoryService() {
             return new DependencyServiceImpl();
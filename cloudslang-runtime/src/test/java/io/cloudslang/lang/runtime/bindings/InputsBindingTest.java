@@ -17,6 +17,7 @@ import io.cloudslang.lang.entities.SystemProperty;
 import io.cloudslang.lang.entities.bindings.Input;
 import io.cloudslang.lang.entities.bindings.values.Value;
 import io.cloudslang.lang.entities.bindings.values.ValueFactory;
+import io.cloudslang.lang.runtime.bindings.scripts.ExpressionCache;
 import io.cloudslang.lang.runtime.bindings.scripts.ScriptEvaluator;
 import io.cloudslang.runtime.api.python.PythonRuntimeService;
 import io.cloudslang.runtime.impl.python.PythonExecutionCachedEngine;
@@ -412,6 +413,53 @@ public class InputsBindingTest {
         Assert.assertTrue("orig context should not change", context.isEmpty());
     }
 
+    @Test
+    public void testBoundInputOverridesContextForNextInputs() {
+        Map<String, Value> context = new HashMap<>();
+        context.put("input1", ValueFactory.create("from_context"));
+
+        Input input1 = new Input.InputBuilder("input1", "5").withPrivateInput(true).build();
+        Input input2 = new Input.InputBuilder("input2", "${ input1 }").build();
+        Input input3 = new Input.InputBuilder("input3", "${ input1 + input2 }").build();
+        List<Input> inputs = Arrays.asList(input1, input2, input3);
+
+        Map<String, Value> result = bindInputs(inputs, context);
+        Assert.assertEquals("5", result.get("input1").get());
+        Assert.assertEquals("5", result.get("input2").get());
+        Assert.assertEquals("55", result.get("input3").get());
+        Assert.assertEquals(3, result.size());
+
+        Assert.assertEquals("orig context should not change", 1, context.size());
+        Assert.assertEquals("from_context", context.get("input1").get());
+    }
+
+    @Test
+    public void testBooleanExpressionInput() {
+        Map<String, Value> context = new HashMap<>();
+        context.put("input1", ValueFactory.create("a"));
+
+        Input input2 = new Input.InputBuilder("input2", "${ str(input1 == 'a') }").build();
+        Input input3 = new Input.InputBuilder("input3", "${ str(input2 == 'True' and input1 != 'b') }").build();
+        List<Input> inputs = Arrays.asList(input2, input3);
+
+        Map<String, Value> result = bindInputs(inputs, context);
+        Assert.assertEquals("True", result.get("input2").get());
+        Assert.assertEquals("True", result.get("input3").get());
+    }
+
+    @Test
+    public void testUnwrappedBooleanExpressionInput() {
+        Map<String, Value> context = new HashMap<>();
+        context.put("input1", ValueFactory.create("a"));
+
+        Input input2 = new Input.InputBuilder("input2", "${ input1 == 'a' }").build();
+
+        exception.expect(RuntimeException.class);
+        exception.expectMessage("Error binding input: 'input2' should have a String value, " +
+                "but got value 'true' of type Boolean.");
+        bindInputs(Collections.singletonList(input2), context);
+    }
+
     @Test
     public void testComplexExpressionInput() {
         Map<String, Value> context = new HashMap<>();
@@ -449,6 +497,42 @@ public class InputsBindingTest {
         Assert.assertEquals("orig context should not change", 1, context.size());
     }
 
+    @Test
+    public void testRequiredInputBeforeFailingExpression() {
+        Map<String, Value> context = new HashMap<>();
+        context.put("varX", ValueFactory.create(" "));
+
+        Input input1 = new Input.InputBuilder("input1", "${ varX.strip() }").build();
+        Input input2 = new Input.InputBuilder("input2", "${ missing.upper() }").build();
+
+        exception.expect(RuntimeException.class);
+        exception.expectMessage("Input with name: 'input1' is Required, but value is empty");
+        bindInputs(Arrays.asList(input1, input2), context);
+    }
+
+    @Test
+    public void testFailingExpressionSameAsAlone() {
+        Map<String, Value> context = new HashMap<>();
+        context.put("varX", ValueFactory.create("roles"));
+
+        Input input2 = new Input.InputBuilder("input2", "${ input1.missing() }").build();
+        String expectedMessage = null;
+        Map<String, Value> aloneContext = new HashMap<>(context);
+        aloneContext.put("input1", ValueFactory.create("ROLES"));
+        try {
+            bindInputs(Collections.singletonList(input2), aloneContext);
+        } catch (RuntimeException ex) {
+            expectedMessage = ex.getMessage();
+        }
+        Assert.assertNotNull(expectedMessage);
+
+        Input input1 = new Input.InputBuilder("input1", "${ varX.upper() }").build();
+        Input input3 = new Input.InputBuilder("input3", "${ varX.lower() }").build();
+        exception.expect(RuntimeException.class);
+        exception.expectMessage(expectedMessage);
+        bindInputs(Arrays.asList(input1, input2, input3), context);
+    }
+
     private Map<String, Value> bindInputs(List<Input> inputs, Map<String, Value> context,
                                           Set<SystemProperty> systemProperties) {
         return inputsBinding.bindInputs(inputs, context, systemProperties);
@@ -475,6 +559,11 @@ public class InputsBindingTest {
             return new ScriptEvaluator();
         }
 
+        @Bean
+        public ExpressionCache expressionCache() {
+            return new ExpressionCache();
+        }
+
         @Bean
         public DependencyService mavenRepositoryService() {
             return new DependencyServiceImpl();
@@ -76,7 +76,8 @@ public class LoopsBindingTest {
                 anyString(),
                 anyMapOf(String.class, Value.class),
                 anySetOf(SystemProperty.class),
-                anySetOf(ScriptFunction.class))
+                anySetOf(ScriptFunction.class),
+                anySetOf(String.class))
         ).thenReturn(ValueFactory.create(result));
         Value loopCondition = ValueFactory.create(new ForLoopCondition(result));
         when(context.getLanguageVariable(LoopCondition.LOOP_CONDITION_KEY)).thenReturn(null);
@@ -90,7 +91,7 @@ public class LoopsBindingTest {
     public void whenExpressionIsEmptyThrowsException() throws Exception {
         Context context = mock(Context.class);
         when(scriptEvaluator.evalExpr(anyString(), anyMapOf(String.class, Value.class),
-                eq(EMPTY_SET), eq(EMPTY_FUNCTION_SET)))
+                eq(EMPTY_SET), eq(EMPTY_FUNCTION_SET), anySetOf(String.class)))
                 .thenReturn(ValueFactory.create(Lists.newArrayList()));
         Map<String, Value> langVars = Collections.emptyMap();
         when(context.getImmutableViewOfLanguageVariables()).thenReturn(langVars);
@@ -116,12 +117,25 @@ public class LoopsBindingTest {
         loopsBinding.getOrCreateLoopCondition(createBasicForStatement(), mock(Context.class), EMPTY_SET, null);
     }
 
+    @Test
+    public void commaSeparatedStringIsSplitWhileLooping() throws Exception {
+        when(scriptEvaluator.evalExpr(anyString(), anyMapOf(String.class, Value.class),
+                eq(EMPTY_SET), eq(EMPTY_FUNCTION_SET), anySetOf(String.class)))
+                .thenReturn(ValueFactory.create("a,b,"));
+        Context context = new Context(new HashMap<String, Value>());
+        LoopCondition loopCondition =
+                loopsBinding.getOrCreateLoopCondition(createBasicForStatement(), context, EMPTY_SET, "node");
+        Assert.assertEquals("a", loopCondition.next().get());
+        Assert.assertEquals("b", loopCondition.next().get());
+        Assert.assertFalse(loopCondition.hasMore());
+    }
+
     @Test
     public void whenValueIsThereItWillBeReturned() throws Exception {
         Context context = mock(Context.class);
         ArrayList<Value> result = Lists.newArrayList(ValueFactory.create(1));
         when(scriptEvaluator.evalExpr(anyString(), anyMapOf(String.class, Value.class),
-                eq(EMPTY_SET), eq(EMPTY_FUNCTION_SET)))
+                eq(EMPTY_SET), eq(EMPTY_FUNCTION_SET), anySetOf(String.class)))
                 .thenReturn(ValueFactory.create(result));
         Map<String, Value> langVars = new HashMap<>();
         ForLoopCondition forLoopCondition = new ForLoopCondition(result);
@@ -18,6 +18,7 @@ import io.cloudslang.lang.entities.bindings.Output;
 import io.cloudslang.lang.entities.bindings.values.Value;
 import io.cloudslang.lang.entities.bindings.values.ValueFactory;
 import io.cloudslang.lang.entities.utils.MapUtils;
+import io.cloudslang.lang.runtime.bindings.scripts.ExpressionCache;
 import io.cloudslang.lang.runtime.bindings.scripts.ScriptEvaluator;
 import io.cloudslang.runtime.api.python.PythonRuntimeService;
 import io.cloudslang.runtime.impl.python.PythonExecutionCachedEngine;
@@ -229,6 +230,11 @@ public class OutputsBindingTest {
             return new ScriptEvaluator();
         }
 
+        @Bean
+        public ExpressionCache expressionCache() {
+            return new ExpressionCache();
+        }
+
         @Bean
         public DependencyService mavenRepositoryService() {
             return new DependencyServiceImpl();
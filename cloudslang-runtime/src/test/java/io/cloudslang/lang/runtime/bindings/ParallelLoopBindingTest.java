@@ -34,6 +34,7 @@ import org.mockito.runners.MockitoJUnitRunner;
 import org.python.google.common.collect.Lists;
 
 import static org.junit.Assert.assertEquals;
+import static org.mockito.Matchers.anySetOf;
 import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -86,13 +87,15 @@ public class ParallelLoopBindingTest {
         final Context context = new Context(variables);
         List<Value> expectedList = newArrayList(ValueFactory.create(1), ValueFactory.create(2), ValueFactory.create(3));
 
-        when(scriptEvaluator.evalExpr(eq("expression"), eq(variables), eq(EMPTY_SET), eq(EMPTY_FUNCTION_SET)))
+        when(scriptEvaluator.evalExpr(eq("expression"), eq(variables), eq(EMPTY_SET), eq(EMPTY_FUNCTION_SET),
+                anySetOf(String.class)))
                 .thenReturn(ValueFactory.create((Serializable) expectedList));
 
         List<Value> actualList = parallelLoopBinding
                 .bindParallelLoopList(createBasicSyncLoopStatement(), context, EMPTY_SET, "nodeName");
 
-        verify(scriptEvaluator).evalExpr(eq("expression"), eq(variables), eq(EMPTY_SET), eq(EMPTY_FUNCTION_SET));
+        verify(scriptEvaluator).evalExpr(eq("expression"), eq(variables), eq(EMPTY_SET), eq(EMPTY_FUNCTION_SET),
+                anySetOf(String.class));
         assertEquals("returned parallel loop list not as expected", expectedList, actualList);
     }
 
@@ -103,7 +106,8 @@ public class ParallelLoopBindingTest {
         variables.put("key2", ValueFactory.create("value2"));
         final Context context = new Context(variables);
 
-        when(scriptEvaluator.evalExpr(eq("expression"), eq(variables), eq(EMPTY_SET), eq(EMPTY_FUNCTION_SET)))
+        when(scriptEvaluator.evalExpr(eq("expression"), eq(variables), eq(EMPTY_SET), eq(EMPTY_FUNCTION_SET),
+                anySetOf(String.class)))
                 .thenReturn(ValueFactory.create(newArrayList()));
 
         exception.expectMessage("expression is empty");
@@ -116,7 +120,8 @@ public class ParallelLoopBindingTest {
     public void testExceptionIsPropagated() throws Exception {
         Map<String, Value> variables = new HashMap<>();
 
-        when(scriptEvaluator.evalExpr(eq("expression"), eq(variables), eq(EMPTY_SET), eq(EMPTY_FUNCTION_SET)))
+        when(scriptEvaluator.evalExpr(eq("expression"), eq(variables), eq(EMPTY_SET), eq(EMPTY_FUNCTION_SET),
+                anySetOf(String.class)))
                 .thenThrow(new RuntimeException("evaluation exception"));
         exception.expectMessage("evaluation exception");
         exception.expectMessage("nodeName");
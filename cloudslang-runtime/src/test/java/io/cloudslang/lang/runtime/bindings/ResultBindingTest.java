@@ -16,9 +16,12 @@ import io.cloudslang.dependency.impl.services.DependencyServiceImpl;
 import io.cloudslang.dependency.impl.services.MavenConfigImpl;
 import io.cloudslang.lang.entities.ScoreLangConstants;
 import io.cloudslang.lang.entities.SystemProperty;
+import io.cloudslang.lang.entities.bindings.Output;
 import io.cloudslang.lang.entities.bindings.Result;
 import io.cloudslang.lang.entities.bindings.values.Value;
 import io.cloudslang.lang.entities.bindings.values.ValueFactory;
+import io.cloudslang.lang.runtime.bindings.scripts.ExpressionBinding;
+import io.cloudslang.lang.runtime.bindings.scripts.ExpressionCache;
 import io.cloudslang.lang.runtime.bindings.scripts.ScriptEvaluator;
 import io.cloudslang.runtime.api.python.PythonRuntimeService;
 import io.cloudslang.runtime.impl.python.PythonExecutionCachedEngine;
@@ -35,9 +38,11 @@ import org.springframework.context.annotation.Configuration;
 import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 import static java.util.Arrays.asList;
@@ -57,6 +62,12 @@ public class ResultBindingTest {
     @Autowired
     private ResultsBinding resultsBinding;
 
+    @Autowired
+    private OutputsBinding outputsBinding;
+
+    @Autowired
+    private ScriptEvaluator scriptEvaluator;
+
     @Test
     public void testPrimitiveBooleanFirstResult() throws Exception {
         List<Result> results = asList(
@@ -119,6 +130,17 @@ public class ResultBindingTest {
         Assert.assertEquals(ScoreLangConstants.FAILURE_RESULT, result);
     }
 
+    @Test
+    public void testMergedContextStopsAtFirstTrueResult() throws Exception {
+        List<Result> results = asList(
+                createResult(ScoreLangConstants.SUCCESS_RESULT, ValueFactory.create("${ int(status) == 1 }")),
+                createResult(ScoreLangConstants.FAILURE_RESULT, ValueFactory.create("${ str(status) }")));
+        HashMap<String, Value> scriptContext = new HashMap<>();
+        scriptContext.put("status", ValueFactory.create("1"));
+        String result = resultsBinding.resolveResult(scriptContext, EMPTY_SET, results, null);
+        Assert.assertEquals(ScoreLangConstants.SUCCESS_RESULT, result);
+    }
+
     @Test(expected = RuntimeException.class)
     public void testIllegalResultExpressionThrowsException() throws Exception {
         List<Result> results = asList(
@@ -187,6 +209,70 @@ public class ResultBindingTest {
         resultsBinding.resolveResult(new HashMap<String, Value>(), context, EMPTY_SET, results, null);
     }
 
+    @Test
+    public void testResultsAfterResolvedResultNotEvaluated() throws Exception {
+        List<Result> results = asList(
+                createResult(ScoreLangConstants.SUCCESS_RESULT, ValueFactory.create("${ status.startswith('0') }")),
+                createResult(ScoreLangConstants.FAILURE_RESULT, ValueFactory.create("${ missing.startswith('1') }")),
+                createResult("CUSTOM", ValueFactory.create("not an expression")));
+        HashMap<String, Value> context = new HashMap<>();
+        context.put("status", ValueFactory.create("0"));
+        String result = resultsBinding.resolveResult(new HashMap<String, Value>(), context, EMPTY_SET, results, null);
+        Assert.assertEquals(ScoreLangConstants.SUCCESS_RESULT, result);
+    }
+
+    @Test
+    public void testResultsAndOutputsEvaluatedTogether() throws Exception {
+        List<Result> results = asList(
+                createResult(ScoreLangConstants.FAILURE_RESULT, ValueFactory.create("${ status.startswith('1') }")),
+                createResult(ScoreLangConstants.SUCCESS_RESULT, ValueFactory.create("${ status.startswith('0') }")));
+        List<Output> outputs = asList(
+                new Output("output1", ValueFactory.create("${ status.upper() }")),
+                new Output("output2", ValueFactory.create("${ output1 + status.lower() }")));
+        Map<String, Value> context = new HashMap<>();
+        context.put("status", ValueFactory.create("0a"));
+
+        ResultsBinding.ResultBindings resultBindings = resultsBinding.createResultBindings(results, null);
+        OutputsBinding.OutputBindings outputBindings = outputsBinding.createOutputBindings(context, outputs);
+        List<ExpressionBinding> bindings = new ArrayList<>(resultBindings.getBindings());
+        bindings.addAll(outputBindings.getBindings());
+        scriptEvaluator.evalExprs(bindings, context, EMPTY_SET);
+
+        Assert.assertEquals(ScoreLangConstants.SUCCESS_RESULT, resultBindings.getResult());
+        Assert.assertEquals("0A", outputBindings.getOutputs().get("output1").get());
+        Assert.assertEquals("0A0a", outputBindings.getOutputs().get("output2").get());
+        Assert.assertEquals(1, context.size());
+    }
+
+    @Test
+    public void testResultErrorBeforeOutputErrors() throws Exception {
+        List<Result> results = asList(
+                createResult(ScoreLangConstants.SUCCESS_RESULT, ValueFactory.create("${ status.missing() }")));
+        Map<String, Value> context = new HashMap<>();
+        context.put("status", ValueFactory.create("0"));
+
+        String expectedMessage = null;
+        try {
+            resultsBinding.resolveResult(context, EMPTY_SET, results, null);
+        } catch (RuntimeException ex) {
+            expectedMessage = ex.getMessage();
+        }
+        Assert.assertNotNull(expectedMessage);
+
+        List<Output> outputs = asList(
+                new Output("output1", ValueFactory.create("${ status.upper() }")),
+                new Output("output2", ValueFactory.create("${ missing.lower() }")));
+        List<ExpressionBinding> bindings = new ArrayList<>(
+                resultsBinding.createResultBindings(results, null).getBindings());
+        bindings.addAll(outputsBinding.createOutputBindings(context, outputs).getBindings());
+        try {
+            scriptEvaluator.evalExprs(bindings, context, EMPTY_SET);
+            Assert.fail();
+        } catch (RuntimeException ex) {
+            Assert.assertEquals(expectedMessage, ex.getMessage());
+        }
+    }
+
     private Result createResult(String name, Value expression) {
         return new Result(name, expression);
     }
@@ -203,11 +289,21 @@ public class ResultBindingTest {
             return new ResultsBinding();
         }
 
+        @Bean
+        public OutputsBinding outputsBinding() {
+            return new OutputsBinding();
+        }
+
         @Bean
         public ScriptEvaluator scriptEvaluator() {
             return new ScriptEvaluator();
         }
 
+        @Bean
+        public ExpressionCache expressionCache() {
+            return new ExpressionCache();
+        }
+
         @Bean
         public DependencyService mavenRepositoryService() {
             return new DependencyServiceImpl();
@@ -0,0 +1,147 @@
+/*******************************************************************************
+ * (c) Copyright 2016 Hewlett-Packard Development Company, L.P.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Apache License v2.0 which accompany this distribution.
+ *
+ * The Apache License is available at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *******************************************************************************/
+package io.cloudslang.lang.runtime.bindings.scripts;
+
+import io.cloudslang.runtime.api.python.PythonEvaluationResult;
+import io.cloudslang.runtime.api.python.PythonExecutionResult;
+import io.cloudslang.runtime.impl.python.PythonExecutor;
+import java.io.Serializable;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import org.junit.Test;
+import org.python.core.PyException;
+import org.python.core.PyInteger;
+import org.python.core.PySystemState;
+import org.python.util.PythonInterpreter;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.fail;
+
+public class CompiledCodePythonExecutorTest {
+
+    private static final Set<String> NO_DEPENDENCIES = Collections.emptySet();
+
+    @Test
+    public void testExpressionIsCompiledOnce() {
+        CompiledCodePythonInterpreter interpreter = new CompiledCodePythonInterpreter(new PySystemState(), false);
+        try {
+            interpreter.set("x", 1);
+            assertEquals(new PyInteger(2), interpreter.eval("x + 1"));
+            interpreter.set("x", 2);
+            assertEquals(new PyInteger(3), interpreter.eval("x + 1"));
+
+            assertEquals(1, interpreter.getEvalStats().missCount());
+            assertEquals(1, interpreter.getEvalStats().hitCount());
+        } finally {
+            interpreter.close();
+        }
+    }
+
+    @Test
+    public void testScriptIsCompiledOnce() {
+        CompiledCodePythonInterpreter interpreter = new CompiledCodePythonInterpreter(new PySystemState(), false);
+        try {
+            interpreter.set("x", 1);
+            interpreter.exec("y = x * 2");
+            assertEquals(new PyInteger(2), interpreter.get("y"));
+            interpreter.set("x", 2);
+            interpreter.exec("y = x * 2");
+            assertEquals(new PyInteger(4), interpreter.get("y"));
+
+            assertEquals(1, interpreter.getExecStats().missCount());
+            assertEquals(1, interpreter.getExecStats().hitCount());
+        } finally {
+            interpreter.close();
+        }
+    }
+
+    @Test
+    public void testSourceThatDoesNotCompileIsNotKept() {
+        CompiledCodePythonInterpreter interpreter = new CompiledCodePythonInterpreter(new PySystemState(), false);
+        PythonInterpreter plainInterpreter = new PythonInterpreter(null, new PySystemState());
+        try {
+            String expected = evalError(plainInterpreter, "1 +");
+            assertEquals(expected, evalError(interpreter, "1 +"));
+            assertEquals(expected, evalError(interpreter, "1 +"));
+
+            assertEquals(2, interpreter.getEvalStats().missCount());
+            assertEquals(0, interpreter.getEvalStats().hitCount());
+        } finally {
+            interpreter.close();
+            plainInterpreter.close();
+        }
+    }
+
+    @Test
+    public void testEvaluatesAsPythonExecutor() {
+        PythonExecutor executor = new CompiledCodePythonExecutor(NO_DEPENDENCIES);
+        PythonExecutor plainExecutor = new PythonExecutor(NO_DEPENDENCIES);
+        String functions = "def twice(value):\n  return value * 2\n\n";
+
+        for (int i = 0; i < 2; i++) {
+            Map<String, Serializable> context = new HashMap<>();
+            context.put("text", "a" + i);
+            PythonEvaluationResult result = executor.eval(functions, "twice(text)", context);
+            PythonEvaluationResult expected = plainExecutor.eval(functions, "twice(text)", context);
+            assertEquals(expected.getEvalResult(), result.getEvalResult());
+            assertEquals(expected.getResultContext().keySet(), result.getResultContext().keySet());
+        }
+        assertEquals(executionError(plainExecutor, "missing + 1"), executionError(executor, "missing + 1"));
+    }
+
+    @Test
+    public void testExecutesAsPythonExecutor() {
+        PythonExecutor executor = new CompiledCodePythonExecutor(NO_DEPENDENCIES);
+        PythonExecutor plainExecutor = new PythonExecutor(NO_DEPENDENCIES);
+
+        for (int i = 0; i < 2; i++) {
+            Map<String, Serializable> context = new HashMap<>();
+            context.put("count", i);
+            PythonExecutionResult result = executor.exec("result = count + 1", context);
+            PythonExecutionResult expected = plainExecutor.exec("result = count + 1", context);
+            assertEquals(expected.getExecutionResult(), result.getExecutionResult());
+        }
+    }
+
+    @Test
+    public void testSharedInterpreterIsNotClosed() {
+        PythonExecutor executor = new CompiledCodePythonExecutor(NO_DEPENDENCIES);
+        executor.close();
+
+        PythonExecutor otherExecutor = new CompiledCodePythonExecutor(NO_DEPENDENCIES);
+        Map<String, Serializable> context = new HashMap<>();
+        context.put("x", 1);
+        assertEquals(2, otherExecutor.eval("", "x + 1", context).getEvalResult());
+    }
+
+    private String evalError(PythonInterpreter interpreter, String expression) {
+        try {
+            interpreter.eval(expression);
+        } catch (PyException e) {
+            assertNotNull(e.value);
+            return e.toString();
+        }
+        fail("Expected " + expression + " not to compile");
+        return null;
+    }
+
+    private String executionError(PythonExecutor executor, String expression) {
+        try {
+            executor.eval("", expression, new HashMap<String, Serializable>());
+        } catch (RuntimeException e) {
+            return e.getMessage();
+        }
+        fail("Expected " + expression + " to fail");
+        return null;
+    }
+}
@@ -0,0 +1,421 @@
+/*******************************************************************************
+ * (c) Copyright 2016 Hewlett-Packard Development Company, L.P.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Apache License v2.0 which accompany this distribution.
+ *
+ * The Apache License is available at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *******************************************************************************/
+package io.cloudslang.lang.runtime.bindings.scripts;
+
+import configuration.SlangEntitiesSpringConfig;
+import io.cloudslang.dependency.api.services.DependencyService;
+import io.cloudslang.dependency.api.services.MavenConfig;
+import io.cloudslang.dependency.impl.services.DependencyServiceImpl;
+import io.cloudslang.dependency.impl.services.MavenConfigImpl;
+import io.cloudslang.lang.entities.SystemProperty;
+import io.cloudslang.lang.entities.bindings.Output;
+import io.cloudslang.lang.entities.bindings.ScriptFunction;
+import io.cloudslang.lang.entities.bindings.values.SensitiveStringValue;
+import io.cloudslang.lang.entities.bindings.values.Value;
+import io.cloudslang.lang.entities.bindings.values.ValueFactory;
+import io.cloudslang.lang.entities.encryption.EncryptionProvider;
+import io.cloudslang.lang.entities.utils.ExpressionUtils;
+import io.cloudslang.runtime.api.python.PythonEvaluationResult;
+import io.cloudslang.runtime.api.python.PythonRuntimeService;
+import io.cloudslang.runtime.impl.python.PythonExecutionCachedEngine;
+import io.cloudslang.runtime.impl.python.PythonExecutionEngine;
+import io.cloudslang.runtime.impl.python.PythonRuntimeServiceImpl;
+import io.cloudslang.score.events.EventBus;
+import io.cloudslang.score.events.EventBusImpl;
+import java.io.Serializable;
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+
+/**
+ * Differential tests of the evaluation of a list in one python call against the evaluation of its expressions
+ * one by one.
+ */
+@RunWith(SpringJUnit4ClassRunner.class)
+@ContextConfiguration(classes = {ExpressionListTest.Config.class, SlangEntitiesSpringConfig.class})
+public class ExpressionListTest {
+
+    @Autowired
+    private ScriptEvaluator scriptEvaluator;
+
+    @Autowired
+    private CountingPythonRuntimeService pythonRuntimeService;
+
+    private Map<String, Value> context;
+
+    private Set<SystemProperty> systemProperties;
+
+    @Before
+    public void setUp() {
+        context = new HashMap<>();
+        context.put("str", ValueFactory.create("abc"));
+        context.put("num", ValueFactory.create(5));
+        context.put("zero", ValueFactory.create(0));
+        context.put("yes", ValueFactory.create(true));
+        context.put("nothing", ValueFactory.create(null));
+        context.put("list", ValueFactory.create(new ArrayList<>(Arrays.asList("a", "b"))));
+        context.put("secret", ValueFactory.create("pw", true));
+        context.put("secret_num", ValueFactory.create(5, true));
+
+        systemProperties = new HashSet<>();
+        systemProperties.add(new SystemProperty("a.b", "c.key", "value"));
+        systemProperties.add(new SystemProperty("a.b", "c.password",
+                new SensitiveStringValue("pw", false)));
+    }
+
+    /**
+     * The sensitive values of the context make the encryption provider keep the encryptor of this context,
+     * which other test classes replace with their own.
+     */
+    @AfterClass
+    public static void resetEncryptor() throws Exception {
+        Field field = EncryptionProvider.class.getDeclaredField("encryptor");
+        field.setAccessible(true);
+        field.set(null, new AtomicReference<>());
+    }
+
+    @Test
+    public void testValuesAndSensitivity() {
+        List<TestBinding> bindings = Arrays.asList(
+                binding("a", "str.upper()"),
+                binding("b", "secret.upper()"),
+                binding("c", "a + '-' + repr(num)"),
+                binding("d", "b[0:1]"),
+                binding("e", "len(list)"),
+                binding("f", null),
+                binding("g", "f + a"),
+                binding("h", "get('missing', d)"),
+                binding("i", "get_sp('a.b.c.key') + h"),
+                binding("j", "get_sp('a.b.c.password')[0:1]"),
+                binding("k", "get_sp('a.b.c.key').upper()"),
+                binding("l", "yes and num > 3"),
+                binding("m", "check_empty(nothing, 'empty').upper()"),
+                binding("n", "num - 1"),
+                binding("o", "get('secret' + '_num') - 1"),
+                binding(null, "secret_num - 1"),
+                binding("p", "num * 2"),
+                binding("str", "str * 2"),
+                binding("q", "str.upper()"));
+
+        Assert.assertEquals(1, evalBatch(bindings));
+        assertSameAsSequential(bindings);
+        Assert.assertEquals("ABC-5", bindings.get(2).value.get());
+        Assert.assertTrue(bindings.get(3).value.isSensitive());
+        Assert.assertFalse(bindings.get(4).value.isSensitive());
+        Assert.assertTrue(bindings.get(9).value.isSensitive());
+        Assert.assertFalse(bindings.get(10).value.isSensitive());
+        Assert.assertFalse(bindings.get(13).value.isSensitive());
+        Assert.assertTrue(bindings.get(14).value.isSensitive());
+        Assert.assertFalse(bindings.get(16).value.isSensitive());
+        Assert.assertEquals("ABCABC", bindings.get(18).value.get());
+    }
+
+    @Test
+    public void testNamesAssignedByExpressions() {
+        List<TestBinding> bindings = Arrays.asList(
+                binding("a", "[str for str in list][0]"),
+                binding("b", "str.upper()"),
+                binding("c", "[name for name in list][-1]"),
+                binding("d", "get('na' + 'me', 'none')"),
+                binding("e", "get('s' + 'tr').upper()"),
+                binding("f", "name"));
+
+        Assert.assertEquals(1, evalBatch(bindings));
+        assertSameAsSequential(bindings);
+        Assert.assertEquals("ABC", bindings.get(1).value.get());
+        Assert.assertEquals("none", bindings.get(3).value.get());
+        Assert.assertNotNull(bindings.get(5).error);
+    }
+
+    @Test
+    public void testErrors() {
+        List<String> failingExpressions = Arrays.asList("missing_name + 1", "num / zero", "str.missing()",
+                "len(num)", "get_sp('a.b.c.missing').upper()", "str.upper(", "yes +");
+        for (String failingExpression : failingExpressions) {
+            List<List<TestBinding>> lists = Arrays.asList(
+                    Arrays.asList(binding("a", failingExpression), binding("b", "str.upper()"),
+                            binding("c", "str.lower()")),
+                    Arrays.asList(binding("a", "str.upper()"), binding("b", failingExpression),
+                            binding("c", "a.lower()")),
+                    Arrays.asList(binding("a", "str.upper()"), binding("b", "a.lower()"),
+                            binding("c", failingExpression)));
+            for (List<TestBinding> bindings : lists) {
+                evalBatch(bindings);
+                assertSameAsSequential(bindings);
+            }
+        }
+    }
+
+    @Test
+    public void testFunctionsNotDefined() {
+        Set<ScriptFunction> noFunctions = EnumSet.noneOf(ScriptFunction.class);
+        List<TestBinding> bindings = Arrays.asList(
+                binding("a", "get('str').upper()"),
+                new TestBinding("b", "check_empty(nothing, 'x').upper()", noFunctions),
+                binding("c", "check_empty(nothing, 'x').upper()"));
+        Assert.assertEquals(1, evalBatch(bindings));
+        assertSameAsSequential(bindings);
+        Assert.assertNotNull(bindings.get(1).error);
+
+        bindings = Arrays.asList(
+                binding("a", "get_sp('a.b.c.key').upper()"),
+                new TestBinding("b", "get_sp('a.b.c.key').upper()", noFunctions),
+                new TestBinding("c", "sys_prop", noFunctions));
+        Assert.assertEquals(1, evalBatch(bindings));
+        assertSameAsSequential(bindings);
+        Assert.assertTrue(bindings.get(1).error.contains("Make sure to use correct syntax for the function"));
+    }
+
+    @Test
+    public void testReservedNames() {
+        context.put("check_empty", ValueFactory.create("value"));
+        List<TestBinding> bindings = Arrays.asList(
+                binding("a", "check_empty.upper()"),
+                binding("b", "check_empty(nothing, 'x').upper()"));
+        evalBatch(bindings);
+        assertSameAsSequential(bindings);
+
+        context.remove("check_empty");
+        bindings = Arrays.asList(
+                binding("get", "str.upper()"),
+                binding("b", "get.lower()"));
+        evalBatch(bindings);
+        assertSameAsSequential(bindings);
+    }
+
+    @Test
+    public void testSkippedBindings() {
+        List<TestBinding> bindings = Arrays.asList(
+                binding("a", "str.upper()"),
+                new TestBinding("b", "missing_name.upper()", false),
+                new TestBinding("c", null, false),
+                binding("d", "get('b', 'skipped')"),
+                binding("e", "a.lower()"));
+        Assert.assertEquals(1, evalBatch(bindings));
+        assertSameAsSequential(bindings);
+        Assert.assertFalse(bindings.get(1).bound);
+        Assert.assertEquals("skipped", bindings.get(3).value.get());
+    }
+
+    @Test
+    public void testSinglePythonExpression() {
+        List<TestBinding> bindings = Arrays.asList(
+                binding("a", "str"),
+                binding("b", "str.upper()"),
+                binding("c", "a + b"));
+        Assert.assertEquals(1, evalBatch(bindings));
+        assertSameAsSequential(bindings);
+        Assert.assertEquals("abcABC", bindings.get(2).value.get());
+    }
+
+    /**
+     * @return the number of python calls evaluating the list
+     */
+    private int evalBatch(List<TestBinding> bindings) {
+        Map<String, Value> originalContext = new HashMap<>(context);
+        int evaluations = pythonRuntimeService.evaluations;
+        try {
+            scriptEvaluator.evalExprs(bindings, context, systemProperties);
+        } catch (RuntimeException ex) {
+            Assert.assertEquals(ex.getMessage(), getLast(bindings).error);
+        }
+        Assert.assertEquals(originalContext, context);
+        return pythonRuntimeService.evaluations - evaluations;
+    }
+
+    private void assertSameAsSequential(List<TestBinding> batchBindings) {
+        Map<String, Value> scriptContext = new HashMap<>(context);
+        for (TestBinding batchBinding : batchBindings) {
+            TestBinding binding = new TestBinding(batchBinding);
+            String expression = binding.getExpression();
+            if (binding.isEvaluated()) {
+                ExpressionResult result = ExpressionResult.NONE;
+                if (expression != null) {
+                    try {
+                        result = ExpressionResult.of(scriptEvaluator.evalExpr(expression, scriptContext,
+                                systemProperties, binding.getFunctionDependencies(),
+                                binding.getVariableDependencies()));
+                    } catch (RuntimeException ex) {
+                        result = ExpressionResult.failed(ex);
+                    }
+                }
+                try {
+                    Value value = binding.bind(result);
+                    if (binding.getName() != null) {
+                        scriptContext.put(binding.getName(), value);
+                    }
+                } catch (RuntimeException ex) {
+                    // stops the list
+                }
+            }
+
+            Assert.assertEquals(expression, binding.bound, batchBinding.bound);
+            Assert.assertEquals(expression, binding.error, batchBinding.error);
+            if (binding.value == null) {
+                Assert.assertNull(expression, batchBinding.value);
+            } else {
+                Assert.assertEquals(expression, binding.value.get(), batchBinding.value.get());
+                Assert.assertEquals(expression, binding.value.isSensitive(), batchBinding.value.isSensitive());
+            }
+            if (binding.error != null) {
+                return;
+            }
+        }
+    }
+
+    private TestBinding getLast(List<TestBinding> bindings) {
+        TestBinding last = null;
+        for (TestBinding binding : bindings) {
+            if (binding.bound) {
+                last = binding;
+            }
+        }
+        return last;
+    }
+
+    private TestBinding binding(String name, String expression) {
+        return new TestBinding(name, expression, true);
+    }
+
+    /**
+     * Binds the value of its expression, or a value of its own without expression, depending on the functions
+     * its expression calls as the compiler does.
+     */
+    private static class TestBinding extends ExpressionBinding {
+
+        private final boolean evaluated;
+        private final Set<ScriptFunction> functions;
+
+        private boolean bound;
+        private Value value;
+        private String error;
+
+        TestBinding(String name, String expression, boolean evaluated) {
+            this(name, expression, evaluated, getFunctions(expression));
+        }
+
+        TestBinding(String name, String expression, Set<ScriptFunction> functions) {
+            this(name, expression, true, functions);
+        }
+
+        TestBinding(TestBinding binding) {
+            this(binding.getName(), binding.getExpression(), binding.evaluated, binding.functions);
+        }
+
+        private TestBinding(String name, String expression, boolean evaluated, Set<ScriptFunction> functions) {
+            super(name, expression, new Output("output", ValueFactory.create(null), functions,
+                    Collections.<String>emptySet(),
+                    expression == null ? null : ExpressionUtils.extractVariableReferences(expression)));
+            this.evaluated = evaluated;
+            this.functions = functions;
+        }
+
+        private static Set<ScriptFunction> getFunctions(String expression) {
+            Set<ScriptFunction> functions = EnumSet.noneOf(ScriptFunction.class);
+            if (expression != null) {
+                if (expression.contains("get(")) {
+                    functions.add(ScriptFunction.GET);
+                }
+                if (expression.contains("get_sp(")) {
+                    functions.add(ScriptFunction.GET_SYSTEM_PROPERTY);
+                }
+                if (expression.contains("check_empty(")) {
+                    functions.add(ScriptFunction.CHECK_EMPTY);
+                }
+            }
+            return functions;
+        }
+
+        @Override
+        protected boolean isEvaluated() {
+            return evaluated;
+        }
+
+        @Override
+        protected Value bind(ExpressionResult result) {
+            bound = true;
+            try {
+                value = getExpression() == null ? ValueFactory.create("own value") : result.get();
+                return value;
+            } catch (RuntimeException ex) {
+                error = ex.getMessage();
+                throw ex;
+            }
+        }
+    }
+
+    public static class CountingPythonRuntimeService extends PythonRuntimeServiceImpl {
+
+        private int evaluations;
+
+        @Override
+        public PythonEvaluationResult eval(String prepareEnvironmentScript, String script,
+                                           Map<String, Serializable> vars) {
+            evaluations++;
+            return super.eval(prepareEnvironmentScript, script, vars);
+        }
+    }
+
+    @Configuration
+    static class Config {
+        @Bean
+        public ScriptEvaluator scriptEvaluator() {
+            return new ScriptEvaluator();
+        }
+
+        @Bean
+        public ExpressionCache expressionCache() {
+            return new ExpressionCache();
+        }
+
+        @Bean
+        public DependencyService mavenRepositoryService() {
+            return new DependencyServiceImpl();
+        }
+
+        @Bean
+        public MavenConfig mavenConfig() {
+            return new MavenConfigImpl();
+        }
+
+        @Bean
+        public CountingPythonRuntimeService pythonRuntimeService() {
+            return new CountingPythonRuntimeService();
+        }
+
+        @Bean
+        public PythonExecutionEngine pythonExecutionEngine() {
+            return new PythonExecutionCachedEngine();
+        }
+
+        @Bean
+        public EventBus eventBus() {
+            return new EventBusImpl();
+        }
+    }
+}
@@ -0,0 +1,311 @@
+/*******************************************************************************
+ * (c) Copyright 2016 Hewlett-Packard Development Company, L.P.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Apache License v2.0 which accompany this distribution.
+ *
+ * The Apache License is available at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *******************************************************************************/
+package io.cloudslang.lang.runtime.bindings.scripts;
+
+import configuration.SlangEntitiesSpringConfig;
+import io.cloudslang.dependency.api.services.DependencyService;
+import io.cloudslang.dependency.api.services.MavenConfig;
+import io.cloudslang.dependency.impl.services.DependencyServiceImpl;
+import io.cloudslang.dependency.impl.services.MavenConfigImpl;
+import io.cloudslang.lang.entities.SystemProperty;
+import io.cloudslang.lang.entities.bindings.ScriptFunction;
+import io.cloudslang.lang.entities.bindings.values.Value;
+import io.cloudslang.lang.entities.bindings.values.ValueFactory;
+import io.cloudslang.lang.entities.encryption.EncryptionProvider;
+import io.cloudslang.runtime.api.python.PythonRuntimeService;
+import io.cloudslang.runtime.impl.python.PythonExecutionCachedEngine;
+import io.cloudslang.runtime.impl.python.PythonExecutionEngine;
+import io.cloudslang.runtime.impl.python.PythonRuntimeServiceImpl;
+import io.cloudslang.score.events.EventBus;
+import io.cloudslang.score.events.EventBusImpl;
+import java.io.Serializable;
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+
+/**
+ * Differential tests of the native expression evaluation against python.
+ */
+@RunWith(SpringJUnit4ClassRunner.class)
+@ContextConfiguration(classes = {FastExpressionTest.Config.class, SlangEntitiesSpringConfig.class})
+public class FastExpressionTest {
+
+    private static final Set<ScriptFunction> ALL_FUNCTIONS = EnumSet.allOf(ScriptFunction.class);
+
+    private static final List<String> OPERANDS = Arrays.asList("str", "empty", "num", "zero", "max", "yes", "no",
+            "nothing", "long_num", "list", "secret", "missing", "'abc'", "\"\"", "0", "7", "True", "False", "None",
+            "true", "false", "(num)", "get('str')", "get('missing', 'default')", "get('nothing', num)",
+            "get_sp('a.b.c.key')", "get_sp('a.b.missing', 1)", "check_empty(nothing, 'empty')");
+
+    private static final List<String> BINARY_OPERATORS = Arrays.asList("==", "!=", "+", "and", "or");
+
+    @Autowired
+    private ScriptEvaluator scriptEvaluator;
+
+    private Map<String, Value> context;
+
+    private Set<SystemProperty> systemProperties;
+
+    private int nativeEvaluations;
+
+    @Before
+    public void setUp() {
+        context = new HashMap<>();
+        context.put("str", ValueFactory.create("abc"));
+        context.put("empty", ValueFactory.create(""));
+        context.put("num", ValueFactory.create(5));
+        context.put("zero", ValueFactory.create(0));
+        context.put("max", ValueFactory.create(Integer.MAX_VALUE));
+        context.put("yes", ValueFactory.create(true));
+        context.put("no", ValueFactory.create(false));
+        context.put("nothing", ValueFactory.create(null));
+        context.put("long_num", ValueFactory.create(3L));
+        context.put("list", ValueFactory.create(new ArrayList<>(Arrays.asList("a", "b"))));
+        context.put("secret", ValueFactory.create("pw", true));
+        context.put("secret_num", ValueFactory.create(5, true));
+
+        systemProperties = new HashSet<>();
+        systemProperties.add(new SystemProperty("a.b", "c.key", "value"));
+    }
+
+    /**
+     * The sensitive values of the context make the encryption provider keep the encryptor of this context,
+     * which other test classes replace with their own.
+     */
+    @AfterClass
+    public static void resetEncryptor() throws Exception {
+        Field field = EncryptionProvider.class.getDeclaredField("encryptor");
+        field.setAccessible(true);
+        field.set(null, new AtomicReference<>());
+    }
+
+    @Test
+    public void testOperands() {
+        for (String operand : OPERANDS) {
+            assertSameAsPython(operand, ALL_FUNCTIONS);
+            assertSameAsPython("not " + operand, ALL_FUNCTIONS);
+        }
+    }
+
+    @Test
+    public void testBinaryOperators() {
+        for (String left : OPERANDS) {
+            for (String operator : BINARY_OPERATORS) {
+                for (String right : OPERANDS) {
+                    assertSameAsPython(left + " " + operator + " " + right, ALL_FUNCTIONS);
+                }
+            }
+        }
+        Assert.assertTrue(nativeEvaluations > OPERANDS.size() * OPERANDS.size());
+    }
+
+    @Test
+    public void testCompositeExpressions() {
+        List<String> expressions = Arrays.asList(
+                "str + '_' + get('missing', 'x') + get_sp('a.b.c.key')",
+                "str == 'abc' and num != 0 or 'fallback'",
+                "not str == 'abc' or (num == 5 and 'five')",
+                "not not empty",
+                "None == nothing",
+                "nothing == get('nothing')",
+                "get('nothing') != nothing",
+                "(str == 'abc') == True",
+                "(num == 5) + 1",
+                "max + 1",
+                "max + 0",
+                "get('str', get('num')) + 'x'",
+                "check_empty(get('nothing'), check_empty(None, 'deep'))",
+                "get('true')",
+                "get('__builtins__') == None",
+                "'a' + 'b' == 'ab' != False");
+        for (String expression : expressions) {
+            assertSameAsPython(expression, ALL_FUNCTIONS);
+        }
+    }
+
+    @Test
+    public void testSensitiveValues() {
+        List<String> expressions = Arrays.asList(
+                "secret",
+                "get('secret')",
+                "get('secret', 'default')",
+                "get('missing', secret)",
+                "get('str', secret)",
+                "secret + 'x'",
+                "str + secret",
+                "secret_num + 1",
+                "secret == 'pw'",
+                "secret != str",
+                "secret_num == num",
+                "not secret",
+                "str or secret",
+                "empty or secret",
+                "check_empty(secret, 'empty')",
+                "check_empty(nothing, secret)");
+        for (String expression : expressions) {
+            assertSameAsPython(expression, ALL_FUNCTIONS);
+        }
+        Assert.assertTrue(evalNative("get('secret')").isSensitive());
+        Assert.assertTrue(evalNative("secret + 'x'").isSensitive());
+        Assert.assertTrue(evalNative("secret == 'pw'").isSensitive());
+        Assert.assertFalse(evalNative("str or secret").isSensitive());
+    }
+
+    @Test
+    public void testFunctionsNotDefined() {
+        for (String expression : Arrays.asList("get('str')", "get_sp('a.b.c.key')", "check_empty(str)")) {
+            Assert.assertNull(expression, FastExpressionParser.parse(expression, EnumSet.noneOf(ScriptFunction.class)));
+            assertSameAsPython(expression, EnumSet.noneOf(ScriptFunction.class));
+        }
+    }
+
+    @Test
+    public void testExpressionsOutsideOfSubset() {
+        List<String> expressions = Arrays.asList("str[0]", "str.upper()", "len(str)", "num * 2", "num - 1", "-1",
+                "num < 7", "num is None", "str in 'abcd'", "'a' if yes else 'b'", "1.5", "010", "0x1F", "5L",
+                "2147483648", "u'abc'", "r'abc'", "'a\\tb'", "'''abc'''", "'a' 'b'", "[1, 2]", "(1, 2)",
+                "1 == 1 == 1", "get(str)", "get('a' + 'b')", "get('str', default_value='x')", "sys_prop",
+                "get", "__name__", "lambda: 1", "`num`");
+        for (String expression : expressions) {
+            Assert.assertNull(expression, FastExpressionParser.parse(expression, ALL_FUNCTIONS));
+        }
+    }
+
+    @Test
+    public void testFastPathResultTypes() {
+        Assert.assertEquals(Boolean.TRUE, evalNative("str == 'abc'").get());
+        Assert.assertEquals(Boolean.FALSE, evalNative("not str").get());
+        Assert.assertEquals("abcabc", evalNative("str + str").get());
+        Assert.assertEquals(6, evalNative("num + 1").get());
+        Assert.assertNull(evalNative("get('nothing')").get());
+        Assert.assertFalse(evalNative("str").isSensitive());
+    }
+
+    @Test(expected = FastExpression.UnsupportedExpressionException.class)
+    public void testUnsupportedValueType() {
+        evalNative("long_num");
+    }
+
+    @Test(expected = FastExpression.UnsupportedExpressionException.class)
+    public void testTypeError() {
+        evalNative("str + num");
+    }
+
+    @Test
+    public void testFastPathDisabled() {
+        scriptEvaluator.setFastPathEnabled(false);
+        try {
+            Assert.assertEquals("abc", scriptEvaluator.evalExpr("str", context, systemProperties, ALL_FUNCTIONS)
+                    .get());
+        } finally {
+            scriptEvaluator.setFastPathEnabled(true);
+        }
+    }
+
+    private Value evalNative(String expression) {
+        FastExpression fastExpression = FastExpressionParser.parse(expression, ALL_FUNCTIONS);
+        Assert.assertNotNull(expression, fastExpression);
+        return fastExpression.eval(context, systemProperties);
+    }
+
+    private void assertSameAsPython(String expression, Set<ScriptFunction> functions) {
+        Serializable expected;
+        boolean expectedSensitive = false;
+        String expectedError = null;
+        scriptEvaluator.setFastPathEnabled(false);
+        try {
+            Value expectedValue = scriptEvaluator.evalExpr(expression, context, systemProperties, functions);
+            expected = expectedValue.get();
+            expectedSensitive = expectedValue.isSensitive();
+        } catch (RuntimeException ex) {
+            expected = null;
+            expectedError = ex.getMessage();
+        } finally {
+            scriptEvaluator.setFastPathEnabled(true);
+        }
+
+        FastExpression fastExpression = FastExpressionParser.parse(expression, functions);
+        if (fastExpression != null) {
+            try {
+                Value actual = fastExpression.eval(context, systemProperties);
+                Assert.assertNull(expression + " should fail with: " + expectedError, expectedError);
+                Assert.assertEquals(expression, expected, actual.get());
+                Assert.assertEquals(expression, expectedSensitive, actual.isSensitive());
+                nativeEvaluations++;
+            } catch (FastExpression.UnsupportedExpressionException ex) {
+                // falls back to python
+            }
+        }
+
+        try {
+            Value actual = scriptEvaluator.evalExpr(expression, context, systemProperties, functions);
+            Assert.assertNull(expression + " should fail with: " + expectedError, expectedError);
+            Assert.assertEquals(expression, expected, actual.get());
+            Assert.assertEquals(expression, expectedSensitive, actual.isSensitive());
+        } catch (RuntimeException ex) {
+            Assert.assertEquals(expression, expectedError, ex.getMessage());
+        }
+    }
+
+    @Configuration
+    static class Config {
+        @Bean
+        public ScriptEvaluator scriptEvaluator() {
+            return new ScriptEvaluator();
+        }
+
+        @Bean
+        public ExpressionCache expressionCache() {
+            return new ExpressionCache();
+        }
+
+        @Bean
+        public DependencyService mavenRepositoryService() {
+            return new DependencyServiceImpl();
+        }
+
+        @Bean
+        public MavenConfig mavenConfig() {
+            return new MavenConfigImpl();
+        }
+
+        @Bean
+        public PythonRuntimeService pythonRuntimeService() {
+            return new PythonRuntimeServiceImpl();
+        }
+
+        @Bean
+        public PythonExecutionEngine pythonExecutionEngine() {
+            return new PythonExecutionCachedEngine();
+        }
+
+        @Bean
+        public EventBus eventBus() {
+            return new EventBusImpl();
+        }
+    }
+}
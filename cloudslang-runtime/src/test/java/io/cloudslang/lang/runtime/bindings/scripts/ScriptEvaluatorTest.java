@@ -85,6 +85,9 @@ public class ScriptEvaluatorTest {
     @Autowired
     private PythonRuntimeService pythonRuntimeService;
 
+    @Autowired
+    private ExpressionCache expressionCache;
+
     @Test
     public void testEvalExpr() throws Exception {
         reset(pythonRuntimeService);
@@ -107,6 +110,25 @@ public class ScriptEvaluatorTest {
                 new HashSet<ScriptFunction>());
     }
 
+    @Test
+    public void testEvalExprWithVariableDependencies() throws Exception {
+        reset(pythonRuntimeService);
+        when(pythonRuntimeService.eval(anyString(), anyString(), isA(Map.class)))
+                .thenReturn(new PythonEvaluationResult("result", new HashMap<String, Serializable>()));
+        Map<String, Value> context = new HashMap<>();
+        context.put("var1", ValueFactory.create("result"));
+        context.put("var2", ValueFactory.create("other"));
+        String expr = "var1.upper()";
+        scriptEvaluator.evalExpr(expr, context, new HashSet<SystemProperty>(), new HashSet<ScriptFunction>(),
+                newHashSet("var1"));
+
+        @SuppressWarnings("unchecked")
+        final ArgumentCaptor<Map<String, Serializable>> contextCaptor =
+                (ArgumentCaptor) ArgumentCaptor.forClass(Map.class);
+        verify(pythonRuntimeService).eval(eq(""), eq(expr), contextCaptor.capture());
+        Assert.assertEquals(newHashSet("var1"), contextCaptor.getValue().keySet());
+    }
+
     @Test
     public void testEvalFunctions() throws Exception {
         reset(pythonRuntimeService);
@@ -144,6 +166,29 @@ public class ScriptEvaluatorTest {
         Assert.assertEquals(expectedFunctions, actualFunctions);
     }
 
+    @Test
+    public void testExpressionCacheStats() throws Exception {
+        reset(pythonRuntimeService);
+        when(pythonRuntimeService.eval(anyString(), anyString(), isA(Map.class)))
+                .thenReturn(new PythonEvaluationResult("result", new HashMap<String, Serializable>()));
+        expressionCache.invalidateAll();
+        final long hits = expressionCache.getStats().hitCount();
+        final long misses = expressionCache.getStats().missCount();
+        Map<String, Value> context = new HashMap<>();
+        context.put("var1", ValueFactory.create("value"));
+
+        scriptEvaluator.evalExpr("var1.upper()", context, new HashSet<SystemProperty>(),
+                new HashSet<ScriptFunction>());
+        scriptEvaluator.evalExpr("var1.upper()", context, new HashSet<SystemProperty>(),
+                new HashSet<ScriptFunction>());
+        scriptEvaluator.evalExpr("var1.upper()", context, new HashSet<SystemProperty>(),
+                newHashSet(ScriptFunction.GET));
+
+        Assert.assertEquals(1, expressionCache.getStats().hitCount() - hits);
+        Assert.assertEquals(2, expressionCache.getStats().missCount() - misses);
+        Assert.assertEquals(2, expressionCache.size());
+    }
+
     @Configuration
     static class Config {
         @Bean
@@ -156,6 +201,11 @@ public class ScriptEvaluatorTest {
             return new ScriptEvaluator();
         }
 
+        @Bean
+        public ExpressionCache expressionCache() {
+            return new ExpressionCache();
+        }
+
         @Bean
         public DependencyService mavenRepositoryService() {
             return new DependencyServiceImpl();
@@ -0,0 +1,90 @@
+/*******************************************************************************
+ * (c) Copyright 2016 Hewlett-Packard Development Company, L.P.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Apache License v2.0 which accompany this distribution.
+ *
+ * The Apache License is available at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *******************************************************************************/
+package io.cloudslang.lang.runtime.env;
+
+import io.cloudslang.lang.entities.bindings.values.Value;
+import io.cloudslang.lang.entities.bindings.values.ValueFactory;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.apache.commons.lang3.SerializationUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Cost of creating the context and the run environment of a single parallel loop branch,
+ * for flow contexts of 20 variables of growing size.
+ * <p>
+ * Not part of the test suite - run {@link #main(String[])} with the test classpath.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class BranchCreationBenchmark {
+
+    private static final int VARIABLES = 20;
+
+    @Param({"1", "100", "1000"})
+    private int variableSizeKb;
+
+    private Context flowContext;
+
+    private RunEnvironment runEnvironment;
+
+    @Setup
+    public void setUp() {
+        String content = StringUtils.repeat('x', variableSizeKb * 1024);
+        Map<String, Value> variables = new HashMap<>();
+        for (int i = 0; i < VARIABLES; i++) {
+            variables.put("var" + i, ValueFactory.create(content + i));
+        }
+        flowContext = new Context(variables);
+
+        // the parent flow context stays on the stack, as for a parallel loop in a sub flow
+        runEnvironment = new RunEnvironment();
+        runEnvironment.getStack().pushContext(new Context(new HashMap<>(variables)));
+        runEnvironment.getExecutionPath().down();
+    }
+
+    @Benchmark
+    public void createBranch(Blackhole blackhole) {
+        blackhole.consume(flowContext.createBranchContext());
+        blackhole.consume(runEnvironment.createBranchEnvironment());
+    }
+
+    @Benchmark
+    public void cloneBranch(Blackhole blackhole) {
+        blackhole.consume(SerializationUtils.clone(flowContext));
+        RunEnvironment branchEnvironment = SerializationUtils.clone(runEnvironment);
+        branchEnvironment.resetStacks();
+        blackhole.consume(branchEnvironment);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(BranchCreationBenchmark.class.getSimpleName()).build()).run();
+    }
+}
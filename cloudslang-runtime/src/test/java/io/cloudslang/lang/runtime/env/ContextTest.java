@@ -0,0 +1,65 @@
+/*******************************************************************************
+ * (c) Copyright 2016 Hewlett-Packard Development Company, L.P.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Apache License v2.0 which accompany this distribution.
+ *
+ * The Apache License is available at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *******************************************************************************/
+package io.cloudslang.lang.runtime.env;
+
+import io.cloudslang.lang.entities.bindings.values.Value;
+import io.cloudslang.lang.entities.bindings.values.ValueFactory;
+import java.util.Arrays;
+import java.util.HashMap;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+public class ContextTest {
+
+    @Test
+    public void testBranchContextSharesValues() {
+        Context context = new Context(new HashMap<String, Value>());
+        Value value = ValueFactory.create("value");
+        context.putVariable("var", value);
+
+        Context branchContext = context.createBranchContext();
+
+        assertEquals(context, branchContext);
+        assertSame(value, branchContext.getVariable("var"));
+    }
+
+    @Test
+    public void testBranchContextWritesAreNotVisibleToParent() {
+        Context context = new Context(new HashMap<String, Value>());
+        context.putVariable("var", ValueFactory.create("value"));
+
+        Context branchContext = context.createBranchContext();
+        branchContext.putVariable("var", ValueFactory.create("branch value"));
+        branchContext.putVariable("branch_var", ValueFactory.create("branch value"));
+
+        assertEquals("value", context.getVariable("var").get());
+        assertNull(context.getVariable("branch_var"));
+    }
+
+    @Test
+    public void testBranchContextCopiesLanguageVariables() {
+        Context context = new Context(new HashMap<String, Value>());
+        ForLoopCondition loopCondition = new ForLoopCondition(Arrays.asList(ValueFactory.create(1),
+                ValueFactory.create(2)));
+        context.putLanguageVariable(LoopCondition.LOOP_CONDITION_KEY, ValueFactory.create(loopCondition));
+
+        Context branchContext = context.createBranchContext();
+        Object branchLoopCondition = branchContext.getLanguageVariable(LoopCondition.LOOP_CONDITION_KEY).get();
+        ((ForLoopCondition) branchLoopCondition).next();
+
+        assertEquals(loopCondition, new ForLoopCondition(Arrays.asList(ValueFactory.create(1),
+                ValueFactory.create(2))));
+        assertNotSame(loopCondition, branchLoopCondition);
+    }
+}
@@ -0,0 +1,82 @@
+/*******************************************************************************
+ * (c) Copyright 2016 Hewlett-Packard Development Company, L.P.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Apache License v2.0 which accompany this distribution.
+ *
+ * The Apache License is available at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *******************************************************************************/
+package io.cloudslang.lang.runtime.env;
+
+import io.cloudslang.lang.entities.bindings.values.Value;
+import io.cloudslang.lang.entities.bindings.values.ValueFactory;
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Cost of a whole sequential for loop over the loop condition, as done by the step execution.
+ * <p>
+ * Not part of the test suite - run {@link #main(String[])} with the test classpath.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ForLoopConditionBenchmark {
+
+    @Param({"1000", "10000", "100000"})
+    private int size;
+
+    private List<Value> randomAccessValues;
+
+    private List<Value> sequentialValues;
+
+    @Setup
+    public void setUp() {
+        randomAccessValues = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            randomAccessValues.add(ValueFactory.create(i));
+        }
+        sequentialValues = new LinkedList<>(randomAccessValues);
+    }
+
+    @Benchmark
+    public void randomAccessLoop(Blackhole blackhole) {
+        loop(new ForLoopCondition(randomAccessValues), blackhole);
+    }
+
+    @Benchmark
+    public void sequentialLoop(Blackhole blackhole) {
+        loop(new ForLoopCondition(sequentialValues), blackhole);
+    }
+
+    private void loop(ForLoopCondition forLoopCondition, Blackhole blackhole) {
+        while (forLoopCondition.hasMore()) {
+            blackhole.consume(forLoopCondition.next());
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(ForLoopConditionBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,78 @@
+/*******************************************************************************
+ * (c) Copyright 2016 Hewlett-Packard Development Company, L.P.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Apache License v2.0 which accompany this distribution.
+ *
+ * The Apache License is available at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *******************************************************************************/
+package io.cloudslang.lang.runtime.env;
+
+import io.cloudslang.lang.entities.bindings.values.Value;
+import io.cloudslang.lang.entities.bindings.values.ValueFactory;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+import org.apache.commons.lang3.SerializationUtils;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class ForLoopConditionTest {
+
+    @Test
+    public void testRandomAccessList() {
+        assertIteratesInOrder(new ForLoopCondition(createValues(new ArrayList<Value>(), 5)), 0, 5);
+    }
+
+    @Test
+    public void testSequentialIterable() {
+        assertIteratesInOrder(new ForLoopCondition(createValues(new LinkedList<Value>(), 5)), 0, 5);
+    }
+
+    @Test
+    public void testRawElementsAreWrapped() {
+        List<Serializable> elements = new ArrayList<>();
+        elements.add("a");
+        ForLoopCondition forLoopCondition = new ForLoopCondition(elements);
+        assertEquals(ValueFactory.create("a"), forLoopCondition.next());
+        assertFalse(forLoopCondition.hasMore());
+    }
+
+    @Test
+    public void testRandomAccessListContinuesAfterSerialization() {
+        ForLoopCondition forLoopCondition = new ForLoopCondition(createValues(new ArrayList<Value>(), 5));
+        forLoopCondition.next();
+        forLoopCondition.next();
+        assertIteratesInOrder(SerializationUtils.clone(forLoopCondition), 2, 5);
+    }
+
+    @Test
+    public void testSequentialIterableContinuesAfterSerialization() {
+        ForLoopCondition forLoopCondition = new ForLoopCondition(createValues(new LinkedList<Value>(), 5));
+        forLoopCondition.next();
+        forLoopCondition.next();
+        ForLoopCondition restored = SerializationUtils.clone(forLoopCondition);
+        assertEquals(forLoopCondition, restored);
+        assertIteratesInOrder(restored, 2, 5);
+    }
+
+    private List<Value> createValues(List<Value> values, int size) {
+        for (int i = 0; i < size; i++) {
+            values.add(ValueFactory.create(i));
+        }
+        return values;
+    }
+
+    private void assertIteratesInOrder(ForLoopCondition forLoopCondition, int from, int to) {
+        for (int i = from; i < to; i++) {
+            assertTrue(forLoopCondition.hasMore());
+            assertEquals(i, forLoopCondition.next().get());
+        }
+        assertFalse(forLoopCondition.hasMore());
+    }
+}
@@ -0,0 +1,55 @@
+/*******************************************************************************
+ * (c) Copyright 2016 Hewlett-Packard Development Company, L.P.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Apache License v2.0 which accompany this distribution.
+ *
+ * The Apache License is available at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *******************************************************************************/
+package io.cloudslang.lang.runtime.env;
+
+import io.cloudslang.lang.entities.bindings.values.Value;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+import org.apache.commons.lang3.SerializationUtils;
+import org.junit.Test;
+import org.python.core.PyObject;
+import org.python.core.PyXRange;
+
+import static org.junit.Assert.assertEquals;
+
+public class RangeLoopCollectionTest {
+
+    @Test
+    public void testSameItemsAsRange() {
+        assertSameItems(new PyXRange(0));
+        assertSameItems(new PyXRange(1));
+        assertSameItems(new PyXRange(10));
+        assertSameItems(new PyXRange(-3, 4));
+        assertSameItems(new PyXRange(10, 0, -3));
+        assertSameItems(new PyXRange(5, 50, 7));
+        assertSameItems(new PyXRange(Integer.MAX_VALUE - 2, Integer.MAX_VALUE));
+    }
+
+    @Test
+    public void testSerializedForm() {
+        RangeLoopCollection range = RangeLoopCollection.of(new PyXRange(0, 100000, 2));
+        RangeLoopCollection restored = SerializationUtils.clone(range);
+        assertEquals(50000, restored.size());
+        assertEquals(range.get(49999).get(), restored.get(49999).get());
+    }
+
+    private void assertSameItems(PyXRange range) {
+        List<Serializable> expected = new ArrayList<>();
+        for (PyObject item : range.asIterable()) {
+            expected.add(item);
+        }
+        List<Serializable> actual = new ArrayList<>();
+        for (Value value : RangeLoopCollection.of(range)) {
+            actual.add(value.get());
+        }
+        assertEquals(range.toString(), expected, actual);
+    }
+}
@@ -0,0 +1,52 @@
+/*******************************************************************************
+ * (c) Copyright 2016 Hewlett-Packard Development Company, L.P.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Apache License v2.0 which accompany this distribution.
+ *
+ * The Apache License is available at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *******************************************************************************/
+package io.cloudslang.lang.runtime.env;
+
+import io.cloudslang.lang.entities.SystemProperty;
+import io.cloudslang.lang.entities.bindings.values.Value;
+import io.cloudslang.lang.entities.bindings.values.ValueFactory;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Set;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+public class RunEnvironmentTest {
+
+    @Test
+    public void testBranchEnvironment() {
+        Set<SystemProperty> systemProperties = new HashSet<>();
+        systemProperties.add(new SystemProperty("a.b", "c", "value"));
+        RunEnvironment runEnvironment = new RunEnvironment(systemProperties);
+        runEnvironment.getStack().pushContext(new Context(new HashMap<String, Value>()));
+        runEnvironment.getParentFlowStack().pushParentFlowData(new ParentFlowData(1L, 2L));
+        runEnvironment.putCallArguments(Collections.singletonMap("arg", ValueFactory.create("value")));
+        runEnvironment.putNextStepPosition(3L);
+        runEnvironment.getExecutionPath().down();
+        runEnvironment.getExecutionPath().forward();
+
+        RunEnvironment branchEnvironment = runEnvironment.createBranchEnvironment();
+
+        assertSame(systemProperties, branchEnvironment.getSystemProperties());
+        assertNull(branchEnvironment.getStack().popContext());
+        assertNull(branchEnvironment.getParentFlowStack().popParentFlowData());
+        assertEquals(3L, (long) branchEnvironment.removeNextStepPosition());
+        assertEquals("0.1", branchEnvironment.getExecutionPath().getCurrentPath());
+        assertEquals("value", branchEnvironment.removeCallArguments().get("arg").get());
+
+        branchEnvironment.getExecutionPath().forward();
+        assertEquals("0.1", runEnvironment.getExecutionPath().getCurrentPath());
+        assertEquals("value", runEnvironment.removeCallArguments().get("arg").get());
+    }
+}
@@ -0,0 +1,55 @@
+/*******************************************************************************
+ * (c) Copyright 2016 Hewlett-Packard Development Company, L.P.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Apache License v2.0 which accompany this distribution.
+ *
+ * The Apache License is available at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *******************************************************************************/
+package io.cloudslang.lang.runtime.env;
+
+import io.cloudslang.lang.entities.bindings.values.Value;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.apache.commons.lang3.SerializationUtils;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class SplitStringLoopCollectionTest {
+
+    @Test
+    public void testSameItemsAsSplit() {
+        List<String> contents = Arrays.asList("", ",", ",,,", "a", "a,b,c", ",a", "a,", "a,,", "a,,b", ",,a,,b,,",
+                " a , b ", "a;b");
+        for (String content : contents) {
+            assertEquals(content, Arrays.asList(content.split(",")), toStrings(new SplitStringLoopCollection(content)));
+        }
+    }
+
+    @Test
+    public void testIteratesAgain() {
+        SplitStringLoopCollection collection = new SplitStringLoopCollection("1,2,3");
+        assertEquals(toStrings(collection), toStrings(collection));
+    }
+
+    @Test
+    public void testSerializedLoopContinues() {
+        ForLoopCondition forLoopCondition = new ForLoopCondition(new SplitStringLoopCollection("1,2,3"));
+        forLoopCondition.next();
+        ForLoopCondition restored = SerializationUtils.clone(forLoopCondition);
+        assertEquals(forLoopCondition, restored);
+        assertEquals("2", restored.next().get());
+        assertEquals("3", restored.next().get());
+    }
+
+    private List<String> toStrings(Iterable<Value> values) {
+        List<String> strings = new ArrayList<>();
+        for (Value value : values) {
+            strings.add((String) value.get());
+        }
+        return strings;
+    }
+}
@@ -25,6 +25,8 @@ import io.cloudslang.lang.entities.encryption.DummyEncryptor;
 import io.cloudslang.lang.runtime.bindings.InputsBinding;
 import io.cloudslang.lang.runtime.bindings.OutputsBinding;
 import io.cloudslang.lang.runtime.bindings.ResultsBinding;
+import io.cloudslang.lang.runtime.bindings.scripts.ExpressionBinding;
+import io.cloudslang.lang.runtime.bindings.scripts.ExpressionCache;
 import io.cloudslang.lang.runtime.bindings.scripts.ScriptEvaluator;
 import io.cloudslang.lang.runtime.env.ParentFlowData;
 import io.cloudslang.lang.runtime.env.ReturnValues;
@@ -39,6 +41,7 @@ import io.cloudslang.score.events.EventBusImpl;
 import io.cloudslang.score.events.ScoreEvent;
 import io.cloudslang.score.lang.ExecutionRuntimeServices;
 import junit.framework.Assert;
+import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -51,6 +54,7 @@ import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
@@ -58,12 +62,15 @@ import java.util.Map;
 import java.util.Set;
 
 import static java.util.Collections.singletonList;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyListOf;
 import static org.mockito.Matchers.anyMap;
 import static org.mockito.Matchers.anyMapOf;
 import static org.mockito.Matchers.anySet;
 import static org.mockito.Matchers.eq;
 import static org.mockito.Matchers.isNull;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @RunWith(SpringJUnit4ClassRunner.class)
@@ -82,6 +89,19 @@ public class ExecutableStepsTest {
     @Autowired
     private OutputsBinding outputsBinding;
 
+    @Autowired
+    private ScriptEvaluator scriptEvaluator;
+
+    @Before
+    public void setUp() {
+        ResultsBinding.ResultBindings resultBindings = resultBindings(null);
+        when(resultsBinding.createResultBindings(anyListOf(Result.class), any(String.class)))
+            .thenReturn(resultBindings);
+        OutputsBinding.OutputBindings outputBindings = outputBindings(new HashMap<String, Value>());
+        when(outputsBinding.createOutputBindings(anyMapOf(String.class, Value.class), anyListOf(Output.class)))
+            .thenReturn(outputBindings);
+    }
+
     @Test
     public void testStart() throws Exception {
         executableSteps.startExecutable(new ArrayList<Input>(), new RunEnvironment(),
@@ -186,13 +206,11 @@ public class ExecutableStepsTest {
         runEnv.putReturnValues(new ReturnValues(new HashMap<String, Value>(), null));
         runEnv.getExecutionPath().down();
 
-        when(resultsBinding.resolveResult(
-            isNull(Map.class),
-            anyMapOf(String.class, Value.class),
-            eq(runEnv.getSystemProperties()),
+        ResultsBinding.ResultBindings resultBindings = resultBindings(ScoreLangConstants.SUCCESS_RESULT);
+        when(resultsBinding.createResultBindings(
             eq(results),
             isNull(String.class)
-        )).thenReturn(ScoreLangConstants.SUCCESS_RESULT);
+        )).thenReturn(resultBindings);
         executableSteps.finishExecutable(runEnv, new ArrayList<Output>(), results,
             new ExecutionRuntimeServices(), "", ExecutableType.FLOW);
 
@@ -210,11 +228,11 @@ public class ExecutableStepsTest {
         Map<String, Value> boundOutputs = new HashMap<>();
         boundOutputs.put("name", ValueFactory.create("John"));
 
-        when(outputsBinding.bindOutputs(
+        OutputsBinding.OutputBindings outputBindings = outputBindings(boundOutputs);
+        when(outputsBinding.createOutputBindings(
             anyMapOf(String.class, Value.class),
-            eq(runEnv.getSystemProperties()),
             eq(possibleOutputs)
-        )).thenReturn(boundOutputs);
+        )).thenReturn(outputBindings);
         executableSteps.finishExecutable(runEnv, possibleOutputs, new ArrayList<Result>(),
             new ExecutionRuntimeServices(), "", ExecutableType.FLOW);
 
@@ -263,18 +281,16 @@ public class ExecutableStepsTest {
         boundOutputs.put("name", ValueFactory.create("John"));
         String boundResult = ScoreLangConstants.SUCCESS_RESULT;
 
-        when(outputsBinding.bindOutputs(
+        OutputsBinding.OutputBindings outputBindings = outputBindings(boundOutputs);
+        when(outputsBinding.createOutputBindings(
             anyMapOf(String.class, Value.class),
-            eq(runEnv.getSystemProperties()),
             eq(possibleOutputs)
-        )).thenReturn(boundOutputs);
-        when(resultsBinding.resolveResult(
-            isNull(Map.class),
-            anyMapOf(String.class, Value.class),
-            eq(runEnv.getSystemProperties()),
+        )).thenReturn(outputBindings);
+        ResultsBinding.ResultBindings resultBindings = resultBindings(boundResult);
+        when(resultsBinding.createResultBindings(
             eq(possibleResults),
             isNull(String.class)
-        )).thenReturn(boundResult);
+        )).thenReturn(resultBindings);
 
         ExecutionRuntimeServices runtimeServices = new ExecutionRuntimeServices();
         executableSteps.finishExecutable(runEnv, possibleOutputs, possibleResults,
@@ -327,6 +343,48 @@ public class ExecutableStepsTest {
 
     }
 
+    @Test
+    public void testFinishExecutableEvaluatesResultsAndOutputsTogether() {
+        final List<Output> possibleOutputs = singletonList(new Output("name", ValueFactory.create("${ name }")));
+        final List<Result> possibleResults = singletonList(new Result(ScoreLangConstants.SUCCESS_RESULT,
+            ValueFactory.create("${ True }")));
+        RunEnvironment runEnv = new RunEnvironment();
+        runEnv.putReturnValues(new ReturnValues(new HashMap<String, Value>(), null));
+        runEnv.getExecutionPath().down();
+
+        ExpressionBinding resultBinding = mock(ExpressionBinding.class);
+        ExpressionBinding outputBinding = mock(ExpressionBinding.class);
+        ResultsBinding.ResultBindings resultBindings = resultBindings(ScoreLangConstants.SUCCESS_RESULT);
+        when(resultBindings.getBindings()).thenReturn(singletonList(resultBinding));
+        OutputsBinding.OutputBindings outputBindings = outputBindings(new HashMap<String, Value>());
+        when(outputBindings.getBindings()).thenReturn(singletonList(outputBinding));
+        when(resultsBinding.createResultBindings(eq(possibleResults), isNull(String.class)))
+            .thenReturn(resultBindings);
+        when(outputsBinding.createOutputBindings(anyMapOf(String.class, Value.class), eq(possibleOutputs)))
+            .thenReturn(outputBindings);
+
+        executableSteps.finishExecutable(runEnv, possibleOutputs, possibleResults,
+            new ExecutionRuntimeServices(), "", ExecutableType.FLOW);
+
+        verify(scriptEvaluator).evalExprs(eq(Arrays.asList(resultBinding, outputBinding)),
+            anyMapOf(String.class, Value.class), eq(runEnv.getSystemProperties()));
+        Assert.assertEquals(ScoreLangConstants.SUCCESS_RESULT, runEnv.removeReturnValues().getResult());
+    }
+
+    private ResultsBinding.ResultBindings resultBindings(String result) {
+        ResultsBinding.ResultBindings resultBindings = mock(ResultsBinding.ResultBindings.class);
+        when(resultBindings.getBindings()).thenReturn(Collections.<ExpressionBinding>emptyList());
+        when(resultBindings.getResult()).thenReturn(result);
+        return resultBindings;
+    }
+
+    private OutputsBinding.OutputBindings outputBindings(Map<String, Value> outputs) {
+        OutputsBinding.OutputBindings outputBindings = mock(OutputsBinding.OutputBindings.class);
+        when(outputBindings.getBindings()).thenReturn(Collections.<ExpressionBinding>emptyList());
+        when(outputBindings.getOutputs()).thenReturn(outputs);
+        return outputBindings;
+    }
+
     @Configuration
     static class Config {
 
@@ -350,6 +408,11 @@ public class ExecutableStepsTest {
             return mock(ScriptEvaluator.class);
         }
 
+        @Bean
+        public ExpressionCache expressionCache() {
+            return mock(ExpressionCache.class);
+        }
+
         @Bean
         public DependencyService mavenRepositoryService() {
             return new DependencyServiceImpl();
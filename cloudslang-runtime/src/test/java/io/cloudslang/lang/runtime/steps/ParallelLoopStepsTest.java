@@ -26,6 +26,7 @@ import io.cloudslang.lang.runtime.RuntimeConstants;
 import io.cloudslang.lang.runtime.bindings.LoopsBinding;
 import io.cloudslang.lang.runtime.bindings.OutputsBinding;
 import io.cloudslang.lang.runtime.bindings.ParallelLoopBinding;
+import io.cloudslang.lang.runtime.bindings.scripts.ExpressionCache;
 import io.cloudslang.lang.runtime.bindings.scripts.ScriptEvaluator;
 import io.cloudslang.lang.runtime.env.Context;
 import io.cloudslang.lang.runtime.env.ReturnValues;
@@ -135,7 +136,9 @@ public class ParallelLoopStepsTest {
             1234L,
             5L,
             branchBeginStepId,
-            refId
+            refId,
+            null,
+            null
         );
 
         // verify expected behaviour
@@ -191,7 +194,9 @@ public class ParallelLoopStepsTest {
             1234L,
             5L,
             branchBeginStepId,
-            refId
+            refId,
+            null,
+            null
         );
 
         // verify expected behaviour
@@ -466,6 +471,168 @@ public class ParallelLoopStepsTest {
         );
     }
 
+    @Test
+    public void testJoinBranchesKeepsOnlyResultsWhenBranchesContextIsNotPublished() throws Exception {
+        RunEnvironment runEnvironment = new RunEnvironment();
+        runEnvironment.getExecutionPath().down();
+        runEnvironment.getStack().pushContext(new Context(new HashMap<String, Value>()));
+
+        Map<String, ResultNavigation> stepNavigationValues = new HashMap<>();
+        stepNavigationValues.put(ScoreLangConstants.SUCCESS_RESULT,
+            new ResultNavigation(0L, ScoreLangConstants.SUCCESS_RESULT));
+
+        Map<String, Serializable> runtimeContext1 = new HashMap<>();
+        runtimeContext1.put("branch1Output", 1);
+        Map<String, Serializable> runtimeContext2 = new HashMap<>();
+        runtimeContext2.put("branch2Output", 2);
+        Map<String, Serializable> runtimeContext3 = new HashMap<>();
+        runtimeContext3.put("branch3Output", 3);
+
+        List<Output> stepPublishValues = newArrayList(new Output("outputName",
+            ValueFactory.create("${ get_sp('a.b.c') }"), new HashSet<ScriptFunction>(), new HashSet<String>(),
+            new HashSet<String>()));
+        ExecutionRuntimeServices executionRuntimeServices =
+            createAndConfigureExecutionRuntimeServicesMock(runtimeContext1, runtimeContext2, runtimeContext3);
+
+        parallelLoopSteps.joinBranches(runEnvironment, executionRuntimeServices,
+            stepPublishValues, stepNavigationValues, "nodeName");
+
+        ArgumentCaptor<Map> aggregateContextArgumentCaptor = ArgumentCaptor.forClass(Map.class);
+        //noinspection unchecked
+        verify(outputsBinding).bindOutputs(
+            aggregateContextArgumentCaptor.capture(),
+            eq(runEnvironment.getSystemProperties()),
+            eq(stepPublishValues)
+        );
+        @SuppressWarnings("unchecked")
+        List<Map<String, Serializable>> actualBranchesContexts = (List<Map<String, Serializable>>)
+            ((Map<String, Value>) aggregateContextArgumentCaptor.getValue())
+                .get(RuntimeConstants.BRANCHES_CONTEXT_KEY).get();
+        Assert.assertEquals(3, actualBranchesContexts.size());
+        for (Map<String, Serializable> branchContext : actualBranchesContexts) {
+            Assert.assertEquals(1, branchContext.size());
+            Assert.assertEquals(SUCCESS_RESULT, branchContext.get(ScoreLangConstants.BRANCH_RESULT_KEY));
+        }
+        Assert.assertEquals(SUCCESS_RESULT, runEnvironment.removeReturnValues().getResult());
+    }
+
+    @Test
+    public void testBranchesAreCreatedInWavesOfMaxBranches() throws Exception {
+        ListLoopStatement parallelLoopStatement = new ListLoopStatement("varName", "expression",
+            new HashSet<ScriptFunction>(), new HashSet<String>(), true);
+        RunEnvironment runEnvironment = new RunEnvironment();
+        Context context = new Context(new HashMap<String, Value>());
+        runEnvironment.getStack().pushContext(context);
+        List<Value> splitData = newArrayList(ValueFactory.create(1), ValueFactory.create(2), ValueFactory.create(3));
+        when(parallelLoopBinding.bindParallelLoopList(eq(parallelLoopStatement),
+            eq(context), eq(runEnvironment.getSystemProperties()), eq("nodeName")))
+            .thenReturn(splitData);
+
+        Map<String, ResultNavigation> stepNavigationValues = new HashMap<>();
+        stepNavigationValues.put(ScoreLangConstants.SUCCESS_RESULT,
+            new ResultNavigation(0L, ScoreLangConstants.SUCCESS_RESULT));
+        final List<Output> stepPublishValues =
+            newArrayList(new Output("outputName", ValueFactory.create("outputExpression")));
+
+        // first wave
+        ExecutionRuntimeServices firstWaveServices = mock(ExecutionRuntimeServices.class);
+        parallelLoopSteps.addBranches(parallelLoopStatement, runEnvironment, firstWaveServices, "nodeName",
+            1234L, 5L, 3L, "branch_id", 2, 2L);
+        List<RunEnvironment> firstWave = captureBranches(firstWaveServices, 2);
+        Assert.assertEquals(5, (long) runEnvironment.removeNextStepPosition());
+
+        when(firstWaveServices.getFinishedChildBranchesData()).thenReturn(finishBranches(firstWave));
+        parallelLoopSteps.joinBranches(runEnvironment, firstWaveServices,
+            stepPublishValues, stepNavigationValues, "nodeName");
+        Assert.assertEquals(2, (long) runEnvironment.removeNextStepPosition());
+        Assert.assertNull(runEnvironment.removeReturnValues());
+
+        // second wave
+        ExecutionRuntimeServices secondWaveServices = mock(ExecutionRuntimeServices.class);
+        parallelLoopSteps.addBranches(parallelLoopStatement, runEnvironment, secondWaveServices, "nodeName",
+            1234L, 5L, 3L, "branch_id", 2, 2L);
+        List<RunEnvironment> secondWave = captureBranches(secondWaveServices, 1);
+        Assert.assertEquals(5, (long) runEnvironment.removeNextStepPosition());
+
+        when(secondWaveServices.getFinishedChildBranchesData()).thenReturn(finishBranches(secondWave));
+        parallelLoopSteps.joinBranches(runEnvironment, secondWaveServices,
+            stepPublishValues, stepNavigationValues, "nodeName");
+        Assert.assertEquals(0, (long) runEnvironment.removeNextStepPosition());
+        Assert.assertEquals(SUCCESS_RESULT, runEnvironment.removeReturnValues().getResult());
+
+        // the split list is bound once and the branches keep their order and paths across the waves
+        verify(parallelLoopBinding).bindParallelLoopList(eq(parallelLoopStatement), eq(context),
+            eq(runEnvironment.getSystemProperties()), eq("nodeName"));
+        Assert.assertEquals("0.0", firstWave.get(0).getExecutionPath().getCurrentPath());
+        Assert.assertEquals("0.1", firstWave.get(1).getExecutionPath().getCurrentPath());
+        Assert.assertEquals("0.2", secondWave.get(0).getExecutionPath().getCurrentPath());
+        Assert.assertEquals("1", runEnvironment.getExecutionPath().getCurrentPath());
+
+        ArgumentCaptor<Map> aggregateContextArgumentCaptor = ArgumentCaptor.forClass(Map.class);
+        //noinspection unchecked
+        verify(outputsBinding).bindOutputs(aggregateContextArgumentCaptor.capture(),
+            eq(runEnvironment.getSystemProperties()), eq(stepPublishValues));
+        @SuppressWarnings("unchecked")
+        List<Map<String, Serializable>> actualBranchesContexts = (List<Map<String, Serializable>>)
+            ((Map<String, Value>) aggregateContextArgumentCaptor.getValue())
+                .get(RuntimeConstants.BRANCHES_CONTEXT_KEY).get();
+        Assert.assertEquals(3, actualBranchesContexts.size());
+        for (int i = 0; i < 3; i++) {
+            Assert.assertEquals(i + 1, actualBranchesContexts.get(i).get("varName"));
+        }
+        Assert.assertNull(runEnvironment.getStack().popContext()
+            .getLanguageVariable(RuntimeConstants.PENDING_BRANCHES_KEY));
+    }
+
+    @Test
+    public void testDefaultMaxBranchesIsIgnoredForPlansWithoutAddBranchesStepId() throws Exception {
+        ListLoopStatement parallelLoopStatement = new ListLoopStatement("varName", "expression",
+            new HashSet<ScriptFunction>(), new HashSet<String>(), true);
+        RunEnvironment runEnvironment = new RunEnvironment();
+        Context context = new Context(new HashMap<String, Value>());
+        runEnvironment.getStack().pushContext(context);
+        when(parallelLoopBinding.bindParallelLoopList(eq(parallelLoopStatement),
+            eq(context), eq(runEnvironment.getSystemProperties()), eq("nodeName")))
+            .thenReturn(newArrayList(ValueFactory.create(1), ValueFactory.create(2), ValueFactory.create(3)));
+
+        ExecutionRuntimeServices executionRuntimeServices = mock(ExecutionRuntimeServices.class);
+        parallelLoopSteps.setDefaultMaxBranches(1);
+        try {
+            parallelLoopSteps.addBranches(parallelLoopStatement, runEnvironment, executionRuntimeServices,
+                "nodeName", 1234L, 5L, 3L, "branch_id", null, null);
+        } finally {
+            parallelLoopSteps.setDefaultMaxBranches(0);
+        }
+
+        captureBranches(executionRuntimeServices, 3);
+        Assert.assertNull(runEnvironment.getStack().popContext()
+            .getLanguageVariable(RuntimeConstants.PENDING_BRANCHES_KEY));
+    }
+
+    private List<RunEnvironment> captureBranches(ExecutionRuntimeServices executionRuntimeServices, int count) {
+        ArgumentCaptor<Map> branchContextArgumentCaptor = ArgumentCaptor.forClass(Map.class);
+        //noinspection unchecked
+        verify(executionRuntimeServices, times(count))
+            .addBranch(eq(3L), eq("branch_id"), branchContextArgumentCaptor.capture());
+        List<RunEnvironment> branches = new ArrayList<>();
+        for (Map branchContext : branchContextArgumentCaptor.getAllValues()) {
+            branches.add((RunEnvironment) branchContext.get(ScoreLangConstants.RUN_ENV));
+        }
+        return branches;
+    }
+
+    private List<EndBranchDataContainer> finishBranches(List<RunEnvironment> branches) {
+        List<EndBranchDataContainer> branchesContainers = new ArrayList<>();
+        for (RunEnvironment branch : branches) {
+            branch.putReturnValues(new ReturnValues(new HashMap<String, Value>(), SUCCESS_RESULT));
+            Map<String, Serializable> branchContext = new HashMap<>();
+            branchContext.put(ScoreLangConstants.RUN_ENV, branch);
+            branchesContainers.add(
+                new EndBranchDataContainer(branchContext, new HashMap<String, Serializable>(), null));
+        }
+        return branchesContainers;
+    }
+
     private ExecutionRuntimeServices createAndConfigureExecutionRuntimeServicesMock(
         Map<String, Serializable> runtimeContext1,
         Map<String, Serializable> runtimeContext2,
@@ -572,6 +739,11 @@ public class ParallelLoopStepsTest {
             return mock(ScriptEvaluator.class);
         }
 
+        @Bean
+        public ExpressionCache expressionCache() {
+            return mock(ExpressionCache.class);
+        }
+
         @Bean
         public DependencyService mavenRepositoryService() {
             return new DependencyServiceImpl();
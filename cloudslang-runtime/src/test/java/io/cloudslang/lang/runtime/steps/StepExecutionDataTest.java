@@ -26,6 +26,7 @@ import io.cloudslang.lang.entities.encryption.DummyEncryptor;
 import io.cloudslang.lang.runtime.bindings.ArgumentsBinding;
 import io.cloudslang.lang.runtime.bindings.LoopsBinding;
 import io.cloudslang.lang.runtime.bindings.OutputsBinding;
+import io.cloudslang.lang.runtime.bindings.scripts.ExpressionCache;
 import io.cloudslang.lang.runtime.bindings.scripts.ScriptEvaluator;
 import io.cloudslang.lang.runtime.env.Context;
 import io.cloudslang.lang.runtime.env.ForLoopCondition;
@@ -529,6 +530,11 @@ public class StepExecutionDataTest {
             return mock(ScriptEvaluator.class);
         }
 
+        @Bean
+        public ExpressionCache expressionCache() {
+            return mock(ExpressionCache.class);
+        }
+
         @Bean
         public DependencyService mavenRepositoryService() {
             return new DependencyServiceImpl();
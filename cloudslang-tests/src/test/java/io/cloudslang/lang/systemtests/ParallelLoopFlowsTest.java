@@ -110,6 +110,28 @@ public class ParallelLoopFlowsTest extends SystemsTestsParent {
         verifyPublishValues(runtimeInformation, expectedNameOutputs);
     }
 
+    @Test
+    public void testFlowWithParallelLoopMaxBranches() throws Exception {
+        URI resource = getClass().getResource("/yaml/loops/parallel_loop/parallel_loop_max_branches.sl").toURI();
+        URI operation1 = getClass().getResource("/yaml/loops/parallel_loop/print_branch.sl").toURI();
+        Set<SlangSource> path = newHashSet(fromFile(operation1));
+
+        RuntimeInformation runtimeInformation = triggerWithData(
+                fromFile(resource),
+                path,
+                getSystemProperties()
+        );
+
+        List<StepData> branchesData = extractParallelLoopData(runtimeInformation);
+        Assert.assertEquals("incorrect number of branches", 3, branchesData.size());
+
+        List<String> expectedNameOutputs = verifyBranchPublishValues(branchesData);
+
+        verifyPublishValues(runtimeInformation, expectedNameOutputs);
+        Assert.assertEquals("3", runtimeInformation.getParallelSteps().get(FIRST_STEP_PATH).getOutputs()
+                .get("number_from_last_branch"));
+    }
+
     @Test
     public void testFlowBranchResults() throws Exception {
         URI resource = getClass().getResource("/yaml/loops/parallel_loop/parallel_loop_branch_result.sl").toURI();